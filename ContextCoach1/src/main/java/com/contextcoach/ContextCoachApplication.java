@@ -3,9 +3,11 @@ package com.contextcoach;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableRetry
+@EnableScheduling
 public class ContextCoachApplication {
     public static void main(String[] args) {
         SpringApplication.run(ContextCoachApplication.class, args);
@@ -0,0 +1,46 @@
+package com.contextcoach.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.Requirement;
+
+/**
+ * Configuration class to give documents written before optimistic locking a version
+ */
+@Configuration
+public class DocumentVersionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersionConfig.class);
+
+    /**
+     * Sets version 0 on every versioned document that has none. Spring Data treats an
+     * entity without a version as new, so saving such a document would insert a duplicate.
+     * Doesn't run in the "test" profile to avoid affecting tests
+     */
+    @Bean
+    @Profile("!test")
+    public CommandLineRunner backfillDocumentVersions(MongoTemplate mongoTemplate) {
+        return args -> {
+            for (Class<?> type : List.of(DeveloperProfile.class, Requirement.class, JiraTicket.class)) {
+                long updated = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L), type).getModifiedCount();
+                if (updated > 0) {
+                    logger.info("Set an initial version on {} {} documents", updated, type.getSimpleName());
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.contextcoach.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the bounded thread pool used for story point estimation
+ */
+@Configuration
+public class EstimationExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstimationExecutorConfig.class);
+
+    /**
+     * Creates the estimation executor. Estimates are LLM calls that mostly wait on the
+     * network, so the pool is sized by how many concurrent calls the LLM API should
+     * receive rather than by the processors. Callers run an estimate themselves when the
+     * queue is full, which slows a large bulk request down instead of failing it.
+     *
+     * @param poolSize The number of concurrent estimates
+     * @param queueCapacity The maximum number of queued estimates
+     * @return The estimation executor
+     */
+    @Bean(name = "estimationExecutor")
+    public ThreadPoolTaskExecutor estimationExecutor(
+            @Value("${contextcoach.estimation.pool-size:8}") int poolSize,
+            @Value("${contextcoach.estimation.queue-capacity:64}") int queueCapacity) {
+        int threads = Math.max(poolSize, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("estimation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        logger.info("Estimation executor configured with {} threads and queue capacity {}", threads, queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.contextcoach.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the bounded thread pool used for CPU-heavy document extraction
+ */
+@Configuration
+public class ExtractionExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionExecutorConfig.class);
+
+    /**
+     * Creates the extraction executor, the single CPU-bound pool all extraction runs on:
+     * uploads in heavy formats, the files of a bulk ingestion and the parts of one
+     * document, such as the page ranges of a PDF or the sheets of a workbook. The pool is
+     * sized to the available processors unless configured otherwise.
+     * <p>
+     * Extraction tasks nest, since a task extracting a PDF starts the tasks for its page
+     * ranges, yet they cannot deadlock the pool. Nested work goes through DocumentParts,
+     * where the waiting thread first runs every part no worker has started itself, so it
+     * only ever waits for parts that are running, and parts never wait on anything. When
+     * the queue is full the submission is rejected: DocumentParts then runs the part on the
+     * calling thread, and uploads are answered with 503, so request threads are never used
+     * to drain the queue.
+     *
+     * @param poolSize The number of worker threads (0 means one per available processor)
+     * @param queueCapacity The maximum number of queued extraction tasks
+     * @return The extraction executor
+     */
+    @Bean(name = "extractionExecutor")
+    public ThreadPoolTaskExecutor extractionExecutor(
+            @Value("${contextcoach.extraction.pool-size:0}") int poolSize,
+            @Value("${contextcoach.extraction.queue-capacity:256}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("extraction-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        logger.info("Extraction executor configured with {} threads and queue capacity {}", threads, queueCapacity);
+        return executor;
+    }
+}
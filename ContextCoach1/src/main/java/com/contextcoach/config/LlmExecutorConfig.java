@@ -0,0 +1,64 @@
+package com.contextcoach.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the thread pools behind non-blocking LLM calls
+ */
+@Configuration
+public class LlmExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmExecutorConfig.class);
+
+    /**
+     * Creates the executor of the non-blocking LLM HTTP client. It only runs response
+     * handling and retry scheduling, never waits on the network, so a couple of threads
+     * serve any number of concurrent calls. Nothing that blocks may run on it.
+     *
+     * @param poolSize The number of IO threads
+     * @return The LLM IO executor
+     */
+    @Bean(name = "llmIoExecutor")
+    public ThreadPoolTaskExecutor llmIoExecutor(@Value("${contextcoach.llm.io-threads:2}") int poolSize) {
+        int threads = Math.max(poolSize, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("llm-io-");
+        logger.info("LLM IO executor configured with {} threads", threads);
+        return executor;
+    }
+
+    /**
+     * Creates the executor that persists LLM results. Saving a result is a blocking
+     * MongoDB write, so it is moved off the LLM IO threads. The queue holds a result for
+     * every call that may be in flight, and a result that does not fit is rejected rather
+     * than run by the caller, which would be an LLM IO thread.
+     *
+     * @param poolSize The number of concurrent writes
+     * @param queueCapacity The maximum number of queued writes
+     * @return The LLM callback executor
+     */
+    @Bean(name = "llmCallbackExecutor")
+    public ThreadPoolTaskExecutor llmCallbackExecutor(
+            @Value("${contextcoach.llm.callback.pool-size:8}") int poolSize,
+            @Value("${contextcoach.llm.callback.queue-capacity:${contextcoach.llm.max-in-flight:1000}}") int queueCapacity) {
+        int threads = Math.max(poolSize, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("llm-callback-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        logger.info("LLM callback executor configured with {} threads and queue capacity {}", threads, queueCapacity);
+        return executor;
+    }
+}
@@ -33,7 +33,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
         // Configure CORS for development
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000", "http://localhost:3007") // Frontend URLs
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
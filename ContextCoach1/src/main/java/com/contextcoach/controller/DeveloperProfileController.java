@@ -1,6 +1,7 @@
 package com.contextcoach.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,15 +9,20 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperProfilePatch;
+import com.contextcoach.model.DeveloperWorkload;
 import com.contextcoach.service.DeveloperProfileService;
+import com.contextcoach.service.DeveloperWorkloadService;
 
 @RestController
 @RequestMapping("/api/developers")
@@ -24,9 +30,12 @@ public class DeveloperProfileController {
 
     private static final Logger logger = LoggerFactory.getLogger(DeveloperProfileController.class);
     private final DeveloperProfileService developerProfileService;
+    private final DeveloperWorkloadService developerWorkloadService;
 
-    public DeveloperProfileController(DeveloperProfileService developerProfileService) {
+    public DeveloperProfileController(DeveloperProfileService developerProfileService,
+            DeveloperWorkloadService developerWorkloadService) {
         this.developerProfileService = developerProfileService;
+        this.developerWorkloadService = developerWorkloadService;
         logger.info("DeveloperProfileController initialized");
     }
 
@@ -84,6 +93,70 @@ public class DeveloperProfileController {
         }
     }
 
+    /**
+     * Gets the workload of every developer that has tickets
+     * 
+     * @return The ticket and story point totals of each developer
+     */
+    @GetMapping("/workload")
+    public ResponseEntity<List<DeveloperWorkload>> getDeveloperWorkloads() {
+        logger.info("Getting all developer workloads");
+        try {
+            List<DeveloperWorkload> workloads = developerWorkloadService.getWorkloads();
+            logger.debug("Found {} developer workloads", workloads.size());
+            return ResponseEntity.ok(workloads);
+        } catch (Exception e) {
+            logger.error("Error getting developer workloads", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds all developer workloads from the stored tickets
+     * 
+     * @return The number of workloads rebuilt
+     */
+    @PostMapping("/workload/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDeveloperWorkloads() {
+        logger.info("Rebuilding developer workloads");
+        try {
+            int rebuilt = developerWorkloadService.rebuildWorkloads();
+            logger.info("Successfully rebuilt {} developer workloads", rebuilt);
+            return ResponseEntity.ok(Map.of("rebuiltWorkloads", rebuilt));
+        } catch (Exception e) {
+            logger.error("Error rebuilding developer workloads", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the statistics of the developer profile cache
+     * 
+     * @return Hits, misses, hit rate, invalidations and size
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getDeveloperCacheStatistics() {
+        logger.info("Getting developer profile cache statistics");
+        return ResponseEntity.ok(developerProfileService.getCacheStatistics());
+    }
+
+    /**
+     * Gets the workload of a developer
+     * 
+     * @param id The ID of the developer profile
+     * @return The ticket and story point totals of the developer
+     */
+    @GetMapping("/{id}/workload")
+    public ResponseEntity<DeveloperWorkload> getDeveloperWorkload(@PathVariable String id) {
+        logger.info("Getting workload for developer with ID: {}", id);
+        try {
+            return ResponseEntity.ok(developerWorkloadService.getWorkload(id));
+        } catch (Exception e) {
+            logger.error("Error getting workload for developer with ID: {}", id, e);
+            throw e;
+        }
+    }
+
     /**
      * Gets a developer profile by ID
      * 
@@ -176,6 +249,33 @@ public class DeveloperProfileController {
         }
     }
 
+    /**
+     * Searches developer profiles with a boolean skill expression
+     * 
+     * @param query The skill expression, e.g. Java AND (Spring OR Quarkus) AND NOT experience:Junior
+     * @param experienceLevels The experience levels to keep (optional)
+     * @param limit The maximum number of profiles to return (optional)
+     * @return The matching developer profiles, most productive first
+     */
+    @GetMapping("/search/skills")
+    public ResponseEntity<List<DeveloperProfile>> searchDeveloperProfilesBySkills(
+            @RequestParam(value = "query", required = false) String query,
+            @RequestParam(value = "experienceLevel", required = false) List<String> experienceLevels,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        logger.info("Searching developer profiles by skill expression: {}", query);
+        try {
+            List<DeveloperProfile> profiles = developerProfileService.searchDeveloperProfiles(query, experienceLevels, limit);
+            logger.debug("Found {} developer profiles matching skill expression: {}", profiles.size(), query);
+            return ResponseEntity.ok(profiles);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid skill expression: {}", query);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error searching developer profiles by skill expression: {}", query, e);
+            throw e;
+        }
+    }
+
     /**
      * Updates a developer profile
      * 
@@ -215,6 +315,32 @@ public class DeveloperProfileController {
         }
     }
 
+    /**
+     * Partially updates a developer profile. Send the version last read to be rejected
+     * with 409 Conflict if the profile has changed since.
+     * 
+     * @param id The ID of the developer profile to update
+     * @param patch The fields to change
+     * @return The updated developer profile
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<DeveloperProfile> patchDeveloperProfile(
+            @PathVariable String id,
+            @RequestBody DeveloperProfilePatch patch) {
+        logger.info("Patching developer profile with ID: {}", id);
+        try {
+            DeveloperProfile profile = developerProfileService.patchDeveloperProfile(id, patch);
+            logger.info("Successfully patched developer profile with ID: {}", id);
+            return ResponseEntity.ok(profile);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid patch for developer profile with ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error patching developer profile with ID: {}", id, e);
+            throw e;
+        }
+    }
+
     /**
      * Deletes a developer profile
      * 
@@ -8,14 +8,26 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.BulkTicketCreationReport;
 import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.JiraTicketPatch;
+import com.contextcoach.model.JiraTicketRequest;
+import com.contextcoach.model.SyncWatermark;
+import com.contextcoach.model.TicketAssignmentPlan;
+import com.contextcoach.model.TicketAssignmentRequest;
+import com.contextcoach.service.JiraPullSyncService;
 import com.contextcoach.service.JiraService;
+import com.contextcoach.service.TicketAssignmentService;
 
 @RestController
 @RequestMapping("/api/jira")
@@ -23,9 +35,14 @@ public class JiraController {
 
     private static final Logger logger = LoggerFactory.getLogger(JiraController.class);
     private final JiraService jiraService;
+    private final JiraPullSyncService jiraPullSyncService;
+    private final TicketAssignmentService ticketAssignmentService;
 
-    public JiraController(JiraService jiraService) {
+    public JiraController(JiraService jiraService, JiraPullSyncService jiraPullSyncService,
+            TicketAssignmentService ticketAssignmentService) {
         this.jiraService = jiraService;
+        this.jiraPullSyncService = jiraPullSyncService;
+        this.ticketAssignmentService = ticketAssignmentService;
         logger.info("JiraController initialized");
     }
 
@@ -62,6 +79,69 @@ public class JiraController {
         }
     }
 
+    /**
+     * Creates Jira tickets for many requirements at once
+     * 
+     * @param requests The tickets to create
+     * @return The outcome of each requested ticket, in request order
+     */
+    @PostMapping("/tickets/bulk")
+    public ResponseEntity<BulkTicketCreationReport> createJiraTickets(@RequestBody List<JiraTicketRequest> requests) {
+        logger.info("Creating {} Jira tickets in bulk", requests != null ? requests.size() : 0);
+        try {
+            BulkTicketCreationReport report = jiraService.createJiraTickets(requests);
+            logger.info("Bulk ticket creation created {} tickets", report.getCreatedCount());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error creating Jira tickets in bulk: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Unexpected error creating Jira tickets in bulk", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Assigns unassigned tickets to developers by skills, productivity and capacity
+     * 
+     * @param request The tickets and developers to assign, and whether to save the result
+     * @return The assignment and the resulting load of each developer
+     */
+    @PostMapping("/tickets/assignments")
+    public ResponseEntity<TicketAssignmentPlan> assignJiraTickets(@RequestBody(required = false) TicketAssignmentRequest request) {
+        logger.info("Computing ticket assignments");
+        try {
+            TicketAssignmentPlan plan = ticketAssignmentService.assignTickets(request);
+            logger.info("Computed assignments for {} tickets", plan.getAssignments().size());
+            return ResponseEntity.ok(plan);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error computing ticket assignments: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Unexpected error computing ticket assignments", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Pulls the issues updated in Jira since the last sync, without waiting for the
+     * scheduled run
+     * 
+     * @return The sync watermark after the run
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<SyncWatermark> syncFromJira() {
+        logger.info("Pulling updated issues from Jira");
+        try {
+            SyncWatermark watermark = jiraPullSyncService.sync();
+            logger.info("Pulled {} issues from Jira", watermark.getLastRunItems());
+            return ResponseEntity.ok(watermark);
+        } catch (Exception e) {
+            logger.error("Error pulling updated issues from Jira", e);
+            throw e;
+        }
+    }
+
     /**
      * Gets all Jira tickets
      * 
@@ -105,6 +185,36 @@ public class JiraController {
         }
     }
 
+    /**
+     * Partially updates a Jira ticket. Send the version last read to be rejected with 409
+     * Conflict if the ticket has changed since.
+     * 
+     * @param id The ID of the ticket
+     * @param patch The fields to change
+     * @return The updated ticket
+     */
+    @PatchMapping("/tickets/{id}")
+    public ResponseEntity<JiraTicket> patchJiraTicket(@PathVariable String id, @RequestBody JiraTicketPatch patch) {
+        logger.info("Patching Jira ticket with ID: {}", id);
+        try {
+            JiraTicket ticket = jiraService.patchJiraTicket(id, patch);
+            logger.info("Successfully patched Jira ticket with ID: {}", id);
+            return ResponseEntity.ok(ticket);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error patching Jira ticket: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (ResourceNotFoundException e) {
+            logger.debug("No Jira ticket found with ID: {}", id);
+            return ResponseEntity.notFound().build();
+        } catch (ServiceException e) {
+            logger.warn("Could not patch Jira ticket with ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).build();
+        } catch (Exception e) {
+            logger.error("Unexpected error patching Jira ticket with ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Gets all Jira tickets for a requirement
      * 
@@ -1,26 +1,39 @@
 package com.contextcoach.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.contextcoach.model.AmbiguityDetectionResult;
+import com.contextcoach.model.BulkIngestionReport;
+import com.contextcoach.model.DeveloperRecommendation;
 import com.contextcoach.model.ImplementationPlan;
+import com.contextcoach.model.NormalizationStats;
+import com.contextcoach.model.PreScreenResult;
 import com.contextcoach.model.Requirement;
+import com.contextcoach.model.RequirementPatch;
+import com.contextcoach.model.RequirementSummary;
 import com.contextcoach.model.ScopeEstimationResult;
+import com.contextcoach.service.BulkIngestionService;
+import com.contextcoach.service.DeveloperRecommendationService;
 import com.contextcoach.service.RequirementService;
 
 @RestController
@@ -29,9 +42,14 @@ public class RequirementController {
 
     private static final Logger logger = LoggerFactory.getLogger(RequirementController.class);
     private final RequirementService requirementService;
+    private final BulkIngestionService bulkIngestionService;
+    private final DeveloperRecommendationService developerRecommendationService;
 
-    public RequirementController(RequirementService requirementService) {
+    public RequirementController(RequirementService requirementService, BulkIngestionService bulkIngestionService,
+            DeveloperRecommendationService developerRecommendationService) {
         this.requirementService = requirementService;
+        this.bulkIngestionService = bulkIngestionService;
+        this.developerRecommendationService = developerRecommendationService;
     }
 
     /**
@@ -56,6 +74,59 @@ public class RequirementController {
         }
     }
 
+    /**
+     * Uploads a requirement file sent as the raw request body. Unlike the multipart
+     * upload, the body is streamed to disk, so it is not limited by the multipart size
+     * limits and large files do not need to fit in memory.
+     * 
+     * @param body The raw file content
+     * @param fileName The original file name
+     * @param title The title of the requirement
+     * @param contentType The content type of the file, defaulting to the request content type
+     * @param requestContentType The request content type
+     * @return The created requirement
+     */
+    @PostMapping("/upload/stream")
+    public ResponseEntity<Requirement> uploadRequirementStream(
+            InputStream body,
+            @RequestParam("fileName") String fileName,
+            @RequestParam("title") String title,
+            @RequestParam(value = "contentType", required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String requestContentType) {
+        String fileType = contentType != null ? contentType : requestContentType;
+        logger.info("Streaming requirement file: {} ({})", fileName, fileType);
+        try {
+            Requirement requirement = requirementService.createRequirementFromStream(body, fileName, fileType, title);
+            logger.info("Successfully created requirement with ID: {}", requirement.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(requirement);
+        } catch (IOException e) {
+            logger.error("Error streaming requirement file: {}", fileName, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Uploads many requirement files at once, as multipart files and/or a ZIP archive
+     * 
+     * @param files The requirement files to upload
+     * @param archive A ZIP archive of requirement files
+     * @return The per-file outcomes and overall throughput
+     */
+    @PostMapping("/upload/bulk")
+    public ResponseEntity<BulkIngestionReport> uploadRequirementsInBulk(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "archive", required = false) MultipartFile archive) throws IOException {
+        logger.info("Bulk uploading {} requirement files", files != null ? files.size() : 0);
+        try {
+            BulkIngestionReport report = bulkIngestionService.ingest(files, archive);
+            logger.info("Bulk upload created {} requirements", report.getCreatedCount());
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            logger.error("Error bulk uploading requirement files", e);
+            throw e;
+        }
+    }
+
     /**
      * Creates a requirement from text
      * 
@@ -122,44 +193,174 @@ public class RequirementController {
         }
     }
 
+    /**
+     * Partially updates a requirement. Send the version last read to be rejected with 409
+     * Conflict if the requirement has changed since.
+     * 
+     * @param id The ID of the requirement
+     * @param patch The fields to change
+     * @return The updated requirement
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Requirement> patchRequirement(@PathVariable String id, @RequestBody RequirementPatch patch) {
+        logger.info("Patching requirement with ID: {}", id);
+        try {
+            Requirement requirement = requirementService.patchRequirement(id, patch);
+            logger.info("Successfully patched requirement with ID: {}", id);
+            return ResponseEntity.ok(requirement);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid patch for requirement with ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error patching requirement with ID: {}", id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the analysis summary for a requirement
+     * 
+     * @param id The ID of the requirement
+     * @return The latest ambiguity, scope, plan and ticket results plus counts
+     */
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<RequirementSummary> getRequirementSummary(@PathVariable String id) {
+        logger.info("Getting summary for requirement with ID: {}", id);
+        try {
+            RequirementSummary summary = requirementService.getRequirementSummary(id);
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            logger.error("Error getting summary for requirement with ID: {}", id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the developers best suited to a requirement by skills, productivity and load
+     * 
+     * @param id The ID of the requirement
+     * @param limit The number of developers to return
+     * @return The recommended developers, best first
+     */
+    @GetMapping("/{id}/recommended-developers")
+    public ResponseEntity<List<DeveloperRecommendation>> getRecommendedDevelopers(
+            @PathVariable String id,
+            @RequestParam(value = "limit", defaultValue = "5") int limit) {
+        logger.info("Getting recommended developers for requirement with ID: {}", id);
+        try {
+            List<DeveloperRecommendation> recommendations = developerRecommendationService.recommendDevelopers(id, limit);
+            return ResponseEntity.ok(recommendations);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid recommendation request for requirement with ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error getting recommended developers for requirement with ID: {}", id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds all requirement summaries from the stored results
+     * 
+     * @return The number of summaries rebuilt
+     */
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRequirementSummaries() {
+        logger.info("Rebuilding requirement summaries");
+        try {
+            int rebuilt = requirementService.rebuildRequirementSummaries();
+            logger.info("Successfully rebuilt {} requirement summaries", rebuilt);
+            return ResponseEntity.ok(Map.of("rebuiltSummaries", rebuilt));
+        } catch (Exception e) {
+            logger.error("Error rebuilding requirement summaries", e);
+            throw e;
+        }
+    }
+
     /**
      * Analyzes a requirement for ambiguities
      * 
      * @param id The ID of the requirement to analyze
-     * @return The ambiguity detection result
+     * @param forceLlm Whether to consult the LLM even if the local pre-screen is conclusive
+     * @return The ambiguity detection result, completed when the LLM answers; the request
+     *         thread is released in the meantime
      */
     @PostMapping("/{id}/analyze")
-    public ResponseEntity<AmbiguityDetectionResult> analyzeRequirement(@PathVariable String id) {
-        logger.info("Analyzing requirement with ID: {}", id);
+    public CompletableFuture<ResponseEntity<AmbiguityDetectionResult>> analyzeRequirement(
+            @PathVariable String id,
+            @RequestParam(value = "forceLlm", defaultValue = "false") boolean forceLlm) {
+        logger.info("Analyzing requirement with ID: {} (forceLlm: {})", id, forceLlm);
         try {
-            AmbiguityDetectionResult result = requirementService.analyzeRequirement(id);
-            logger.info("Successfully analyzed requirement with ID: {}", id);
-            return ResponseEntity.ok(result);
+            return requirementService.analyzeRequirementAsync(id, forceLlm).thenApply(result -> {
+                logger.info("Successfully analyzed requirement with ID: {}", id);
+                return ResponseEntity.ok(result);
+            });
         } catch (IllegalArgumentException e) {
             logger.warn("Requirement not found with ID: {}", id);
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Error analyzing requirement with ID: {}", id, e);
             throw e;
         }
     }
 
+    /**
+     * Runs the local ambiguity pre-screen on a requirement without calling the LLM
+     * 
+     * @param id The ID of the requirement to screen
+     * @return The matched terms with offsets, per-category counts and the verdict
+     */
+    @GetMapping("/{id}/prescreen")
+    public ResponseEntity<PreScreenResult> preScreenRequirement(@PathVariable String id) {
+        logger.info("Pre-screening requirement with ID: {}", id);
+        try {
+            PreScreenResult result = requirementService.preScreenRequirement(id);
+            logger.info("Pre-screen verdict for requirement with ID {}: {}", id, result.getVerdict());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("Error pre-screening requirement with ID: {}", id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the size of a requirement's text before and after normalization
+     * 
+     * @param id The ID of the requirement
+     * @return The raw and normalized character and estimated token counts
+     */
+    @GetMapping("/{id}/normalization")
+    public ResponseEntity<NormalizationStats> getNormalizationStats(@PathVariable String id) {
+        logger.info("Getting normalization stats for requirement with ID: {}", id);
+        try {
+            NormalizationStats stats = requirementService.getNormalizationStats(id);
+            logger.info("Requirement with ID {} has {} of {} estimated tokens after normalization",
+                    id, stats.getNormalizedTokens(), stats.getRawTokens());
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("Error getting normalization stats for requirement with ID: {}", id, e);
+            throw e;
+        }
+    }
+
     /**
      * Estimates the scope of a requirement
      * 
      * @param id The ID of the requirement to estimate
-     * @return The scope estimation result
+     * @return The scope estimation result, completed when the LLM answers; the request
+     *         thread is released in the meantime
      */
     @PostMapping("/{id}/estimate")
-    public ResponseEntity<ScopeEstimationResult> estimateScope(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<ScopeEstimationResult>> estimateScope(@PathVariable String id) {
         logger.info("Estimating scope for requirement with ID: {}", id);
         try {
-            ScopeEstimationResult result = requirementService.estimateScope(id);
-            logger.info("Successfully estimated scope for requirement with ID: {}", id);
-            return ResponseEntity.ok(result);
+            return requirementService.estimateScopeAsync(id).thenApply(result -> {
+                logger.info("Successfully estimated scope for requirement with ID: {}", id);
+                return ResponseEntity.ok(result);
+            });
         } catch (IllegalArgumentException e) {
             logger.warn("Requirement not found with ID: {}", id);
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Error estimating scope for requirement with ID: {}", id, e);
             throw e;
@@ -170,18 +371,20 @@ public class RequirementController {
      * Generates an implementation plan for a requirement
      * 
      * @param id The ID of the requirement to plan
-     * @return The implementation plan
+     * @return The implementation plan, completed when the LLM answers; the request thread
+     *         is released in the meantime
      */
     @PostMapping("/{id}/plan")
-    public ResponseEntity<ImplementationPlan> generateImplementationPlan(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<ImplementationPlan>> generateImplementationPlan(@PathVariable String id) {
         logger.info("Generating implementation plan for requirement with ID: {}", id);
         try {
-            ImplementationPlan plan = requirementService.generateImplementationPlan(id);
-            logger.info("Successfully generated implementation plan for requirement with ID: {}", id);
-            return ResponseEntity.ok(plan);
+            return requirementService.generateImplementationPlanAsync(id).thenApply(plan -> {
+                logger.info("Successfully generated implementation plan for requirement with ID: {}", id);
+                return ResponseEntity.ok(plan);
+            });
         } catch (IllegalArgumentException e) {
             logger.warn("Requirement not found with ID: {}", id);
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Error generating implementation plan for requirement with ID: {}", id, e);
             throw e;
@@ -0,0 +1,19 @@
+package com.contextcoach.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when an upload, or the text extracted from it, exceeds the configured
+ * size limit
+ */
+public class PayloadTooLargeException extends ServiceException {
+
+    /**
+     * Constructor with message
+     *
+     * @param message The error message
+     */
+    public PayloadTooLargeException(String message) {
+        super(message, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+}
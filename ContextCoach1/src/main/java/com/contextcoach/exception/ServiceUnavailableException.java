@@ -0,0 +1,44 @@
+package com.contextcoach.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when the service is too busy to accept more work. The client should
+ * retry after the given delay.
+ */
+public class ServiceUnavailableException extends ServiceException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor with message and retry delay
+     *
+     * @param message The error message
+     * @param retryAfterSeconds The number of seconds the client should wait before retrying
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Constructor with message, cause, and retry delay
+     *
+     * @param message The error message
+     * @param cause The cause of the exception
+     * @param retryAfterSeconds The number of seconds the client should wait before retrying
+     */
+    public ServiceUnavailableException(String message, Throwable cause, long retryAfterSeconds) {
+        super(message, cause, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gets the number of seconds the client should wait before retrying
+     *
+     * @return The retry delay in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -4,11 +4,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "ambiguity_detection_results")
+@CompoundIndex(name = "requirement_created", def = "{'requirement': 1, 'createdAt': 1}")
 public class AmbiguityDetectionResult {
+    public static final String SOURCE_LLM = "LLM";
+    public static final String SOURCE_PRESCREEN = "PRESCREEN";
+
     @Id
     private String id;
 
@@ -23,6 +28,8 @@ public class AmbiguityDetectionResult {
 
     private String suggestedImprovements;
 
+    private String analysisSource; // LLM or PRESCREEN
+
     private LocalDateTime createdAt;
 
     // Method called before saving the document to MongoDB
@@ -81,6 +88,14 @@ public class AmbiguityDetectionResult {
         this.suggestedImprovements = suggestedImprovements;
     }
 
+    public String getAnalysisSource() {
+        return analysisSource;
+    }
+
+    public void setAnalysisSource(String analysisSource) {
+        this.analysisSource = analysisSource;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
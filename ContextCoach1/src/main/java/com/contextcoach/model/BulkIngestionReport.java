@@ -0,0 +1,197 @@
+package com.contextcoach.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk requirement ingestion, with one outcome per file plus throughput figures
+ */
+public class BulkIngestionReport {
+
+    /**
+     * Outcome of ingesting a single file
+     */
+    public static class FileOutcome {
+        public static final String CREATED = "CREATED";
+        public static final String DUPLICATE = "DUPLICATE";
+        public static final String FAILED = "FAILED";
+
+        private String fileName;
+        private String status;
+        private String requirementId;
+        private String contentHash;
+        private long sizeBytes;
+        private String message;
+
+        public FileOutcome() {
+        }
+
+        public FileOutcome(String fileName, String status, String contentHash, long sizeBytes) {
+            this.fileName = fileName;
+            this.status = status;
+            this.contentHash = contentHash;
+            this.sizeBytes = sizeBytes;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getRequirementId() {
+            return requirementId;
+        }
+
+        public void setRequirementId(String requirementId) {
+            this.requirementId = requirementId;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public void setContentHash(String contentHash) {
+            this.contentHash = contentHash;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public void setSizeBytes(long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    private List<FileOutcome> files = new ArrayList<>();
+
+    private int createdCount;
+
+    private int duplicateCount;
+
+    private int failedCount;
+
+    private long totalBytes;
+
+    private long elapsedMillis;
+
+    private double filesPerSecond;
+
+    private double megabytesPerSecond;
+
+    /**
+     * Adds a file outcome and updates the counters
+     *
+     * @param outcome The outcome to add
+     */
+    public void addOutcome(FileOutcome outcome) {
+        files.add(outcome);
+        totalBytes += outcome.getSizeBytes();
+        switch (outcome.getStatus()) {
+            case FileOutcome.CREATED:
+                createdCount++;
+                break;
+            case FileOutcome.DUPLICATE:
+                duplicateCount++;
+                break;
+            default:
+                failedCount++;
+        }
+    }
+
+    /**
+     * Records the elapsed time and derives the throughput figures
+     *
+     * @param elapsedMillis The total time taken by the ingestion
+     */
+    public void complete(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        this.filesPerSecond = files.size() / seconds;
+        this.megabytesPerSecond = (totalBytes / (1024.0 * 1024.0)) / seconds;
+    }
+
+    // Getters and Setters
+    public List<FileOutcome> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileOutcome> files) {
+        this.files = files;
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(int createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public void setDuplicateCount(int duplicateCount) {
+        this.duplicateCount = duplicateCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getFilesPerSecond() {
+        return filesPerSecond;
+    }
+
+    public void setFilesPerSecond(double filesPerSecond) {
+        this.filesPerSecond = filesPerSecond;
+    }
+
+    public double getMegabytesPerSecond() {
+        return megabytesPerSecond;
+    }
+
+    public void setMegabytesPerSecond(double megabytesPerSecond) {
+        this.megabytesPerSecond = megabytesPerSecond;
+    }
+}
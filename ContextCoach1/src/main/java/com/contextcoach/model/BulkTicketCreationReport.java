@@ -0,0 +1,137 @@
+package com.contextcoach.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk Jira ticket creation, with one outcome per requested ticket in request order
+ */
+public class BulkTicketCreationReport {
+
+    /**
+     * Outcome of creating a single ticket
+     */
+    public static class TicketOutcome {
+        public static final String CREATED = "CREATED";
+        public static final String FAILED = "FAILED";
+
+        private int index; // Position of the ticket in the request
+        private String requirementId;
+        private String status;
+        private String ticketId;
+        private Integer estimatedStoryPoints;
+        private String message;
+
+        public TicketOutcome() {
+        }
+
+        public TicketOutcome(int index, String requirementId, String status) {
+            this.index = index;
+            this.requirementId = requirementId;
+            this.status = status;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getRequirementId() {
+            return requirementId;
+        }
+
+        public void setRequirementId(String requirementId) {
+            this.requirementId = requirementId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getTicketId() {
+            return ticketId;
+        }
+
+        public void setTicketId(String ticketId) {
+            this.ticketId = ticketId;
+        }
+
+        public Integer getEstimatedStoryPoints() {
+            return estimatedStoryPoints;
+        }
+
+        public void setEstimatedStoryPoints(Integer estimatedStoryPoints) {
+            this.estimatedStoryPoints = estimatedStoryPoints;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    private List<TicketOutcome> tickets = new ArrayList<>();
+
+    private int createdCount;
+
+    private int failedCount;
+
+    private long elapsedMillis;
+
+    /**
+     * Adds a ticket outcome and updates the counters
+     *
+     * @param outcome The outcome to add
+     */
+    public void addOutcome(TicketOutcome outcome) {
+        tickets.add(outcome);
+        if (TicketOutcome.CREATED.equals(outcome.getStatus())) {
+            createdCount++;
+        } else {
+            failedCount++;
+        }
+    }
+
+    // Getters and Setters
+    public List<TicketOutcome> getTickets() {
+        return tickets;
+    }
+
+    public void setTickets(List<TicketOutcome> tickets) {
+        this.tickets = tickets;
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(int createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "developer_profiles")
@@ -23,6 +24,9 @@ public class DeveloperProfile {
 
     private LocalDateTime createdAt;
 
+    @Version
+    private Long version; // Incremented on every write, for optimistic locking
+
     // Method called before saving the document to MongoDB
     public void preSave() {
         if (createdAt == null) {
@@ -86,4 +90,12 @@ public class DeveloperProfile {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
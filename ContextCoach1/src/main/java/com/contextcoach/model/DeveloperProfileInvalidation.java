@@ -0,0 +1,57 @@
+package com.contextcoach.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Notice that a developer profile changed, written by the instance that changed it so the
+ * other instances can drop their cached copy. Notices expire after an hour.
+ */
+@Document(collection = "developer_profile_invalidations")
+public class DeveloperProfileInvalidation {
+    @Id
+    private String id;
+
+    private String developerId;
+
+    private String instanceId; // Instance that made the change
+
+    @Indexed(expireAfter = "1h")
+    private LocalDateTime createdAt; // Set by the database so all instances share one clock
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDeveloperId() {
+        return developerId;
+    }
+
+    public void setDeveloperId(String developerId) {
+        this.developerId = developerId;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
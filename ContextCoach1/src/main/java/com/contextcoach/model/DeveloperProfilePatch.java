@@ -0,0 +1,89 @@
+package com.contextcoach.model;
+
+import java.util.List;
+
+/**
+ * Partial update of a developer profile. Fields left null are kept as they are.
+ */
+public class DeveloperProfilePatch {
+    private Long version; // Optional, the update is rejected if the profile has changed since
+
+    private String name;
+
+    private String experienceLevel;
+
+    private Double productivityFactor;
+
+    private Double preferredWorkHoursPerDay;
+
+    private List<String> skills; // Replaces all skills
+
+    private List<String> addSkills; // Added unless already present
+
+    private List<String> removeSkills;
+
+    // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getExperienceLevel() {
+        return experienceLevel;
+    }
+
+    public void setExperienceLevel(String experienceLevel) {
+        this.experienceLevel = experienceLevel;
+    }
+
+    public Double getProductivityFactor() {
+        return productivityFactor;
+    }
+
+    public void setProductivityFactor(Double productivityFactor) {
+        this.productivityFactor = productivityFactor;
+    }
+
+    public Double getPreferredWorkHoursPerDay() {
+        return preferredWorkHoursPerDay;
+    }
+
+    public void setPreferredWorkHoursPerDay(Double preferredWorkHoursPerDay) {
+        this.preferredWorkHoursPerDay = preferredWorkHoursPerDay;
+    }
+
+    public List<String> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(List<String> skills) {
+        this.skills = skills;
+    }
+
+    public List<String> getAddSkills() {
+        return addSkills;
+    }
+
+    public void setAddSkills(List<String> addSkills) {
+        this.addSkills = addSkills;
+    }
+
+    public List<String> getRemoveSkills() {
+        return removeSkills;
+    }
+
+    public void setRemoveSkills(List<String> removeSkills) {
+        this.removeSkills = removeSkills;
+    }
+}
@@ -0,0 +1,90 @@
+package com.contextcoach.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Developer recommended for a requirement, with the reasons for the ranking
+ */
+public class DeveloperRecommendation {
+    private String developerId;
+
+    private String developerName;
+
+    private String experienceLevel;
+
+    private Double productivityFactor;
+
+    private double score; // Skill coverage times productivity, discounted by current load
+
+    private double skillCoverage; // Fraction of the requirement's skills the developer has
+
+    private List<String> matchedSkills = new ArrayList<>();
+
+    private long currentStoryPoints; // Estimated story points of the developer's tickets
+
+    // Getters and Setters
+    public String getDeveloperId() {
+        return developerId;
+    }
+
+    public void setDeveloperId(String developerId) {
+        this.developerId = developerId;
+    }
+
+    public String getDeveloperName() {
+        return developerName;
+    }
+
+    public void setDeveloperName(String developerName) {
+        this.developerName = developerName;
+    }
+
+    public String getExperienceLevel() {
+        return experienceLevel;
+    }
+
+    public void setExperienceLevel(String experienceLevel) {
+        this.experienceLevel = experienceLevel;
+    }
+
+    public Double getProductivityFactor() {
+        return productivityFactor;
+    }
+
+    public void setProductivityFactor(Double productivityFactor) {
+        this.productivityFactor = productivityFactor;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public double getSkillCoverage() {
+        return skillCoverage;
+    }
+
+    public void setSkillCoverage(double skillCoverage) {
+        this.skillCoverage = skillCoverage;
+    }
+
+    public List<String> getMatchedSkills() {
+        return matchedSkills;
+    }
+
+    public void setMatchedSkills(List<String> matchedSkills) {
+        this.matchedSkills = matchedSkills;
+    }
+
+    public long getCurrentStoryPoints() {
+        return currentStoryPoints;
+    }
+
+    public void setCurrentStoryPoints(long currentStoryPoints) {
+        this.currentStoryPoints = currentStoryPoints;
+    }
+}
@@ -0,0 +1,117 @@
+package com.contextcoach.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Read model holding the totals of a developer's open tickets, keyed by the developer ID
+ * so the team dashboard can load each developer's current load without reading their tickets
+ */
+@Document(collection = "developer_workloads")
+public class DeveloperWorkload {
+    @Id
+    private String developerId;
+
+    private String developerName;
+
+    private long ticketCount; // Open tickets only
+
+    private long totalStoryPoints; // Sum of estimated story points of open tickets
+
+    private Map<String, Long> storyPointsByPriority = new HashMap<>(); // e.g. High -> 21
+
+    private Map<String, Long> storyPointsByType = new HashMap<>(); // e.g. Bug -> 8
+
+    private Map<String, Long> ticketsByPriority = new HashMap<>();
+
+    private Map<String, Long> ticketsByType = new HashMap<>();
+
+    private LocalDateTime updatedAt;
+
+    private long revision; // Incremented on every write, so a rebuild can tell the workload changed meanwhile
+
+    // Getters and Setters
+    public String getDeveloperId() {
+        return developerId;
+    }
+
+    public void setDeveloperId(String developerId) {
+        this.developerId = developerId;
+    }
+
+    public String getDeveloperName() {
+        return developerName;
+    }
+
+    public void setDeveloperName(String developerName) {
+        this.developerName = developerName;
+    }
+
+    public long getTicketCount() {
+        return ticketCount;
+    }
+
+    public void setTicketCount(long ticketCount) {
+        this.ticketCount = ticketCount;
+    }
+
+    public long getTotalStoryPoints() {
+        return totalStoryPoints;
+    }
+
+    public void setTotalStoryPoints(long totalStoryPoints) {
+        this.totalStoryPoints = totalStoryPoints;
+    }
+
+    public Map<String, Long> getStoryPointsByPriority() {
+        return storyPointsByPriority;
+    }
+
+    public void setStoryPointsByPriority(Map<String, Long> storyPointsByPriority) {
+        this.storyPointsByPriority = storyPointsByPriority;
+    }
+
+    public Map<String, Long> getStoryPointsByType() {
+        return storyPointsByType;
+    }
+
+    public void setStoryPointsByType(Map<String, Long> storyPointsByType) {
+        this.storyPointsByType = storyPointsByType;
+    }
+
+    public Map<String, Long> getTicketsByPriority() {
+        return ticketsByPriority;
+    }
+
+    public void setTicketsByPriority(Map<String, Long> ticketsByPriority) {
+        this.ticketsByPriority = ticketsByPriority;
+    }
+
+    public Map<String, Long> getTicketsByType() {
+        return ticketsByType;
+    }
+
+    public void setTicketsByType(Map<String, Long> ticketsByType) {
+        this.ticketsByType = ticketsByType;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+}
@@ -0,0 +1,36 @@
+package com.contextcoach.model;
+
+/**
+ * Text extracted from an uploaded document, with the format it was detected as
+ */
+public class ExtractedDocument {
+
+    private String format; // PDF, TEXT, JSON, EXCEL, WORD, HTML, CSV, MARKDOWN
+    private String text;
+
+    public ExtractedDocument() {
+    }
+
+    public ExtractedDocument(String format, String text) {
+        this.format = format;
+        this.text = text;
+    }
+
+    // Getters and Setters
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
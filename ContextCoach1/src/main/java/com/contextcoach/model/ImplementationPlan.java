@@ -4,10 +4,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "implementation_plans")
+@CompoundIndex(name = "requirement_created", def = "{'requirement': 1, 'createdAt': 1}")
 public class ImplementationPlan {
     @Id
     private String id;
@@ -0,0 +1,115 @@
+package com.contextcoach.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox record of a ticket that still has to be created in Jira. It is embedded in the
+ * ticket document, so the ticket and its pending sync are stored in a single write.
+ */
+public class JiraOutboxEntry {
+
+    public enum Status {
+        PENDING, // Waiting for its next dispatch attempt
+        IN_FLIGHT, // Claimed by a dispatcher until the lease expires
+        SYNCED, // Created in Jira
+        FAILED // Rejected by Jira or out of attempts
+    }
+
+    private Status status;
+
+    private String idempotencyKey; // Sent to Jira as a label so retries can find issues that were already created
+
+    private int attempts;
+
+    private LocalDateTime enqueuedAt;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime leaseExpiresAt;
+
+    private LocalDateTime syncedAt;
+
+    private String lastError;
+
+    /**
+     * Creates an outbox entry that is due immediately
+     *
+     * @return The pending entry
+     */
+    public static JiraOutboxEntry pending() {
+        JiraOutboxEntry entry = new JiraOutboxEntry();
+        LocalDateTime now = LocalDateTime.now();
+        entry.setStatus(Status.PENDING);
+        entry.setIdempotencyKey(UUID.randomUUID().toString());
+        entry.setEnqueuedAt(now);
+        entry.setNextAttemptAt(now);
+        return entry;
+    }
+
+    // Getters and Setters
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(LocalDateTime enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(LocalDateTime syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
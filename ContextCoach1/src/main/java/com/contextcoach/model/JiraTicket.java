@@ -3,10 +3,19 @@ package com.contextcoach.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "jira_tickets")
+@CompoundIndexes({
+    @CompoundIndex(name = "outbox_due", def = "{'outbox.status': 1, 'outbox.nextAttemptAt': 1}", sparse = true),
+    @CompoundIndex(name = "outbox_idempotency_key", def = "{'outbox.idempotencyKey': 1}", sparse = true),
+    @CompoundIndex(name = "requirement_created", def = "{'requirement': 1, 'createdAt': 1}")
+})
 public class JiraTicket {
     @Id
     private String id;
@@ -21,16 +30,33 @@ public class JiraTicket {
 
     private Integer estimatedStoryPoints;
 
+    private String estimateSource; // MODEL, LLM or HEURISTIC
+
     @DBRef
     private Requirement requirement;
 
     @DBRef
     private DeveloperProfile assignedDeveloper;
 
+    @Indexed(unique = true, sparse = true)
     private String externalTicketId;
 
+    private JiraOutboxEntry outbox; // Pending or finished sync to Jira, null if never sent
+
+    // State pulled from Jira
+    private String status; // To Do, In Progress, Done, etc.
+
+    private String assignee; // Display name of the Jira assignee
+
+    private Integer actualStoryPoints;
+
+    private LocalDateTime externalUpdatedAt;
+
     private LocalDateTime createdAt;
 
+    @Version
+    private Long version; // Incremented on every write, for optimistic locking
+
     // Method called before saving the document to MongoDB
     public void preSave() {
         if (createdAt == null) {
@@ -87,6 +113,14 @@ public class JiraTicket {
         this.estimatedStoryPoints = estimatedStoryPoints;
     }
 
+    public String getEstimateSource() {
+        return estimateSource;
+    }
+
+    public void setEstimateSource(String estimateSource) {
+        this.estimateSource = estimateSource;
+    }
+
     public Requirement getRequirement() {
         return requirement;
     }
@@ -118,4 +152,52 @@ public class JiraTicket {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public JiraOutboxEntry getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(JiraOutboxEntry outbox) {
+        this.outbox = outbox;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAssignee() {
+        return assignee;
+    }
+
+    public void setAssignee(String assignee) {
+        this.assignee = assignee;
+    }
+
+    public Integer getActualStoryPoints() {
+        return actualStoryPoints;
+    }
+
+    public void setActualStoryPoints(Integer actualStoryPoints) {
+        this.actualStoryPoints = actualStoryPoints;
+    }
+
+    public LocalDateTime getExternalUpdatedAt() {
+        return externalUpdatedAt;
+    }
+
+    public void setExternalUpdatedAt(LocalDateTime externalUpdatedAt) {
+        this.externalUpdatedAt = externalUpdatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,77 @@
+package com.contextcoach.model;
+
+/**
+ * Partial update of a Jira ticket. Fields left null are kept as they are.
+ */
+public class JiraTicketPatch {
+    private Long version; // Optional, the update is rejected if the ticket has changed since
+
+    private String title;
+
+    private String description;
+
+    private String ticketType;
+
+    private String priority;
+
+    private Integer estimatedStoryPoints;
+
+    private String status;
+
+    // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTicketType() {
+        return ticketType;
+    }
+
+    public void setTicketType(String ticketType) {
+        this.ticketType = ticketType;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public Integer getEstimatedStoryPoints() {
+        return estimatedStoryPoints;
+    }
+
+    public void setEstimatedStoryPoints(Integer estimatedStoryPoints) {
+        this.estimatedStoryPoints = estimatedStoryPoints;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
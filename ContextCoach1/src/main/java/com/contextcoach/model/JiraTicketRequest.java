@@ -0,0 +1,57 @@
+package com.contextcoach.model;
+
+/**
+ * One ticket to create in a bulk ticket creation request
+ */
+public class JiraTicketRequest {
+    private String requirementId;
+
+    private String ticketType; // e.g., Bug, Feature, Task
+
+    private String priority; // e.g., High, Medium, Low
+
+    private String assignedDeveloperId; // Optional
+
+    public JiraTicketRequest() {
+    }
+
+    public JiraTicketRequest(String requirementId, String ticketType, String priority, String assignedDeveloperId) {
+        this.requirementId = requirementId;
+        this.ticketType = ticketType;
+        this.priority = priority;
+        this.assignedDeveloperId = assignedDeveloperId;
+    }
+
+    // Getters and Setters
+    public String getRequirementId() {
+        return requirementId;
+    }
+
+    public void setRequirementId(String requirementId) {
+        this.requirementId = requirementId;
+    }
+
+    public String getTicketType() {
+        return ticketType;
+    }
+
+    public void setTicketType(String ticketType) {
+        this.ticketType = ticketType;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getAssignedDeveloperId() {
+        return assignedDeveloperId;
+    }
+
+    public void setAssignedDeveloperId(String assignedDeveloperId) {
+        this.assignedDeveloperId = assignedDeveloperId;
+    }
+}
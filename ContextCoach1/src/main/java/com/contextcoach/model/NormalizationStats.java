@@ -0,0 +1,76 @@
+package com.contextcoach.model;
+
+/**
+ * Size of a document before and after text normalization, used to report the prompt
+ * tokens saved per requirement
+ */
+public class NormalizationStats {
+
+    private int rawCharacters;
+    private int normalizedCharacters;
+    private int rawTokens; // Estimated LLM tokens of the extracted text
+    private int normalizedTokens; // Estimated LLM tokens of the normalized text
+    private int removedLines; // Repeated header/footer, page number and boilerplate lines
+
+    public NormalizationStats() {
+    }
+
+    public NormalizationStats(int rawCharacters, int normalizedCharacters, int rawTokens, int normalizedTokens, int removedLines) {
+        this.rawCharacters = rawCharacters;
+        this.normalizedCharacters = normalizedCharacters;
+        this.rawTokens = rawTokens;
+        this.normalizedTokens = normalizedTokens;
+        this.removedLines = removedLines;
+    }
+
+    /**
+     * Gets the share of tokens removed by normalization
+     *
+     * @return The reduction between 0 and 1, or 0 for an empty document
+     */
+    public double getTokenReduction() {
+        return rawTokens == 0 ? 0.0 : (double) (rawTokens - normalizedTokens) / rawTokens;
+    }
+
+    // Getters and Setters
+
+    public int getRawCharacters() {
+        return rawCharacters;
+    }
+
+    public void setRawCharacters(int rawCharacters) {
+        this.rawCharacters = rawCharacters;
+    }
+
+    public int getNormalizedCharacters() {
+        return normalizedCharacters;
+    }
+
+    public void setNormalizedCharacters(int normalizedCharacters) {
+        this.normalizedCharacters = normalizedCharacters;
+    }
+
+    public int getRawTokens() {
+        return rawTokens;
+    }
+
+    public void setRawTokens(int rawTokens) {
+        this.rawTokens = rawTokens;
+    }
+
+    public int getNormalizedTokens() {
+        return normalizedTokens;
+    }
+
+    public void setNormalizedTokens(int normalizedTokens) {
+        this.normalizedTokens = normalizedTokens;
+    }
+
+    public int getRemovedLines() {
+        return removedLines;
+    }
+
+    public void setRemovedLines(int removedLines) {
+        this.removedLines = removedLines;
+    }
+}
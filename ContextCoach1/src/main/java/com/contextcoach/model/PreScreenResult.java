@@ -0,0 +1,151 @@
+package com.contextcoach.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the local ambiguity pre-screen of a requirement text
+ */
+public class PreScreenResult {
+
+    /** The text is clearly specific enough; the LLM call can be skipped */
+    public static final String CLEAR = "CLEAR";
+    /** The text is clearly vague; the LLM call can be skipped */
+    public static final String VAGUE = "VAGUE";
+    /** The pre-screen cannot decide; the LLM should be consulted */
+    public static final String INCONCLUSIVE = "INCONCLUSIVE";
+
+    /**
+     * A lexicon term found in the text
+     */
+    public static class TermMatch {
+        private String category;
+        private String term;
+        private int start;
+        private int end;
+
+        public TermMatch() {
+        }
+
+        public TermMatch(String category, String term, int start, int end) {
+            this.category = category;
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public void setTerm(String term) {
+            this.term = term;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public void setStart(int start) {
+            this.start = start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public void setEnd(int end) {
+            this.end = end;
+        }
+    }
+
+    private String verdict;
+
+    private int wordCount;
+
+    private int matchCount;
+
+    private double matchesPer100Words;
+
+    private Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+
+    private List<TermMatch> matches = new ArrayList<>();
+
+    private boolean matchesTruncated;
+
+    /**
+     * Whether the pre-screen reached a verdict without needing the LLM
+     *
+     * @return true if the verdict is CLEAR or VAGUE
+     */
+    public boolean isConclusive() {
+        return CLEAR.equals(verdict) || VAGUE.equals(verdict);
+    }
+
+    // Getters and Setters
+    public String getVerdict() {
+        return verdict;
+    }
+
+    public void setVerdict(String verdict) {
+        this.verdict = verdict;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public void setWordCount(int wordCount) {
+        this.wordCount = wordCount;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public void setMatchCount(int matchCount) {
+        this.matchCount = matchCount;
+    }
+
+    public double getMatchesPer100Words() {
+        return matchesPer100Words;
+    }
+
+    public void setMatchesPer100Words(double matchesPer100Words) {
+        this.matchesPer100Words = matchesPer100Words;
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public void setCategoryCounts(Map<String, Integer> categoryCounts) {
+        this.categoryCounts = categoryCounts;
+    }
+
+    public List<TermMatch> getMatches() {
+        return matches;
+    }
+
+    public void setMatches(List<TermMatch> matches) {
+        this.matches = matches;
+    }
+
+    public boolean isMatchesTruncated() {
+        return matchesTruncated;
+    }
+
+    public void setMatchesTruncated(boolean matchesTruncated) {
+        this.matchesTruncated = matchesTruncated;
+    }
+}
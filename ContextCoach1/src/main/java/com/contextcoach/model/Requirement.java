@@ -3,6 +3,8 @@ package com.contextcoach.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
@@ -16,7 +18,11 @@ public class Requirement {
     @NotBlank(message = "Title is required")
     private String title;
 
-    private String content;
+    private String content; // Normalized text sent to the LLM
+
+    private String rawContent; // Text as extracted from the uploaded file
+
+    private NormalizationStats normalizationStats;
 
     private String fileName;
 
@@ -28,8 +34,14 @@ public class Requirement {
 
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version; // Incremented on every write, for optimistic locking
+
     private String sourceType; // PDF, TEXT, JSON, etc.
 
+    @Indexed(unique = true, sparse = true)
+    private String contentHash; // SHA-256 of the uploaded file bytes, stored at most once
+
     // Method called before saving the document to MongoDB
     public void preSave() {
         if (createdAt == null) {
@@ -112,4 +124,36 @@ public class Requirement {
     public void setSourceType(String sourceType) {
         this.sourceType = sourceType;
     }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getRawContent() {
+        return rawContent;
+    }
+
+    public void setRawContent(String rawContent) {
+        this.rawContent = rawContent;
+    }
+
+    public NormalizationStats getNormalizationStats() {
+        return normalizationStats;
+    }
+
+    public void setNormalizationStats(NormalizationStats normalizationStats) {
+        this.normalizationStats = normalizationStats;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,37 @@
+package com.contextcoach.model;
+
+/**
+ * Partial update of a requirement. Fields left null are kept as they are.
+ */
+public class RequirementPatch {
+    private Long version; // Optional, the update is rejected if the requirement has changed since
+
+    private String title;
+
+    private String content;
+
+    // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,261 @@
+package com.contextcoach.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Read model holding the latest analysis results of each kind for a requirement,
+ * keyed by the requirement ID so a dashboard can load it with a single indexed read
+ */
+@Document(collection = "requirement_summaries")
+public class RequirementSummary {
+    @Id
+    private String requirementId;
+
+    private String title;
+
+    // Latest ambiguity detection result
+    private String latestAmbiguityResultId;
+
+    private List<String> ambiguityCategories;
+
+    private Double ambiguityConfidenceScore;
+
+    private LocalDateTime latestAmbiguityAt;
+
+    // Latest scope estimation result
+    private String latestScopeEstimationId;
+
+    private Double estimatedHours;
+
+    private String complexityLevel;
+
+    private LocalDateTime latestScopeEstimationAt;
+
+    // Latest implementation plan
+    private String latestImplementationPlanId;
+
+    private String planSummary;
+
+    private Integer implementationStepCount;
+
+    private LocalDateTime latestImplementationPlanAt;
+
+    // Latest Jira ticket
+    private String latestJiraTicketId;
+
+    private String latestExternalTicketId;
+
+    private Integer latestEstimatedStoryPoints;
+
+    private LocalDateTime latestJiraTicketAt;
+
+    // Counts of all results recorded for the requirement
+    private long ambiguityResultCount;
+
+    private long scopeEstimationCount;
+
+    private long implementationPlanCount;
+
+    private long jiraTicketCount;
+
+    private LocalDateTime updatedAt;
+
+    private long revision; // Incremented on every write, so a rebuild can tell the summary changed meanwhile
+
+    // Getters and Setters
+    public String getRequirementId() {
+        return requirementId;
+    }
+
+    public void setRequirementId(String requirementId) {
+        this.requirementId = requirementId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getLatestAmbiguityResultId() {
+        return latestAmbiguityResultId;
+    }
+
+    public void setLatestAmbiguityResultId(String latestAmbiguityResultId) {
+        this.latestAmbiguityResultId = latestAmbiguityResultId;
+    }
+
+    public List<String> getAmbiguityCategories() {
+        return ambiguityCategories;
+    }
+
+    public void setAmbiguityCategories(List<String> ambiguityCategories) {
+        this.ambiguityCategories = ambiguityCategories;
+    }
+
+    public Double getAmbiguityConfidenceScore() {
+        return ambiguityConfidenceScore;
+    }
+
+    public void setAmbiguityConfidenceScore(Double ambiguityConfidenceScore) {
+        this.ambiguityConfidenceScore = ambiguityConfidenceScore;
+    }
+
+    public LocalDateTime getLatestAmbiguityAt() {
+        return latestAmbiguityAt;
+    }
+
+    public void setLatestAmbiguityAt(LocalDateTime latestAmbiguityAt) {
+        this.latestAmbiguityAt = latestAmbiguityAt;
+    }
+
+    public String getLatestScopeEstimationId() {
+        return latestScopeEstimationId;
+    }
+
+    public void setLatestScopeEstimationId(String latestScopeEstimationId) {
+        this.latestScopeEstimationId = latestScopeEstimationId;
+    }
+
+    public Double getEstimatedHours() {
+        return estimatedHours;
+    }
+
+    public void setEstimatedHours(Double estimatedHours) {
+        this.estimatedHours = estimatedHours;
+    }
+
+    public String getComplexityLevel() {
+        return complexityLevel;
+    }
+
+    public void setComplexityLevel(String complexityLevel) {
+        this.complexityLevel = complexityLevel;
+    }
+
+    public LocalDateTime getLatestScopeEstimationAt() {
+        return latestScopeEstimationAt;
+    }
+
+    public void setLatestScopeEstimationAt(LocalDateTime latestScopeEstimationAt) {
+        this.latestScopeEstimationAt = latestScopeEstimationAt;
+    }
+
+    public String getLatestImplementationPlanId() {
+        return latestImplementationPlanId;
+    }
+
+    public void setLatestImplementationPlanId(String latestImplementationPlanId) {
+        this.latestImplementationPlanId = latestImplementationPlanId;
+    }
+
+    public String getPlanSummary() {
+        return planSummary;
+    }
+
+    public void setPlanSummary(String planSummary) {
+        this.planSummary = planSummary;
+    }
+
+    public Integer getImplementationStepCount() {
+        return implementationStepCount;
+    }
+
+    public void setImplementationStepCount(Integer implementationStepCount) {
+        this.implementationStepCount = implementationStepCount;
+    }
+
+    public LocalDateTime getLatestImplementationPlanAt() {
+        return latestImplementationPlanAt;
+    }
+
+    public void setLatestImplementationPlanAt(LocalDateTime latestImplementationPlanAt) {
+        this.latestImplementationPlanAt = latestImplementationPlanAt;
+    }
+
+    public String getLatestJiraTicketId() {
+        return latestJiraTicketId;
+    }
+
+    public void setLatestJiraTicketId(String latestJiraTicketId) {
+        this.latestJiraTicketId = latestJiraTicketId;
+    }
+
+    public String getLatestExternalTicketId() {
+        return latestExternalTicketId;
+    }
+
+    public void setLatestExternalTicketId(String latestExternalTicketId) {
+        this.latestExternalTicketId = latestExternalTicketId;
+    }
+
+    public Integer getLatestEstimatedStoryPoints() {
+        return latestEstimatedStoryPoints;
+    }
+
+    public void setLatestEstimatedStoryPoints(Integer latestEstimatedStoryPoints) {
+        this.latestEstimatedStoryPoints = latestEstimatedStoryPoints;
+    }
+
+    public LocalDateTime getLatestJiraTicketAt() {
+        return latestJiraTicketAt;
+    }
+
+    public void setLatestJiraTicketAt(LocalDateTime latestJiraTicketAt) {
+        this.latestJiraTicketAt = latestJiraTicketAt;
+    }
+
+    public long getAmbiguityResultCount() {
+        return ambiguityResultCount;
+    }
+
+    public void setAmbiguityResultCount(long ambiguityResultCount) {
+        this.ambiguityResultCount = ambiguityResultCount;
+    }
+
+    public long getScopeEstimationCount() {
+        return scopeEstimationCount;
+    }
+
+    public void setScopeEstimationCount(long scopeEstimationCount) {
+        this.scopeEstimationCount = scopeEstimationCount;
+    }
+
+    public long getImplementationPlanCount() {
+        return implementationPlanCount;
+    }
+
+    public void setImplementationPlanCount(long implementationPlanCount) {
+        this.implementationPlanCount = implementationPlanCount;
+    }
+
+    public long getJiraTicketCount() {
+        return jiraTicketCount;
+    }
+
+    public void setJiraTicketCount(long jiraTicketCount) {
+        this.jiraTicketCount = jiraTicketCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+}
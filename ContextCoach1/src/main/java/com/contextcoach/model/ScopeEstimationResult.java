@@ -3,10 +3,12 @@ package com.contextcoach.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "scope_estimation_results")
+@CompoundIndex(name = "requirement_created", def = "{'requirement': 1, 'createdAt': 1}")
 public class ScopeEstimationResult {
     @Id
     private String id;
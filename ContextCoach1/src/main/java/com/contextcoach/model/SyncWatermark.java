@@ -0,0 +1,65 @@
+package com.contextcoach.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Progress of an incremental sync from an external system, keyed by the sync name, so
+ * each run only processes what changed since the previous one
+ */
+@Document(collection = "sync_watermarks")
+public class SyncWatermark {
+    @Id
+    private String name; // e.g. jira:PROJ
+
+    private Instant watermark; // Everything updated before this, less a safety overlap, has been processed
+
+    private LocalDateTime lastRunAt;
+
+    private int lastRunItems; // Items processed by the last run
+
+    public SyncWatermark() {
+    }
+
+    public SyncWatermark(String name, Instant watermark) {
+        this.name = name;
+        this.watermark = watermark;
+    }
+
+    // Getters and Setters
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Instant watermark) {
+        this.watermark = watermark;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public int getLastRunItems() {
+        return lastRunItems;
+    }
+
+    public void setLastRunItems(int lastRunItems) {
+        this.lastRunItems = lastRunItems;
+    }
+}
@@ -0,0 +1,223 @@
+package com.contextcoach.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computed assignment of unassigned tickets to developers, with the resulting load of
+ * each developer
+ */
+public class TicketAssignmentPlan {
+
+    /**
+     * Developer chosen for one ticket
+     */
+    public static class Assignment {
+        private String ticketId;
+        private String ticketTitle;
+        private String developerId;
+        private String developerName;
+        private int storyPoints;
+        private double estimatedHours; // Story points scaled by the developer's productivity
+        private double skillMatch; // Fraction of the developer's skills the ticket mentions
+
+        public Assignment() {
+        }
+
+        public Assignment(String ticketId, String ticketTitle, String developerId, String developerName) {
+            this.ticketId = ticketId;
+            this.ticketTitle = ticketTitle;
+            this.developerId = developerId;
+            this.developerName = developerName;
+        }
+
+        public String getTicketId() {
+            return ticketId;
+        }
+
+        public void setTicketId(String ticketId) {
+            this.ticketId = ticketId;
+        }
+
+        public String getTicketTitle() {
+            return ticketTitle;
+        }
+
+        public void setTicketTitle(String ticketTitle) {
+            this.ticketTitle = ticketTitle;
+        }
+
+        public String getDeveloperId() {
+            return developerId;
+        }
+
+        public void setDeveloperId(String developerId) {
+            this.developerId = developerId;
+        }
+
+        public String getDeveloperName() {
+            return developerName;
+        }
+
+        public void setDeveloperName(String developerName) {
+            this.developerName = developerName;
+        }
+
+        public int getStoryPoints() {
+            return storyPoints;
+        }
+
+        public void setStoryPoints(int storyPoints) {
+            this.storyPoints = storyPoints;
+        }
+
+        public double getEstimatedHours() {
+            return estimatedHours;
+        }
+
+        public void setEstimatedHours(double estimatedHours) {
+            this.estimatedHours = estimatedHours;
+        }
+
+        public double getSkillMatch() {
+            return skillMatch;
+        }
+
+        public void setSkillMatch(double skillMatch) {
+            this.skillMatch = skillMatch;
+        }
+    }
+
+    /**
+     * Load of one developer under the assignment
+     */
+    public static class DeveloperLoad {
+        private String developerId;
+        private String developerName;
+        private int ticketCount;
+        private int storyPoints;
+        private double estimatedHours;
+        private double existingHours; // Open tickets the developer already has
+        private double capacityHours; // Preferred hours per day over the planning horizon
+
+        public DeveloperLoad() {
+        }
+
+        public DeveloperLoad(String developerId, String developerName, double capacityHours) {
+            this.developerId = developerId;
+            this.developerName = developerName;
+            this.capacityHours = capacityHours;
+        }
+
+        public String getDeveloperId() {
+            return developerId;
+        }
+
+        public void setDeveloperId(String developerId) {
+            this.developerId = developerId;
+        }
+
+        public String getDeveloperName() {
+            return developerName;
+        }
+
+        public void setDeveloperName(String developerName) {
+            this.developerName = developerName;
+        }
+
+        public int getTicketCount() {
+            return ticketCount;
+        }
+
+        public void setTicketCount(int ticketCount) {
+            this.ticketCount = ticketCount;
+        }
+
+        public int getStoryPoints() {
+            return storyPoints;
+        }
+
+        public void setStoryPoints(int storyPoints) {
+            this.storyPoints = storyPoints;
+        }
+
+        public double getEstimatedHours() {
+            return estimatedHours;
+        }
+
+        public void setEstimatedHours(double estimatedHours) {
+            this.estimatedHours = estimatedHours;
+        }
+
+        public double getExistingHours() {
+            return existingHours;
+        }
+
+        public void setExistingHours(double existingHours) {
+            this.existingHours = existingHours;
+        }
+
+        public double getCapacityHours() {
+            return capacityHours;
+        }
+
+        public void setCapacityHours(double capacityHours) {
+            this.capacityHours = capacityHours;
+        }
+
+        public double getUtilization() {
+            return capacityHours > 0 ? (existingHours + estimatedHours) / capacityHours : 0.0;
+        }
+    }
+
+    private List<Assignment> assignments = new ArrayList<>();
+
+    private List<DeveloperLoad> developers = new ArrayList<>();
+
+    private double totalCost;
+
+    private boolean applied; // Whether the tickets were saved with their developers
+
+    private long elapsedMillis;
+
+    // Getters and Setters
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<Assignment> assignments) {
+        this.assignments = assignments;
+    }
+
+    public List<DeveloperLoad> getDevelopers() {
+        return developers;
+    }
+
+    public void setDevelopers(List<DeveloperLoad> developers) {
+        this.developers = developers;
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(double totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
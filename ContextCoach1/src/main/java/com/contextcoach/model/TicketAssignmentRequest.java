@@ -0,0 +1,48 @@
+package com.contextcoach.model;
+
+import java.util.List;
+
+/**
+ * Tickets and developers to compute an assignment for
+ */
+public class TicketAssignmentRequest {
+    private List<String> ticketIds; // Optional, all unassigned tickets if empty
+
+    private List<String> developerIds; // Optional, all developers if empty
+
+    private boolean apply; // Whether to save the assignment or only return it
+
+    public TicketAssignmentRequest() {
+    }
+
+    public TicketAssignmentRequest(List<String> ticketIds, List<String> developerIds, boolean apply) {
+        this.ticketIds = ticketIds;
+        this.developerIds = developerIds;
+        this.apply = apply;
+    }
+
+    // Getters and Setters
+    public List<String> getTicketIds() {
+        return ticketIds;
+    }
+
+    public void setTicketIds(List<String> ticketIds) {
+        this.ticketIds = ticketIds;
+    }
+
+    public List<String> getDeveloperIds() {
+        return developerIds;
+    }
+
+    public void setDeveloperIds(List<String> developerIds) {
+        this.developerIds = developerIds;
+    }
+
+    public boolean isApply() {
+        return apply;
+    }
+
+    public void setApply(boolean apply) {
+        this.apply = apply;
+    }
+}
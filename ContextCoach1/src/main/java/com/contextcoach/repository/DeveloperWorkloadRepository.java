@@ -0,0 +1,10 @@
+package com.contextcoach.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.contextcoach.model.DeveloperWorkload;
+
+@Repository
+public interface DeveloperWorkloadRepository extends MongoRepository<DeveloperWorkload, String> {
+}
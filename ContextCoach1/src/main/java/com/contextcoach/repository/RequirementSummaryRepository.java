@@ -0,0 +1,14 @@
+package com.contextcoach.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.contextcoach.model.RequirementSummary;
+
+@Repository
+public interface RequirementSummaryRepository extends MongoRepository<RequirementSummary, String> {
+    // Find summaries for requirements with a specific complexity level
+    List<RequirementSummary> findByComplexityLevel(String complexityLevel);
+}
@@ -0,0 +1,310 @@
+package com.contextcoach.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiled Aho-Corasick automaton for case-insensitive, whole-word matching of a
+ * categorized term lexicon. The trie is compiled into a dense transition table over
+ * the characters that occur in the lexicon, so scanning costs one array lookup per
+ * input character regardless of lexicon size. Runs of whitespace in the input match
+ * a single space in a term, and reported offsets refer to the original text. Overlapping
+ * matches are resolved leftmost-longest, so "as fast as possible" is reported once and
+ * not again as "fast": each part of the text counts towards at most one match.
+ */
+public final class AhoCorasickMatcher {
+
+    /**
+     * Receives matches while a text is scanned
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Called for every match
+         *
+         * @param start The start offset of the match in the text (inclusive)
+         * @param end The end offset of the match in the text (exclusive)
+         * @param term The matched lexicon term
+         * @param category The category of the term
+         */
+        void onMatch(int start, int end, String term, String category);
+    }
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    private final int[] charClasses = new int[Character.MAX_VALUE + 1];
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final String[] patternTerms;
+    private final String[] patternCategories;
+    private final int[] patternLengths;
+    private final boolean[] patternWordStart;
+    private final boolean[] patternWordEnd;
+    private final int maxPatternLength;
+
+    /**
+     * Compiles an automaton for a categorized lexicon
+     *
+     * @param lexicon Terms keyed by category; a term may appear in several categories
+     */
+    public AhoCorasickMatcher(Map<String, List<String>> lexicon) {
+        // Normalize the patterns: lowercase with single spaces
+        Map<String, List<String>> patterns = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : lexicon.entrySet()) {
+            for (String term : entry.getValue()) {
+                String normalized = normalize(term);
+                if (!normalized.isEmpty()) {
+                    patterns.computeIfAbsent(normalized, key -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+        }
+
+        // Assign a character class to each character used by the lexicon; class 0 is "any other character"
+        int nextClass = 1;
+        int patternCount = 0;
+        int maxLength = 1;
+        for (Map.Entry<String, List<String>> pattern : patterns.entrySet()) {
+            String term = pattern.getKey();
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (charClasses[c] == 0) {
+                    charClasses[c] = nextClass++;
+                }
+            }
+            patternCount += pattern.getValue().size();
+            maxLength = Math.max(maxLength, term.length());
+        }
+        this.alphabetSize = nextClass;
+        this.maxPatternLength = maxLength;
+        this.patternTerms = new String[patternCount];
+        this.patternCategories = new String[patternCount];
+        this.patternLengths = new int[patternCount];
+        this.patternWordStart = new boolean[patternCount];
+        this.patternWordEnd = new boolean[patternCount];
+
+        // Build the trie
+        List<int[]> rows = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        rows.add(newRow());
+        stateOutputs.add(new ArrayList<>());
+        int patternIndex = 0;
+        for (Map.Entry<String, List<String>> pattern : patterns.entrySet()) {
+            String term = pattern.getKey();
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int cls = charClasses[term.charAt(i)];
+                int next = rows.get(state)[cls];
+                if (next < 0) {
+                    next = rows.size();
+                    rows.get(state)[cls] = next;
+                    rows.add(newRow());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            for (String category : pattern.getValue()) {
+                patternTerms[patternIndex] = term;
+                patternCategories[patternIndex] = category;
+                patternLengths[patternIndex] = term.length();
+                patternWordStart[patternIndex] = Character.isLetterOrDigit(term.charAt(0));
+                patternWordEnd[patternIndex] = Character.isLetterOrDigit(term.charAt(term.length() - 1));
+                stateOutputs.get(state).add(patternIndex);
+                patternIndex++;
+            }
+        }
+
+        // Compute failure links breadth-first and turn the trie into a complete DFA
+        int stateCount = rows.size();
+        int[] failure = new int[stateCount];
+        this.transitions = new int[stateCount * alphabetSize];
+        this.outputs = new int[stateCount][];
+        Deque<Integer> queue = new ArrayDeque<>();
+        int[] root = rows.get(0);
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            if (root[cls] < 0) {
+                transitions[cls] = 0;
+            } else {
+                transitions[cls] = root[cls];
+                failure[root[cls]] = 0;
+                queue.add(root[cls]);
+            }
+        }
+        outputs[0] = toArray(stateOutputs.get(0));
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> merged = stateOutputs.get(state);
+            merged.addAll(stateOutputs.get(failure[state]));
+            outputs[state] = toArray(merged);
+            int[] row = rows.get(state);
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = row[cls];
+                if (next < 0) {
+                    transitions[state * alphabetSize + cls] = transitions[failure[state] * alphabetSize + cls];
+                } else {
+                    transitions[state * alphabetSize + cls] = next;
+                    failure[next] = transitions[failure[state] * alphabetSize + cls];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans a text in a single linear pass, reporting the leftmost-longest non-overlapping
+     * whole-word matches to the handler in text order
+     *
+     * @param text The text to scan
+     * @param handler The match handler
+     * @return The number of words in the text
+     */
+    public int scan(CharSequence text, MatchHandler handler) {
+        int[] fedPositions = new int[maxPatternLength];
+        int fedCount = 0;
+        int state = 0;
+        int words = 0;
+        boolean previousWhitespace = true;
+        boolean previousWordChar = false;
+        int length = text.length();
+        Overlaps overlaps = new Overlaps(handler);
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean wordChar = Character.isLetterOrDigit(c);
+            if (wordChar && !previousWordChar) {
+                words++;
+            }
+            previousWordChar = wordChar;
+
+            if (Character.isWhitespace(c)) {
+                if (previousWhitespace) {
+                    continue;
+                }
+                previousWhitespace = true;
+                c = ' ';
+            } else {
+                previousWhitespace = false;
+                c = Character.toLowerCase(c);
+            }
+
+            fedPositions[fedCount % maxPatternLength] = i;
+            fedCount++;
+            state = transitions[state * alphabetSize + charClasses[c]];
+
+            int[] matched = outputs[state];
+            for (int p = 0; p < matched.length; p++) {
+                int pattern = matched[p];
+                int fedStart = fedCount - patternLengths[pattern];
+                int start = fedPositions[fedStart % maxPatternLength];
+                int end = i + 1;
+                if (patternWordStart[pattern] && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+                    continue;
+                }
+                if (patternWordEnd[pattern] && end < length && Character.isLetterOrDigit(text.charAt(end))) {
+                    continue;
+                }
+                overlaps.add(new Match(fedStart, fedCount, start, end, pattern));
+            }
+            // A match still to come is at most maxPatternLength characters long, so it cannot start before this
+            overlaps.settleBefore(fedCount - maxPatternLength);
+        }
+        overlaps.settleBefore(Integer.MAX_VALUE);
+        return words;
+    }
+
+    /**
+     * Gets the number of states in the compiled automaton
+     *
+     * @return The state count
+     */
+    public int getStateCount() {
+        return outputs.length;
+    }
+
+    /**
+     * A candidate match, with its bounds both in fed (whitespace-collapsed) characters and
+     * in the original text
+     */
+    private static final class Match {
+        private final int fedStart;
+        private final int fedEnd;
+        private final int start;
+        private final int end;
+        private final int pattern;
+
+        private Match(int fedStart, int fedEnd, int start, int end, int pattern) {
+            this.fedStart = fedStart;
+            this.fedEnd = fedEnd;
+            this.start = start;
+            this.end = end;
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * Holds candidate matches until no later match can overlap them from the left, then
+     * reports them leftmost-longest, dropping those that overlap a reported match
+     */
+    private final class Overlaps {
+        private final MatchHandler handler;
+        // Ordered by start, longest first
+        private final List<Match> pending = new ArrayList<>();
+        private int reportedEnd;
+
+        private Overlaps(MatchHandler handler) {
+            this.handler = handler;
+        }
+
+        private void add(Match match) {
+            int index = pending.size();
+            while (index > 0 && precedes(match, pending.get(index - 1))) {
+                index--;
+            }
+            pending.add(index, match);
+        }
+
+        private static boolean precedes(Match a, Match b) {
+            return a.fedStart < b.fedStart || (a.fedStart == b.fedStart && a.fedEnd > b.fedEnd);
+        }
+
+        /**
+         * Reports or drops every pending match that starts before a fed position
+         */
+        private void settleBefore(int fedPosition) {
+            while (!pending.isEmpty() && pending.get(0).fedStart < fedPosition) {
+                Match match = pending.remove(0);
+                if (match.fedStart >= reportedEnd) {
+                    reportedEnd = match.fedEnd;
+                    handler.onMatch(match.start, match.end, patternTerms[match.pattern], patternCategories[match.pattern]);
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        if (values.isEmpty()) {
+            return NO_OUTPUTS;
+        }
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : term.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,127 @@
+package com.contextcoach.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * The categorized lexicon of ambiguous terms, loaded once and compiled into an
+ * Aho-Corasick automaton. The ambiguity pre-screen and the heuristic clarity scorer
+ * both match against it, so a term added to the lexicon file affects both.
+ */
+@Component
+public class AmbiguityLexicon {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmbiguityLexicon.class);
+
+    private static final String BUNDLED_LEXICON = "ambiguity-lexicon.txt";
+
+    private final Map<String, List<String>> terms;
+    private final Set<String> conclusiveCategories;
+    private final AhoCorasickMatcher matcher;
+
+    /**
+     * Loads the lexicon bundled with the application
+     */
+    public AmbiguityLexicon() {
+        this(bundledLexicon());
+    }
+
+    /**
+     * Loads a lexicon file. Each line is "Category=term, term, ...", and a category
+     * prefixed with "!" is conclusive.
+     *
+     * @param lexicon The lexicon file
+     * @throws IOException If the lexicon cannot be read
+     */
+    @Autowired
+    public AmbiguityLexicon(@Value("${contextcoach.prescreen.lexicon:classpath:ambiguity-lexicon.txt}") Resource lexicon)
+            throws IOException {
+        this(readLexicon(lexicon));
+    }
+
+    private AmbiguityLexicon(Map<String, List<String>> terms) {
+        Set<String> conclusive = new HashSet<>();
+        Map<String, List<String>> categories = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : terms.entrySet()) {
+            String category = entry.getKey();
+            if (category.startsWith("!")) {
+                category = category.substring(1).trim();
+                conclusive.add(category);
+            }
+            categories.computeIfAbsent(category, key -> new ArrayList<>()).addAll(entry.getValue());
+        }
+        this.terms = Collections.unmodifiableMap(categories);
+        this.conclusiveCategories = Collections.unmodifiableSet(conclusive);
+        this.matcher = new AhoCorasickMatcher(categories);
+        logger.debug("Ambiguity lexicon of {} categories compiled into {} automaton states",
+                categories.size(), matcher.getStateCount());
+    }
+
+    /**
+     * @return The compiled matcher for the lexicon terms
+     */
+    public AhoCorasickMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * @return The terms keyed by category, without the conclusive marker
+     */
+    public Map<String, List<String>> getTerms() {
+        return terms;
+    }
+
+    /**
+     * @param category A category of the lexicon
+     * @return Whether a single match of the category marks a requirement as vague
+     */
+    public boolean isConclusive(String category) {
+        return conclusiveCategories.contains(category);
+    }
+
+    private static Map<String, List<String>> bundledLexicon() {
+        try {
+            return readLexicon(new ClassPathResource(BUNDLED_LEXICON));
+        } catch (IOException e) {
+            throw new IllegalStateException("The bundled ambiguity lexicon cannot be read", e);
+        }
+    }
+
+    private static Map<String, List<String>> readLexicon(Resource lexicon) throws IOException {
+        Map<String, List<String>> terms = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(lexicon.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int separator = line.indexOf('=');
+                if (line.isEmpty() || line.startsWith("#") || separator <= 0) {
+                    continue;
+                }
+                List<String> categoryTerms = terms.computeIfAbsent(line.substring(0, separator).trim(), key -> new ArrayList<>());
+                for (String term : line.substring(separator + 1).split(",")) {
+                    if (!term.isBlank()) {
+                        categoryTerms.add(term.trim());
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,108 @@
+package com.contextcoach.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.model.PreScreenResult;
+import com.contextcoach.model.PreScreenResult.TermMatch;
+
+/**
+ * Local ambiguity pre-screen. The configurable lexicon of vague terms is compiled into an
+ * Aho-Corasick automaton once at startup and every requirement is scanned in a single
+ * linear pass. When the result is conclusive (no vague terms at all, a placeholder such
+ * as TBD, or a high density of vague terms) the LLM ambiguity call can be skipped.
+ */
+@Service
+public class AmbiguityPreScreenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmbiguityPreScreenService.class);
+
+    private final AmbiguityLexicon lexicon;
+    private final AhoCorasickMatcher matcher;
+    private final boolean skipLlmWhenConclusive;
+    private final int minWordsForClear;
+    private final double vagueMatchesPer100Words;
+    private final int maxReportedMatches;
+
+    public AmbiguityPreScreenService(
+            AmbiguityLexicon lexicon,
+            @Value("${contextcoach.prescreen.skip-llm-when-conclusive:true}") boolean skipLlmWhenConclusive,
+            @Value("${contextcoach.prescreen.min-words-for-clear:20}") int minWordsForClear,
+            @Value("${contextcoach.prescreen.vague-matches-per-100-words:8.0}") double vagueMatchesPer100Words,
+            @Value("${contextcoach.prescreen.max-reported-matches:500}") int maxReportedMatches) {
+        this.lexicon = lexicon;
+        this.matcher = lexicon.getMatcher();
+        this.skipLlmWhenConclusive = skipLlmWhenConclusive;
+        this.minWordsForClear = minWordsForClear;
+        this.vagueMatchesPer100Words = vagueMatchesPer100Words;
+        this.maxReportedMatches = maxReportedMatches;
+        logger.info("AmbiguityPreScreenService initialized with {} categories compiled into {} automaton states",
+                lexicon.getTerms().size(), matcher.getStateCount());
+    }
+
+    /**
+     * Screens a requirement text for ambiguous terms
+     *
+     * @param text The requirement text
+     * @return The matches with offsets, per-category counts and a verdict
+     */
+    public PreScreenResult screen(String text) {
+        PreScreenResult result = new PreScreenResult();
+        if (text == null || text.isEmpty()) {
+            result.setVerdict(PreScreenResult.INCONCLUSIVE);
+            return result;
+        }
+
+        Map<String, Integer> categoryCounts = result.getCategoryCounts();
+        List<TermMatch> matches = result.getMatches();
+        boolean[] conclusiveHit = new boolean[1];
+        int[] matchCount = new int[1];
+
+        int words = matcher.scan(text, (start, end, term, category) -> {
+            matchCount[0]++;
+            categoryCounts.merge(category, 1, Integer::sum);
+            if (lexicon.isConclusive(category)) {
+                conclusiveHit[0] = true;
+            }
+            if (matches.size() < maxReportedMatches) {
+                matches.add(new TermMatch(category, text.substring(start, end), start, end));
+            }
+        });
+
+        result.setWordCount(words);
+        result.setMatchCount(matchCount[0]);
+        result.setMatchesTruncated(matchCount[0] > matches.size());
+        double density = words > 0 ? matchCount[0] * 100.0 / words : 0.0;
+        result.setMatchesPer100Words(Math.round(density * 100.0) / 100.0);
+
+        if (conclusiveHit[0] || (words > 0 && density >= vagueMatchesPer100Words)) {
+            result.setVerdict(PreScreenResult.VAGUE);
+        } else if (matchCount[0] == 0 && words >= minWordsForClear) {
+            result.setVerdict(PreScreenResult.CLEAR);
+        } else {
+            result.setVerdict(PreScreenResult.INCONCLUSIVE);
+        }
+        logger.debug("Pre-screen of {} words found {} matches, verdict: {}", words, matchCount[0], result.getVerdict());
+        return result;
+    }
+
+    /**
+     * Screens a requirement text and returns the result only if the LLM call can be skipped
+     *
+     * @param text The requirement text
+     * @return The conclusive pre-screen result, or empty if the LLM should be consulted
+     */
+    public Optional<PreScreenResult> conclusiveResult(String text) {
+        if (!skipLlmWhenConclusive) {
+            return Optional.empty();
+        }
+        PreScreenResult result = screen(text);
+        return result.isConclusive() ? Optional.of(result) : Optional.empty();
+    }
+}
@@ -0,0 +1,239 @@
+package com.contextcoach.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Non-blocking client for the RabbitHole chat completions API. Calls are sent with the
+ * JDK HTTP client, so a waiting call holds no thread and a small IO pool serves thousands
+ * of concurrent calls. The number of calls in flight is capped; beyond the cap a call is
+ * rejected at once with a 503 instead of queueing without bound. Connection errors, 429
+ * and 5xx responses are retried with exponential backoff, without blocking a thread
+ * between attempts, as long as the call is within its total time budget. A call that
+ * exceeds the budget fails with a 504 and aborts the request it is waiting for; its slot
+ * is held until that request has ended, so the cap bounds the open requests.
+ */
+@Service
+public class AsyncLlmClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncLlmClient.class);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Executor ioExecutor;
+    private final URI apiUri;
+    private final String apiKey;
+    private final String model;
+    private final Semaphore inFlight;
+    private final Duration timeout;
+    private final Duration totalTimeout;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long retryAfterSeconds;
+
+    private final Timer callDuration;
+    private final Counter rejectedCalls;
+    private final Counter retriedCalls;
+
+    public AsyncLlmClient(
+            @Qualifier("llmIoExecutor") Executor ioExecutor,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rabbithole.api.key}") String apiKey,
+            @Value("${rabbithole.model}") String model,
+            @Value("${rabbithole.api.url:https://api.rabbithole.cred.club/v1/chat/completions}") String apiUrl,
+            @Value("${contextcoach.llm.max-in-flight:1000}") int maxInFlight,
+            @Value("${contextcoach.llm.timeout:60s}") Duration timeout,
+            @Value("${contextcoach.llm.total-timeout:180s}") Duration totalTimeout,
+            @Value("${contextcoach.llm.max-attempts:3}") int maxAttempts,
+            @Value("${contextcoach.llm.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${contextcoach.llm.retry-after:5s}") Duration retryAfter) {
+        this.ioExecutor = ioExecutor;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(ioExecutor)
+                .connectTimeout(timeout)
+                .build();
+        this.apiUri = URI.create(apiUrl);
+        this.apiKey = apiKey;
+        this.model = model;
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.timeout = timeout;
+        this.totalTimeout = totalTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        int capacity = Math.max(1, maxInFlight);
+        this.callDuration = Timer.builder("contextcoach.llm.duration")
+                .description("Duration of LLM calls including retries").register(meterRegistry);
+        this.rejectedCalls = Counter.builder("contextcoach.llm.rejected")
+                .description("LLM calls rejected because too many were in flight").register(meterRegistry);
+        this.retriedCalls = Counter.builder("contextcoach.llm.retries")
+                .description("LLM call attempts that were retried").register(meterRegistry);
+        Gauge.builder("contextcoach.llm.in-flight", inFlight, permits -> capacity - permits.availablePermits())
+                .description("LLM calls waiting for a response").register(meterRegistry);
+        logger.info("AsyncLlmClient initialized with model: {} and at most {} calls in flight", model, capacity);
+    }
+
+    /**
+     * Sends a prompt as a single user message
+     *
+     * @param prompt The prompt to send
+     * @return A future with the content of the first choice. It fails with a
+     *         ServiceUnavailableException when too many calls are in flight, and with a
+     *         ServiceException when the API keeps failing, answers without content or
+     *         does not answer within the total time budget.
+     */
+    public CompletableFuture<String> complete(String prompt) {
+        if (!inFlight.tryAcquire()) {
+            rejectedCalls.increment();
+            logger.warn("Rejecting LLM call, too many calls in flight");
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Too many LLM calls in progress, please retry later", retryAfterSeconds));
+        }
+
+        CompletableFuture<String> result;
+        long start = System.nanoTime();
+        long deadline = start + totalTimeout.toNanos();
+        Call call = new Call();
+        try {
+            CompletableFuture<String> exchange = send(call, buildRequest(prompt), 1, deadline);
+            // The slot is freed when the request ends, not when the caller stops waiting for it
+            exchange.whenComplete((body, error) -> inFlight.release());
+            result = exchange
+                    .thenApply(this::extractContent)
+                    .orTimeout(totalTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(error -> {
+                        if (error instanceof TimeoutException) {
+                            logger.warn("LLM call did not finish within {} ms", totalTimeout.toMillis());
+                            call.cancel();
+                            throw new ServiceException("RabbitHole API did not answer within "
+                                    + totalTimeout.toMillis() + " ms", error, HttpStatus.GATEWAY_TIMEOUT);
+                        }
+                        throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                    });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((content, error) ->
+                callDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private HttpRequest buildRequest(String prompt) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", model);
+        ObjectNode userMessage = requestBody.putArray("messages").addObject();
+        userMessage.put("role", "user");
+        userMessage.put("content", prompt);
+
+        return HttpRequest.newBuilder(apiUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
+                .build();
+    }
+
+    private CompletableFuture<String> send(Call call, HttpRequest request, int attempt, long deadline) {
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        call.track(exchange);
+        return exchange
+                .handle((response, error) -> {
+                    boolean retryable = !call.isCancelled() && (error != null || isRetryable(response.statusCode()));
+                    long delay = initialBackoffMillis << (attempt - 1);
+                    // Only retry when the next attempt starts before the call's budget runs out
+                    boolean withinBudget = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) < deadline;
+                    if (retryable && attempt < maxAttempts && withinBudget) {
+                        logger.warn("LLM call attempt {} failed ({}), retrying in {} ms", attempt,
+                                error != null ? error.toString() : "status " + response.statusCode(), delay);
+                        retriedCalls.increment();
+                        Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, ioExecutor);
+                        return CompletableFuture.supplyAsync(() -> request, delayed)
+                                .thenCompose(retry -> send(call, retry, attempt + 1, deadline));
+                    }
+                    if (error != null) {
+                        return CompletableFuture.<String>failedFuture(new ServiceException(
+                                "Error calling RabbitHole API: " + error.getMessage(), error, HttpStatus.BAD_GATEWAY));
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        return CompletableFuture.<String>failedFuture(new ServiceException(
+                                "RabbitHole API returned status " + response.statusCode(), HttpStatus.BAD_GATEWAY));
+                    }
+                    return CompletableFuture.completedFuture(response.body());
+                })
+                .thenCompose(future -> future);
+    }
+
+    /**
+     * The request a call is waiting for, so a call that ran out of time can abort it
+     */
+    private static final class Call {
+        private CompletableFuture<?> exchange;
+        private boolean cancelled;
+
+        private synchronized void track(CompletableFuture<?> next) {
+            exchange = next;
+            if (cancelled) {
+                next.cancel(true);
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (exchange != null) {
+                exchange.cancel(true);
+            }
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    private String extractContent(String responseBody) {
+        try {
+            JsonNode content = objectMapper.readTree(responseBody).path("choices").path(0).path("message").path("content");
+            if (content.isMissingNode() || content.isNull()) {
+                throw new ServiceException("Unable to extract content from RabbitHole API response", HttpStatus.BAD_GATEWAY);
+            }
+            return content.asText();
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("Error reading RabbitHole API response: " + e.getMessage(), e, HttpStatus.BAD_GATEWAY);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.contextcoach.service;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+
+/**
+ * Applies a partial update to one versioned document with a single findAndModify. When
+ * the caller passes the version it last read, the update only matches that version, so a
+ * concurrent change is reported as a conflict instead of being overwritten.
+ */
+final class AtomicPatch {
+
+    private AtomicPatch() {
+    }
+
+    /**
+     * Applies the update and increments the version
+     *
+     * @param expectedVersion The version the caller last read, or null to update any version
+     * @param returnNew Whether to return the document after the update rather than before
+     * @param label The kind of document, for error messages
+     * @return The document before or after the update
+     * @throws ResourceNotFoundException if the document does not exist
+     * @throws ServiceException with status CONFLICT if the document has another version
+     */
+    static <T> T apply(MongoTemplate mongoTemplate, String id, Long expectedVersion, Update update,
+            boolean returnNew, Class<T> type, String label) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+        T result = mongoTemplate.findAndModify(new Query(criteria), update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(returnNew), type);
+        if (result != null) {
+            return result;
+        }
+        // Only a versioned miss needs the second lookup to tell the two cases apart
+        if (expectedVersion == null || !mongoTemplate.exists(new Query(Criteria.where("_id").is(id)), type)) {
+            throw new ResourceNotFoundException(label + " not found with ID: " + id);
+        }
+        throw new ServiceException(label + " with ID " + id + " was changed since version " + expectedVersion
+                + ", reload it and retry", HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,473 @@
+package com.contextcoach.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.contextcoach.model.BulkIngestionReport;
+import com.contextcoach.model.BulkIngestionReport.FileOutcome;
+import com.contextcoach.model.ExtractedDocument;
+import com.contextcoach.model.Requirement;
+
+/**
+ * Ingests many requirement files at once, either as multipart files or as entries of a ZIP archive.
+ * Files are processed in chunks: each chunk is hashed and deduplicated against earlier files and
+ * stored requirements, extracted in parallel on the extraction executor, and written with a
+ * single insertAll. A chunk is closed at the configured number of files or once its files
+ * reach the configured total size, so memory use is bounded by the chunk rather than the upload.
+ * The unique content hash index settles uploads of the same content that race each other:
+ * the requirement inserted second is reported as a duplicate of the first.
+ */
+@Service
+public class BulkIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkIngestionService.class);
+
+    private final FileService fileService;
+    private final MongoTemplate mongoTemplate;
+    private final RequirementSummaryService requirementSummaryService;
+    private final ClarityScorer clarityScorer;
+    private final TextNormalizer textNormalizer;
+    private final Executor extractionExecutor;
+    private final int batchSize;
+    private final long maxEntryBytes;
+    private final long maxChunkBytes;
+
+    public BulkIngestionService(
+            FileService fileService,
+            MongoTemplate mongoTemplate,
+            RequirementSummaryService requirementSummaryService,
+            ClarityScorer clarityScorer,
+            TextNormalizer textNormalizer,
+            @Qualifier("extractionExecutor") Executor extractionExecutor,
+            @Value("${contextcoach.ingestion.batch-size:200}") int batchSize,
+            @Value("${contextcoach.ingestion.max-entry-size:10MB}") DataSize maxEntrySize,
+            @Value("${contextcoach.ingestion.max-chunk-size:64MB}") DataSize maxChunkSize) {
+        this.fileService = fileService;
+        this.mongoTemplate = mongoTemplate;
+        this.requirementSummaryService = requirementSummaryService;
+        this.clarityScorer = clarityScorer;
+        this.textNormalizer = textNormalizer;
+        this.extractionExecutor = extractionExecutor;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.maxChunkBytes = maxChunkSize.toBytes();
+    }
+
+    /**
+     * Ingests a set of uploaded files and/or a ZIP archive of files
+     *
+     * @param files The uploaded files (may be null or empty)
+     * @param archive A ZIP archive of files (may be null)
+     * @return The per-file outcomes and overall throughput
+     * @throws IOException If the archive cannot be read
+     * @throws IllegalArgumentException If no files were provided
+     */
+    public BulkIngestionReport ingest(List<MultipartFile> files, MultipartFile archive) throws IOException {
+        boolean hasFiles = files != null && !files.isEmpty();
+        boolean hasArchive = archive != null && !archive.isEmpty();
+        if (!hasFiles && !hasArchive) {
+            logger.error("Bulk ingestion requested without files or archive");
+            throw new IllegalArgumentException("At least one file or a ZIP archive is required");
+        }
+
+        logger.info("Starting bulk ingestion of {} files{}", hasFiles ? files.size() : 0,
+                hasArchive ? " and archive " + archive.getOriginalFilename() : "");
+        long startTime = System.currentTimeMillis();
+        BulkIngestionReport report = new BulkIngestionReport();
+        Map<String, String> seenHashes = new HashMap<>();
+
+        if (hasFiles) {
+            ingestItems(new MultipartItemIterator(files, maxEntryBytes), seenHashes, report);
+        }
+        if (hasArchive) {
+            try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+                ingestItems(new ZipItemIterator(zip, maxEntryBytes), seenHashes, report);
+            }
+        }
+
+        report.complete(System.currentTimeMillis() - startTime);
+        logger.info("Bulk ingestion finished: {} created, {} duplicates, {} failed in {}ms ({} files/s)",
+                report.getCreatedCount(), report.getDuplicateCount(), report.getFailedCount(),
+                report.getElapsedMillis(), String.format("%.1f", report.getFilesPerSecond()));
+        return report;
+    }
+
+    private void ingestItems(Iterator<IngestionItem> items, Map<String, String> seenHashes, BulkIngestionReport report)
+            throws IOException {
+        List<IngestionItem> chunk = new ArrayList<>(batchSize);
+        long chunkBytes = 0;
+        while (items.hasNext()) {
+            IngestionItem item = items.next();
+            long itemBytes = item.content != null ? item.content.length : 0;
+            // A file that would take the chunk past its size starts the next chunk instead
+            if (!chunk.isEmpty() && chunkBytes + itemBytes > maxChunkBytes) {
+                ingestChunk(chunk, seenHashes, report);
+                chunk.clear();
+                chunkBytes = 0;
+            }
+            chunk.add(item);
+            chunkBytes += itemBytes;
+            if (chunk.size() == batchSize) {
+                ingestChunk(chunk, seenHashes, report);
+                chunk.clear();
+                chunkBytes = 0;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            ingestChunk(chunk, seenHashes, report);
+        }
+    }
+
+    private void ingestChunk(List<IngestionItem> chunk, Map<String, String> seenHashes, BulkIngestionReport report)
+            throws IOException {
+        logger.debug("Ingesting chunk of {} files", chunk.size());
+
+        // Hash and deduplicate against files seen earlier in this ingestion
+        List<IngestionItem> candidates = new ArrayList<>(chunk.size());
+        for (IngestionItem item : chunk) {
+            if (item.readError != null) {
+                report.addOutcome(failed(item, null, item.readError));
+                continue;
+            }
+            item.contentHash = FileService.computeContentHash(item.content);
+            String firstFile = seenHashes.putIfAbsent(item.contentHash, item.fileName);
+            if (firstFile != null) {
+                FileOutcome outcome = new FileOutcome(item.fileName, FileOutcome.DUPLICATE, item.contentHash, item.content.length);
+                outcome.setMessage("Duplicate of " + firstFile + " in this upload");
+                report.addOutcome(outcome);
+            } else {
+                candidates.add(item);
+            }
+        }
+
+        // Deduplicate against stored requirements with one indexed query per chunk
+        List<String> candidateHashes = new ArrayList<>(candidates.size());
+        for (IngestionItem item : candidates) {
+            candidateHashes.add(item.contentHash);
+        }
+        Map<String, String> existing = findExistingHashes(candidateHashes);
+        List<IngestionItem> toExtract = new ArrayList<>(candidates.size());
+        for (IngestionItem item : candidates) {
+            String existingId = existing.get(item.contentHash);
+            if (existingId != null) {
+                FileOutcome outcome = new FileOutcome(item.fileName, FileOutcome.DUPLICATE, item.contentHash, item.content.length);
+                outcome.setRequirementId(existingId);
+                outcome.setMessage("Content already ingested");
+                report.addOutcome(outcome);
+            } else {
+                toExtract.add(item);
+            }
+        }
+
+        // Extract text in parallel on the bounded extraction pool; the caller extracts
+        // the files no worker has picked up, so a busy pool slows ingestion down
+        List<Callable<ExtractedDocument>> extractions = new ArrayList<>(toExtract.size());
+        for (IngestionItem item : toExtract) {
+            extractions.add(() -> extract(item));
+        }
+        List<ExtractedDocument> documents = DocumentParts.runAll(extractions, extractionExecutor);
+
+        List<Requirement> requirements = new ArrayList<>(toExtract.size());
+        List<FileOutcome> pending = new ArrayList<>(toExtract.size());
+        for (int i = 0; i < toExtract.size(); i++) {
+            IngestionItem item = toExtract.get(i);
+            ExtractedDocument document = documents.get(i);
+            if (document == null) {
+                logger.warn("Failed to extract text from {}: {}", item.fileName, item.extractionError.getMessage());
+                report.addOutcome(failed(item, item.contentHash, item.extractionError));
+            } else {
+                TextNormalizer.Result normalized = textNormalizer.normalize(document.getText());
+                String text = normalized.getText();
+                Requirement requirement = new Requirement();
+                // Known before the insert, so a partly failed insert can tell its own rows apart
+                requirement.setId(new ObjectId().toHexString());
+                requirement.setTitle(titleOf(item.fileName));
+                requirement.setContent(text);
+                requirement.setRawContent(document.getText());
+                requirement.setNormalizationStats(normalized.getStats());
+                requirement.setFileName(item.fileName);
+                requirement.setFileType(item.contentType);
+                requirement.setSourceType(document.getFormat());
+                requirement.setContentHash(item.contentHash);
+                requirement.setClarityScore(clarityScorer.score(text));
+                requirements.add(requirement);
+                pending.add(new FileOutcome(item.fileName, FileOutcome.CREATED, item.contentHash, item.content.length));
+            }
+            // Release the raw bytes as soon as they are no longer needed
+            item.content = null;
+        }
+
+        if (requirements.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, String> storedFirst = insert(requirements);
+            List<Requirement> created = new ArrayList<>(requirements.size());
+            for (int i = 0; i < requirements.size(); i++) {
+                Requirement requirement = requirements.get(i);
+                FileOutcome outcome = pending.get(i);
+                String existingId = storedFirst.get(requirement.getContentHash());
+                if (existingId != null) {
+                    outcome.setStatus(FileOutcome.DUPLICATE);
+                    outcome.setRequirementId(existingId);
+                    outcome.setMessage("Content already ingested");
+                } else {
+                    outcome.setRequirementId(requirement.getId());
+                    created.add(requirement);
+                }
+            }
+            if (!created.isEmpty()) {
+                requirementSummaryService.recordRequirements(created);
+            }
+            for (FileOutcome outcome : pending) {
+                report.addOutcome(outcome);
+            }
+            logger.debug("Inserted {} requirements", created.size());
+        } catch (Exception e) {
+            logger.error("Error inserting batch of {} requirements", requirements.size(), e);
+            for (FileOutcome outcome : pending) {
+                outcome.setStatus(FileOutcome.FAILED);
+                outcome.setMessage("Error saving requirement: " + e.getMessage());
+                report.addOutcome(outcome);
+            }
+        }
+    }
+
+    private ExtractedDocument extract(IngestionItem item) throws InterruptedIOException {
+        try {
+            return fileService.extractDocument(
+                    new ByteArrayMultipartFile(item.fileName, item.contentType, item.content), item.contentHash);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // A broken file fails on its own without failing the rest of the chunk
+            item.extractionError = e;
+            return null;
+        }
+    }
+
+    /**
+     * Inserts requirements that carry their IDs and returns the content hashes another
+     * upload stored first, mapped to the ID of that requirement. The insert is ordered and
+     * stops at the first duplicate, so the requirements not stored yet are inserted again.
+     */
+    private Map<String, String> insert(List<Requirement> requirements) {
+        Map<String, String> storedFirst = new HashMap<>();
+        List<Requirement> remaining = requirements;
+        while (!remaining.isEmpty()) {
+            try {
+                mongoTemplate.insertAll(remaining);
+                break;
+            } catch (DuplicateKeyException e) {
+                List<String> hashes = new ArrayList<>(remaining.size());
+                for (Requirement requirement : remaining) {
+                    hashes.add(requirement.getContentHash());
+                }
+                Map<String, String> stored = findExistingHashes(hashes);
+                List<Requirement> notStored = new ArrayList<>(remaining.size());
+                for (Requirement requirement : remaining) {
+                    String storedId = stored.get(requirement.getContentHash());
+                    if (storedId == null) {
+                        notStored.add(requirement);
+                    } else if (!storedId.equals(requirement.getId())) {
+                        storedFirst.put(requirement.getContentHash(), storedId);
+                    }
+                }
+                if (notStored.size() == remaining.size()) {
+                    // Not a content hash conflict
+                    throw e;
+                }
+                logger.info("{} files of the chunk were ingested concurrently", storedFirst.size());
+                remaining = notStored;
+            }
+        }
+        return storedFirst;
+    }
+
+    private Map<String, String> findExistingHashes(List<String> hashes) {
+        Map<String, String> existing = new HashMap<>();
+        if (hashes.isEmpty()) {
+            return existing;
+        }
+        Query query = new Query(Criteria.where("contentHash").in(hashes));
+        query.fields().include("contentHash");
+        for (Requirement requirement : mongoTemplate.find(query, Requirement.class)) {
+            existing.putIfAbsent(requirement.getContentHash(), requirement.getId());
+        }
+        return existing;
+    }
+
+    private static FileOutcome failed(IngestionItem item, String contentHash, Throwable error) {
+        long size = item.content != null ? item.content.length : item.declaredSize;
+        FileOutcome outcome = new FileOutcome(item.fileName, FileOutcome.FAILED, contentHash, size);
+        outcome.setMessage(error.getMessage());
+        return outcome;
+    }
+
+    private static String titleOf(String fileName) {
+        String name = fileName;
+        int slash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        if (slash >= 0) {
+            name = name.substring(slash + 1);
+        }
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * A single file to ingest
+     */
+    private static final class IngestionItem {
+        private final String fileName;
+        private final String contentType;
+        private final long declaredSize;
+        private byte[] content;
+        private String contentHash;
+        private IOException readError;
+        private Exception extractionError;
+
+        private IngestionItem(String fileName, String contentType, byte[] content, long declaredSize) {
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.content = content;
+            this.declaredSize = declaredSize;
+        }
+    }
+
+    /**
+     * Reads multipart files lazily so only the current chunk is held in memory, refusing
+     * files larger than the configured limit like ZIP entries
+     */
+    private static final class MultipartItemIterator implements Iterator<IngestionItem> {
+        private final Iterator<MultipartFile> files;
+        private final long maxEntryBytes;
+
+        private MultipartItemIterator(List<MultipartFile> files, long maxEntryBytes) {
+            this.files = files.iterator();
+            this.maxEntryBytes = maxEntryBytes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return files.hasNext();
+        }
+
+        @Override
+        public IngestionItem next() {
+            MultipartFile file = files.next();
+            String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unnamed";
+            try {
+                if (file.getSize() > maxEntryBytes) {
+                    throw new IOException("File exceeds the maximum size of " + maxEntryBytes + " bytes");
+                }
+                return new IngestionItem(fileName, file.getContentType(), file.getBytes(), file.getSize());
+            } catch (IOException e) {
+                IngestionItem item = new IngestionItem(fileName, file.getContentType(), null, file.getSize());
+                item.readError = e;
+                return item;
+            }
+        }
+    }
+
+    /**
+     * Reads ZIP entries lazily, skipping directories and metadata entries and
+     * refusing entries whose uncompressed size exceeds the configured limit
+     */
+    private static final class ZipItemIterator implements Iterator<IngestionItem> {
+        private final ZipInputStream zip;
+        private final long maxEntryBytes;
+        private ZipEntry nextEntry;
+
+        private ZipItemIterator(ZipInputStream zip, long maxEntryBytes) {
+            this.zip = zip;
+            this.maxEntryBytes = maxEntryBytes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextEntry != null) {
+                return true;
+            }
+            try {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory() && !isMetadataEntry(entry.getName())) {
+                        nextEntry = entry;
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid ZIP archive: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public IngestionItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ZipEntry entry = nextEntry;
+            nextEntry = null;
+            String fileName = entry.getName();
+            String contentType = MediaTypeFactory.getMediaType(fileName)
+                    .map(MediaType::toString)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            try {
+                return new IngestionItem(fileName, contentType, readEntry(zip, maxEntryBytes), entry.getSize());
+            } catch (IOException e) {
+                IngestionItem item = new IngestionItem(fileName, contentType, null, Math.max(entry.getSize(), 0));
+                item.readError = e;
+                return item;
+            }
+        }
+
+        private static boolean isMetadataEntry(String name) {
+            String baseName = name.substring(name.lastIndexOf('/') + 1);
+            return name.startsWith("__MACOSX/") || baseName.startsWith(".");
+        }
+
+        private static byte[] readEntry(InputStream in, long maxBytes) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new IOException("Entry exceeds the maximum size of " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.contextcoach.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * In-memory MultipartFile used to run entries that did not arrive as multipart parts
+ * (for example files inside a ZIP archive) through the regular extraction path
+ */
+class ByteArrayMultipartFile implements MultipartFile {
+
+    private final String originalFilename;
+    private final String contentType;
+    private final byte[] content;
+
+    ByteArrayMultipartFile(String originalFilename, String contentType, byte[] content) {
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content != null ? content : new byte[0];
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), content);
+    }
+}
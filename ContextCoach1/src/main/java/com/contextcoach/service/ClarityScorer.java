@@ -0,0 +1,16 @@
+package com.contextcoach.service;
+
+/**
+ * Computes a clarity score for requirement text without calling an LLM.
+ * Implementations must be deterministic and cheap enough to run on every ingest.
+ */
+public interface ClarityScorer {
+
+    /**
+     * Scores the clarity of a requirement text
+     *
+     * @param text The requirement text
+     * @return A score between 0 (very unclear) and 1 (very clear)
+     */
+    double score(String text);
+}
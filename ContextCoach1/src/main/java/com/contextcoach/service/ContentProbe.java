@@ -0,0 +1,182 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * The leading bytes of an upload together with its declared file name and content type.
+ * Extractors decide from the bytes whenever the format has a signature, and fall back to
+ * the declared type only for formats that cannot be recognized from their content.
+ */
+public final class ContentProbe {
+
+    /** Number of leading bytes read for sniffing */
+    static final int HEAD_SIZE = 8 * 1024;
+
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+    private static final byte[] OLE2_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final byte[] head;
+    private final String extension;
+    private final String contentType;
+    private List<String> zipEntryNames;
+    private String textHead;
+
+    ContentProbe(byte[] head, String fileName, String contentType) {
+        this.head = head;
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        this.extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        this.contentType = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the leading bytes of an upload
+     *
+     * @param file The uploaded file
+     * @return The probe
+     * @throws IOException If the file cannot be read
+     */
+    public static ContentProbe of(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return new ContentProbe(inputStream.readNBytes(HEAD_SIZE), file.getOriginalFilename(), file.getContentType());
+        }
+    }
+
+    /**
+     * Checks whether an ASCII signature occurs within the first bytes, as PDF allows
+     * leading garbage before its header
+     */
+    public boolean hasSignatureWithin(String signature, int limit) {
+        byte[] bytes = signature.getBytes(StandardCharsets.US_ASCII);
+        int last = Math.min(limit, head.length - bytes.length);
+        for (int i = 0; i <= last; i++) {
+            if (regionMatches(i, bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isZip() {
+        return regionMatches(0, ZIP_MAGIC);
+    }
+
+    public boolean isOle2() {
+        return regionMatches(0, OLE2_MAGIC);
+    }
+
+    /**
+     * Checks whether a ZIP archive has a local entry whose name starts with a prefix, such
+     * as "word/" for a DOCX package. Only entries whose headers fall within the probe are seen,
+     * which covers the part names that OOXML writers put first.
+     */
+    public boolean hasZipEntry(String prefix) {
+        if (!isZip()) {
+            return false;
+        }
+        if (zipEntryNames == null) {
+            zipEntryNames = readZipEntryNames();
+        }
+        for (String name : zipEntryNames) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the probe looks like text, meaning it has no NUL bytes and no
+     * container signature
+     */
+    public boolean isText() {
+        for (byte b : head) {
+            if (b == 0) {
+                return false;
+            }
+        }
+        return !isZip() && !isOle2();
+    }
+
+    /**
+     * Gets the probe decoded as UTF-8 with any byte order mark and leading whitespace removed
+     *
+     * @return The leading text, or an empty string for binary content
+     */
+    public String textHead() {
+        if (textHead == null) {
+            if (!isText()) {
+                textHead = "";
+            } else {
+                int offset = regionMatches(0, UTF8_BOM) ? UTF8_BOM.length : 0;
+                textHead = new String(head, offset, head.length - offset, StandardCharsets.UTF_8).stripLeading();
+            }
+        }
+        return textHead;
+    }
+
+    /**
+     * Checks whether the file name has one of the given extensions, without the dot
+     */
+    public boolean hasExtension(String... extensions) {
+        for (String candidate : extensions) {
+            if (extension.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the declared content type contains one of the given fragments
+     */
+    public boolean contentTypeContains(String... fragments) {
+        for (String fragment : fragments) {
+            if (contentType.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(int offset, byte[] bytes) {
+        if (offset + bytes.length > head.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (head[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the probe for ZIP local file headers. Entries written with a data descriptor do
+     * not record their compressed size up front, so headers are found by their signature
+     * rather than by skipping entry data.
+     */
+    private List<String> readZipEntryNames() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i + 30 <= head.length; i++) {
+            if (!regionMatches(i, ZIP_MAGIC)) {
+                continue;
+            }
+            int nameLength = (head[i + 26] & 0xFF) | (head[i + 27] & 0xFF) << 8;
+            if (nameLength == 0 || i + 30 + nameLength > head.length) {
+                continue;
+            }
+            names.add(new String(head, i + 30, nameLength, StandardCharsets.UTF_8));
+            i += 29 + nameLength;
+        }
+        return Collections.unmodifiableList(names);
+    }
+}
@@ -0,0 +1,119 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Extracts text from CSV exports such as Jira or spreadsheet issue lists. Rows are written
+ * as tab separated cells the same way as Excel rows, so both exports read alike. Quoted
+ * cells may contain delimiters, doubled quotes and line breaks; the delimiter is taken
+ * from the first line, which may use commas, semicolons or tabs.
+ */
+@Component
+@Order(600)
+public class CsvExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvExtractor.class);
+
+    @Override
+    public String getFormat() {
+        return "CSV";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        // CSV has no signature
+        return false;
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("csv", "tab-separated-values") || probe.hasExtension("csv", "tsv");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from CSV file: {}", file.getOriginalFilename());
+        String text = toText(ExtractionSupport.readText(file));
+        logger.debug("Successfully extracted {} characters from CSV", text.length());
+        return text;
+    }
+
+    /**
+     * Converts CSV content to tab separated rows, skipping empty cells and rows
+     *
+     * @param csv The CSV content
+     * @return The rows as text
+     */
+    static String toText(String csv) {
+        char delimiter = detectDelimiter(csv);
+        StringBuilder text = new StringBuilder(csv.length());
+        StringBuilder rowText = new StringBuilder();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        int length = csv.length();
+        for (int i = 0; i < length; i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < length && csv.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c == '\r' || c == '\n' || c == '\t' ? ' ' : c);
+                }
+            } else if (c == '"' && cell.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                ExtractionSupport.appendCell(rowText, cell.toString().trim());
+                cell.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                endRow(text, rowText, cell);
+                if (c == '\r' && i + 1 < length && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+            } else {
+                cell.append(c);
+            }
+        }
+        endRow(text, rowText, cell);
+        return text.toString();
+    }
+
+    private static void endRow(StringBuilder text, StringBuilder rowText, StringBuilder cell) {
+        ExtractionSupport.appendCell(rowText, cell.toString().trim());
+        cell.setLength(0);
+        if (rowText.length() > 0) {
+            text.append(rowText).append('\n');
+        }
+        rowText.setLength(0);
+    }
+
+    private static char detectDelimiter(String csv) {
+        int end = csv.indexOf('\n');
+        String firstLine = end < 0 ? csv : csv.substring(0, end);
+        char delimiter = ',';
+        long best = firstLine.chars().filter(c -> c == ',').count();
+        for (char candidate : new char[] {';', '\t'}) {
+            long count = firstLine.chars().filter(c -> c == candidate).count();
+            if (count > best) {
+                best = count;
+                delimiter = candidate;
+            }
+        }
+        return delimiter;
+    }
+}
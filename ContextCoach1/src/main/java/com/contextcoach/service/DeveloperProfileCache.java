@@ -0,0 +1,324 @@
+package com.contextcoach.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperProfileInvalidation;
+import com.contextcoach.repository.DeveloperProfileRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through cache of developer profiles, by ID and for the full list. Changes made
+ * through {@link DeveloperProfileService} evict the affected entries here and write a
+ * {@link DeveloperProfileInvalidation} that every other instance polls for, so their
+ * copies are dropped and their {@link DeveloperSkillIndex} is brought up to date within one
+ * poll interval. Entries also expire after a TTL, which
+ * bounds staleness for writes that bypass the service.
+ *
+ * Cached profiles are shared between callers and must not be modified.
+ */
+@Service
+public class DeveloperProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeveloperProfileCache.class);
+
+    private final DeveloperProfileRepository developerProfileRepository;
+    private final MongoTemplate mongoTemplate;
+    private final DeveloperSkillIndex developerSkillIndex;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Duration overlap;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+    private volatile Entry all; // value is the full list
+    // Bumped on every invalidation so a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    // Notices seen recently, to skip the ones the overlapping poll window returns again
+    private final Map<String, LocalDateTime> seenNotices = new LinkedHashMap<>();
+    private LocalDateTime pollWatermark;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    public DeveloperProfileCache(
+            DeveloperProfileRepository developerProfileRepository,
+            MongoTemplate mongoTemplate,
+            DeveloperSkillIndex developerSkillIndex,
+            MeterRegistry meterRegistry,
+            @Value("${contextcoach.developer-cache.enabled:true}") boolean enabled,
+            @Value("${contextcoach.developer-cache.ttl:10m}") Duration ttl,
+            @Value("${contextcoach.developer-cache.max-size:10000}") int maxSize,
+            @Value("${contextcoach.developer-cache.poll-overlap:10s}") Duration overlap) {
+        this.developerProfileRepository = developerProfileRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.developerSkillIndex = developerSkillIndex;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = Math.max(maxSize, 1);
+        this.overlap = overlap;
+
+        this.hits = Counter.builder("contextcoach.developer.cache.requests").tag("result", "hit")
+                .description("Developer profile cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("contextcoach.developer.cache.requests").tag("result", "miss")
+                .description("Developer profile cache lookups").register(meterRegistry);
+        this.localInvalidations = Counter.builder("contextcoach.developer.cache.invalidations").tag("source", "local")
+                .description("Developer profile cache invalidations").register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("contextcoach.developer.cache.invalidations").tag("source", "remote")
+                .description("Developer profile cache invalidations").register(meterRegistry);
+        Gauge.builder("contextcoach.developer.cache.size", byId, Map::size)
+                .description("Developer profiles cached by ID").register(meterRegistry);
+    }
+
+    /**
+     * Gets a developer profile by ID, loading it on a miss
+     *
+     * @param id The ID of the developer profile
+     * @return The developer profile, if found
+     */
+    public Optional<DeveloperProfile> findById(String id) {
+        if (!enabled || id == null) {
+            return id == null ? Optional.empty() : developerProfileRepository.findById(id);
+        }
+        Entry cached = byId.get(id);
+        if (cached != null && !cached.isExpired()) {
+            hits.increment();
+            return Optional.of((DeveloperProfile) cached.value);
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        Optional<DeveloperProfile> profile = developerProfileRepository.findById(id);
+        profile.ifPresent(loaded -> store(loaded, loadedAt));
+        return profile;
+    }
+
+    /**
+     * Gets developer profiles by ID, loading all misses with one query
+     *
+     * @param ids The IDs of the developer profiles
+     * @return The developer profiles that exist, in no particular order
+     */
+    public List<DeveloperProfile> findAllById(Iterable<String> ids) {
+        List<DeveloperProfile> profiles = new ArrayList<>();
+        if (!enabled) {
+            developerProfileRepository.findAllById(ids).forEach(profiles::add);
+            return profiles;
+        }
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            Entry cached = id != null ? byId.get(id) : null;
+            if (cached != null && !cached.isExpired()) {
+                hits.increment();
+                profiles.add((DeveloperProfile) cached.value);
+            } else if (id != null) {
+                misses.increment();
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadedAt = generation.get();
+            for (DeveloperProfile loaded : developerProfileRepository.findAllById(missing)) {
+                store(loaded, loadedAt);
+                profiles.add(loaded);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Gets all developer profiles, loading them on a miss
+     *
+     * @return All developer profiles, as an unmodifiable list
+     */
+    @SuppressWarnings("unchecked")
+    public List<DeveloperProfile> findAll() {
+        if (!enabled) {
+            return developerProfileRepository.findAll();
+        }
+        Entry cached = all;
+        if (cached != null && !cached.isExpired()) {
+            hits.increment();
+            return (List<DeveloperProfile>) cached.value;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        List<DeveloperProfile> profiles = List.copyOf(developerProfileRepository.findAll());
+        all = new Entry(profiles, System.nanoTime() + ttlNanos);
+        if (generation.get() != loadedAt) {
+            all = null; // Invalidated during the load
+        } else {
+            profiles.forEach(profile -> store(profile, loadedAt));
+        }
+        return profiles;
+    }
+
+    /**
+     * Drops a changed developer profile and the full list here and on every other
+     * instance. Failing to notify the other instances is logged; their entries then expire
+     * after the TTL.
+     *
+     * @param id The ID of the created, updated or deleted developer profile
+     */
+    public void invalidate(String id) {
+        evict(id);
+        localInvalidations.increment();
+        if (!enabled) {
+            return;
+        }
+        try {
+            Update notice = new Update()
+                    .set("developerId", id)
+                    .set("instanceId", instanceId)
+                    .currentDate("createdAt");
+            mongoTemplate.upsert(new Query(Criteria.where("_id").is(new ObjectId())), notice, DeveloperProfileInvalidation.class);
+        } catch (Exception e) {
+            logger.warn("Failed to notify other instances that developer profile {} changed: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the invalidations written by other instances since the last poll. The window
+     * reaches back by the overlap so notices committed slightly out of order are not missed.
+     * The changed developers are read again with one query and re-indexed, or removed from
+     * the skill index if they were deleted.
+     */
+    @Scheduled(fixedDelayString = "${contextcoach.developer-cache.poll-interval:2s}")
+    public synchronized void pollInvalidations() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Criteria criteria = Criteria.where("instanceId").ne(instanceId);
+            if (pollWatermark != null) {
+                criteria = criteria.and("createdAt").gte(pollWatermark.minus(overlap));
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(1000);
+            int applied = 0;
+            Set<String> changed = new LinkedHashSet<>();
+            for (DeveloperProfileInvalidation notice : mongoTemplate.find(query, DeveloperProfileInvalidation.class)) {
+                if (notice.getCreatedAt() == null || seenNotices.putIfAbsent(notice.getId(), notice.getCreatedAt()) != null) {
+                    continue;
+                }
+                evict(notice.getDeveloperId());
+                if (notice.getDeveloperId() != null) {
+                    changed.add(notice.getDeveloperId());
+                }
+                remoteInvalidations.increment();
+                applied++;
+                if (pollWatermark == null || notice.getCreatedAt().isAfter(pollWatermark)) {
+                    pollWatermark = notice.getCreatedAt();
+                }
+            }
+            if (pollWatermark != null) {
+                LocalDateTime horizon = pollWatermark.minus(overlap);
+                Iterator<LocalDateTime> seen = seenNotices.values().iterator();
+                while (seen.hasNext()) {
+                    if (seen.next().isBefore(horizon)) {
+                        seen.remove();
+                    }
+                }
+            }
+            if (!changed.isEmpty()) {
+                reindex(changed);
+            }
+            if (applied > 0) {
+                logger.debug("Applied {} developer profile invalidations from other instances", applied);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to poll developer profile invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the cache statistics
+     *
+     * @return Hits, misses, hit rate, invalidations and size
+     */
+    public Map<String, Object> getStatistics() {
+        double hitCount = hits.count();
+        double missCount = misses.count();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("hits", (long) hitCount);
+        statistics.put("misses", (long) missCount);
+        statistics.put("hitRate", hitCount + missCount > 0 ? hitCount / (hitCount + missCount) : 0.0);
+        statistics.put("localInvalidations", (long) localInvalidations.count());
+        statistics.put("remoteInvalidations", (long) remoteInvalidations.count());
+        statistics.put("cachedProfiles", byId.size());
+        statistics.put("listCached", all != null && !all.isExpired());
+        return statistics;
+    }
+
+    private void reindex(Set<String> developerIds) {
+        Set<String> deleted = new LinkedHashSet<>(developerIds);
+        for (DeveloperProfile profile : developerProfileRepository.findAllById(developerIds)) {
+            developerSkillIndex.index(profile);
+            deleted.remove(profile.getId());
+        }
+        deleted.forEach(developerSkillIndex::remove);
+    }
+
+    private void store(DeveloperProfile profile, long loadedAt) {
+        if (profile.getId() == null || (byId.size() >= maxSize && !byId.containsKey(profile.getId()))) {
+            return;
+        }
+        byId.put(profile.getId(), new Entry(profile, System.nanoTime() + ttlNanos));
+        // An invalidation during the load may have missed the entry just stored
+        if (generation.get() != loadedAt) {
+            byId.remove(profile.getId());
+        }
+    }
+
+    private void evict(String id) {
+        generation.incrementAndGet();
+        all = null;
+        if (id != null) {
+            byId.remove(id);
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
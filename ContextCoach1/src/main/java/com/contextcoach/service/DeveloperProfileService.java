@@ -1,16 +1,23 @@
 package com.contextcoach.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.contextcoach.exception.ResourceNotFoundException;
 import com.contextcoach.exception.ServiceException;
 import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperProfilePatch;
 import com.contextcoach.repository.DeveloperProfileRepository;
 
 @Service
@@ -19,9 +26,18 @@ public class DeveloperProfileService {
     private static final Logger logger = LoggerFactory.getLogger(DeveloperProfileService.class);
 
     private final DeveloperProfileRepository developerProfileRepository;
+    private final DeveloperSkillIndex developerSkillIndex;
+    private final DeveloperProfileCache developerProfileCache;
+    private final MongoTemplate mongoTemplate;
 
-    public DeveloperProfileService(DeveloperProfileRepository developerProfileRepository) {
+    public DeveloperProfileService(DeveloperProfileRepository developerProfileRepository,
+            DeveloperSkillIndex developerSkillIndex,
+            DeveloperProfileCache developerProfileCache,
+            MongoTemplate mongoTemplate) {
         this.developerProfileRepository = developerProfileRepository;
+        this.developerSkillIndex = developerSkillIndex;
+        this.developerProfileCache = developerProfileCache;
+        this.mongoTemplate = mongoTemplate;
         logger.info("DeveloperProfileService initialized");
     }
 
@@ -78,6 +94,8 @@ public class DeveloperProfileService {
             
             // Save the profile
             DeveloperProfile savedProfile = developerProfileRepository.save(profile);
+            developerSkillIndex.index(savedProfile);
+            developerProfileCache.invalidate(savedProfile.getId());
             logger.info("Successfully created developer profile with ID: {}", savedProfile.getId());
             return savedProfile;
         } catch (IllegalArgumentException e) {
@@ -99,7 +117,7 @@ public class DeveloperProfileService {
     public Optional<DeveloperProfile> getDeveloperProfileById(String id) {
         logger.debug("Getting developer profile by ID: {}", id);
         try {
-            Optional<DeveloperProfile> profile = developerProfileRepository.findById(id);
+            Optional<DeveloperProfile> profile = developerProfileCache.findById(id);
             if (profile.isPresent()) {
                 logger.debug("Found developer profile with ID: {}", id);
             } else {
@@ -121,7 +139,7 @@ public class DeveloperProfileService {
     public List<DeveloperProfile> getAllDeveloperProfiles() {
         logger.debug("Getting all developer profiles");
         try {
-            List<DeveloperProfile> profiles = developerProfileRepository.findAll();
+            List<DeveloperProfile> profiles = developerProfileCache.findAll();
             logger.debug("Found {} developer profiles", profiles.size());
             return profiles;
         } catch (Exception e) {
@@ -208,6 +226,47 @@ public class DeveloperProfileService {
         }
     }
 
+    /**
+     * Searches developer profiles with a boolean skill expression, such as
+     * "Java AND (Spring OR Quarkus) AND NOT experience:Junior"
+     * 
+     * @param expression The skill expression, or null to match all developers
+     * @param experienceLevels The experience levels to keep, or null for all
+     * @param limit The maximum number of profiles to return, or null for all
+     * @return The matching developer profiles, most productive first
+     * @throws IllegalArgumentException if the expression is malformed or the limit is not positive
+     * @throws ServiceException if there's an error searching the profiles
+     */
+    public List<DeveloperProfile> searchDeveloperProfiles(String expression, Collection<String> experienceLevels, Integer limit) {
+        logger.debug("Searching developer profiles by skill expression: {}", expression);
+        try {
+            if (limit != null && limit <= 0) {
+                logger.error("Limit must be a positive number");
+                throw new IllegalArgumentException("Limit must be a positive number");
+            }
+            
+            List<DeveloperProfile> profiles = developerSkillIndex.search(expression, experienceLevels, limit);
+            logger.debug("Found {} developer profiles matching skill expression: {}", profiles.size(), expression);
+            return profiles;
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid skill expression '{}': {}", expression, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error searching developer profiles by skill expression: {}", expression, e);
+            throw new ServiceException("Error searching developer profiles: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Gets the statistics of the developer profile cache
+     * 
+     * @return Hits, misses, hit rate, invalidations and size
+     */
+    public Map<String, Object> getCacheStatistics() {
+        logger.debug("Getting developer profile cache statistics");
+        return developerProfileCache.getStatistics();
+    }
+
     /**
      * Updates a developer profile
      * 
@@ -258,24 +317,14 @@ public class DeveloperProfileService {
                 throw new IllegalArgumentException("Preferred work hours per day must be a positive number");
             }
             
-            // Find the profile
-            logger.debug("Finding developer profile with ID: {}", id);
-            DeveloperProfile profile = developerProfileRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.error("Developer profile not found with ID: {}", id);
-                        return new ResourceNotFoundException("Developer profile not found with ID: " + id);
-                    });
-            
-            // Update the profile
-            logger.debug("Updating developer profile fields");
-            profile.setName(name);
-            profile.setExperienceLevel(experienceLevel);
-            profile.setProductivityFactor(productivityFactor);
-            profile.setSkills(skills);
-            profile.setPreferredWorkHoursPerDay(preferredWorkHoursPerDay);
-            
-            // Save the profile
-            DeveloperProfile updatedProfile = developerProfileRepository.save(profile);
+            // Update the profile in place
+            Update update = new Update()
+                    .set("name", name)
+                    .set("experienceLevel", experienceLevel)
+                    .set("productivityFactor", productivityFactor)
+                    .set("skills", skills)
+                    .set("preferredWorkHoursPerDay", preferredWorkHoursPerDay);
+            DeveloperProfile updatedProfile = applyUpdate(id, null, update);
             logger.info("Successfully updated developer profile with ID: {}", id);
             return updatedProfile;
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
@@ -287,6 +336,96 @@ public class DeveloperProfileService {
         }
     }
 
+    /**
+     * Partially updates a developer profile with one atomic update. Skills can be replaced,
+     * or added and removed without resending the others.
+     * 
+     * @param id The ID of the developer profile to update
+     * @param patch The fields to change, and optionally the version they were read at
+     * @return The updated developer profile
+     * @throws IllegalArgumentException if the patch is empty or a field is invalid
+     * @throws ResourceNotFoundException if the profile is not found
+     * @throws ServiceException if the profile has another version, or there's an error updating it
+     */
+    public DeveloperProfile patchDeveloperProfile(String id, DeveloperProfilePatch patch) {
+        logger.info("Patching developer profile with ID: {}", id);
+        
+        try {
+            if (id == null) {
+                logger.error("Developer profile ID cannot be null");
+                throw new IllegalArgumentException("Developer profile ID cannot be null");
+            }
+            
+            if (patch == null) {
+                logger.error("Developer profile patch cannot be null");
+                throw new IllegalArgumentException("Developer profile patch cannot be null");
+            }
+            
+            Update update = new Update();
+            if (patch.getName() != null) {
+                if (patch.getName().trim().isEmpty()) {
+                    logger.error("Developer name cannot be empty");
+                    throw new IllegalArgumentException("Developer name cannot be empty");
+                }
+                update.set("name", patch.getName());
+            }
+            
+            if (patch.getExperienceLevel() != null) {
+                if (patch.getExperienceLevel().trim().isEmpty()) {
+                    logger.error("Experience level cannot be empty");
+                    throw new IllegalArgumentException("Experience level cannot be empty");
+                }
+                update.set("experienceLevel", patch.getExperienceLevel());
+            }
+            
+            if (patch.getProductivityFactor() != null) {
+                if (patch.getProductivityFactor() <= 0) {
+                    logger.error("Productivity factor must be a positive number");
+                    throw new IllegalArgumentException("Productivity factor must be a positive number");
+                }
+                update.set("productivityFactor", patch.getProductivityFactor());
+            }
+            
+            if (patch.getPreferredWorkHoursPerDay() != null) {
+                if (patch.getPreferredWorkHoursPerDay() <= 0) {
+                    logger.error("Preferred work hours per day must be a positive number");
+                    throw new IllegalArgumentException("Preferred work hours per day must be a positive number");
+                }
+                update.set("preferredWorkHoursPerDay", patch.getPreferredWorkHoursPerDay());
+            }
+            
+            // MongoDB rejects two operators on the same field in one update
+            boolean addsSkills = patch.getAddSkills() != null && !patch.getAddSkills().isEmpty();
+            boolean removesSkills = patch.getRemoveSkills() != null && !patch.getRemoveSkills().isEmpty();
+            if ((patch.getSkills() != null && (addsSkills || removesSkills)) || (addsSkills && removesSkills)) {
+                logger.error("Only one of skills, addSkills and removeSkills can be set in one patch");
+                throw new IllegalArgumentException("Only one of skills, addSkills and removeSkills can be set in one patch");
+            }
+            if (patch.getSkills() != null) {
+                update.set("skills", patch.getSkills());
+            } else if (addsSkills) {
+                update.addToSet("skills").each(patch.getAddSkills().toArray());
+            } else if (removesSkills) {
+                update.pullAll("skills", patch.getRemoveSkills().toArray());
+            }
+            
+            if (update.getUpdateObject().isEmpty()) {
+                logger.error("Developer profile patch has no fields to change");
+                throw new IllegalArgumentException("Developer profile patch has no fields to change");
+            }
+            
+            DeveloperProfile patchedProfile = applyUpdate(id, patch.getVersion(), update);
+            logger.info("Successfully patched developer profile with ID: {} to version {}", id, patchedProfile.getVersion());
+            return patchedProfile;
+        } catch (ResourceNotFoundException | IllegalArgumentException | ServiceException e) {
+            // Re-throw these as they're already logged or carry their status
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error patching developer profile with ID: {}", id, e);
+            throw new ServiceException("Error patching developer profile: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Deletes a developer profile
      * 
@@ -301,15 +440,14 @@ public class DeveloperProfileService {
                 throw new IllegalArgumentException("Developer profile ID cannot be null");
             }
             
-            // Check if the profile exists
-            if (!developerProfileRepository.existsById(id)) {
+            // Delete the profile
+            logger.debug("Deleting developer profile with ID: {}", id);
+            if (mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), DeveloperProfile.class).getDeletedCount() == 0) {
                 logger.warn("Developer profile not found with ID: {}", id);
                 throw new ResourceNotFoundException("Developer profile not found with ID: " + id);
             }
-            
-            // Delete the profile
-            logger.debug("Deleting developer profile with ID: {}", id);
-            developerProfileRepository.deleteById(id);
+            developerSkillIndex.remove(id);
+            developerProfileCache.invalidate(id);
             logger.info("Successfully deleted developer profile with ID: {}", id);
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
             // Re-throw these as they're already logged
@@ -319,4 +457,15 @@ public class DeveloperProfileService {
             throw new ServiceException("Error deleting developer profile: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Applies an update in one round trip and refreshes the skill index and the cache
+     */
+    private DeveloperProfile applyUpdate(String id, Long expectedVersion, Update update) {
+        DeveloperProfile updatedProfile = AtomicPatch.apply(mongoTemplate, id, expectedVersion, update, true,
+                DeveloperProfile.class, "Developer profile");
+        developerSkillIndex.index(updatedProfile);
+        developerProfileCache.invalidate(id);
+        return updatedProfile;
+    }
 }
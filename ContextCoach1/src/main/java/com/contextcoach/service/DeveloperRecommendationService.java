@@ -0,0 +1,145 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperRecommendation;
+import com.contextcoach.model.DeveloperWorkload;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.repository.RequirementRepository;
+
+/**
+ * Recommends developers for a requirement. The skills the requirement mentions are found
+ * through the skill and synonym maps of {@link DeveloperSkillIndex}, and developers are
+ * ranked by the fraction of those skills they have times their productivity factor,
+ * discounted by the story points already assigned to them. Ticket loads come from the
+ * developer workloads and are kept in memory, so ranking does not touch the database.
+ */
+@Service
+public class DeveloperRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeveloperRecommendationService.class);
+
+    private final RequirementRepository requirementRepository;
+    private final DeveloperSkillIndex developerSkillIndex;
+    private final DeveloperWorkloadService developerWorkloadService;
+    private final double loadScale;
+    private final int maxLimit;
+
+    private volatile Map<String, Long> storyPointsByDeveloper;
+
+    public DeveloperRecommendationService(
+            RequirementRepository requirementRepository,
+            DeveloperSkillIndex developerSkillIndex,
+            DeveloperWorkloadService developerWorkloadService,
+            @Value("${contextcoach.recommendation.load-scale:20}") double loadScale,
+            @Value("${contextcoach.recommendation.max-limit:100}") int maxLimit) {
+        this.requirementRepository = requirementRepository;
+        this.developerSkillIndex = developerSkillIndex;
+        this.developerWorkloadService = developerWorkloadService;
+        this.loadScale = loadScale > 0 ? loadScale : 20.0;
+        this.maxLimit = Math.max(maxLimit, 1);
+    }
+
+    /**
+     * Gets the developers best suited to a requirement
+     *
+     * @param requirementId The ID of the requirement
+     * @param limit The number of developers to return
+     * @return The recommended developers, best first
+     * @throws ResourceNotFoundException if the requirement is not found
+     * @throws IllegalArgumentException if the limit is out of range
+     * @throws ServiceException if there's an error ranking the developers
+     */
+    public List<DeveloperRecommendation> recommendDevelopers(String requirementId, int limit) {
+        logger.info("Recommending developers for requirement with ID: {}", requirementId);
+        if (limit <= 0 || limit > maxLimit) {
+            logger.error("Recommendation limit must be between 1 and {}", maxLimit);
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        Requirement requirement = requirementRepository.findById(requirementId)
+                .orElseThrow(() -> {
+                    logger.error("Requirement not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
+                });
+        try {
+            long startTime = System.nanoTime();
+            String text = (requirement.getTitle() != null ? requirement.getTitle() : "") + "\n"
+                    + (requirement.getContent() != null ? requirement.getContent() : "");
+            Set<String> skills = developerSkillIndex.extractSkills(text);
+            Map<String, Long> loads = currentLoads();
+
+            List<DeveloperRecommendation> recommendations = new ArrayList<>();
+            for (DeveloperSkillIndex.SkillMatch match : developerSkillIndex.rankBySkills(skills,
+                    profile -> weightOf(profile, loads), limit)) {
+                DeveloperProfile profile = match.getProfile();
+                DeveloperRecommendation recommendation = new DeveloperRecommendation();
+                recommendation.setDeveloperId(profile.getId());
+                recommendation.setDeveloperName(profile.getName());
+                recommendation.setExperienceLevel(profile.getExperienceLevel());
+                recommendation.setProductivityFactor(profile.getProductivityFactor());
+                recommendation.setScore(match.getScore());
+                recommendation.setSkillCoverage(match.getCoverage());
+                recommendation.setMatchedSkills(match.getMatchedSkills());
+                recommendation.setCurrentStoryPoints(loads.getOrDefault(profile.getId(), 0L));
+                recommendations.add(recommendation);
+            }
+            logger.info("Recommended {} developers for requirement with ID: {} from {} skills in {}us",
+                    recommendations.size(), requirementId, skills.size(), (System.nanoTime() - startTime) / 1000);
+            return recommendations;
+        } catch (Exception e) {
+            logger.error("Error recommending developers for requirement with ID: {}", requirementId, e);
+            throw new ServiceException("Error recommending developers: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Reloads the story points assigned to each developer from the workloads
+     */
+    @Scheduled(fixedDelayString = "${contextcoach.recommendation.load-refresh-interval:30s}",
+            initialDelayString = "${contextcoach.recommendation.load-refresh-interval:30s}")
+    public void refreshLoads() {
+        try {
+            Map<String, Long> loads = new HashMap<>();
+            for (DeveloperWorkload workload : developerWorkloadService.getWorkloads()) {
+                loads.put(workload.getDeveloperId(), workload.getTotalStoryPoints());
+            }
+            storyPointsByDeveloper = loads;
+            logger.debug("Loaded ticket loads of {} developers", loads.size());
+        } catch (Exception e) {
+            logger.warn("Failed to refresh developer ticket loads: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Long> currentLoads() {
+        if (storyPointsByDeveloper == null) {
+            refreshLoads();
+        }
+        Map<String, Long> loads = storyPointsByDeveloper;
+        return loads != null ? loads : Map.of();
+    }
+
+    /**
+     * Weighs a developer by productivity, halving the weight once they carry load-scale
+     * story points
+     */
+    private double weightOf(DeveloperProfile profile, Map<String, Long> loads) {
+        double productivity = profile.getProductivityFactor() != null && profile.getProductivityFactor() > 0
+                ? profile.getProductivityFactor() : 1.0;
+        long storyPoints = loads.getOrDefault(profile.getId(), 0L);
+        return productivity / (1.0 + storyPoints / loadScale);
+    }
+}
@@ -0,0 +1,644 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.repository.DeveloperProfileRepository;
+
+/**
+ * In-memory index of developer profiles by skill and experience level. Every developer
+ * gets a small integer ordinal, and each canonical skill and level maps to a bitmap of the
+ * ordinals that have it, so a query like "Java AND (Spring OR Quarkus) AND NOT
+ * experience:Junior" is a handful of bitmap operations instead of one Mongo query per
+ * skill intersected on the client.
+ *
+ * Readers use an immutable snapshot; writes copy the bitmaps they touch and swap the
+ * snapshot, so queries never lock. The index loads itself on first use and is refreshed
+ * on a schedule to pick up profiles written outside {@link DeveloperProfileService}.
+ */
+@Service
+public class DeveloperSkillIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeveloperSkillIndex.class);
+    private static final String EXPERIENCE_PREFIX = "experience:";
+
+    private static final Map<String, String> DEFAULT_SYNONYMS = Map.ofEntries(
+            Map.entry("restful", "rest"),
+            Map.entry("restful api", "rest"),
+            Map.entry("restful apis", "rest"),
+            Map.entry("rest api", "rest"),
+            Map.entry("rest apis", "rest"),
+            Map.entry("js", "javascript"),
+            Map.entry("ecmascript", "javascript"),
+            Map.entry("ts", "typescript"),
+            Map.entry("golang", "go"),
+            Map.entry("k8s", "kubernetes"),
+            Map.entry("postgres", "postgresql"),
+            Map.entry("mongo", "mongodb"),
+            Map.entry("node", "node.js"),
+            Map.entry("nodejs", "node.js"),
+            Map.entry("reactjs", "react"),
+            Map.entry("react.js", "react"),
+            Map.entry("spring framework", "spring"),
+            Map.entry("ml", "machine learning"));
+
+    private final DeveloperProfileRepository developerProfileRepository;
+    private final Map<String, String> synonyms;
+    private final int synonymMaxWords;
+    private volatile Snapshot snapshot;
+
+    public DeveloperSkillIndex(
+            DeveloperProfileRepository developerProfileRepository,
+            @Value("${contextcoach.skills.synonyms:}") String synonyms) {
+        this.developerProfileRepository = developerProfileRepository;
+        this.synonyms = parseSynonyms(synonyms);
+        this.synonymMaxWords = this.synonyms.keySet().stream().mapToInt(DeveloperSkillIndex::wordCount).max().orElse(1);
+    }
+
+    /**
+     * Finds the developers matching a skill expression, most productive first. Terms are
+     * skills, or experience levels when written as experience:Level; they combine with
+     * AND, OR, NOT and parentheses, and adjacent words form one term ("Spring Boot").
+     *
+     * @param expression The skill expression, or null to match every developer
+     * @param experienceLevels Experience levels to keep, or null for all
+     * @param limit The maximum number of developers to return, or null for all
+     * @return The matching developers ordered by productivity factor, highest first
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public List<DeveloperProfile> search(String expression, Collection<String> experienceLevels, Integer limit) {
+        Snapshot current = current();
+        BitSet matches = expression == null || expression.isBlank()
+                ? (BitSet) current.live.clone()
+                : new Parser(expression, current).parse();
+        if (experienceLevels != null && !experienceLevels.isEmpty()) {
+            BitSet levels = new BitSet();
+            for (String level : experienceLevels) {
+                BitSet bits = current.levels.get(canonicalLevel(level));
+                if (bits != null) {
+                    levels.or(bits);
+                }
+            }
+            matches.and(levels);
+        }
+        List<DeveloperProfile> result = topByProductivity(current, matches, limit != null ? limit : Integer.MAX_VALUE);
+        logger.debug("Skill query '{}' matched {} developers", expression, matches.cardinality());
+        return result;
+    }
+
+    /**
+     * Finds the known skills a text mentions. Every run of up to as many words as the
+     * longest skill or synonym is looked up in the skill and synonym maps, so the cost is
+     * a few hash lookups per word regardless of the number of skills.
+     *
+     * @param text The text to scan, such as a requirement
+     * @return The canonical skills mentioned, in order of first mention
+     */
+    public Set<String> extractSkills(String text) {
+        Set<String> found = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return found;
+        }
+        Snapshot current = current();
+        List<String> words = words(text);
+        int maxWords = Math.max(synonymMaxWords, current.maxSkillWords);
+        StringBuilder term = new StringBuilder();
+        for (int start = 0; start < words.size(); start++) {
+            term.setLength(0);
+            for (int n = 0; n < maxWords && start + n < words.size(); n++) {
+                if (n > 0) {
+                    term.append(' ');
+                }
+                term.append(words.get(start + n));
+                String key = term.toString();
+                String skill = synonyms.getOrDefault(key, key);
+                if (current.skills.containsKey(skill)) {
+                    found.add(skill);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Ranks developers by how many of the given skills they have, scaled by a weight such
+     * as productivity. Match counts are accumulated into one array indexed by ordinal from
+     * the skill bitmaps, and only developers with at least one match are weighed.
+     *
+     * @param skills The canonical skills wanted
+     * @param weight The weight of a developer, multiplied by the fraction of skills matched
+     * @param limit The maximum number of matches to return
+     * @return The best matches, highest score first
+     */
+    public List<SkillMatch> rankBySkills(Collection<String> skills, ToDoubleFunction<DeveloperProfile> weight, int limit) {
+        Snapshot current = current();
+        List<BitSet> wanted = new ArrayList<>();
+        List<String> wantedNames = new ArrayList<>();
+        for (String skill : skills) {
+            BitSet bits = current.skills.get(skill);
+            if (bits != null) {
+                wanted.add(bits);
+                wantedNames.add(skill);
+            }
+        }
+        if (wanted.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int[] counts = new int[current.profiles.length];
+        BitSet candidates = new BitSet();
+        for (BitSet bits : wanted) {
+            candidates.or(bits);
+            for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+                counts[ordinal]++;
+            }
+        }
+
+        Comparator<SkillMatch> byScore = Comparator.comparingDouble(SkillMatch::getScore);
+        PriorityQueue<SkillMatch> best = new PriorityQueue<>(Math.min(limit, candidates.cardinality()), byScore);
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            DeveloperProfile profile = current.profiles[ordinal];
+            double coverage = (double) counts[ordinal] / wanted.size();
+            double score = coverage * weight.applyAsDouble(profile);
+            if (best.size() < limit || score > best.peek().getScore()) {
+                if (best.size() == limit) {
+                    best.poll();
+                }
+                best.add(new SkillMatch(profile, ordinal, coverage, score));
+            }
+        }
+
+        List<SkillMatch> result = new ArrayList<>(best);
+        result.sort(byScore.reversed());
+        for (SkillMatch match : result) {
+            for (int i = 0; i < wanted.size(); i++) {
+                if (wanted.get(i).get(match.ordinal)) {
+                    match.matchedSkills.add(wantedNames.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds or replaces a developer in the index
+     *
+     * @param profile The saved developer profile
+     */
+    public synchronized void index(DeveloperProfile profile) {
+        if (profile == null || profile.getId() == null || snapshot == null) {
+            return; // Not loaded yet, the first load reads the profile from the database
+        }
+        Snapshot next = snapshot.copy();
+        Integer ordinal = next.ordinals.get(profile.getId());
+        if (ordinal != null) {
+            next.clear(ordinal);
+        } else {
+            ordinal = next.live.nextClearBit(0);
+            next.ordinals.put(profile.getId(), ordinal);
+        }
+        next.set(ordinal, profile, canonicalSkills(profile), canonicalLevel(profile.getExperienceLevel()), true);
+        snapshot = next;
+    }
+
+    /**
+     * Removes a developer from the index
+     *
+     * @param developerId The ID of the deleted developer profile
+     */
+    public synchronized void remove(String developerId) {
+        if (developerId == null || snapshot == null || !snapshot.ordinals.containsKey(developerId)) {
+            return;
+        }
+        Snapshot next = snapshot.copy();
+        next.clear(next.ordinals.remove(developerId));
+        snapshot = next;
+    }
+
+    /**
+     * Rebuilds the index from all stored developer profiles
+     *
+     * @return The number of developers indexed
+     */
+    @Scheduled(fixedDelayString = "${contextcoach.skills.refresh-interval:15m}",
+            initialDelayString = "${contextcoach.skills.refresh-interval:15m}")
+    public synchronized int rebuild() {
+        long startTime = System.currentTimeMillis();
+        List<DeveloperProfile> profiles = developerProfileRepository.findAll();
+        Snapshot next = new Snapshot(profiles.size());
+        for (DeveloperProfile profile : profiles) {
+            if (profile.getId() == null) {
+                continue;
+            }
+            int ordinal = next.ordinals.size();
+            next.ordinals.put(profile.getId(), ordinal);
+            next.set(ordinal, profile, canonicalSkills(profile), canonicalLevel(profile.getExperienceLevel()), false);
+        }
+        snapshot = next;
+        logger.info("Indexed {} developers with {} distinct skills in {}ms", next.ordinals.size(), next.skills.size(),
+                System.currentTimeMillis() - startTime);
+        return next.ordinals.size();
+    }
+
+    /**
+     * Canonicalizes a skill: lower case, single spaces, and synonyms replaced by their
+     * canonical name
+     *
+     * @param skill The skill as written
+     * @return The canonical skill, or null if blank
+     */
+    public String canonicalSkill(String skill) {
+        String normalized = normalize(skill);
+        return normalized == null ? null : synonyms.getOrDefault(normalized, normalized);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private List<String> canonicalSkills(DeveloperProfile profile) {
+        List<String> skills = new ArrayList<>();
+        if (profile.getSkills() != null) {
+            for (String skill : profile.getSkills()) {
+                String canonical = canonicalSkill(skill);
+                if (canonical != null) {
+                    skills.add(canonical);
+                }
+            }
+        }
+        return skills;
+    }
+
+    private static List<DeveloperProfile> topByProductivity(Snapshot snapshot, BitSet matches, int limit) {
+        Comparator<DeveloperProfile> byProductivity = Comparator.comparingDouble(DeveloperSkillIndex::productivityOf);
+        if (limit <= 0) {
+            return List.of();
+        }
+        // Min-heap of the best K so far, so top-K costs O(n log K) rather than a full sort
+        PriorityQueue<DeveloperProfile> best = new PriorityQueue<>(Math.min(limit, Math.max(1, matches.cardinality())), byProductivity);
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            DeveloperProfile profile = snapshot.profiles[ordinal];
+            if (best.size() < limit) {
+                best.add(profile);
+            } else if (productivityOf(profile) > productivityOf(best.peek())) {
+                best.poll();
+                best.add(profile);
+            }
+        }
+        List<DeveloperProfile> result = new ArrayList<>(best);
+        result.sort(byProductivity.reversed());
+        return result;
+    }
+
+    private static double productivityOf(DeveloperProfile profile) {
+        return profile.getProductivityFactor() != null ? profile.getProductivityFactor() : 0.0;
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static String canonicalLevel(String experienceLevel) {
+        String normalized = normalize(experienceLevel);
+        return normalized == null ? "" : normalized;
+    }
+
+    /**
+     * Parses synonyms written as canonical=alias|alias,canonical=alias on top of the defaults
+     */
+    static Map<String, String> parseSynonyms(String value) {
+        Map<String, String> synonyms = new HashMap<>(DEFAULT_SYNONYMS);
+        if (value == null || value.isBlank()) {
+            return synonyms;
+        }
+        for (String group : value.split(",")) {
+            String[] parts = group.split("=", 2);
+            String canonical = normalize(parts[0]);
+            if (parts.length < 2 || canonical == null) {
+                continue;
+            }
+            for (String alias : parts[1].split("\\|")) {
+                String normalized = normalize(alias);
+                if (normalized != null) {
+                    synonyms.put(normalized, canonical);
+                }
+            }
+        }
+        return synonyms;
+    }
+
+    /**
+     * Splits text into lower case words, keeping characters used inside skill names such
+     * as node.js, c++, c# and ci/cd
+     */
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            boolean wordChar = Character.isLetterOrDigit(c) || c == '.' || c == '+' || c == '#' || c == '-' || c == '/';
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = trimTrailing(lower.substring(start, i));
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Drops sentence punctuation from the end of a word ("Java." or "REST/")
+     */
+    private static String trimTrailing(String word) {
+        int end = word.length();
+        while (end > 0 && ".-/".indexOf(word.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return word.substring(0, end);
+    }
+
+    private static int wordCount(String term) {
+        return term.isEmpty() ? 0 : term.split(" ").length;
+    }
+
+    /**
+     * A developer matched against a set of skills
+     */
+    public static final class SkillMatch {
+        private final DeveloperProfile profile;
+        private final int ordinal;
+        private final double coverage;
+        private final double score;
+        private final List<String> matchedSkills = new ArrayList<>();
+
+        private SkillMatch(DeveloperProfile profile, int ordinal, double coverage, double score) {
+            this.profile = profile;
+            this.ordinal = ordinal;
+            this.coverage = coverage;
+            this.score = score;
+        }
+
+        public DeveloperProfile getProfile() {
+            return profile;
+        }
+
+        public double getCoverage() {
+            return coverage;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public List<String> getMatchedSkills() {
+            return matchedSkills;
+        }
+    }
+
+    /**
+     * Immutable view of the index. Copies share the bitmaps until a write replaces one.
+     */
+    private static final class Snapshot {
+        private DeveloperProfile[] profiles;
+        private final Map<String, Integer> ordinals;
+        private final Map<String, BitSet> skills;
+        private final Map<String, BitSet> levels;
+        private final BitSet live;
+        private int maxSkillWords = 1; // Longest skill name in words, only grows
+
+        private Snapshot(int capacity) {
+            this(new DeveloperProfile[Math.max(capacity, 16)], new HashMap<>(), new HashMap<>(), new HashMap<>(), new BitSet());
+        }
+
+        private Snapshot(DeveloperProfile[] profiles, Map<String, Integer> ordinals, Map<String, BitSet> skills,
+                Map<String, BitSet> levels, BitSet live) {
+            this.profiles = profiles;
+            this.ordinals = ordinals;
+            this.skills = skills;
+            this.levels = levels;
+            this.live = live;
+        }
+
+        private Snapshot copy() {
+            Snapshot copy = new Snapshot(profiles.clone(), new HashMap<>(ordinals), new HashMap<>(skills), new HashMap<>(levels),
+                    (BitSet) live.clone());
+            copy.maxSkillWords = maxSkillWords;
+            return copy;
+        }
+
+        /**
+         * Sets a free ordinal to a developer; only called on a snapshot that no reader sees
+         * yet. Bitmaps shared with the previous snapshot are copied before the first change.
+         */
+        private void set(int ordinal, DeveloperProfile profile, List<String> skillNames, String level, boolean shared) {
+            if (ordinal >= profiles.length) {
+                profiles = Arrays.copyOf(profiles, Math.max(ordinal + 1, profiles.length * 2));
+            }
+            profiles[ordinal] = profile;
+            live.set(ordinal);
+            for (String skill : skillNames) {
+                writable(skills, skill, shared).set(ordinal);
+                maxSkillWords = Math.max(maxSkillWords, wordCount(skill));
+            }
+            writable(levels, level, shared).set(ordinal);
+        }
+
+        private void clear(int ordinal) {
+            profiles[ordinal] = null;
+            live.clear(ordinal);
+            clearFrom(skills, ordinal);
+            clearFrom(levels, ordinal);
+        }
+
+        private static void clearFrom(Map<String, BitSet> bitmaps, int ordinal) {
+            List<String> emptied = new ArrayList<>();
+            for (Map.Entry<String, BitSet> entry : bitmaps.entrySet()) {
+                if (entry.getValue().get(ordinal)) {
+                    BitSet bits = (BitSet) entry.getValue().clone();
+                    bits.clear(ordinal);
+                    if (bits.isEmpty()) {
+                        emptied.add(entry.getKey());
+                    } else {
+                        entry.setValue(bits);
+                    }
+                }
+            }
+            emptied.forEach(bitmaps::remove);
+        }
+
+        private static BitSet writable(Map<String, BitSet> bitmaps, String key, boolean shared) {
+            if (!shared) {
+                return bitmaps.computeIfAbsent(key, k -> new BitSet());
+            }
+            BitSet existing = bitmaps.get(key);
+            BitSet bits = existing != null ? (BitSet) existing.clone() : new BitSet();
+            bitmaps.put(key, bits);
+            return bits;
+        }
+    }
+
+    /**
+     * Recursive descent parser that evaluates a skill expression straight to a bitmap:
+     * or := and (OR and)*, and := not (AND not)*, not := NOT not | ( or ) | term
+     */
+    private final class Parser {
+        private final List<String> tokens = new ArrayList<>();
+        private final Snapshot snapshot;
+        private int position;
+
+        private Parser(String expression, Snapshot snapshot) {
+            this.snapshot = snapshot;
+            tokenize(expression);
+        }
+
+        private BitSet parse() {
+            BitSet result = or();
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "' in skill expression");
+            }
+            return result;
+        }
+
+        private BitSet or() {
+            BitSet result = and();
+            while (accept("OR")) {
+                result.or(and());
+            }
+            return result;
+        }
+
+        private BitSet and() {
+            BitSet result = not();
+            while (accept("AND")) {
+                result.and(not());
+            }
+            return result;
+        }
+
+        private BitSet not() {
+            if (accept("NOT")) {
+                BitSet result = (BitSet) snapshot.live.clone();
+                result.andNot(not());
+                return result;
+            }
+            if (accept("(")) {
+                BitSet result = or();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing ')' in skill expression");
+                }
+                return result;
+            }
+            if (position >= tokens.size() || isOperator(tokens.get(position))) {
+                throw new IllegalArgumentException("Expected a skill in skill expression");
+            }
+            return term(tokens.get(position++));
+        }
+
+        private BitSet term(String term) {
+            BitSet bits;
+            if (term.toLowerCase(Locale.ROOT).startsWith(EXPERIENCE_PREFIX)) {
+                bits = snapshot.levels.get(canonicalLevel(term.substring(EXPERIENCE_PREFIX.length())));
+            } else {
+                bits = snapshot.skills.get(canonicalSkill(term));
+            }
+            return bits != null ? (BitSet) bits.clone() : new BitSet();
+        }
+
+        private boolean accept(String operator) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(operator)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Splits into operators, parentheses and terms; quoted text and runs of words
+         * that are not operators each become one term
+         */
+        private void tokenize(String expression) {
+            StringBuilder term = new StringBuilder();
+            int i = 0;
+            while (i < expression.length()) {
+                char c = expression.charAt(i);
+                if (c == '(' || c == ')') {
+                    flush(term);
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if (c == '"') {
+                    flush(term);
+                    int end = expression.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unterminated quote in skill expression");
+                    }
+                    tokens.add(expression.substring(i + 1, end));
+                    i = end + 1;
+                } else if (Character.isWhitespace(c)) {
+                    i++;
+                } else {
+                    int end = i;
+                    while (end < expression.length() && !Character.isWhitespace(expression.charAt(end))
+                            && "()\"".indexOf(expression.charAt(end)) < 0) {
+                        end++;
+                    }
+                    String word = expression.substring(i, end);
+                    if (isOperator(word)) {
+                        flush(term);
+                        tokens.add(word.toUpperCase(Locale.ROOT));
+                    } else {
+                        term.append(term.length() > 0 ? " " : "").append(word);
+                    }
+                    i = end;
+                }
+            }
+            flush(term);
+        }
+
+        private void flush(StringBuilder term) {
+            if (term.length() > 0) {
+                tokens.add(term.toString());
+                term.setLength(0);
+            }
+        }
+
+        private boolean isOperator(String token) {
+            return token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR") || token.equalsIgnoreCase("NOT")
+                    || token.equals("(") || token.equals(")");
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.contextcoach.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperWorkload;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.repository.DeveloperWorkloadRepository;
+import com.mongodb.DBRef;
+import com.mongodb.client.result.DeleteResult;
+
+/**
+ * Maintains the developer_workloads read model, the current load of each developer. Only
+ * open tickets count: a ticket leaves its developer's workload when it reaches one of the
+ * closed statuses and comes back when it is reopened. Each saved ticket applies one atomic
+ * upsert ($inc of the ticket and story point counters) to the workload of its developer,
+ * so reading a developer's load is a single lookup, and {@link #rebuildWorkloads()}
+ * recomputes every workload with one aggregation over the open tickets. The rebuild also
+ * runs on a schedule to correct any drift of the counters.
+ */
+@Service
+public class DeveloperWorkloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeveloperWorkloadService.class);
+    private static final String UNSPECIFIED = "Unspecified";
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final DeveloperWorkloadRepository developerWorkloadRepository;
+    private final DeveloperProfileRepository developerProfileRepository;
+    private final List<Pattern> closedStatuses;
+
+    public DeveloperWorkloadService(
+            MongoTemplate mongoTemplate,
+            DeveloperWorkloadRepository developerWorkloadRepository,
+            DeveloperProfileRepository developerProfileRepository,
+            @Value("${contextcoach.workload.closed-statuses:Done,Closed,Resolved,Cancelled}") String[] closedStatuses) {
+        this.mongoTemplate = mongoTemplate;
+        this.developerWorkloadRepository = developerWorkloadRepository;
+        this.developerProfileRepository = developerProfileRepository;
+        // Matched whole and ignoring case, in Java and in queries alike
+        this.closedStatuses = Arrays.stream(closedStatuses)
+                .map(String::trim)
+                .filter(status -> !status.isEmpty())
+                .map(status -> Pattern.compile("^" + Pattern.quote(status) + "$", Pattern.CASE_INSENSITIVE))
+                .toList();
+    }
+
+    /**
+     * Checks whether a status is open, which a ticket without a status is
+     *
+     * @param status The status of a ticket
+     * @return False if the status is one of the closed statuses
+     */
+    public boolean isOpen(String status) {
+        if (status == null) {
+            return true;
+        }
+        for (Pattern closed : closedStatuses) {
+            if (closed.matcher(status.trim()).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the criteria matching open tickets, including tickets without a status
+     *
+     * @return The criteria on the ticket status
+     */
+    public Criteria openStatusCriteria() {
+        return Criteria.where("status").nin(closedStatuses);
+    }
+
+    /**
+     * Gets the workload of every developer that has tickets
+     *
+     * @return The workloads
+     */
+    public List<DeveloperWorkload> getWorkloads() {
+        logger.debug("Getting all developer workloads");
+        return developerWorkloadRepository.findAll();
+    }
+
+    /**
+     * Gets the workloads of the given developers that have tickets
+     *
+     * @param developerIds The IDs of the developers
+     * @return The workloads
+     */
+    public List<DeveloperWorkload> getWorkloads(List<String> developerIds) {
+        List<DeveloperWorkload> workloads = new ArrayList<>();
+        developerWorkloadRepository.findAllById(developerIds).forEach(workloads::add);
+        return workloads;
+    }
+
+    /**
+     * Gets the workload of a developer
+     *
+     * @param developerId The ID of the developer
+     * @return The workload, with zero totals if the developer has no tickets
+     * @throws ResourceNotFoundException if the developer does not exist
+     */
+    public DeveloperWorkload getWorkload(String developerId) {
+        logger.debug("Getting workload for developer ID: {}", developerId);
+        return developerWorkloadRepository.findById(developerId).orElseGet(() -> {
+            DeveloperProfile developer = developerProfileRepository.findById(developerId)
+                    .orElseThrow(() -> {
+                        logger.error("Developer profile not found with ID: {}", developerId);
+                        return new ResourceNotFoundException("Developer profile not found with ID: " + developerId);
+                    });
+            DeveloperWorkload workload = new DeveloperWorkload();
+            workload.setDeveloperId(developerId);
+            workload.setDeveloperName(developer.getName());
+            return workload;
+        });
+    }
+
+    /**
+     * Adds a saved ticket to the workload of its assigned developer if it is open. Failures
+     * are logged rather than propagated since the ticket itself is already persisted and a
+     * rebuild restores the workload.
+     *
+     * @param ticket The saved ticket
+     */
+    public void recordTicket(JiraTicket ticket) {
+        if (!counts(ticket)) {
+            return;
+        }
+        String developerId = ticket.getAssignedDeveloper().getId();
+        try {
+            Update update = increments(List.of(ticket)).set("updatedAt", LocalDateTime.now());
+            mongoTemplate.upsert(byDeveloperId(developerId), update, DeveloperWorkload.class);
+            logger.debug("Added ticket {} to workload of developer ID: {}", ticket.getId(), developerId);
+        } catch (Exception e) {
+            logger.warn("Failed to add ticket {} to workload of developer ID: {}: {}", ticket.getId(), developerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a batch of saved tickets to the workloads of their developers with one bulk
+     * write, folding the open tickets of each developer into a single upsert
+     *
+     * @param tickets The saved tickets
+     */
+    public void recordTickets(List<JiraTicket> tickets) {
+        if (tickets == null || tickets.isEmpty()) {
+            return;
+        }
+        Map<String, List<JiraTicket>> byDeveloper = new LinkedHashMap<>();
+        for (JiraTicket ticket : tickets) {
+            if (counts(ticket)) {
+                byDeveloper.computeIfAbsent(ticket.getAssignedDeveloper().getId(), id -> new ArrayList<>()).add(ticket);
+            }
+        }
+        if (byDeveloper.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeveloperWorkload.class);
+            for (Map.Entry<String, List<JiraTicket>> entry : byDeveloper.entrySet()) {
+                bulkOps.upsert(byDeveloperId(entry.getKey()), increments(entry.getValue()).set("updatedAt", now));
+            }
+            bulkOps.execute();
+            logger.debug("Added {} tickets to the workloads of {} developers", tickets.size(), byDeveloper.size());
+        } catch (Exception e) {
+            logger.warn("Failed to add {} tickets to developer workloads: {}", tickets.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Moves a ticket from its old developer, status, priority, type and story points to the
+     * new ones, with one atomic update per developer involved. A ticket that is closed
+     * leaves its developer's workload, a reopened one comes back, and a reassigned one moves
+     * to the new developer. Failures are logged like in {@link #recordTicket(JiraTicket)}.
+     *
+     * @param before The ticket before the change
+     * @param after The ticket after the change
+     */
+    public void recordTicketChange(JiraTicket before, JiraTicket after) {
+        Map<String, Map<String, Long>> countersByDeveloper = new LinkedHashMap<>();
+        if (counts(before)) {
+            count(countersByDeveloper.computeIfAbsent(before.getAssignedDeveloper().getId(), id -> new LinkedHashMap<>()),
+                    before, -1);
+        }
+        if (counts(after)) {
+            count(countersByDeveloper.computeIfAbsent(after.getAssignedDeveloper().getId(), id -> new LinkedHashMap<>()),
+                    after, 1);
+        }
+        String ticketId = after != null ? after.getId() : before != null ? before.getId() : null;
+        LocalDateTime now = LocalDateTime.now();
+        countersByDeveloper.forEach((developerId, counters) -> {
+            Update update = new Update();
+            counters.forEach((field, delta) -> {
+                if (delta != 0) {
+                    update.inc(field, delta);
+                }
+            });
+            if (update.getUpdateObject().isEmpty()) {
+                return;
+            }
+            update.inc("revision", 1).set("updatedAt", now);
+            try {
+                if (counters.getOrDefault("ticketCount", 0L) > 0) {
+                    // The developer gains the ticket, so the workload may not exist yet
+                    if (after.getAssignedDeveloper().getName() != null) {
+                        update.set("developerName", after.getAssignedDeveloper().getName());
+                    }
+                    mongoTemplate.upsert(byDeveloperId(developerId), update, DeveloperWorkload.class);
+                } else {
+                    // No upsert: a developer without a workload document is left to the next rebuild
+                    mongoTemplate.updateFirst(byDeveloperId(developerId), update, DeveloperWorkload.class);
+                }
+                logger.debug("Moved ticket {} within the workload of developer ID: {}", ticketId, developerId);
+            } catch (Exception e) {
+                logger.warn("Failed to update ticket {} in workload of developer ID: {}: {}", ticketId, developerId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Rebuilds every workload on a schedule, correcting any drift of the counters
+     */
+    @Scheduled(cron = "${contextcoach.workload.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuildWorkloads();
+        } catch (ServiceException e) {
+            // Already logged by the rebuild
+        }
+    }
+
+    /**
+     * Rebuilds every developer workload from the open tickets. One aggregation groups the
+     * tickets by developer, priority and type on the server, so only the group totals are
+     * transferred. Each workload is only replaced if its revision is still the one read
+     * before the aggregation; a workload that received an increment meanwhile may or may
+     * not include that ticket in the aggregation, so it is rebuilt again.
+     *
+     * @return The number of workloads written
+     * @throws ServiceException if there's an error rebuilding the workloads
+     */
+    public int rebuildWorkloads() {
+        logger.info("Rebuilding all developer workloads");
+        long startTime = System.currentTimeMillis();
+        try {
+            int written = 0;
+            Set<String> pending = null;
+            for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+                Set<String> conflicts = new LinkedHashSet<>();
+                written += rebuild(pending, conflicts);
+                pending = conflicts;
+                if (pending.isEmpty()) {
+                    break;
+                }
+                logger.info("{} developer workloads changed during the rebuild", pending.size());
+            }
+            if (!pending.isEmpty()) {
+                logger.warn("Workloads of developers {} kept changing and are left to the next rebuild", pending);
+            }
+            logger.info("Rebuilt {} developer workloads in {}ms", written, System.currentTimeMillis() - startTime);
+            return written;
+        } catch (Exception e) {
+            logger.error("Error rebuilding developer workloads", e);
+            throw new ServiceException("Error rebuilding developer workloads: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Rebuilds the workloads of the given developers, or of every developer if null, and
+     * collects the developers whose workload changed meanwhile
+     */
+    private int rebuild(Set<String> developerIds, Set<String> conflicts) {
+        Query current = developerIds == null ? new Query() : new Query(Criteria.where("_id").in(developerIds));
+        current.fields().include("revision");
+        Map<String, Long> revisions = new HashMap<>();
+        for (DeveloperWorkload workload : mongoTemplate.find(current, DeveloperWorkload.class)) {
+            revisions.put(workload.getDeveloperId(), workload.getRevision());
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().andOperator(
+                        Criteria.where("assignedDeveloper").ne(null), openStatusCriteria())),
+                Aggregation.group("assignedDeveloper", "priority", "ticketType")
+                        .count().as("tickets")
+                        .sum("estimatedStoryPoints").as("storyPoints"));
+        AggregationResults<Document> results = mongoTemplate.aggregate(aggregation, "jira_tickets", Document.class);
+
+        Map<String, DeveloperWorkload> workloads = new LinkedHashMap<>();
+        for (Document group : results.getMappedResults()) {
+            Document key = group.get("_id", Document.class);
+            String developerId = idOf(key.get("assignedDeveloper"));
+            if (developerId == null || (developerIds != null && !developerIds.contains(developerId))) {
+                continue;
+            }
+            DeveloperWorkload workload = workloads.computeIfAbsent(developerId, id -> {
+                DeveloperWorkload created = new DeveloperWorkload();
+                created.setDeveloperId(id);
+                return created;
+            });
+            long tickets = longOf(group.get("tickets"));
+            long storyPoints = longOf(group.get("storyPoints"));
+            String priority = keyOf(key.getString("priority"));
+            String type = keyOf(key.getString("ticketType"));
+            workload.setTicketCount(workload.getTicketCount() + tickets);
+            workload.setTotalStoryPoints(workload.getTotalStoryPoints() + storyPoints);
+            workload.getTicketsByPriority().merge(priority, tickets, Long::sum);
+            workload.getTicketsByType().merge(type, tickets, Long::sum);
+            workload.getStoryPointsByPriority().merge(priority, storyPoints, Long::sum);
+            workload.getStoryPointsByType().merge(type, storyPoints, Long::sum);
+        }
+
+        Map<String, String> names = new HashMap<>();
+        developerProfileRepository.findAllById(workloads.keySet())
+                .forEach(developer -> names.put(developer.getId(), developer.getName()));
+        LocalDateTime now = LocalDateTime.now();
+        int written = 0;
+        for (DeveloperWorkload workload : workloads.values()) {
+            long revision = revisions.getOrDefault(workload.getDeveloperId(), 0L);
+            workload.setDeveloperName(names.get(workload.getDeveloperId()));
+            workload.setUpdatedAt(now);
+            workload.setRevision(revision + 1);
+            try {
+                mongoTemplate.findAndReplace(atRevision(workload.getDeveloperId(), revision), workload,
+                        FindAndReplaceOptions.options().upsert());
+                written++;
+            } catch (DuplicateKeyException e) {
+                // The upsert found no workload at the revision read, but one exists
+                conflicts.add(workload.getDeveloperId());
+            }
+        }
+        // Developers without open tickets no longer have a workload
+        for (Map.Entry<String, Long> entry : revisions.entrySet()) {
+            if (!workloads.containsKey(entry.getKey())) {
+                DeleteResult removed = mongoTemplate.remove(atRevision(entry.getKey(), entry.getValue()), DeveloperWorkload.class);
+                if (removed.getDeletedCount() == 0) {
+                    conflicts.add(entry.getKey());
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Matches a workload at a revision. Workloads written before revisions were kept have
+     * none, which reads as 0.
+     */
+    private Query atRevision(String developerId, long revision) {
+        Criteria criteria = Criteria.where("_id").is(developerId);
+        return new Query(revision == 0 ? criteria.and("revision").in(0L, null) : criteria.and("revision").is(revision));
+    }
+
+    /**
+     * Checks whether a ticket counts towards a workload: it is assigned and open
+     */
+    private boolean counts(JiraTicket ticket) {
+        return ticket != null && ticket.getAssignedDeveloper() != null && ticket.getAssignedDeveloper().getId() != null
+                && isOpen(ticket.getStatus());
+    }
+
+    /**
+     * Builds the counter increments for tickets of the same developer
+     */
+    private Update increments(List<JiraTicket> tickets) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (JiraTicket ticket : tickets) {
+            count(counters, ticket, 1);
+        }
+        Update update = new Update();
+        counters.forEach(update::inc);
+        update.inc("revision", 1);
+        DeveloperProfile developer = tickets.get(tickets.size() - 1).getAssignedDeveloper();
+        if (developer.getName() != null) {
+            update.set("developerName", developer.getName());
+        }
+        return update;
+    }
+
+    /**
+     * Adds the counters of one ticket, or subtracts them with a sign of -1
+     */
+    private void count(Map<String, Long> counters, JiraTicket ticket, long sign) {
+        long storyPoints = sign * (ticket.getEstimatedStoryPoints() != null ? ticket.getEstimatedStoryPoints() : 0);
+        String priority = keyOf(ticket.getPriority());
+        String type = keyOf(ticket.getTicketType());
+        counters.merge("ticketCount", sign, Long::sum);
+        counters.merge("totalStoryPoints", storyPoints, Long::sum);
+        counters.merge("ticketsByPriority." + priority, sign, Long::sum);
+        counters.merge("ticketsByType." + type, sign, Long::sum);
+        counters.merge("storyPointsByPriority." + priority, storyPoints, Long::sum);
+        counters.merge("storyPointsByType." + type, storyPoints, Long::sum);
+    }
+
+    private Query byDeveloperId(String developerId) {
+        return new Query(Criteria.where("_id").is(developerId));
+    }
+
+    /**
+     * Turns a priority or ticket type into a map key that is a valid field name
+     */
+    static String keyOf(String value) {
+        if (value == null || value.isBlank()) {
+            return UNSPECIFIED;
+        }
+        String key = value.trim().replace('.', '_');
+        return key.startsWith("$") ? "_" + key.substring(1) : key;
+    }
+
+    private static String idOf(Object reference) {
+        if (reference instanceof DBRef dbRef && dbRef.getId() != null) {
+            return dbRef.getId().toString();
+        }
+        return null;
+    }
+
+    private static long longOf(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
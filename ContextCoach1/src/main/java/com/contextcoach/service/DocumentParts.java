@@ -0,0 +1,154 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the independent parts of one document, such as the page ranges of a PDF or the
+ * sheets of a workbook, in parallel. Every part is offered to the executor, and the
+ * calling thread then runs each part that no worker has started yet itself, so it only
+ * ever waits for parts that are already running. Parts never wait on other tasks, which
+ * means the caller may be a worker of the same pool without risking a deadlock, and a
+ * part the executor rejects is simply run by the caller. When the caller is interrupted,
+ * for example because its extraction timed out, parts that have not started are dropped
+ * and running ones are interrupted.
+ */
+final class DocumentParts {
+
+    private DocumentParts() {
+    }
+
+    /**
+     * Runs the parts and returns their results in order once all of them have finished
+     *
+     * @param callables The parts of the document
+     * @param executor The executor to offer the parts to
+     * @return The result of each part
+     * @throws InterruptedIOException If the calling thread was interrupted
+     * @throws IOException If a part failed
+     */
+    static <T> List<T> runAll(List<Callable<T>> callables, Executor executor) throws IOException {
+        List<Part<T>> parts = new ArrayList<>(callables.size());
+        for (Callable<T> callable : callables) {
+            Part<T> part = new Part<>(callable);
+            parts.add(part);
+            try {
+                executor.execute(part);
+            } catch (RejectedExecutionException e) {
+                // The caller runs it below
+            }
+        }
+
+        try {
+            for (Part<T> part : parts) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                part.run();
+            }
+            for (Part<T> part : parts) {
+                part.finished.await();
+            }
+        } catch (InterruptedException e) {
+            for (Part<T> part : parts) {
+                part.cancel();
+            }
+            // Parts may hold files the caller deletes next, so wait until they stopped
+            for (Part<T> part : parts) {
+                awaitUninterruptibly(part.finished);
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Extraction was interrupted");
+        }
+
+        List<T> results = new ArrayList<>(parts.size());
+        for (Part<T> part : parts) {
+            if (part.error != null) {
+                throw toIOException(part.error);
+            }
+            results.add(part.result);
+        }
+        return results;
+    }
+
+    private static IOException toIOException(Throwable error) {
+        if (error instanceof IOException) {
+            return (IOException) error;
+        }
+        return new IOException("Error extracting document part: " + error.getMessage(), error);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A part that runs at most once, on whichever thread claims it first
+     */
+    private static final class Part<T> implements Runnable {
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int CANCELLED = 2;
+
+        private final Callable<T> callable;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile Thread runner;
+        private volatile T result;
+        private volatile Throwable error;
+
+        private Part(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            runner = Thread.currentThread();
+            try {
+                result = callable.call();
+            } catch (Throwable e) {
+                error = e;
+                if (e instanceof InterruptedException || e instanceof InterruptedIOException) {
+                    // Keep the caller's interrupt visible to runAll after the part swallowed it
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                runner = null;
+                finished.countDown();
+            }
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(NEW, CANCELLED)) {
+                error = new InterruptedIOException("Extraction was interrupted");
+                finished.countDown();
+                return;
+            }
+            Thread thread = runner;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Extracts text from Excel workbooks as "Sheet: name" followed by tab separated rows.
+ * XLSX workbooks are streamed; legacy XLS workbooks are loaded with the POI user model.
+ */
+@Component
+@Order(200)
+public class ExcelExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelExtractor.class);
+
+    private final Executor extractionExecutor;
+
+    public ExcelExtractor(@Qualifier("extractionExecutor") Executor extractionExecutor) {
+        this.extractionExecutor = extractionExecutor;
+    }
+
+    @Override
+    public String getFormat() {
+        return "EXCEL";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.HEAVY;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        // OLE2 containers hold Word and Excel alike, so only the declared type tells them apart
+        return probe.hasZipEntry("xl/") || (probe.isOle2() && matchesDeclaredType(probe));
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("excel", "spreadsheetml") || probe.hasExtension("xlsx", "xlsm", "xls");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from Excel file: {}", file.getOriginalFilename());
+        FileMagic fileMagic;
+        try (InputStream inputStream = FileMagic.prepareToCheckMagic(file.getInputStream())) {
+            fileMagic = FileMagic.valueOf(inputStream);
+        }
+        if (fileMagic == FileMagic.OOXML) {
+            return extractXlsx(file);
+        }
+
+        StringBuilder textBuilder = new StringBuilder();
+
+        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
+            logger.debug("Excel file has {} sheets", workbook.getNumberOfSheets());
+
+            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                Sheet sheet = workbook.getSheetAt(i);
+                logger.debug("Processing sheet: {}", sheet.getSheetName());
+
+                if (textBuilder.length() > 0) {
+                    textBuilder.append("\n\n");
+                }
+                textBuilder.append("Sheet: ").append(sheet.getSheetName()).append("\n");
+
+                int rowCount = 0;
+                for (Row row : sheet) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Excel extraction was interrupted");
+                    }
+                    StringBuilder rowText = new StringBuilder();
+                    for (Cell cell : row) {
+                        String cellValue;
+                        switch (cell.getCellType()) {
+                            case STRING:
+                                cellValue = cell.getStringCellValue();
+                                break;
+                            case NUMERIC:
+                                cellValue = String.valueOf(cell.getNumericCellValue());
+                                break;
+                            case BOOLEAN:
+                                cellValue = String.valueOf(cell.getBooleanCellValue());
+                                break;
+                            case FORMULA:
+                                cellValue = cell.getCellFormula();
+                                break;
+                            default:
+                                cellValue = "";
+                        }
+                        ExtractionSupport.appendCell(rowText, cellValue);
+                    }
+
+                    if (rowText.length() > 0) {
+                        textBuilder.append(rowText).append("\n");
+                        rowCount++;
+                    }
+                }
+                logger.debug("Processed {} non-empty rows in sheet: {}", rowCount, sheet.getSheetName());
+            }
+
+            String result = textBuilder.toString();
+            logger.debug("Successfully extracted {} characters from Excel file", result.length());
+            return result;
+        } catch (IOException e) {
+            logger.error("Error extracting text from Excel file: {}", file.getOriginalFilename(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Extracts text from an XLSX workbook with the SAX event model. The upload is spooled
+     * to a temporary file so the package is read with random access instead of being
+     * inflated into memory, and sheets are parsed in parallel on the extraction executor.
+     * Memory per sheet is bounded by the current row plus the extracted text.
+     */
+    private String extractXlsx(MultipartFile file) throws IOException {
+        Path tempFile = ExtractionSupport.spoolToTempFile(file, ".xlsx");
+        try {
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+
+                List<Callable<String>> sheets = new ArrayList<>();
+                XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while (iterator.hasNext()) {
+                    iterator.next().close();
+                    String sheetName = iterator.getSheetName();
+                    PackagePart sheetPart = iterator.getSheetPart();
+                    sheets.add(() -> extractXlsxSheet(sheetName, sheetPart, sharedStrings));
+                }
+                logger.debug("Excel file has {} sheets", sheets.size());
+                // Returns only after every sheet has finished, so the package can be closed
+                StringBuilder textBuilder = new StringBuilder();
+                for (String sheet : DocumentParts.runAll(sheets, extractionExecutor)) {
+                    if (textBuilder.length() > 0) {
+                        textBuilder.append("\n\n");
+                    }
+                    textBuilder.append(sheet);
+                }
+                String result = textBuilder.toString();
+                logger.debug("Successfully extracted {} characters from Excel file", result.length());
+                return result;
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            logger.error("Error extracting text from Excel file: {}", file.getOriginalFilename(), e);
+            throw new IOException("Error reading Excel file: " + e.getMessage(), e);
+        } finally {
+            ExtractionSupport.deleteTempFile(file, tempFile);
+        }
+    }
+
+    /**
+     * Parses a single XLSX sheet part into "Sheet: name" followed by tab separated rows
+     */
+    private String extractXlsxSheet(String sheetName, PackagePart sheetPart, SharedStrings sharedStrings) throws IOException {
+        logger.debug("Processing sheet: {}", sheetName);
+        SheetTextHandler handler = new SheetTextHandler(sharedStrings);
+        handler.text.append("Sheet: ").append(sheetName).append("\n");
+        try (InputStream inputStream = sheetPart.getInputStream()) {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(handler);
+            xmlReader.parse(new InputSource(inputStream));
+        } catch (SAXException | ParserConfigurationException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Excel extraction was interrupted");
+            }
+            throw new IOException("Error parsing sheet " + sheetName + ": " + e.getMessage(), e);
+        }
+        logger.debug("Processed {} non-empty rows in sheet: {}", handler.rowCount, sheetName);
+        return handler.text.toString();
+    }
+
+    /**
+     * SAX handler for a worksheet part. Cells are rendered the same way as the user model
+     * path: strings as is, numbers via Double.toString, booleans as true/false, formulas
+     * as their formula text, and errors as empty.
+     */
+    private static final class SheetTextHandler extends DefaultHandler {
+        private final SharedStrings sharedStrings;
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder rowText = new StringBuilder();
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+        private StringBuilder capture;
+        private String cellType;
+        private boolean hasFormula;
+        private int rowCount;
+
+        private SheetTextHandler(SharedStrings sharedStrings) {
+            this.sharedStrings = sharedStrings;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    rowText.setLength(0);
+                    break;
+                case "c":
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                    formula.setLength(0);
+                    hasFormula = false;
+                    break;
+                case "v":
+                case "t":
+                    capture = value;
+                    break;
+                case "f":
+                    hasFormula = true;
+                    capture = formula;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capture != null) {
+                capture.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                case "t":
+                case "f":
+                    capture = null;
+                    break;
+                case "c":
+                    ExtractionSupport.appendCell(rowText, renderCell());
+                    break;
+                case "row":
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new SAXException("Sheet parsing was interrupted");
+                    }
+                    if (rowText.length() > 0) {
+                        text.append(rowText).append('\n');
+                        rowCount++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private String renderCell() {
+            // Shared formulas only carry their text on the first cell; fall back to the cached value
+            if (hasFormula && formula.length() > 0) {
+                return formula.toString();
+            }
+            if (value.length() == 0) {
+                return "";
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                try {
+                    return String.valueOf(Double.parseDouble(value.toString()));
+                } catch (NumberFormatException e) {
+                    return value.toString();
+                }
+            }
+            switch (cellType) {
+                case "s":
+                    return sharedStrings.getItemAt(Integer.parseInt(value.toString())).getString();
+                case "b":
+                    return String.valueOf("1".equals(value.toString()));
+                case "e":
+                    return "";
+                default:
+                    return value.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.contextcoach.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Content-addressed cache of extracted document text. Entries are keyed by the format
+ * and the SHA-256 of the uploaded bytes, and kept in two tiers: a size-bounded in-memory
+ * LRU and a GridFS bucket that survives restarts. The store is also bounded by size and
+ * evicts the least recently used files first. Cache failures are logged and treated as
+ * misses so extraction never depends on the cache.
+ */
+@Service
+public class ExtractionCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionCacheService.class);
+
+    static final String BUCKET = "extraction_cache";
+    private static final String FILES_COLLECTION = BUCKET + ".files";
+    private static final String LAST_ACCESSED_AT = "metadata.lastAccessedAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final GridFsTemplate gridFsTemplate;
+    private final boolean enabled;
+    private final long memoryMaxBytes;
+    private final long storeMaxBytes;
+
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, String> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ExtractionCacheService(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${contextcoach.extraction.cache.enabled:true}") boolean enabled,
+            @Value("${contextcoach.extraction.cache.memory-max-size:64MB}") DataSize memoryMaxSize,
+            @Value("${contextcoach.extraction.cache.store-max-size:1GB}") DataSize storeMaxSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.gridFsTemplate = new GridFsTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter(), BUCKET);
+        this.enabled = enabled;
+        this.memoryMaxBytes = memoryMaxSize.toBytes();
+        this.storeMaxBytes = storeMaxSize.toBytes();
+
+        this.memoryHits = Counter.builder("contextcoach.extraction.cache.requests").tag("result", "memory-hit")
+                .description("Extraction cache lookups").register(meterRegistry);
+        this.storeHits = Counter.builder("contextcoach.extraction.cache.requests").tag("result", "store-hit")
+                .description("Extraction cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("contextcoach.extraction.cache.requests").tag("result", "miss")
+                .description("Extraction cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("contextcoach.extraction.cache.evictions")
+                .description("Extraction cache entries evicted from memory or the store").register(meterRegistry);
+        Gauge.builder("contextcoach.extraction.cache.hit.ratio", this, ExtractionCacheService::getHitRatio)
+                .description("Share of extraction cache lookups served from memory or the store").register(meterRegistry);
+        Gauge.builder("contextcoach.extraction.cache.memory.size", this, ExtractionCacheService::getMemoryBytes)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Looks up previously extracted text, first in memory and then in the store
+     *
+     * @param key The cache key (format and content hash)
+     * @return The cached text, or empty on a miss
+     */
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (memory) {
+            String text = memory.get(key);
+            if (text != null) {
+                memoryHits.increment();
+                logger.debug("Extraction cache memory hit for {}", key);
+                return Optional.of(text);
+            }
+        }
+
+        try {
+            GridFSFile file = gridFsTemplate.findOne(Query.query(Criteria.where("filename").is(key)));
+            if (file != null) {
+                String text;
+                try (InputStream inputStream = gridFsTemplate.getResource(file).getInputStream()) {
+                    text = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                mongoTemplate.updateFirst(Query.query(Criteria.where("filename").is(key)),
+                        Update.update(LAST_ACCESSED_AT, new Date()), FILES_COLLECTION);
+                putInMemory(key, text);
+                storeHits.increment();
+                logger.debug("Extraction cache store hit for {}", key);
+                return Optional.of(text);
+            }
+        } catch (Exception e) {
+            logger.warn("Error reading extraction cache entry {}", key, e);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Caches extracted text in memory and in the store, evicting old entries over the size limits
+     *
+     * @param key The cache key (format and content hash)
+     * @param text The extracted text
+     */
+    public void put(String key, String text) {
+        if (!enabled) {
+            return;
+        }
+        putInMemory(key, text);
+        try {
+            if (gridFsTemplate.findOne(Query.query(Criteria.where("filename").is(key))) != null) {
+                return;
+            }
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > storeMaxBytes) {
+                logger.debug("Extracted text for {} exceeds the cache store size, not storing it", key);
+                return;
+            }
+            Document metadata = new Document("lastAccessedAt", new Date());
+            gridFsTemplate.store(new ByteArrayInputStream(bytes), key, "text/plain; charset=utf-8", metadata);
+            evictFromStore();
+        } catch (Exception e) {
+            logger.warn("Error writing extraction cache entry {}", key, e);
+        }
+    }
+
+    /**
+     * Gets the share of lookups that were served from memory or the store
+     *
+     * @return The hit ratio between 0 and 1, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        double hits = memoryHits.count() + storeHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    /**
+     * Gets the estimated size of the in-memory tier
+     *
+     * @return The size in bytes
+     */
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    private void putInMemory(String key, String text) {
+        long size = estimateBytes(text);
+        if (size > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            String previous = memory.put(key, text);
+            if (previous != null) {
+                memoryBytes -= estimateBytes(previous);
+            }
+            memoryBytes += size;
+            Iterator<Map.Entry<String, String>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, String> entry = eldest.next();
+                memoryBytes -= estimateBytes(entry.getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the store is within its size limit
+     */
+    private void evictFromStore() {
+        Document total = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Aggregation.group().sum("length").as("bytes")),
+                FILES_COLLECTION, Document.class).getUniqueMappedResult();
+        long storeBytes = total == null ? 0 : ((Number) total.get("bytes")).longValue();
+        if (storeBytes <= storeMaxBytes) {
+            return;
+        }
+
+        Query oldestFirst = new Query().with(Sort.by(Sort.Direction.ASC, LAST_ACCESSED_AT));
+        oldestFirst.fields().include("filename").include("length");
+        for (Document file : mongoTemplate.find(oldestFirst, Document.class, FILES_COLLECTION)) {
+            if (storeBytes <= storeMaxBytes) {
+                break;
+            }
+            gridFsTemplate.delete(Query.query(Criteria.where("_id").is(file.get("_id"))));
+            storeBytes -= ((Number) file.get("length")).longValue();
+            evictions.increment();
+            logger.debug("Evicted extraction cache entry {} from the store", file.getString("filename"));
+        }
+    }
+
+    private static long estimateBytes(String text) {
+        // Strings hold at most two bytes per char; this also covers the entry overhead for short texts
+        return 2L * text.length() + 64;
+    }
+}
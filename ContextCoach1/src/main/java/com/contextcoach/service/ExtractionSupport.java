@@ -0,0 +1,84 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * File handling and text layout helpers shared by the extractors
+ */
+final class ExtractionSupport {
+
+    private ExtractionSupport() {
+    }
+
+    /**
+     * Reads a text upload. Spooled uploads are decoded from a memory map of the file.
+     */
+    static String readText(MultipartFile file) throws IOException {
+        if (file instanceof SpooledMultipartFile && file.getSize() <= Integer.MAX_VALUE) {
+            try (FileChannel channel = FileChannel.open(((SpooledMultipartFile) file).getPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return StandardCharsets.UTF_8.decode(mapped).toString();
+            }
+        }
+        return new String(file.getBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a file to read an upload with random access. Uploads that were streamed to disk
+     * are used in place; anything else is copied to a temporary file.
+     */
+    static Path spoolToTempFile(MultipartFile file, String suffix) throws IOException {
+        if (file instanceof SpooledMultipartFile) {
+            return ((SpooledMultipartFile) file).getPath();
+        }
+        Path tempFile = Files.createTempFile("contextcoach-", suffix);
+        try (InputStream inputStream = file.getInputStream()) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return tempFile;
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes a temporary file from spoolToTempFile, leaving spooled uploads to their owner
+     */
+    static void deleteTempFile(MultipartFile file, Path tempFile) throws IOException {
+        if (!(file instanceof SpooledMultipartFile)) {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Appends a paragraph as a line, prefixed with '#' per heading level
+     */
+    static void appendParagraph(StringBuilder text, String paragraph, int headingLevel) {
+        if (headingLevel > 0) {
+            text.append("#".repeat(headingLevel)).append(' ');
+        }
+        text.append(paragraph).append('\n');
+    }
+
+    /**
+     * Appends a non-empty table cell to a tab separated row
+     */
+    static void appendCell(StringBuilder rowText, String cell) {
+        if (!cell.isEmpty()) {
+            if (rowText.length() > 0) {
+                rowText.append('\t');
+            }
+            rowText.append(cell);
+        }
+    }
+}
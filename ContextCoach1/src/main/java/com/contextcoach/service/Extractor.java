@@ -0,0 +1,82 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Extracts text from one document format. Implementations are beans collected by the
+ * {@link ExtractorRegistry}, which picks an extractor from the leading bytes of each
+ * upload, so a new format plugs in by adding a bean with a suitable {@code @Order}.
+ */
+public interface Extractor {
+
+    /**
+     * How expensive an extraction is, which decides where it runs
+     */
+    enum CostClass {
+        /** Cheap enough to run on the calling thread */
+        CHEAP,
+        /** CPU-heavy; uploads run it on the bounded extraction pool */
+        HEAVY
+    }
+
+    /**
+     * Gets the format name, also stored as the requirement source type
+     *
+     * @return The format, such as PDF or JSON
+     */
+    String getFormat();
+
+    /**
+     * Gets the cost class of this extractor
+     *
+     * @return The cost class
+     */
+    CostClass getCostClass();
+
+    /**
+     * Checks whether the leading bytes identify this format, whatever type was declared
+     *
+     * @param probe The leading bytes and declared type of the upload
+     * @return True if the content is in this format
+     */
+    boolean matchesContent(ContentProbe probe);
+
+    /**
+     * Checks whether the file name or content type declares this format. Used only when
+     * no extractor recognizes the content.
+     *
+     * @param probe The leading bytes and declared type of the upload
+     * @return True if the upload is declared to be in this format
+     */
+    boolean matchesDeclaredType(ContentProbe probe);
+
+    /**
+     * Extracts the text of an upload
+     *
+     * @param file The uploaded file
+     * @return The extracted text
+     * @throws IOException If the file cannot be read or is not valid in this format
+     */
+    String extract(MultipartFile file) throws IOException;
+
+    /**
+     * Gets a fingerprint of the settings that affect the output, added to cache keys
+     *
+     * @return The fingerprint, or an empty string if the output depends on the content only
+     */
+    default String getCacheVariant() {
+        return "";
+    }
+
+    /**
+     * Checks whether extracted text is worth caching. By default only heavy formats are:
+     * for cheap ones, hashing the upload and looking it up costs more than extracting it.
+     *
+     * @return True if results should be cached by content hash
+     */
+    default boolean isCacheable() {
+        return getCostClass() == CostClass.HEAVY;
+    }
+}
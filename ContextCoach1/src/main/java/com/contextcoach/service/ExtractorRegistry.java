@@ -0,0 +1,61 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses the extractor for an upload. Extractors are tried in {@code @Order}; the first
+ * one that recognizes the content wins, and the declared file name and content type are
+ * only consulted when no extractor recognizes it.
+ */
+@Component
+public class ExtractorRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractorRegistry.class);
+
+    private final List<Extractor> extractors;
+
+    public ExtractorRegistry(List<Extractor> extractors) {
+        List<Extractor> ordered = new ArrayList<>(extractors);
+        AnnotationAwareOrderComparator.sort(ordered);
+        this.extractors = Collections.unmodifiableList(ordered);
+        logger.info("Registered extractors for formats {}", ordered.stream().map(Extractor::getFormat).toList());
+    }
+
+    /**
+     * Selects the extractor for an upload
+     *
+     * @param probe The leading bytes and declared type of the upload
+     * @return The extractor, or empty if the format is not supported
+     */
+    public Optional<Extractor> select(ContentProbe probe) {
+        for (Extractor extractor : extractors) {
+            if (extractor.matchesContent(probe)) {
+                return Optional.of(extractor);
+            }
+        }
+        for (Extractor extractor : extractors) {
+            if (extractor.matchesDeclaredType(probe)) {
+                logger.debug("Content not recognized, using declared type {}", extractor.getFormat());
+                return Optional.of(extractor);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the registered extractors in the order they are tried
+     *
+     * @return The extractors
+     */
+    public List<Extractor> getExtractors() {
+        return extractors;
+    }
+}
@@ -1,224 +1,213 @@
 package com.contextcoach.service;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
-
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.contextcoach.exception.PayloadTooLargeException;
+import com.contextcoach.model.ExtractedDocument;
 
 @Service
 public class FileService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(FileService.class);
-    private final ObjectMapper objectMapper;
-    
-    public FileService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+
+    // Bump when the text produced for any format changes, so stale cache entries are not reused
+    private static final int EXTRACTION_VERSION = 2;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+    // UTF-8 needs at most three bytes for a character
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final ExtractorRegistry extractorRegistry;
+    private final ExtractionCacheService extractionCache;
+    private final int maxTextLength;
+
+    public FileService(
+            ExtractorRegistry extractorRegistry,
+            ExtractionCacheService extractionCache,
+            @Value("${contextcoach.extraction.max-text-length:2000000}") int maxTextLength) {
+        this.extractorRegistry = extractorRegistry;
+        this.extractionCache = extractionCache;
+        this.maxTextLength = maxTextLength;
     }
-    
+
     /**
      * Extracts text content from various file formats
-     * 
+     *
      * @param file The uploaded file
      * @return The extracted text content
      * @throws IOException If there's an error reading the file
      */
     public String extractTextFromFile(MultipartFile file) throws IOException {
+        return extractDocument(file, null).getText();
+    }
+
+    /**
+     * Extracts text content from various file formats
+     *
+     * @param file The uploaded file
+     * @param contentHash The SHA-256 of the file content if already known, or null to compute it
+     * @return The extracted text content
+     * @throws IOException If there's an error reading the file
+     */
+    public String extractTextFromFile(MultipartFile file, String contentHash) throws IOException {
+        return extractDocument(file, contentHash).getText();
+    }
+
+    /**
+     * Extracts text from an upload. The extractor is chosen from the leading bytes of the
+     * content, falling back to the declared file name and content type only for formats
+     * without a signature. The extraction runs on the calling thread, so callers decide
+     * which pool it occupies. Text extracted from heavy formats is cached by format and
+     * content hash, so re-uploads of the same document are served without parsing it.
+     * <p>
+     * Requirements store the text twice, normalized and raw, so it is limited to keep the
+     * document well below MongoDB's 16MB limit. Text-based formats are decoded as a whole,
+     * so an upload in one of them whose text cannot fit is rejected before it is read.
+     *
+     * @param file The uploaded file
+     * @param contentHash The SHA-256 of the file content if already known, or null to compute it
+     * @return The detected format and the extracted text
+     * @throws IOException If there's an error reading the file or the format is not supported
+     * @throws PayloadTooLargeException If the extracted text exceeds the configured maximum length
+     */
+    public ExtractedDocument extractDocument(MultipartFile file, String contentHash) throws IOException {
         if (file == null) {
             logger.error("File is null");
             throw new IOException("File is null");
         }
-        
+
         logger.info("Extracting text from file: {}", file.getOriginalFilename());
         String fileName = file.getOriginalFilename();
         String contentType = file.getContentType();
-        
+
         if (fileName == null || contentType == null) {
             logger.error("Invalid file: filename or content type is null");
             throw new IOException("Invalid file");
         }
-        
-        // Handle different file types
+
         try {
-            String result;
-            if (contentType.contains("pdf")) {
-                logger.debug("Processing PDF file");
-                result = extractTextFromPdf(file);
-            } else if (contentType.contains("text") || fileName.endsWith(".txt")) {
-                logger.debug("Processing text file");
-                result = new String(file.getBytes(), StandardCharsets.UTF_8);
-            } else if (contentType.contains("json") || fileName.endsWith(".json")) {
-                logger.debug("Processing JSON file");
-                result = extractTextFromJson(file);
-            } else if (contentType.contains("excel") || fileName.endsWith(".xlsx") || fileName.endsWith(".xls")) {
-                logger.debug("Processing Excel file");
-                result = extractTextFromExcel(file);
-            } else if (contentType.contains("word") || fileName.endsWith(".docx") || fileName.endsWith(".doc")) {
-                // For simplicity, we're not implementing Word document parsing here
-                // In a real application, you would use Apache POI's XWPF or HWPF
-                logger.error("Word document parsing not implemented");
-                throw new IOException("Word document parsing not implemented");
-            } else {
+            Extractor extractor = extractorRegistry.select(ContentProbe.of(file)).orElse(null);
+            if (extractor == null) {
                 logger.error("Unsupported file type: {}", contentType);
                 throw new IOException("Unsupported file type: " + contentType);
             }
-            
+            logger.debug("Processing {} file", extractor.getFormat());
+            if (extractor.getCostClass() == Extractor.CostClass.CHEAP
+                    && file.getSize() > (long) maxTextLength * MAX_BYTES_PER_CHAR) {
+                throw tooLarge(fileName);
+            }
+            if (!extractor.isCacheable()) {
+                String result = checkLength(extractor.extract(file), fileName);
+                logger.info("Successfully extracted text from file: {}", fileName);
+                return new ExtractedDocument(extractor.getFormat(), result);
+            }
+
+            if (contentHash == null && file instanceof SpooledMultipartFile) {
+                contentHash = ((SpooledMultipartFile) file).getContentHash();
+            }
+            if (contentHash == null) {
+                try (InputStream inputStream = file.getInputStream()) {
+                    contentHash = computeContentHash(inputStream);
+                }
+            }
+            String cacheKey = cacheKey(extractor, contentHash);
+            Optional<String> cached = extractionCache.get(cacheKey);
+            if (cached.isPresent()) {
+                logger.info("Using cached text for file: {}", fileName);
+                return new ExtractedDocument(extractor.getFormat(), checkLength(cached.get(), fileName));
+            }
+
+            String result = checkLength(extractor.extract(file), fileName);
+            extractionCache.put(cacheKey, result);
+
             logger.info("Successfully extracted text from file: {}", fileName);
-            return result;
+            return new ExtractedDocument(extractor.getFormat(), result);
         } catch (IOException e) {
             logger.error("Error extracting text from file: {}", fileName, e);
             throw e;
         }
     }
-    
+
+    private String checkLength(String text, String fileName) {
+        if (text.length() > maxTextLength) {
+            throw tooLarge(fileName);
+        }
+        return text;
+    }
+
+    private PayloadTooLargeException tooLarge(String fileName) {
+        logger.warn("Text of file {} exceeds the maximum length of {} characters", fileName, maxTextLength);
+        return new PayloadTooLargeException("The text of " + fileName + " exceeds the maximum length of "
+                + maxTextLength + " characters");
+    }
+
     /**
-     * Extracts text from a PDF file
+     * Detects the extractor for an upload from its leading bytes, the same way extraction
+     * chooses it, without extracting the file
+     *
+     * @param file The uploaded file
+     * @return The extractor, or empty if no extractor supports the file
+     * @throws IOException If the file cannot be read
      */
-    private String extractTextFromPdf(MultipartFile file) throws IOException {
-        logger.debug("Extracting text from PDF file: {}", file.getOriginalFilename());
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-            logger.debug("Successfully extracted {} characters from PDF", text.length());
-            return text;
-        } catch (IOException e) {
-            logger.error("Error extracting text from PDF file: {}", file.getOriginalFilename(), e);
-            throw e;
-        }
+    public Optional<Extractor> detectExtractor(MultipartFile file) throws IOException {
+        return extractorRegistry.select(ContentProbe.of(file));
     }
-    
+
     /**
-     * Extracts text from a JSON file
+     * Builds the extraction cache key. Extractors whose output depends on their settings
+     * add a fingerprint of them to the key.
      */
-    private String extractTextFromJson(MultipartFile file) throws IOException {
-        logger.debug("Extracting text from JSON file: {}", file.getOriginalFilename());
-        try {
-            // Parse JSON to extract relevant fields
-            Map<String, Object> jsonMap = objectMapper.readValue(file.getInputStream(), 
-                                          new TypeReference<Map<String, Object>>() {});
-            
-            StringBuilder textBuilder = new StringBuilder();
-            
-            // Extract text from common fields that might contain requirements
-            extractJsonField(jsonMap, "title", textBuilder);
-            extractJsonField(jsonMap, "description", textBuilder);
-            extractJsonField(jsonMap, "requirements", textBuilder);
-            extractJsonField(jsonMap, "content", textBuilder);
-            extractJsonField(jsonMap, "text", textBuilder);
-            
-            // If no specific fields were found, use the entire JSON as text
-            if (textBuilder.length() == 0) {
-                logger.debug("No specific fields found in JSON, using entire content");
-                return objectMapper.writeValueAsString(jsonMap);
-            }
-            
-            logger.debug("Successfully extracted {} characters from JSON", textBuilder.length());
-            return textBuilder.toString();
-        } catch (IOException e) {
-            logger.error("Error extracting text from JSON file: {}", file.getOriginalFilename(), e);
-            throw e;
+    private static String cacheKey(Extractor extractor, String contentHash) {
+        String key = extractor.getFormat() + ":v" + EXTRACTION_VERSION + ":";
+        String variant = extractor.getCacheVariant();
+        if (!variant.isEmpty()) {
+            key += variant + ":";
         }
+        return key + contentHash;
     }
-    
+
     /**
-     * Helper method to extract a field from JSON
+     * Computes the SHA-256 hash of a stream of file content without buffering it
+     *
+     * @param inputStream The file content
+     * @return The lowercase hex encoded hash
+     * @throws IOException If the stream cannot be read
      */
-    private void extractJsonField(Map<String, Object> jsonMap, String fieldName, StringBuilder textBuilder) {
-        if (jsonMap.containsKey(fieldName)) {
-            logger.trace("Found field '{}' in JSON", fieldName);
-            Object value = jsonMap.get(fieldName);
-            if (value != null) {
-                if (textBuilder.length() > 0) {
-                    textBuilder.append("\n\n");
-                }
-                String valueStr = value.toString();
-                textBuilder.append(valueStr);
-                logger.trace("Extracted {} characters from field '{}'", valueStr.length(), fieldName);
-            } else {
-                logger.trace("Field '{}' has null value", fieldName);
-            }
-        } else {
-            logger.trace("Field '{}' not found in JSON", fieldName);
+    public static String computeContentHash(InputStream inputStream) throws IOException {
+        MessageDigest digest = newContentDigest();
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
-    
+
     /**
-     * Extracts text from an Excel file
+     * Computes the SHA-256 hash of file content, used to detect duplicate uploads
+     *
+     * @param content The raw file bytes
+     * @return The lowercase hex encoded hash
      */
-    private String extractTextFromExcel(MultipartFile file) throws IOException {
-        logger.debug("Extracting text from Excel file: {}", file.getOriginalFilename());
-        StringBuilder textBuilder = new StringBuilder();
-        
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            logger.debug("Excel file has {} sheets", workbook.getNumberOfSheets());
-            
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                logger.debug("Processing sheet: {}", sheet.getSheetName());
-                
-                if (textBuilder.length() > 0) {
-                    textBuilder.append("\n\n");
-                }
-                textBuilder.append("Sheet: ").append(sheet.getSheetName()).append("\n");
-                
-                int rowCount = 0;
-                for (Row row : sheet) {
-                    StringBuilder rowText = new StringBuilder();
-                    for (Cell cell : row) {
-                        String cellValue;
-                        switch (cell.getCellType()) {
-                            case STRING:
-                                cellValue = cell.getStringCellValue();
-                                break;
-                            case NUMERIC:
-                                cellValue = String.valueOf(cell.getNumericCellValue());
-                                break;
-                            case BOOLEAN:
-                                cellValue = String.valueOf(cell.getBooleanCellValue());
-                                break;
-                            case FORMULA:
-                                cellValue = cell.getCellFormula();
-                                break;
-                            default:
-                                cellValue = "";
-                        }
-                        
-                        if (!cellValue.isEmpty()) {
-                            if (rowText.length() > 0) {
-                                rowText.append("\t");
-                            }
-                            rowText.append(cellValue);
-                        }
-                    }
-                    
-                    if (rowText.length() > 0) {
-                        textBuilder.append(rowText).append("\n");
-                        rowCount++;
-                    }
-                }
-                logger.debug("Processed {} non-empty rows in sheet: {}", rowCount, sheet.getSheetName());
-            }
-            
-            String result = textBuilder.toString();
-            logger.debug("Successfully extracted {} characters from Excel file", result.length());
-            return result;
-        } catch (IOException e) {
-            logger.error("Error extracting text from Excel file: {}", file.getOriginalFilename(), e);
-            throw e;
+    public static String computeContentHash(byte[] content) {
+        return HexFormat.of().formatHex(newContentDigest().digest(content));
+    }
+
+    static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 }
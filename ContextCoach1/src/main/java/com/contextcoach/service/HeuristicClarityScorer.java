@@ -0,0 +1,261 @@
+package com.contextcoach.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local clarity scorer based on text signals. The text is tokenized once, collecting
+ * passive constructions, sentences without quantities, sentence length and Flesch
+ * reading ease, and vague terms are counted with the ambiguity lexicon the pre-screen
+ * uses. Each signal becomes a penalty between 0 and 1 and
+ * the score is one minus the weighted sum of penalties. The weights are configurable
+ * so they can be calibrated against LLM ambiguity results.
+ */
+@Component
+public class HeuristicClarityScorer implements ClarityScorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeuristicClarityScorer.class);
+
+    /** Index of each signal in the feature vector returned by {@link #extractFeatures(String)} */
+    public static final int VAGUE_TERMS = 0;
+    public static final int PASSIVE_VOICE = 1;
+    public static final int MISSING_QUANTIFIERS = 2;
+    public static final int SENTENCE_LENGTH = 3;
+    public static final int READABILITY = 4;
+    public static final int FEATURE_COUNT = 5;
+
+    private static final Set<String> PASSIVE_AUXILIARIES = Set.of(
+            "is", "are", "was", "were", "be", "been", "being", "get", "gets", "got");
+
+    private static final Set<String> IRREGULAR_PARTICIPLES = Set.of(
+            "done", "given", "shown", "sent", "made", "built", "written", "taken", "seen", "known",
+            "kept", "found", "held", "set", "put", "run", "read", "chosen", "driven", "begun", "brought");
+
+    private static final Set<String> NUMBER_WORDS = Set.of(
+            "zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten",
+            "hundred", "thousand", "million", "percent", "once", "twice", "daily", "hourly", "weekly");
+
+    private static final int LONG_SENTENCE_WORDS = 20;
+
+    private final AhoCorasickMatcher vagueTermsMatcher;
+    private final double[] weights;
+
+    /**
+     * Creates a scorer with the bundled lexicon and the default signal weights
+     */
+    public HeuristicClarityScorer() {
+        this(0.35, 0.15, 0.20, 0.15, 0.15);
+    }
+
+    /**
+     * Creates a scorer with the bundled lexicon and the given signal weights
+     */
+    public HeuristicClarityScorer(double vagueTermsWeight, double passiveVoiceWeight, double missingQuantifiersWeight,
+            double sentenceLengthWeight, double readabilityWeight) {
+        this(new AmbiguityLexicon(), vagueTermsWeight, passiveVoiceWeight, missingQuantifiersWeight,
+                sentenceLengthWeight, readabilityWeight);
+    }
+
+    /**
+     * Creates a scorer with the given lexicon and signal weights
+     */
+    @Autowired
+    public HeuristicClarityScorer(
+            AmbiguityLexicon lexicon,
+            @Value("${contextcoach.clarity.weight.vague-terms:0.35}") double vagueTermsWeight,
+            @Value("${contextcoach.clarity.weight.passive-voice:0.15}") double passiveVoiceWeight,
+            @Value("${contextcoach.clarity.weight.missing-quantifiers:0.20}") double missingQuantifiersWeight,
+            @Value("${contextcoach.clarity.weight.sentence-length:0.15}") double sentenceLengthWeight,
+            @Value("${contextcoach.clarity.weight.readability:0.15}") double readabilityWeight) {
+        this.vagueTermsMatcher = lexicon.getMatcher();
+        this.weights = new double[FEATURE_COUNT];
+        weights[VAGUE_TERMS] = vagueTermsWeight;
+        weights[PASSIVE_VOICE] = passiveVoiceWeight;
+        weights[MISSING_QUANTIFIERS] = missingQuantifiersWeight;
+        weights[SENTENCE_LENGTH] = sentenceLengthWeight;
+        weights[READABILITY] = readabilityWeight;
+        logger.debug("HeuristicClarityScorer initialized with weights: vague={}, passive={}, quantifiers={}, length={}, readability={}",
+                vagueTermsWeight, passiveVoiceWeight, missingQuantifiersWeight, sentenceLengthWeight, readabilityWeight);
+    }
+
+    @Override
+    public double score(String text) {
+        if (text == null || text.isBlank()) {
+            return 0.0;
+        }
+        return scoreFeatures(extractFeatures(text));
+    }
+
+    /**
+     * Combines penalty features into a clarity score
+     *
+     * @param features The penalty features, indexed by the feature constants
+     * @return A score between 0 and 1, rounded to two decimals
+     */
+    public double scoreFeatures(double[] features) {
+        double penalty = 0.0;
+        double totalWeight = 0.0;
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            penalty += weights[i] * features[i];
+            totalWeight += weights[i];
+        }
+        double score = totalWeight > 0 ? 1.0 - penalty / totalWeight : 1.0;
+        return Math.round(clamp(score) * 100.0) / 100.0;
+    }
+
+    /**
+     * Extracts the penalty features of a text in a single pass. Each feature is between
+     * 0 (no penalty) and 1 (maximum penalty); the vector can be used to calibrate weights.
+     *
+     * @param text The requirement text
+     * @return The penalty features, indexed by the feature constants
+     */
+    public double[] extractFeatures(String text) {
+        int words = 0;
+        int syllables = 0;
+        int[] vagueTerms = new int[1];
+        vagueTermsMatcher.scan(text, (start, end, term, category) -> vagueTerms[0]++);
+        int passiveConstructions = 0;
+        int sentences = 0;
+        int sentencesWithQuantifier = 0;
+        int longSentences = 0;
+
+        int sentenceWords = 0;
+        boolean sentenceHasQuantifier = false;
+        boolean afterAuxiliary = false;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && isWordChar(text, i)) {
+                    i++;
+                }
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                words++;
+                sentenceWords++;
+                syllables += countSyllables(token);
+
+                if (Character.isDigit(token.charAt(0)) || NUMBER_WORDS.contains(token)) {
+                    sentenceHasQuantifier = true;
+                }
+                if (afterAuxiliary && isParticiple(token)) {
+                    passiveConstructions++;
+                    afterAuxiliary = false;
+                } else if (PASSIVE_AUXILIARIES.contains(token)) {
+                    afterAuxiliary = true;
+                } else if (!(afterAuxiliary && token.endsWith("ly"))) {
+                    // An adverb may sit between the auxiliary and the participle
+                    afterAuxiliary = false;
+                }
+                continue;
+            }
+
+            if (c == '%' || c == '$') {
+                sentenceHasQuantifier = true;
+            } else if (isSentenceBoundary(c) && sentenceWords > 0) {
+                sentences++;
+                if (sentenceHasQuantifier) {
+                    sentencesWithQuantifier++;
+                }
+                if (sentenceWords > LONG_SENTENCE_WORDS) {
+                    longSentences++;
+                }
+                sentenceWords = 0;
+                sentenceHasQuantifier = false;
+                afterAuxiliary = false;
+            }
+            i++;
+        }
+
+        if (sentenceWords > 0) {
+            sentences++;
+            if (sentenceHasQuantifier) {
+                sentencesWithQuantifier++;
+            }
+            if (sentenceWords > LONG_SENTENCE_WORDS) {
+                longSentences++;
+            }
+        }
+
+        double[] features = new double[FEATURE_COUNT];
+        if (words == 0) {
+            Arrays.fill(features, 1.0);
+            return features;
+        }
+
+        // Roughly one vague term in ten words is treated as maximally vague
+        features[VAGUE_TERMS] = clamp(vagueTerms[0] * 10.0 / words);
+        features[PASSIVE_VOICE] = clamp((double) passiveConstructions / sentences);
+        features[MISSING_QUANTIFIERS] = 1.0 - (double) sentencesWithQuantifier / sentences;
+        double averageSentenceLength = (double) words / sentences;
+        features[SENTENCE_LENGTH] = clamp(0.5 * longSentences / sentences
+                + 0.5 * (averageSentenceLength - LONG_SENTENCE_WORDS) / LONG_SENTENCE_WORDS);
+        double fleschReadingEase = 206.835 - 1.015 * averageSentenceLength - 84.6 * ((double) syllables / words);
+        // Reading ease of 50 or more (fairly difficult and easier) carries no penalty
+        features[READABILITY] = clamp((50.0 - fleschReadingEase) / 50.0);
+        return features;
+    }
+
+    private static boolean isWordChar(String text, int index) {
+        char c = text.charAt(index);
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        // Keep hyphenated words, contractions, "and/or" and decimals together
+        if ((c == '-' || c == '\'' || c == '/' || c == '.' || c == ',') && index + 1 < text.length()) {
+            char next = text.charAt(index + 1);
+            char previous = text.charAt(index - 1);
+            if (c == '.' || c == ',') {
+                return Character.isDigit(previous) && Character.isDigit(next);
+            }
+            return Character.isLetterOrDigit(previous) && Character.isLetterOrDigit(next);
+        }
+        return false;
+    }
+
+    private static boolean isSentenceBoundary(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ';' || c == '\n';
+    }
+
+    private static boolean isParticiple(String token) {
+        return (token.length() > 3 && token.endsWith("ed")) || IRREGULAR_PARTICIPLES.contains(token);
+    }
+
+    /**
+     * Estimates syllables by counting vowel groups, ignoring a trailing silent 'e'
+     */
+    private static int countSyllables(String token) {
+        int count = 0;
+        boolean previousVowel = false;
+        int length = token.length();
+        for (int i = 0; i < length; i++) {
+            boolean vowel = isVowel(token.charAt(i));
+            if (vowel && !previousVowel) {
+                count++;
+            }
+            previousVowel = vowel;
+        }
+        if (length > 2 && token.charAt(length - 1) == 'e' && !isVowel(token.charAt(length - 2)) && count > 1) {
+            count--;
+        }
+        return Math.max(count, 1);
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+}
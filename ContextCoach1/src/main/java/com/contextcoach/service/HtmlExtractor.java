@@ -0,0 +1,223 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Extracts the visible text of HTML pages, such as exported Confluence pages, in a single
+ * pass without building a DOM. Block elements become lines, headings are prefixed with '#'
+ * per level like Word headings, list items with "- ", and table rows are written as tab
+ * separated cells. Scripts, styles and comments are dropped and entities are decoded.
+ */
+@Component
+@Order(500)
+public class HtmlExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HtmlExtractor.class);
+
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "noscript", "template", "svg");
+    private static final Set<String> BLOCK_ELEMENTS = Set.of(
+            "p", "div", "br", "hr", "li", "ul", "ol", "dl", "dt", "dd", "table", "section", "article", "header",
+            "footer", "main", "nav", "aside", "blockquote", "pre", "title", "form", "figure", "figcaption");
+    private static final Map<String, String> ENTITIES = Map.of(
+            "amp", "&", "lt", "<", "gt", ">", "quot", "\"", "apos", "'", "nbsp", "\u00a0",
+            "ndash", "\u2013", "mdash", "\u2014", "hellip", "\u2026");
+
+    @Override
+    public String getFormat() {
+        return "HTML";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        String head = probe.textHead();
+        String start = head.substring(0, Math.min(head.length(), 32)).toLowerCase(Locale.ROOT);
+        return start.startsWith("<!doctype html") || start.startsWith("<html");
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("html") || probe.hasExtension("html", "htm");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from HTML file: {}", file.getOriginalFilename());
+        String text = toText(ExtractionSupport.readText(file));
+        logger.debug("Successfully extracted {} characters from HTML", text.length());
+        return text;
+    }
+
+    /**
+     * Converts an HTML document to text
+     *
+     * @param html The HTML source
+     * @return The visible text
+     */
+    static String toText(String html) {
+        TextBuilder builder = new TextBuilder();
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                if (html.startsWith("<!--", i)) {
+                    int end = html.indexOf("-->", i + 4);
+                    i = end < 0 ? length : end + 3;
+                    continue;
+                }
+                int end = html.indexOf('>', i);
+                if (end < 0) {
+                    break;
+                }
+                String tag = html.substring(i + 1, end);
+                i = end + 1;
+                boolean closing = tag.startsWith("/");
+                String name = tagName(closing ? tag.substring(1) : tag);
+                if (!closing && RAW_TEXT_ELEMENTS.contains(name) && !tag.endsWith("/")) {
+                    int close = indexOfIgnoreCase(html, "</" + name, i);
+                    i = close < 0 ? length : close;
+                    continue;
+                }
+                builder.tag(name, closing);
+            } else if (c == '&') {
+                int end = html.indexOf(';', i);
+                String decoded = end < 0 || end - i > 10 ? null : decodeEntity(html.substring(i + 1, end));
+                if (decoded == null) {
+                    builder.paragraph.append(c);
+                    i++;
+                } else {
+                    builder.paragraph.append(decoded);
+                    i = end + 1;
+                }
+            } else {
+                builder.paragraph.append(c);
+                i++;
+            }
+        }
+        builder.flushParagraph();
+        return builder.text.toString();
+    }
+
+    private static String tagName(String tag) {
+        int end = 0;
+        while (end < tag.length() && (Character.isLetterOrDigit(tag.charAt(end)) || tag.charAt(end) == '-')) {
+            end++;
+        }
+        return tag.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    private static int indexOfIgnoreCase(String text, String target, int from) {
+        for (int i = from; i <= text.length() - target.length(); i++) {
+            if (text.regionMatches(true, i, target, 0, target.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decodeEntity(String entity) {
+        try {
+            if (entity.startsWith("#x") || entity.startsWith("#X")) {
+                return new String(Character.toChars(Integer.parseInt(entity.substring(2), 16)));
+            }
+            if (entity.startsWith("#")) {
+                return new String(Character.toChars(Integer.parseInt(entity.substring(1))));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ENTITIES.get(entity);
+    }
+
+    /**
+     * Collects lines while tags are visited. Text is buffered per paragraph or table cell
+     * and its whitespace collapsed when the block ends.
+     */
+    private static final class TextBuilder {
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder paragraph = new StringBuilder();
+        private final StringBuilder rowText = new StringBuilder();
+        private int headingLevel;
+        private boolean listItem;
+        private boolean inRow;
+
+        private void tag(String name, boolean closing) {
+            if (name.length() == 2 && name.charAt(0) == 'h' && name.charAt(1) >= '1' && name.charAt(1) <= '6') {
+                flushParagraph();
+                headingLevel = closing ? 0 : name.charAt(1) - '0';
+            } else if ("tr".equals(name)) {
+                flushRow();
+                inRow = !closing;
+            } else if ("table".equals(name) && closing) {
+                flushRow();
+                inRow = false;
+            } else if ("td".equals(name) || "th".equals(name)) {
+                // End tags are optional, so the next cell also ends the current one
+                ExtractionSupport.appendCell(rowText, collapse(paragraph));
+                paragraph.setLength(0);
+            } else if (BLOCK_ELEMENTS.contains(name)) {
+                flushParagraph();
+                listItem = "li".equals(name) && !closing;
+            }
+        }
+
+        private void flushParagraph() {
+            if (inRow) {
+                // Block elements inside a cell only separate words
+                paragraph.append(' ');
+                return;
+            }
+            String line = collapse(paragraph);
+            paragraph.setLength(0);
+            if (line.isEmpty()) {
+                return;
+            }
+            ExtractionSupport.appendParagraph(text, listItem ? "- " + line : line, headingLevel);
+        }
+
+        private void flushRow() {
+            if (inRow) {
+                ExtractionSupport.appendCell(rowText, collapse(paragraph));
+                paragraph.setLength(0);
+                if (rowText.length() > 0) {
+                    text.append(rowText).append('\n');
+                }
+            } else {
+                flushParagraph();
+            }
+            rowText.setLength(0);
+        }
+
+        private static String collapse(CharSequence raw) {
+            StringBuilder collapsed = new StringBuilder(raw.length());
+            boolean space = false;
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (Character.isWhitespace(c) || c == '\u00A0') {
+                    space = collapsed.length() > 0;
+                } else {
+                    if (space) {
+                        collapsed.append(' ');
+                        space = false;
+                    }
+                    collapsed.append(c);
+                }
+            }
+            return collapsed.toString();
+        }
+    }
+}
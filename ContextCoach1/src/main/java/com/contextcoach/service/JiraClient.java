@@ -0,0 +1,456 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.JiraTicket;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Client for the Jira REST API. Issues are created with the bulk endpoint, up to 50 per
+ * call, over a single JDK HTTP client that keeps connections to Jira alive between calls.
+ * A failure of one issue in a batch does not fail the others: every ticket gets its own
+ * result, either the created issue key or the error Jira reported for it. Tickets with an
+ * outbox entry carry its idempotency key as a label, so issues created by a request whose
+ * response was lost can be found again.
+ */
+@Component
+public class JiraClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraClient.class);
+
+    // Jira rejects bulk requests with more issues than this
+    static final int MAX_BULK_SIZE = 50;
+    private static final int MAX_SUMMARY_LENGTH = 255;
+    private static final String BULK_CREATE_PATH = "/rest/api/2/issue/bulk";
+    private static final String SEARCH_PATH = "/rest/api/2/search?jql={jql}&fields=labels&maxResults={maxResults}";
+    private static final String SEARCH_POST_PATH = "/rest/api/2/search";
+    private static final DateTimeFormatter JQL_DATE_TIME = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private static final String IDEMPOTENCY_LABEL_PREFIX = "contextcoach-";
+
+    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate;
+    private final boolean configured;
+    private final String projectKey;
+    private final String storyPointsField;
+    private final int bulkSize;
+
+    public JiraClient(
+            ObjectMapper objectMapper,
+            @Value("${jira.api.url:}") String apiUrl,
+            @Value("${jira.api.username:}") String username,
+            @Value("${jira.api.token:}") String token,
+            @Value("${jira.project.key:}") String projectKey,
+            @Value("${jira.api.story-points-field:}") String storyPointsField,
+            @Value("${jira.api.bulk-size:50}") int bulkSize,
+            @Value("${jira.api.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${jira.api.read-timeout:30s}") Duration readTimeout) {
+        this.objectMapper = objectMapper;
+        this.configured = !apiUrl.isEmpty() && !username.isEmpty() && !token.isEmpty();
+        this.projectKey = projectKey;
+        this.storyPointsField = storyPointsField;
+        this.bulkSize = Math.max(1, Math.min(MAX_BULK_SIZE, bulkSize));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(apiUrl.replaceAll("/+$", "")));
+        if (configured) {
+            this.restTemplate.getInterceptors().add(new BasicAuthenticationInterceptor(username, token));
+        }
+        logger.info("Jira client {} with bulk size {}", configured ? "configured for " + apiUrl : "not configured", this.bulkSize);
+    }
+
+    /**
+     * Outcome of creating one issue: the issue key, or the error Jira reported
+     */
+    public static final class IssueResult {
+        private final String key;
+        private final String error;
+        private final boolean retryable;
+
+        private IssueResult(String key, String error, boolean retryable) {
+            this.key = key;
+            this.error = error;
+            this.retryable = retryable;
+        }
+
+        static IssueResult created(String key) {
+            return new IssueResult(key, null, false);
+        }
+
+        static IssueResult failed(String error, boolean retryable) {
+            return new IssueResult(null, error, retryable);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isCreated() {
+            return key != null;
+        }
+
+        /**
+         * Checks whether the failure may go away on its own, such as an unreachable or
+         * overloaded Jira, as opposed to Jira rejecting the issue itself
+         */
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+
+    /**
+     * Current state of an issue in Jira, as returned by a search
+     */
+    public static final class RemoteIssue {
+        private final String key;
+        private final String summary;
+        private final String issueType;
+        private final String priority;
+        private final String status;
+        private final String assignee;
+        private final Integer storyPoints;
+        private final OffsetDateTime updated;
+        private final String idempotencyKey;
+
+        RemoteIssue(String key, String summary, String issueType, String priority, String status, String assignee,
+                Integer storyPoints, OffsetDateTime updated, String idempotencyKey) {
+            this.key = key;
+            this.summary = summary;
+            this.issueType = issueType;
+            this.priority = priority;
+            this.status = status;
+            this.assignee = assignee;
+            this.storyPoints = storyPoints;
+            this.updated = updated;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        public String getIssueType() {
+            return issueType;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getAssignee() {
+            return assignee;
+        }
+
+        public Integer getStoryPoints() {
+            return storyPoints;
+        }
+
+        public OffsetDateTime getUpdated() {
+            return updated;
+        }
+
+        /**
+         * Gets the idempotency key of the outbox entry the issue was created from, or null
+         * if it was not created by this application
+         */
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+    }
+
+    /**
+     * Checks whether the Jira URL and credentials are configured
+     *
+     * @return true if issues can be created in Jira
+     */
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    /**
+     * Creates issues in Jira in batches of up to 50 per request
+     *
+     * @param tickets The tickets to create
+     * @return One result per ticket, in the order of the tickets
+     */
+    public List<IssueResult> createIssues(List<JiraTicket> tickets) {
+        if (!configured) {
+            throw new ServiceException("Jira API credentials are not configured", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        logger.info("Creating {} issues in Jira in batches of {}", tickets.size(), bulkSize);
+        List<IssueResult> results = new ArrayList<>(tickets.size());
+        for (int start = 0; start < tickets.size(); start += bulkSize) {
+            List<JiraTicket> batch = tickets.subList(start, Math.min(tickets.size(), start + bulkSize));
+            results.addAll(createBatch(batch));
+        }
+        long created = results.stream().filter(IssueResult::isCreated).count();
+        logger.info("Created {} of {} issues in Jira", created, tickets.size());
+        return results;
+    }
+
+    private List<IssueResult> createBatch(List<JiraTicket> batch) {
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode issueUpdates = request.putArray("issueUpdates");
+        for (JiraTicket ticket : batch) {
+            issueUpdates.addObject().set("fields", toFields(ticket));
+        }
+
+        JsonNode response;
+        try {
+            response = restTemplate.postForObject(BULK_CREATE_PATH, request, JsonNode.class);
+        } catch (HttpStatusCodeException e) {
+            // Jira answers 400 when any issue of the batch fails, with the created issues in the body
+            response = readErrorBody(e);
+            if (response == null || !response.has("issues")) {
+                logger.error("Jira bulk create failed with status {}: {}", e.getStatusCode(), e.getResponseBodyAsString());
+                boolean retryable = e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429;
+                return failAll(batch, "Jira returned " + e.getStatusCode().value() + ": " + e.getResponseBodyAsString(), retryable);
+            }
+        } catch (ResourceAccessException e) {
+            logger.error("Error calling Jira bulk create", e);
+            return failAll(batch, "Jira is unreachable: " + e.getMessage(), true);
+        }
+        if (response == null) {
+            return failAll(batch, "Jira returned an empty response", true);
+        }
+        return toResults(batch.size(), response);
+    }
+
+    private ObjectNode toFields(JiraTicket ticket) {
+        ObjectNode fields = objectMapper.createObjectNode();
+        fields.putObject("project").put("key", projectKey);
+        String summary = ticket.getTitle() != null ? ticket.getTitle().replaceAll("\\s+", " ").trim() : "";
+        fields.put("summary", summary.length() > MAX_SUMMARY_LENGTH ? summary.substring(0, MAX_SUMMARY_LENGTH) : summary);
+        fields.put("description", ticket.getDescription());
+        fields.putObject("issuetype").put("name", ticket.getTicketType());
+        if (ticket.getPriority() != null) {
+            fields.putObject("priority").put("name", ticket.getPriority());
+        }
+        if (!storyPointsField.isEmpty() && ticket.getEstimatedStoryPoints() != null) {
+            fields.put(storyPointsField, ticket.getEstimatedStoryPoints());
+        }
+        if (ticket.getOutbox() != null && ticket.getOutbox().getIdempotencyKey() != null) {
+            fields.putArray("labels").add(idempotencyLabel(ticket.getOutbox().getIdempotencyKey()));
+        }
+        return fields;
+    }
+
+    /**
+     * Finds issues that were created with the given idempotency keys
+     *
+     * @param idempotencyKeys The idempotency keys of outbox entries
+     * @return The issue key for each idempotency key that has an issue in Jira
+     * @throws ServiceException If Jira cannot be searched
+     */
+    public Map<String, String> findIssueKeysByIdempotencyKey(Collection<String> idempotencyKeys) {
+        if (!configured) {
+            throw new ServiceException("Jira API credentials are not configured", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Map<String, String> issueKeys = new HashMap<>();
+        if (idempotencyKeys.isEmpty()) {
+            return issueKeys;
+        }
+        String jql = idempotencyKeys.stream()
+                .map(key -> "\"" + idempotencyLabel(key) + "\"")
+                .collect(Collectors.joining(", ", "labels in (", ")"));
+        JsonNode response;
+        try {
+            response = restTemplate.getForObject(SEARCH_PATH, JsonNode.class, jql, idempotencyKeys.size());
+        } catch (RestClientException e) {
+            logger.error("Error searching Jira for idempotency labels", e);
+            throw new ServiceException("Error searching Jira: " + e.getMessage(), e, HttpStatus.BAD_GATEWAY);
+        }
+        if (response == null) {
+            return issueKeys;
+        }
+        for (JsonNode issue : response.path("issues")) {
+            for (JsonNode label : issue.path("fields").path("labels")) {
+                String text = label.asText();
+                if (text.startsWith(IDEMPOTENCY_LABEL_PREFIX)) {
+                    issueKeys.put(text.substring(IDEMPOTENCY_LABEL_PREFIX.length()), issue.path("key").asText());
+                }
+            }
+        }
+        logger.debug("Found {} of {} issues by idempotency label", issueKeys.size(), idempotencyKeys.size());
+        return issueKeys;
+    }
+
+    /**
+     * Searches the project for issues updated at or after a point in time, oldest update
+     * first. Jira compares update times at minute precision in the time zone of the API
+     * user, so the time is truncated to the minute in that zone.
+     *
+     * @param since The earliest update time to include
+     * @param zone The time zone of the Jira API user
+     * @param startAt The index of the first result to return
+     * @param maxResults The maximum number of results to return
+     * @return The matching issues in update order, ties broken by key
+     * @throws ServiceException If Jira cannot be searched
+     */
+    public List<RemoteIssue> searchIssuesUpdatedSince(Instant since, ZoneId zone, int startAt, int maxResults) {
+        if (!configured) {
+            throw new ServiceException("Jira API credentials are not configured", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        String jql = "project = \"" + projectKey + "\" AND updated >= \"" + JQL_DATE_TIME.format(since.atZone(zone))
+                + "\" ORDER BY updated ASC, key ASC";
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("jql", jql);
+        request.put("startAt", startAt);
+        request.put("maxResults", maxResults);
+        ArrayNode fields = request.putArray("fields")
+                .add("summary").add("issuetype").add("priority").add("status").add("assignee").add("labels").add("updated");
+        if (!storyPointsField.isEmpty()) {
+            fields.add(storyPointsField);
+        }
+
+        JsonNode response;
+        try {
+            response = restTemplate.postForObject(SEARCH_POST_PATH, request, JsonNode.class);
+        } catch (RestClientException e) {
+            logger.error("Error searching Jira with JQL: {}", jql, e);
+            throw new ServiceException("Error searching Jira: " + e.getMessage(), e, HttpStatus.BAD_GATEWAY);
+        }
+        List<RemoteIssue> issues = new ArrayList<>();
+        if (response != null) {
+            for (JsonNode issue : response.path("issues")) {
+                issues.add(toRemoteIssue(issue));
+            }
+        }
+        logger.debug("Jira search from {} at offset {} returned {} issues", since, startAt, issues.size());
+        return issues;
+    }
+
+    private RemoteIssue toRemoteIssue(JsonNode issue) {
+        JsonNode fields = issue.path("fields");
+        String idempotencyKey = null;
+        for (JsonNode label : fields.path("labels")) {
+            if (label.asText().startsWith(IDEMPOTENCY_LABEL_PREFIX)) {
+                idempotencyKey = label.asText().substring(IDEMPOTENCY_LABEL_PREFIX.length());
+            }
+        }
+        JsonNode storyPoints = storyPointsField.isEmpty() ? null : fields.get(storyPointsField);
+        JsonNode assignee = fields.path("assignee");
+        return new RemoteIssue(
+                issue.path("key").asText(),
+                textOrNull(fields.path("summary")),
+                textOrNull(fields.path("issuetype").path("name")),
+                textOrNull(fields.path("priority").path("name")),
+                textOrNull(fields.path("status").path("name")),
+                textOrNull(assignee.path("displayName")),
+                storyPoints != null && storyPoints.isNumber() ? (int) Math.round(storyPoints.asDouble()) : null,
+                OffsetDateTime.parse(fields.path("updated").asText(), JIRA_TIMESTAMP),
+                idempotencyKey);
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+
+    static String idempotencyLabel(String idempotencyKey) {
+        return IDEMPOTENCY_LABEL_PREFIX + idempotencyKey;
+    }
+
+    /**
+     * Maps a bulk create response to per-ticket results. Failed elements are reported by
+     * their index in the request, and the created issues are listed in request order.
+     */
+    private static List<IssueResult> toResults(int batchSize, JsonNode response) {
+        String[] errors = new String[batchSize];
+        for (JsonNode error : response.path("errors")) {
+            int index = error.path("failedElementNumber").asInt(-1);
+            if (index >= 0 && index < batchSize) {
+                errors[index] = describeError(error);
+            }
+        }
+        Iterator<JsonNode> issues = response.path("issues").elements();
+        List<IssueResult> results = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            if (errors[i] != null) {
+                results.add(IssueResult.failed(errors[i], false));
+            } else if (issues.hasNext()) {
+                results.add(IssueResult.created(issues.next().path("key").asText()));
+            } else {
+                results.add(IssueResult.failed("Jira did not report the issue as created", true));
+            }
+        }
+        return results;
+    }
+
+    private static String describeError(JsonNode error) {
+        JsonNode elementErrors = error.path("elementErrors");
+        List<String> messages = new ArrayList<>();
+        for (JsonNode message : elementErrors.path("errorMessages")) {
+            messages.add(message.asText());
+        }
+        Iterator<Map.Entry<String, JsonNode>> fieldErrors = elementErrors.path("errors").fields();
+        while (fieldErrors.hasNext()) {
+            Map.Entry<String, JsonNode> fieldError = fieldErrors.next();
+            messages.add(fieldError.getKey() + ": " + fieldError.getValue().asText());
+        }
+        return messages.isEmpty() ? "Jira returned status " + error.path("status").asInt() : String.join("; ", messages);
+    }
+
+    private JsonNode readErrorBody(HttpStatusCodeException e) {
+        try {
+            return objectMapper.readTree(e.getResponseBodyAsString());
+        } catch (IOException parseError) {
+            return null;
+        }
+    }
+
+    private static List<IssueResult> failAll(List<JiraTicket> batch, String error, boolean retryable) {
+        List<IssueResult> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            results.add(IssueResult.failed(error, retryable));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,276 @@
+package com.contextcoach.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.JiraOutboxEntry;
+import com.contextcoach.model.JiraTicket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pushes tickets waiting in the Jira outbox to Jira in the background. Due entries are
+ * claimed with a lease, so several instances can dispatch without sending a ticket twice
+ * and entries of a crashed dispatcher are picked up again once their lease expires.
+ * Entries that were attempted before are first looked up in Jira by their idempotency
+ * label, since an earlier request may have created the issue and lost the response.
+ * Transient failures are retried with exponential backoff and jitter; tickets Jira
+ * rejects, or that run out of attempts, are marked as failed.
+ */
+@Component
+public class JiraOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraOutboxDispatcher.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final JiraClient jiraClient;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final AtomicLong unsyncedEntries = new AtomicLong();
+    private final AtomicReference<LocalDateTime> oldestUnsyncedAt = new AtomicReference<>();
+    private final Timer syncLatency;
+
+    public JiraOutboxDispatcher(
+            MongoTemplate mongoTemplate,
+            JiraClient jiraClient,
+            MeterRegistry meterRegistry,
+            @Value("${jira.outbox.batch-size:50}") int batchSize,
+            @Value("${jira.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${jira.outbox.initial-backoff:10s}") Duration initialBackoff,
+            @Value("${jira.outbox.max-backoff:15m}") Duration maxBackoff,
+            @Value("${jira.outbox.lease:2m}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.jiraClient = jiraClient;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, Math.min(JiraClient.MAX_BULK_SIZE, batchSize));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        Gauge.builder("contextcoach.jira.outbox.unsynced", unsyncedEntries, AtomicLong::get)
+                .description("Tickets waiting to be created in Jira").register(meterRegistry);
+        Gauge.builder("contextcoach.jira.outbox.lag", oldestUnsyncedAt, JiraOutboxDispatcher::secondsSince)
+                .description("Age in seconds of the oldest ticket waiting to be created in Jira")
+                .baseUnit("seconds").register(meterRegistry);
+        this.syncLatency = Timer.builder("contextcoach.jira.outbox.sync.latency")
+                .description("Time from enqueueing a ticket to its creation in Jira").register(meterRegistry);
+    }
+
+    /**
+     * Dispatches due outbox entries until none are left, then refreshes the lag metrics
+     */
+    @Scheduled(fixedDelayString = "${jira.outbox.poll-interval:5s}", initialDelayString = "${jira.outbox.poll-interval:5s}")
+    public void dispatchDueEntries() {
+        if (!jiraClient.isConfigured()) {
+            return;
+        }
+        try {
+            int dispatched;
+            do {
+                dispatched = dispatchBatch();
+            } while (dispatched == batchSize);
+            refreshLagMetrics();
+        } catch (Exception e) {
+            logger.error("Error dispatching the Jira outbox", e);
+        }
+    }
+
+    /**
+     * Claims one batch of due entries and pushes it to Jira
+     *
+     * @return The number of entries claimed
+     */
+    int dispatchBatch() {
+        List<JiraTicket> claimed = claimDueEntries(LocalDateTime.now());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        logger.debug("Dispatching {} Jira outbox entries", claimed.size());
+
+        List<JiraTicket> toCreate = new ArrayList<>();
+        List<String> retriedKeys = claimed.stream()
+                .filter(ticket -> ticket.getOutbox().getAttempts() > 1)
+                .map(ticket -> ticket.getOutbox().getIdempotencyKey())
+                .toList();
+        Map<String, String> existingIssues;
+        try {
+            existingIssues = jiraClient.findIssueKeysByIdempotencyKey(retriedKeys);
+        } catch (ServiceException e) {
+            // Without the lookup a retried ticket could be created twice, so only first attempts go out
+            logger.warn("Could not look up retried Jira outbox entries: {}", e.getMessage());
+            existingIssues = null;
+        }
+        for (JiraTicket ticket : claimed) {
+            JiraOutboxEntry outbox = ticket.getOutbox();
+            if (existingIssues == null && outbox.getAttempts() > 1) {
+                reschedule(ticket, "Could not check Jira for an existing issue");
+            } else if (existingIssues != null && existingIssues.containsKey(outbox.getIdempotencyKey())) {
+                logger.info("Ticket {} was already created in Jira as {}", ticket.getId(), existingIssues.get(outbox.getIdempotencyKey()));
+                markSynced(ticket, existingIssues.get(outbox.getIdempotencyKey()));
+            } else {
+                toCreate.add(ticket);
+            }
+        }
+
+        if (!toCreate.isEmpty()) {
+            List<JiraClient.IssueResult> results = jiraClient.createIssues(toCreate);
+            for (int i = 0; i < toCreate.size(); i++) {
+                JiraTicket ticket = toCreate.get(i);
+                JiraClient.IssueResult result = results.get(i);
+                if (result.isCreated()) {
+                    markSynced(ticket, result.getKey());
+                } else if (result.isRetryable()) {
+                    reschedule(ticket, result.getError());
+                } else {
+                    markFailed(ticket, result.getError());
+                }
+            }
+        }
+        saveOutcomes(claimed);
+        return claimed.size();
+    }
+
+    /**
+     * Writes the outcome of each claimed entry with one bulk update. Only the outbox and
+     * the issue key are set, so fields patched while the entry was in flight are kept,
+     * and an entry is only updated while this dispatcher's claim on it still holds.
+     */
+    private void saveOutcomes(List<JiraTicket> claimed) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JiraTicket.class);
+        for (JiraTicket ticket : claimed) {
+            Update update = new Update().set("outbox", ticket.getOutbox());
+            if (ticket.getExternalTicketId() != null) {
+                update.set("externalTicketId", ticket.getExternalTicketId());
+            }
+            Query claim = new Query(Criteria.where("_id").is(ticket.getId())
+                    .and("outbox.status").is(JiraOutboxEntry.Status.IN_FLIGHT)
+                    .and("outbox.attempts").is(ticket.getOutbox().getAttempts()));
+            bulkOps.updateOne(claim, update);
+        }
+        int saved = bulkOps.execute().getModifiedCount();
+        if (saved < claimed.size()) {
+            // The lease expired and another dispatcher claimed the entries; its idempotency
+            // key lookup finds the issues created here
+            logger.warn("{} of {} Jira outbox entries were claimed again before their outcome was saved",
+                    claimed.size() - saved, claimed.size());
+        }
+    }
+
+    /**
+     * Claims up to one batch of entries that are due or whose lease has expired. Each
+     * claim is a single atomic update, so no two dispatchers claim the same entry.
+     */
+    private List<JiraTicket> claimDueEntries(LocalDateTime now) {
+        Query due = new Query(new Criteria().orOperator(
+                Criteria.where("outbox.status").is(JiraOutboxEntry.Status.PENDING).and("outbox.nextAttemptAt").lte(now),
+                Criteria.where("outbox.status").is(JiraOutboxEntry.Status.IN_FLIGHT).and("outbox.leaseExpiresAt").lte(now)))
+                .with(Sort.by("outbox.nextAttemptAt"));
+        Update claim = new Update()
+                .set("outbox.status", JiraOutboxEntry.Status.IN_FLIGHT)
+                .set("outbox.leaseExpiresAt", now.plus(lease))
+                .inc("outbox.attempts", 1);
+        List<JiraTicket> claimed = new ArrayList<>();
+        while (claimed.size() < batchSize) {
+            JiraTicket ticket = mongoTemplate.findAndModify(due, claim, FindAndModifyOptions.options().returnNew(true), JiraTicket.class);
+            if (ticket == null) {
+                break;
+            }
+            claimed.add(ticket);
+        }
+        return claimed;
+    }
+
+    private void markSynced(JiraTicket ticket, String issueKey) {
+        JiraOutboxEntry outbox = ticket.getOutbox();
+        LocalDateTime now = LocalDateTime.now();
+        ticket.setExternalTicketId(issueKey);
+        outbox.setStatus(JiraOutboxEntry.Status.SYNCED);
+        outbox.setSyncedAt(now);
+        outbox.setLeaseExpiresAt(null);
+        outbox.setLastError(null);
+        if (outbox.getEnqueuedAt() != null) {
+            syncLatency.record(Duration.between(outbox.getEnqueuedAt(), now));
+        }
+        meterRegistry.counter("contextcoach.jira.outbox.dispatched", "outcome", "synced").increment();
+    }
+
+    private void reschedule(JiraTicket ticket, String error) {
+        JiraOutboxEntry outbox = ticket.getOutbox();
+        if (outbox.getAttempts() >= maxAttempts) {
+            markFailed(ticket, "Gave up after " + outbox.getAttempts() + " attempts: " + error);
+            return;
+        }
+        Duration delay = backoff(outbox.getAttempts());
+        outbox.setStatus(JiraOutboxEntry.Status.PENDING);
+        outbox.setNextAttemptAt(LocalDateTime.now().plus(delay));
+        outbox.setLeaseExpiresAt(null);
+        outbox.setLastError(error);
+        logger.warn("Retrying ticket {} in Jira in {} ms: {}", ticket.getId(), delay.toMillis(), error);
+        meterRegistry.counter("contextcoach.jira.outbox.dispatched", "outcome", "retry").increment();
+    }
+
+    private void markFailed(JiraTicket ticket, String error) {
+        JiraOutboxEntry outbox = ticket.getOutbox();
+        outbox.setStatus(JiraOutboxEntry.Status.FAILED);
+        outbox.setLeaseExpiresAt(null);
+        outbox.setLastError(error);
+        logger.error("Could not create ticket {} in Jira: {}", ticket.getId(), error);
+        meterRegistry.counter("contextcoach.jira.outbox.dispatched", "outcome", "failed").increment();
+    }
+
+    /**
+     * Gets the delay before the next attempt: doubling from the initial backoff up to the
+     * maximum, with up to 20% jitter either way so retries of one batch spread out
+     */
+    Duration backoff(int attempts) {
+        long maxMillis = maxBackoff.toMillis();
+        long millis = initialBackoff.toMillis();
+        for (int i = 1; i < attempts && millis < maxMillis; i++) {
+            millis *= 2;
+        }
+        millis = Math.min(millis, maxMillis);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (millis * jitter));
+    }
+
+    private void refreshLagMetrics() {
+        Query unsynced = new Query(Criteria.where("outbox.status")
+                .in(JiraOutboxEntry.Status.PENDING, JiraOutboxEntry.Status.IN_FLIGHT));
+        unsyncedEntries.set(mongoTemplate.count(unsynced, JiraTicket.class));
+        JiraTicket oldest = mongoTemplate.findOne(unsynced.with(Sort.by("outbox.enqueuedAt")).limit(1), JiraTicket.class);
+        oldestUnsyncedAt.set(oldest != null ? oldest.getOutbox().getEnqueuedAt() : null);
+    }
+
+    private static double secondsSince(AtomicReference<LocalDateTime> time) {
+        LocalDateTime since = time.get();
+        return since == null ? 0.0 : Duration.between(since, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
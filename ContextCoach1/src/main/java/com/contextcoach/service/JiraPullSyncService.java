@@ -0,0 +1,285 @@
+package com.contextcoach.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.SyncWatermark;
+import com.contextcoach.repository.SyncWatermarkRepository;
+import com.mongodb.DBRef;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pulls the state of Jira issues (status, assignee, actual story points) into the local
+ * tickets. Each run asks Jira only for issues updated since the persisted watermark, oldest
+ * update first, and upserts every page with one bulk write, so even projects with hundreds
+ * of thousands of issues are only scanned in full on the first run.
+ *
+ * <p>Pages are fetched by moving the watermark to the update minute of the last issue of
+ * each page rather than by a growing result offset: an issue updated during the run moves
+ * to the end of the ordering, which would shift an offset-based page and skip an issue.
+ * The offset is only used within a single update minute. The watermark is saved after
+ * each page, and each run starts a little before it to cover clock skew and late commits
+ * in Jira; upserts are idempotent, so re-reading an issue is harmless.
+ *
+ * <p>A pulled status, priority or type of a ticket that has a developer is also applied to
+ * the developer workloads, so a ticket closed in Jira stops counting as current load.
+ */
+@Service
+public class JiraPullSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraPullSyncService.class);
+
+    private final JiraClient jiraClient;
+    private final MongoTemplate mongoTemplate;
+    private final SyncWatermarkRepository syncWatermarkRepository;
+    private final DeveloperWorkloadService developerWorkloadService;
+    private final String watermarkName;
+    private final boolean enabled;
+    private final int pageSize;
+    private final Duration overlap;
+    private final ZoneId jiraTimeZone;
+
+    private final AtomicReference<Instant> currentWatermark = new AtomicReference<>();
+    private final Counter pulledIssues;
+    private final Timer syncDuration;
+
+    public JiraPullSyncService(
+            JiraClient jiraClient,
+            MongoTemplate mongoTemplate,
+            SyncWatermarkRepository syncWatermarkRepository,
+            DeveloperWorkloadService developerWorkloadService,
+            MeterRegistry meterRegistry,
+            @Value("${jira.project.key:}") String projectKey,
+            @Value("${jira.sync.enabled:true}") boolean enabled,
+            @Value("${jira.sync.page-size:100}") int pageSize,
+            @Value("${jira.sync.overlap:2m}") Duration overlap,
+            @Value("${jira.sync.time-zone:UTC}") String jiraTimeZone) {
+        this.jiraClient = jiraClient;
+        this.mongoTemplate = mongoTemplate;
+        this.syncWatermarkRepository = syncWatermarkRepository;
+        this.developerWorkloadService = developerWorkloadService;
+        this.watermarkName = "jira:" + projectKey;
+        this.enabled = enabled;
+        this.pageSize = Math.max(1, pageSize);
+        this.overlap = overlap;
+        this.jiraTimeZone = ZoneId.of(jiraTimeZone);
+
+        this.pulledIssues = Counter.builder("contextcoach.jira.sync.issues")
+                .description("Jira issues pulled by the incremental sync").register(meterRegistry);
+        this.syncDuration = Timer.builder("contextcoach.jira.sync.duration")
+                .description("Duration of incremental Jira sync runs").register(meterRegistry);
+        Gauge.builder("contextcoach.jira.sync.watermark.age", currentWatermark, JiraPullSyncService::secondsSince)
+                .description("Seconds between now and the Jira sync watermark").baseUnit("seconds").register(meterRegistry);
+    }
+
+    /**
+     * Runs the incremental sync on a fixed delay when Jira is configured
+     */
+    @Scheduled(fixedDelayString = "${jira.sync.poll-interval:5m}", initialDelayString = "${jira.sync.initial-delay:1m}")
+    public void scheduledSync() {
+        if (!enabled || !jiraClient.isConfigured()) {
+            return;
+        }
+        try {
+            sync();
+        } catch (Exception e) {
+            logger.error("Error running the incremental Jira sync", e);
+        }
+    }
+
+    /**
+     * Pulls every issue updated since the watermark and advances the watermark
+     *
+     * @return The watermark after the run
+     */
+    public synchronized SyncWatermark sync() {
+        long startTime = System.nanoTime();
+        Instant runStart = Instant.now();
+        SyncWatermark state = syncWatermarkRepository.findById(watermarkName)
+                .orElseGet(() -> new SyncWatermark(watermarkName, Instant.EPOCH));
+        Instant from = state.getWatermark().minus(overlap);
+        if (from.isBefore(Instant.EPOCH)) {
+            from = Instant.EPOCH;
+        }
+        logger.info("Pulling Jira issues updated since {}", from);
+
+        Instant minute = truncateToMinute(from);
+        int offsetInMinute = 0;
+        int total = 0;
+        while (true) {
+            List<JiraClient.RemoteIssue> page = jiraClient.searchIssuesUpdatedSince(minute, jiraTimeZone, offsetInMinute, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            upsert(page);
+            total += page.size();
+
+            Instant lastMinute = truncateToMinute(page.get(page.size() - 1).getUpdated().toInstant());
+            if (lastMinute.equals(minute)) {
+                // The whole page was updated in the same minute, so page through that minute
+                offsetInMinute += page.size();
+            } else {
+                minute = lastMinute;
+                offsetInMinute = (int) page.stream()
+                        .filter(issue -> truncateToMinute(issue.getUpdated().toInstant()).equals(lastMinute))
+                        .count();
+            }
+            if (minute.isAfter(state.getWatermark())) {
+                state.setWatermark(minute);
+                syncWatermarkRepository.save(state);
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        // Everything updated before the run started has been read, up to the overlap
+        Instant runStartMinute = truncateToMinute(runStart);
+        if (runStartMinute.isAfter(state.getWatermark())) {
+            state.setWatermark(runStartMinute);
+        }
+        state.setLastRunAt(LocalDateTime.now());
+        state.setLastRunItems(total);
+        SyncWatermark saved = syncWatermarkRepository.save(state);
+        currentWatermark.set(saved.getWatermark());
+        pulledIssues.increment(total);
+        syncDuration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        logger.info("Pulled {} Jira issues, watermark is now {}", total, saved.getWatermark());
+        return saved;
+    }
+
+    /**
+     * Upserts one page of issues with a single unordered bulk write. Issues created by the
+     * outbox are matched by their idempotency key, so they attach to the local ticket even
+     * if the dispatcher has not stored the issue key yet. The assigned tickets of the page
+     * are read first, so their workload counters can be moved to the pulled values after.
+     */
+    private void upsert(List<JiraClient.RemoteIssue> issues) {
+        Map<String, JiraTicket> assigned = findAssignedTickets(issues);
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JiraTicket.class);
+        for (JiraClient.RemoteIssue issue : issues) {
+            Query match = issue.getIdempotencyKey() != null
+                    ? new Query(Criteria.where("outbox.idempotencyKey").is(issue.getIdempotencyKey()))
+                    : new Query(Criteria.where("externalTicketId").is(issue.getKey()));
+            Update update = new Update()
+                    .set("externalTicketId", issue.getKey())
+                    .set("title", issue.getSummary())
+                    .set("ticketType", issue.getIssueType())
+                    .set("priority", issue.getPriority())
+                    .set("status", issue.getStatus())
+                    .set("assignee", issue.getAssignee())
+                    .set("actualStoryPoints", issue.getStoryPoints())
+                    .set("externalUpdatedAt", LocalDateTime.ofInstant(issue.getUpdated().toInstant(), ZoneId.systemDefault()))
+                    .setOnInsert("createdAt", LocalDateTime.now())
+                    .inc("version", 1); // Bulk writes do not bump @Version themselves
+            bulkOps.upsert(match, update);
+        }
+        bulkOps.execute();
+
+        for (JiraClient.RemoteIssue issue : issues) {
+            JiraTicket before = assigned.get(matchKey(issue));
+            if (before != null) {
+                JiraTicket after = new JiraTicket();
+                after.setId(before.getId());
+                after.setAssignedDeveloper(before.getAssignedDeveloper());
+                after.setEstimatedStoryPoints(before.getEstimatedStoryPoints());
+                after.setTicketType(issue.getIssueType());
+                after.setPriority(issue.getPriority());
+                after.setStatus(issue.getStatus());
+                developerWorkloadService.recordTicketChange(before, after);
+            }
+        }
+    }
+
+    /**
+     * Reads the local tickets of a page that have a developer, keyed like {@link #matchKey},
+     * with only the fields the workloads count. They are read as documents so the developer
+     * references are not resolved.
+     */
+    private Map<String, JiraTicket> findAssignedTickets(List<JiraClient.RemoteIssue> issues) {
+        List<String> idempotencyKeys = new ArrayList<>();
+        List<String> issueKeys = new ArrayList<>();
+        for (JiraClient.RemoteIssue issue : issues) {
+            if (issue.getIdempotencyKey() != null) {
+                idempotencyKeys.add(issue.getIdempotencyKey());
+            } else {
+                issueKeys.add(issue.getKey());
+            }
+        }
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("assignedDeveloper").ne(null),
+                new Criteria().orOperator(
+                        Criteria.where("outbox.idempotencyKey").in(idempotencyKeys),
+                        Criteria.where("externalTicketId").in(issueKeys))));
+        query.fields().include("assignedDeveloper", "ticketType", "priority", "status", "estimatedStoryPoints",
+                "externalTicketId", "outbox.idempotencyKey");
+
+        Map<String, JiraTicket> tickets = new HashMap<>();
+        for (Document stored : mongoTemplate.find(query, Document.class, "jira_tickets")) {
+            if (!(stored.get("assignedDeveloper") instanceof DBRef)) {
+                continue;
+            }
+            DeveloperProfile developer = new DeveloperProfile();
+            developer.setId(String.valueOf(((DBRef) stored.get("assignedDeveloper")).getId()));
+            JiraTicket ticket = new JiraTicket();
+            ticket.setId(String.valueOf(stored.get("_id")));
+            ticket.setAssignedDeveloper(developer);
+            ticket.setTicketType(stored.getString("ticketType"));
+            ticket.setPriority(stored.getString("priority"));
+            ticket.setStatus(stored.getString("status"));
+            ticket.setEstimatedStoryPoints(stored.getInteger("estimatedStoryPoints"));
+
+            Document outbox = stored.get("outbox", Document.class);
+            if (outbox != null && outbox.getString("idempotencyKey") != null) {
+                tickets.put("outbox:" + outbox.getString("idempotencyKey"), ticket);
+            }
+            if (stored.getString("externalTicketId") != null) {
+                tickets.put(stored.getString("externalTicketId"), ticket);
+            }
+        }
+        return tickets;
+    }
+
+    /**
+     * Gets the key an issue is matched to its local ticket by
+     */
+    private static String matchKey(JiraClient.RemoteIssue issue) {
+        return issue.getIdempotencyKey() != null ? "outbox:" + issue.getIdempotencyKey() : issue.getKey();
+    }
+
+    private Instant truncateToMinute(Instant instant) {
+        return instant.atZone(jiraTimeZone).truncatedTo(ChronoUnit.MINUTES).toInstant();
+    }
+
+    private static double secondsSince(AtomicReference<Instant> watermark) {
+        Instant since = watermark.get();
+        return since == null ? 0.0 : Duration.between(since, Instant.now()).toMillis() / 1000.0;
+    }
+}
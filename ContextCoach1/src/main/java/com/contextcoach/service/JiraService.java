@@ -1,18 +1,35 @@
 package com.contextcoach.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.BulkTicketCreationReport;
+import com.contextcoach.model.BulkTicketCreationReport.TicketOutcome;
 import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.JiraOutboxEntry;
 import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.JiraTicketPatch;
+import com.contextcoach.model.JiraTicketRequest;
 import com.contextcoach.model.Requirement;
-import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.model.RequirementSummary;
 import com.contextcoach.repository.JiraTicketRepository;
 import com.contextcoach.repository.RequirementRepository;
 
@@ -22,35 +39,45 @@ public class JiraService {
     private static final Logger logger = LoggerFactory.getLogger(JiraService.class);
 
     private final JiraTicketRepository jiraTicketRepository;
+    private final MongoTemplate mongoTemplate;
     private final RequirementRepository requirementRepository;
-    private final DeveloperProfileRepository developerProfileRepository;
+    private final DeveloperProfileCache developerProfileCache;
     private final RequirementService requirementService;
-    
-    @Value("${jira.api.url:}")
-    private String jiraApiUrl;
-    
-    @Value("${jira.api.username:}")
-    private String jiraUsername;
-    
-    @Value("${jira.api.token:}")
-    private String jiraToken;
-    
-    @Value("${jira.project.key:}")
-    private String jiraProjectKey;
+    private final RequirementSummaryService requirementSummaryService;
+    private final DeveloperWorkloadService developerWorkloadService;
+    private final JiraClient jiraClient;
+    private final StoryPointEstimator storyPointEstimator;
+    private final Executor estimationExecutor;
+    private final int bulkMaxSize;
 
     public JiraService(
             JiraTicketRepository jiraTicketRepository,
+            MongoTemplate mongoTemplate,
             RequirementRepository requirementRepository,
-            DeveloperProfileRepository developerProfileRepository,
-            RequirementService requirementService) {
+            DeveloperProfileCache developerProfileCache,
+            RequirementService requirementService,
+            RequirementSummaryService requirementSummaryService,
+            DeveloperWorkloadService developerWorkloadService,
+            JiraClient jiraClient,
+            StoryPointEstimator storyPointEstimator,
+            @Qualifier("estimationExecutor") Executor estimationExecutor,
+            @Value("${jira.tickets.bulk-max-size:500}") int bulkMaxSize) {
         this.jiraTicketRepository = jiraTicketRepository;
+        this.mongoTemplate = mongoTemplate;
         this.requirementRepository = requirementRepository;
-        this.developerProfileRepository = developerProfileRepository;
+        this.developerProfileCache = developerProfileCache;
         this.requirementService = requirementService;
+        this.requirementSummaryService = requirementSummaryService;
+        this.developerWorkloadService = developerWorkloadService;
+        this.jiraClient = jiraClient;
+        this.storyPointEstimator = storyPointEstimator;
+        this.estimationExecutor = estimationExecutor;
+        this.bulkMaxSize = Math.max(bulkMaxSize, 1);
     }
 
     /**
-     * Creates a Jira ticket from a requirement
+     * Creates a Jira ticket from a requirement. The ticket is saved right away, and when
+     * Jira is configured it is created there in the background by the Jira outbox dispatcher.
      * 
      * @param requirementId The ID of the requirement
      * @param ticketType The type of ticket (Bug, Feature, Task, etc.)
@@ -106,7 +133,7 @@ public class JiraService {
             if (assignedDeveloperId.isPresent()) {
                 String developerId = assignedDeveloperId.get();
                 logger.debug("Finding developer with ID: {}", developerId);
-                developer = developerProfileRepository.findById(developerId)
+                developer = developerProfileCache.findById(developerId)
                         .orElseThrow(() -> {
                             logger.error("Developer not found with ID: {}", developerId);
                             return new IllegalArgumentException("Developer not found with ID: " + developerId);
@@ -120,33 +147,36 @@ public class JiraService {
             // Set estimated story points based on complexity and developer profile
             if (requirement.getClarityScore() != null) {
                 logger.debug("Calculating story points based on clarity score: {}", requirement.getClarityScore());
-                int storyPoints;
+                String complexityLevel = requirementSummaryService.getSummary(requirementId)
+                        .map(RequirementSummary::getComplexityLevel)
+                        .orElse(null);
                 
-                if (developer != null) {
+                if (applyModelEstimate(ticket, requirement, complexityLevel, developer)) {
+                    // The local model is confident, so no LLM call is needed
+                    logger.debug("Estimated story points with the local model: {}", ticket.getEstimatedStoryPoints());
+                } else if (developer != null) {
                     // Use developer profile for story point calculation
                     logger.debug("Using developer profile for story point calculation");
-                    Map<String, Object> storyPointsResult = requirementService.calculateStoryPointsWithDeveloper(
-                            requirementId, developer.getId(), null);
-                    storyPoints = ((Number) storyPointsResult.get("storyPoints")).intValue();
+                    int storyPoints = estimateStoryPoints(requirement, developer);
+                    ticket.setEstimatedStoryPoints(storyPoints);
+                    ticket.setEstimateSource(StoryPointEstimator.SOURCE_LLM);
                     logger.debug("Calculated story points with developer profile: {}", storyPoints);
                 } else {
                     // Use standard calculation without developer profile
-                    storyPoints = calculateStoryPoints(requirement);
+                    int storyPoints = calculateStoryPoints(requirement);
+                    ticket.setEstimatedStoryPoints(storyPoints);
+                    ticket.setEstimateSource(StoryPointEstimator.SOURCE_HEURISTIC);
                     logger.debug("Calculated story points without developer profile: {}", storyPoints);
                 }
-                
-                ticket.setEstimatedStoryPoints(storyPoints);
-                logger.debug("Set story points to: {}", storyPoints);
             } else {
                 logger.debug("No clarity score available, skipping story point calculation");
             }
             
-            // Create the ticket in Jira if API credentials are provided
-            if (!jiraApiUrl.isEmpty() && !jiraUsername.isEmpty() && !jiraToken.isEmpty()) {
-                logger.debug("Creating ticket in external Jira system");
-                String externalTicketId = createTicketInJira(ticket);
-                ticket.setExternalTicketId(externalTicketId);
-                logger.debug("Created external ticket with ID: {}", externalTicketId);
+            // Queue the ticket for the Jira outbox dispatcher if API credentials are provided.
+            // The outbox entry is saved with the ticket, so the sync cannot be lost.
+            if (jiraClient.isConfigured()) {
+                logger.debug("Queueing ticket for creation in external Jira system");
+                ticket.setOutbox(JiraOutboxEntry.pending());
             } else {
                 logger.debug("Skipping external Jira integration - API credentials not configured");
             }
@@ -154,6 +184,8 @@ public class JiraService {
             // Save the ticket
             logger.debug("Saving Jira ticket to database");
             JiraTicket savedTicket = jiraTicketRepository.save(ticket);
+            requirementSummaryService.recordJiraTicket(savedTicket);
+            developerWorkloadService.recordTicket(savedTicket);
             logger.info("Successfully created Jira ticket with ID: {}", savedTicket.getId());
             return savedTicket;
         } catch (IllegalArgumentException e) {
@@ -165,6 +197,140 @@ public class JiraService {
         }
     }
 
+    /**
+     * Creates Jira tickets for many requirements at once. All referenced requirements and
+     * developers are loaded with one query each, developer-aware estimates the local model
+     * is not confident about are computed concurrently on the estimation executor, and all tickets are
+     * saved with one bulk insert. A request that cannot be fulfilled, such as one for an
+     * unknown requirement, is reported as failed without failing the others.
+     * 
+     * @param requests The tickets to create
+     * @return The outcome of each requested ticket, in request order
+     * @throws IllegalArgumentException if no tickets or too many tickets are requested
+     */
+    public BulkTicketCreationReport createJiraTickets(List<JiraTicketRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            logger.error("Bulk ticket creation requested without tickets");
+            throw new IllegalArgumentException("At least one ticket is required");
+        }
+        if (requests.size() > bulkMaxSize) {
+            logger.error("Bulk ticket creation requested for {} tickets, limit is {}", requests.size(), bulkMaxSize);
+            throw new IllegalArgumentException("At most " + bulkMaxSize + " tickets can be created in one request");
+        }
+
+        logger.info("Creating {} Jira tickets in bulk", requests.size());
+        long startTime = System.currentTimeMillis();
+        try {
+            // Load every referenced requirement and developer with one query per collection
+            Set<String> requirementIds = new HashSet<>();
+            Set<String> developerIds = new HashSet<>();
+            for (JiraTicketRequest request : requests) {
+                if (request.getRequirementId() != null) {
+                    requirementIds.add(request.getRequirementId());
+                }
+                if (request.getAssignedDeveloperId() != null) {
+                    developerIds.add(request.getAssignedDeveloperId());
+                }
+            }
+            Map<String, Requirement> requirements = new HashMap<>();
+            requirementRepository.findAllById(requirementIds).forEach(requirement -> requirements.put(requirement.getId(), requirement));
+            Map<String, DeveloperProfile> developers = new HashMap<>();
+            if (!developerIds.isEmpty()) {
+                developerProfileCache.findAllById(developerIds).forEach(developer -> developers.put(developer.getId(), developer));
+            }
+            Map<String, RequirementSummary> summaries = requirementSummaryService.getSummaries(requirements.keySet());
+            logger.debug("Loaded {} requirements and {} developers for bulk ticket creation", requirements.size(), developers.size());
+
+            // Build the tickets, starting developer-aware estimates as they are built
+            TicketOutcome[] outcomes = new TicketOutcome[requests.size()];
+            JiraTicket[] tickets = new JiraTicket[requests.size()];
+            List<CompletableFuture<Integer>> estimates = new ArrayList<>(requests.size());
+            int modelEstimates = 0;
+            for (int i = 0; i < requests.size(); i++) {
+                JiraTicketRequest request = requests.get(i);
+                outcomes[i] = new TicketOutcome(i, request.getRequirementId(), TicketOutcome.FAILED);
+                estimates.add(null);
+                String error = validate(request, requirements, developers);
+                if (error != null) {
+                    outcomes[i].setMessage(error);
+                    continue;
+                }
+
+                Requirement requirement = requirements.get(request.getRequirementId());
+                DeveloperProfile developer = request.getAssignedDeveloperId() != null
+                        ? developers.get(request.getAssignedDeveloperId()) : null;
+                JiraTicket ticket = new JiraTicket();
+                ticket.setTitle(requirement.getTitle());
+                ticket.setDescription(generateTicketDescription(requirement));
+                ticket.setTicketType(request.getTicketType());
+                ticket.setPriority(request.getPriority());
+                ticket.setRequirement(requirement);
+                ticket.setAssignedDeveloper(developer);
+                if (requirement.getClarityScore() != null) {
+                    RequirementSummary summary = summaries.get(requirement.getId());
+                    String complexityLevel = summary != null ? summary.getComplexityLevel() : null;
+                    if (applyModelEstimate(ticket, requirement, complexityLevel, developer)) {
+                        modelEstimates++;
+                    } else if (developer != null) {
+                        estimates.set(i, CompletableFuture.supplyAsync(
+                                () -> estimateStoryPoints(requirement, developer), estimationExecutor));
+                        ticket.setEstimateSource(StoryPointEstimator.SOURCE_LLM);
+                    } else {
+                        ticket.setEstimatedStoryPoints(calculateStoryPoints(requirement));
+                        ticket.setEstimateSource(StoryPointEstimator.SOURCE_HEURISTIC);
+                    }
+                }
+                tickets[i] = ticket;
+            }
+
+            List<JiraTicket> toSave = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                if (tickets[i] == null) {
+                    continue;
+                }
+                if (estimates.get(i) != null) {
+                    try {
+                        tickets[i].setEstimatedStoryPoints(estimates.get(i).join());
+                    } catch (CompletionException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        logger.warn("Failed to estimate story points for requirement ID: {}: {}",
+                                requests.get(i).getRequirementId(), cause.getMessage());
+                        outcomes[i].setMessage("Error estimating story points: " + cause.getMessage());
+                        tickets[i] = null;
+                        continue;
+                    }
+                }
+                if (jiraClient.isConfigured()) {
+                    tickets[i].setOutbox(JiraOutboxEntry.pending());
+                }
+                toSave.add(tickets[i]);
+            }
+
+            if (!toSave.isEmpty()) {
+                jiraTicketRepository.insert(toSave);
+                requirementSummaryService.recordJiraTickets(toSave);
+                developerWorkloadService.recordTickets(toSave);
+            }
+
+            BulkTicketCreationReport report = new BulkTicketCreationReport();
+            for (int i = 0; i < requests.size(); i++) {
+                if (tickets[i] != null) {
+                    outcomes[i].setStatus(TicketOutcome.CREATED);
+                    outcomes[i].setTicketId(tickets[i].getId());
+                    outcomes[i].setEstimatedStoryPoints(tickets[i].getEstimatedStoryPoints());
+                }
+                report.addOutcome(outcomes[i]);
+            }
+            report.setElapsedMillis(System.currentTimeMillis() - startTime);
+            logger.info("Bulk ticket creation finished: {} created ({} estimated by the local model), {} failed in {}ms",
+                    report.getCreatedCount(), modelEstimates, report.getFailedCount(), report.getElapsedMillis());
+            return report;
+        } catch (Exception e) {
+            logger.error("Error creating {} Jira tickets in bulk", requests.size(), e);
+            throw new RuntimeException("Error creating Jira tickets: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Gets a Jira ticket by ID
      * 
@@ -187,6 +353,93 @@ public class JiraService {
         }
     }
 
+    /**
+     * Partially updates a Jira ticket with one atomic update. The ticket is read back as it
+     * was before the update, so a change of priority, type or story points can be applied
+     * to the workload of its developer without another query.
+     * 
+     * @param id The ID of the ticket
+     * @param patch The fields to change, and optionally the version they were read at
+     * @return The updated ticket
+     * @throws IllegalArgumentException if the patch is empty or a field is invalid
+     * @throws ResourceNotFoundException if the ticket is not found
+     * @throws ServiceException if the ticket has another version
+     */
+    public JiraTicket patchJiraTicket(String id, JiraTicketPatch patch) {
+        logger.info("Patching Jira ticket with ID: {}", id);
+        try {
+            if (id == null || patch == null) {
+                logger.error("Ticket ID and patch cannot be null");
+                throw new IllegalArgumentException("Ticket ID and patch cannot be null");
+            }
+            if (patch.getTitle() != null && patch.getTitle().trim().isEmpty()) {
+                logger.error("Ticket title cannot be empty");
+                throw new IllegalArgumentException("Ticket title cannot be empty");
+            }
+            if (patch.getEstimatedStoryPoints() != null && patch.getEstimatedStoryPoints() < 0) {
+                logger.error("Estimated story points cannot be negative");
+                throw new IllegalArgumentException("Estimated story points cannot be negative");
+            }
+
+            Update update = new Update();
+            setIfPresent(update, "title", patch.getTitle());
+            setIfPresent(update, "description", patch.getDescription());
+            setIfPresent(update, "ticketType", patch.getTicketType());
+            setIfPresent(update, "priority", patch.getPriority());
+            setIfPresent(update, "estimatedStoryPoints", patch.getEstimatedStoryPoints());
+            setIfPresent(update, "status", patch.getStatus());
+            if (update.getUpdateObject().isEmpty()) {
+                logger.error("Ticket patch has no fields to change");
+                throw new IllegalArgumentException("Ticket patch has no fields to change");
+            }
+
+            JiraTicket ticket = AtomicPatch.apply(mongoTemplate, id, patch.getVersion(), update, false,
+                    JiraTicket.class, "Jira ticket");
+            JiraTicket previous = new JiraTicket();
+            previous.setAssignedDeveloper(ticket.getAssignedDeveloper());
+            previous.setTicketType(ticket.getTicketType());
+            previous.setPriority(ticket.getPriority());
+            previous.setEstimatedStoryPoints(ticket.getEstimatedStoryPoints());
+            previous.setStatus(ticket.getStatus());
+
+            // Every field is a plain $set, so the stored ticket now equals the old one with the patch applied
+            if (patch.getTitle() != null) {
+                ticket.setTitle(patch.getTitle());
+            }
+            if (patch.getDescription() != null) {
+                ticket.setDescription(patch.getDescription());
+            }
+            if (patch.getTicketType() != null) {
+                ticket.setTicketType(patch.getTicketType());
+            }
+            if (patch.getPriority() != null) {
+                ticket.setPriority(patch.getPriority());
+            }
+            if (patch.getEstimatedStoryPoints() != null) {
+                ticket.setEstimatedStoryPoints(patch.getEstimatedStoryPoints());
+            }
+            if (patch.getStatus() != null) {
+                ticket.setStatus(patch.getStatus());
+            }
+            ticket.setVersion(ticket.getVersion() != null ? ticket.getVersion() + 1 : 1L);
+
+            developerWorkloadService.recordTicketChange(previous, ticket);
+            logger.info("Successfully patched Jira ticket with ID: {} to version {}", id, ticket.getVersion());
+            return ticket;
+        } catch (ResourceNotFoundException | IllegalArgumentException | ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error patching Jira ticket with ID: {}", id, e);
+            throw new RuntimeException("Error patching Jira ticket: " + e.getMessage(), e);
+        }
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
     /**
      * Gets all Jira tickets
      * 
@@ -277,6 +530,62 @@ public class JiraService {
         return description.toString();
     }
 
+    /**
+     * Checks a bulk ticket request against the loaded requirements and developers
+     * 
+     * @return The reason the ticket cannot be created, or null if it can
+     */
+    private String validate(JiraTicketRequest request, Map<String, Requirement> requirements,
+            Map<String, DeveloperProfile> developers) {
+        if (request.getRequirementId() == null) {
+            return "Requirement ID cannot be null";
+        }
+        if (request.getTicketType() == null || request.getTicketType().trim().isEmpty()) {
+            return "Ticket type cannot be null or empty";
+        }
+        if (request.getPriority() == null || request.getPriority().trim().isEmpty()) {
+            return "Priority cannot be null or empty";
+        }
+        if (!requirements.containsKey(request.getRequirementId())) {
+            return "Requirement not found with ID: " + request.getRequirementId();
+        }
+        if (request.getAssignedDeveloperId() != null && !developers.containsKey(request.getAssignedDeveloperId())) {
+            return "Developer not found with ID: " + request.getAssignedDeveloperId();
+        }
+        return null;
+    }
+
+    /**
+     * Estimates story points with the local model and applies the estimate if the model
+     * is confident
+     * 
+     * @return Whether the estimate was applied
+     */
+    private boolean applyModelEstimate(JiraTicket ticket, Requirement requirement, String complexityLevel,
+            DeveloperProfile developer) {
+        StoryPointEstimator.Estimate estimate = storyPointEstimator.estimate(requirement, complexityLevel, developer);
+        if (!estimate.isConfident()) {
+            logger.trace("Local story point estimate has standard error {}, falling back", estimate.getStandardError());
+            return false;
+        }
+        ticket.setEstimatedStoryPoints(estimate.getStoryPoints());
+        ticket.setEstimateSource(StoryPointEstimator.SOURCE_MODEL);
+        return true;
+    }
+
+    /**
+     * Estimates story points for a requirement with the developer's profile
+     * 
+     * @param requirement The requirement
+     * @param developer The assigned developer
+     * @return The estimated story points
+     */
+    private int estimateStoryPoints(Requirement requirement, DeveloperProfile developer) {
+        Map<String, Object> storyPointsResult = requirementService.calculateStoryPointsWithDeveloper(
+                requirement, developer, null);
+        return ((Number) storyPointsResult.get("storyPoints")).intValue();
+    }
+
     /**
      * Calculates story points based on requirement complexity
      * 
@@ -310,24 +619,4 @@ public class JiraService {
         
         return storyPoints;
     }
-
-    /**
-     * Creates a ticket in Jira
-     * 
-     * @param ticket The ticket to create
-     * @return The external ticket ID
-     */
-    private String createTicketInJira(JiraTicket ticket) {
-        logger.debug("Creating ticket in external Jira system: {}", ticket.getTitle());
-        try {
-            // In a real application, you would use the Jira REST API to create the ticket
-            // For simplicity, we're returning a mock ticket ID
-            String mockId = "MOCK-" + System.currentTimeMillis();
-            logger.debug("Created mock Jira ticket with ID: {}", mockId);
-            return mockId;
-        } catch (Exception e) {
-            logger.error("Error creating ticket in external Jira system: {}", ticket.getTitle(), e);
-            throw new RuntimeException("Error creating ticket in Jira: " + e.getMessage(), e);
-        }
-    }
 }
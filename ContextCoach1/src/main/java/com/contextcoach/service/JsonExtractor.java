@@ -0,0 +1,210 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Extracts text from JSON files. The document is walked once with a streaming parser,
+ * and the values of the configured fields are written straight into the output in
+ * document order. A field name matches at any depth, including inside arrays such as
+ * a list of issues; a dotted path matches the object field names from the root, with
+ * arrays skipped. Values that are objects or arrays contribute all of their scalar
+ * leaves. If no configured field is found, the document is copied as compact JSON.
+ */
+@Component
+@Order(400)
+public class JsonExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonExtractor.class);
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> jsonFieldNames = new HashSet<>();
+    private final Set<String> jsonFieldPaths = new HashSet<>();
+    private final String jsonFieldsFingerprint;
+
+    public JsonExtractor(
+            ObjectMapper objectMapper,
+            @Value("${contextcoach.extraction.json.fields:title,description,requirements,content,text}") String[] jsonFields) {
+        this.objectMapper = objectMapper;
+        for (String jsonField : jsonFields) {
+            String field = jsonField.trim();
+            if (field.contains(".")) {
+                jsonFieldPaths.add(field);
+            } else if (!field.isEmpty()) {
+                jsonFieldNames.add(field);
+            }
+        }
+        Set<String> sortedJsonFields = new TreeSet<>(jsonFieldNames);
+        sortedJsonFields.addAll(jsonFieldPaths);
+        this.jsonFieldsFingerprint = FileService.computeContentHash(
+                String.join(",", sortedJsonFields).getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+    }
+
+    @Override
+    public String getFormat() {
+        return "JSON";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        String text = probe.textHead();
+        if (text.isEmpty() || (text.charAt(0) != '{' && text.charAt(0) != '[')) {
+            return false;
+        }
+        // Look past the opening bracket so text such as "[Draft] Login" is not taken for JSON
+        String rest = text.substring(1).stripLeading();
+        if (rest.isEmpty()) {
+            return true;
+        }
+        char next = rest.charAt(0);
+        if (text.charAt(0) == '{') {
+            return next == '"' || next == '}';
+        }
+        return next == '{' || next == '[' || next == '"' || next == ']' || next == '-' || Character.isDigit(next)
+                || rest.startsWith("true") || rest.startsWith("false") || rest.startsWith("null");
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("json") || probe.hasExtension("json");
+    }
+
+    @Override
+    public String getCacheVariant() {
+        // The output depends on the configured fields
+        return jsonFieldsFingerprint;
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from JSON file: {}", file.getOriginalFilename());
+        try {
+            StringBuilder textBuilder = new StringBuilder();
+            try (InputStream inputStream = file.getInputStream();
+                 JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+                collectFields(parser, textBuilder);
+            }
+
+            // If no specific fields were found, use the entire JSON as text
+            if (textBuilder.length() == 0) {
+                logger.debug("No specific fields found in JSON, using entire content");
+                return copyCompact(file);
+            }
+
+            logger.debug("Successfully extracted {} characters from JSON", textBuilder.length());
+            return textBuilder.toString();
+        } catch (IOException e) {
+            logger.error("Error extracting text from JSON file: {}", file.getOriginalFilename(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Walks all tokens and appends the values of configured fields
+     */
+    private void collectFields(JsonParser parser, StringBuilder textBuilder) throws IOException {
+        // Names of the enclosing object fields; array elements and the root are pushed as ""
+        Deque<String> path = new ArrayDeque<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                token = parser.nextToken();
+                if (isConfiguredField(path, fieldName)) {
+                    logger.trace("Found field '{}' in JSON", fieldName);
+                    appendValue(parser, textBuilder);
+                } else if (token.isStructStart()) {
+                    path.addLast(fieldName);
+                }
+            } else if (token.isStructStart()) {
+                path.addLast("");
+            } else if (token.isStructEnd()) {
+                path.pollLast();
+            }
+        }
+    }
+
+    private boolean isConfiguredField(Deque<String> path, String fieldName) {
+        if (jsonFieldNames.contains(fieldName)) {
+            return true;
+        }
+        if (jsonFieldPaths.isEmpty()) {
+            return false;
+        }
+        StringBuilder fieldPath = new StringBuilder();
+        for (String name : path) {
+            if (!name.isEmpty()) {
+                fieldPath.append(name).append('.');
+            }
+        }
+        return jsonFieldPaths.contains(fieldPath.append(fieldName).toString());
+    }
+
+    /**
+     * Appends the current value, consuming it entirely if it is an object or array
+     */
+    private static void appendValue(JsonParser parser, StringBuilder textBuilder) throws IOException {
+        int fieldStart = textBuilder.length();
+        if (fieldStart > 0) {
+            textBuilder.append("\n\n");
+        }
+        int valueStart = textBuilder.length();
+        int depth = 0;
+        JsonToken token = parser.currentToken();
+        do {
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                if (textBuilder.length() > valueStart) {
+                    textBuilder.append('\n');
+                }
+                textBuilder.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            }
+        } while (depth > 0 && (token = parser.nextToken()) != null);
+
+        if (textBuilder.length() == valueStart) {
+            textBuilder.setLength(fieldStart);
+        }
+    }
+
+    /**
+     * Re-reads the upload and copies it token by token as compact JSON
+     */
+    private String copyCompact(MultipartFile file) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (InputStream inputStream = file.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(inputStream);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        return writer.toString();
+    }
+}
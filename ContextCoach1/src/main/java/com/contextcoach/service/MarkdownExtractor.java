@@ -0,0 +1,138 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Extracts text from Markdown files. The layout already matches the extracted text of
+ * other formats, so headings keep their '#' prefix and setext headings are converted to
+ * it. Links and images are reduced to their text, emphasis and code markers are dropped,
+ * and table rows become tab separated cells. Code blocks are kept without their fences.
+ */
+@Component
+@Order(700)
+public class MarkdownExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarkdownExtractor.class);
+
+    private static final Pattern IMAGE_OR_LINK = Pattern.compile("!?\\[([^\\]]*)\\]\\([^)]*\\)");
+    private static final Pattern EMPHASIS = Pattern.compile("(\\*\\*|__|~~|`)");
+    private static final Pattern HTML_COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+    private static final Pattern TABLE_SEPARATOR = Pattern.compile("^\\|?\\s*:?-{3,}:?\\s*(\\|\\s*:?-{3,}:?\\s*)*\\|?$");
+    private static final Pattern HORIZONTAL_RULE = Pattern.compile("^([-*_])( ?\\1){2,}$");
+
+    @Override
+    public String getFormat() {
+        return "MARKDOWN";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        // Markdown has no signature
+        return false;
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("markdown") || probe.hasExtension("md", "markdown");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from Markdown file: {}", file.getOriginalFilename());
+        String text = toText(ExtractionSupport.readText(file));
+        logger.debug("Successfully extracted {} characters from Markdown", text.length());
+        return text;
+    }
+
+    /**
+     * Converts Markdown to text
+     *
+     * @param markdown The Markdown source
+     * @return The text
+     */
+    static String toText(String markdown) {
+        String[] lines = HTML_COMMENT.matcher(markdown).replaceAll("").split("\\R", -1);
+        StringBuilder text = new StringBuilder(markdown.length());
+        boolean inCode = false;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            String trimmed = line.trim();
+            if (trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+                inCode = !inCode;
+                continue;
+            }
+            if (inCode) {
+                if (!trimmed.isEmpty()) {
+                    text.append(line).append('\n');
+                }
+                continue;
+            }
+            if (trimmed.isEmpty() || TABLE_SEPARATOR.matcher(trimmed).matches() && trimmed.contains("|")
+                    || HORIZONTAL_RULE.matcher(trimmed).matches()) {
+                continue;
+            }
+
+            // Setext headings are underlined with = or - on the next line
+            if (i + 1 < lines.length && !trimmed.startsWith("#")) {
+                String next = lines[i + 1].trim();
+                if (!next.isEmpty() && (next.chars().allMatch(c -> c == '=') || next.chars().allMatch(c -> c == '-'))
+                        && !trimmed.startsWith("-") && !trimmed.startsWith("|")) {
+                    ExtractionSupport.appendParagraph(text, inline(trimmed), next.charAt(0) == '=' ? 1 : 2);
+                    i++;
+                    continue;
+                }
+            }
+
+            if (trimmed.startsWith("#")) {
+                int level = 0;
+                while (level < trimmed.length() && trimmed.charAt(level) == '#') {
+                    level++;
+                }
+                String heading = trimmed.substring(level).replaceAll("\\s#+$", "").trim();
+                if (level <= 6 && !heading.isEmpty()) {
+                    ExtractionSupport.appendParagraph(text, inline(heading), level);
+                    continue;
+                }
+            }
+
+            if (trimmed.startsWith("|")) {
+                StringBuilder rowText = new StringBuilder();
+                for (String cell : trimmed.substring(1).split("\\|")) {
+                    ExtractionSupport.appendCell(rowText, inline(cell.trim()));
+                }
+                if (rowText.length() > 0) {
+                    text.append(rowText).append('\n');
+                }
+                continue;
+            }
+
+            if (trimmed.startsWith("* ") || trimmed.startsWith("+ ")) {
+                trimmed = "- " + trimmed.substring(2);
+            } else if (trimmed.startsWith(">")) {
+                trimmed = trimmed.replaceFirst("^>+\\s*", "");
+            }
+            String paragraph = inline(trimmed);
+            if (!paragraph.isEmpty()) {
+                text.append(paragraph).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static String inline(String text) {
+        String withoutLinks = IMAGE_OR_LINK.matcher(text).replaceAll("$1");
+        return EMPHASIS.matcher(withoutLinks).replaceAll("").trim();
+    }
+}
@@ -0,0 +1,248 @@
+package com.contextcoach.service;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost flow solver for assigning tickets to developers. Each ticket is one unit of
+ * flow from the source to one developer, and each developer passes its tickets to the
+ * sink over arcs of growing cost, so spreading tickets according to capacity is cheaper
+ * than piling them on the best matching developer.
+ *
+ * Tickets are added one at a time along a shortest augmenting path (Dijkstra with node
+ * potentials), which keeps the assignment optimal after every ticket. Ticket nodes are
+ * never materialized: the residual graph is contracted to the developers, where the arc
+ * from developer a to developer b is the cheapest ticket a could hand over to b. All state
+ * lives in flat primitive arrays indexed by ticket and developer.
+ */
+final class MinCostAssignment {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    private final double[] cost; // cost[t * developers + d] of ticket t done by developer d
+    private final int developers;
+    private final double[] slots; // Number of typical tickets each developer can take
+    private final double balanceWeight;
+    private final double overloadPenalty;
+
+    private final int[] assigned;
+    private final int[][] members; // Tickets of each developer, first count[d] entries used
+    private final int[] count;
+    private final int[] position; // Index of each ticket within its developer's members
+    private final double[] exchange; // exchange[a * developers + b] = cheapest move of a ticket from a to b
+    private final int[] exchangeTicket;
+    private final double[] potential; // Developers, then the sink
+
+    private final double[] dist;
+    private final int[] prev;
+    private final int[] via;
+    private final boolean[] done;
+    private final boolean[] touched;
+    private long examined; // Arcs relaxed and ticket moves priced, a measure of the work done
+
+    MinCostAssignment(double[] cost, int tickets, int developers, double[] slots,
+            double balanceWeight, double overloadPenalty) {
+        if (developers <= 0) {
+            throw new IllegalArgumentException("At least one developer is required");
+        }
+        if (cost.length != tickets * developers || slots.length != developers) {
+            throw new IllegalArgumentException("Cost matrix does not match " + tickets + " tickets by " + developers + " developers");
+        }
+        this.cost = cost;
+        this.developers = developers;
+        this.slots = slots;
+        this.balanceWeight = balanceWeight;
+        this.overloadPenalty = overloadPenalty;
+        this.assigned = new int[tickets];
+        this.members = new int[developers][];
+        this.count = new int[developers];
+        this.position = new int[tickets];
+        this.exchange = new double[developers * developers];
+        this.exchangeTicket = new int[developers * developers];
+        this.potential = new double[developers + 1];
+        this.dist = new double[developers + 1];
+        this.prev = new int[developers + 1];
+        this.via = new int[developers];
+        this.done = new boolean[developers + 1];
+        this.touched = new boolean[developers];
+        int initialCapacity = Math.max(4, tickets / Math.max(1, developers) + 1);
+        for (int d = 0; d < developers; d++) {
+            members[d] = new int[initialCapacity];
+        }
+        Arrays.fill(assigned, -1);
+        Arrays.fill(exchange, INF);
+    }
+
+    /**
+     * Assigns every ticket to one developer at minimum total cost. The k-th ticket of
+     * developer d adds balanceWeight * (k - 0.5) / slots[d], plus overloadPenalty once k
+     * exceeds slots[d], on top of the ticket's own cost.
+     *
+     * @param cost Cost of each ticket with each developer, row-major by ticket
+     * @param tickets Number of tickets
+     * @param developers Number of developers
+     * @param slots Capacity of each developer in typical tickets
+     * @param balanceWeight Weight of the load balancing cost
+     * @param overloadPenalty Extra cost of each ticket beyond a developer's capacity
+     * @return The developer index of each ticket
+     */
+    static int[] solve(double[] cost, int tickets, int developers, double[] slots,
+            double balanceWeight, double overloadPenalty) {
+        return new MinCostAssignment(cost, tickets, developers, slots, balanceWeight, overloadPenalty).solve();
+    }
+
+    /**
+     * Assigns every ticket, see {@link #solve(double[], int, int, double[], double, double)}
+     *
+     * @return The developer index of each ticket
+     */
+    int[] solve() {
+        for (int t = 0; t < assigned.length; t++) {
+            augment(t);
+        }
+        return assigned;
+    }
+
+    /**
+     * Gets the number of arcs relaxed and ticket moves priced so far
+     */
+    long examined() {
+        return examined;
+    }
+
+    /**
+     * Gets the total cost of an assignment, including the load balancing cost
+     */
+    static double totalCost(double[] cost, int developers, double[] slots, double balanceWeight,
+            double overloadPenalty, int[] assignment) {
+        int[] load = new int[developers];
+        double total = 0.0;
+        for (int t = 0; t < assignment.length; t++) {
+            int d = assignment[t];
+            load[d]++;
+            total += cost[t * developers + d] + marginal(slots[d], load[d], balanceWeight, overloadPenalty);
+        }
+        return total;
+    }
+
+    private static double marginal(double slots, int k, double balanceWeight, double overloadPenalty) {
+        double capacity = Math.max(slots, 1e-9);
+        double marginal = balanceWeight * (k - 0.5) / capacity;
+        return k > slots ? marginal + overloadPenalty : marginal;
+    }
+
+    /**
+     * Adds one ticket along the shortest path from it to the sink, moving other tickets
+     * between developers where that is cheaper than giving it a developer directly
+     */
+    private void augment(int ticket) {
+        int sink = developers;
+        int row = ticket * developers;
+        for (int d = 0; d < developers; d++) {
+            dist[d] = cost[row + d] - potential[d];
+            prev[d] = -1;
+            done[d] = false;
+        }
+        dist[sink] = INF;
+        prev[sink] = -1;
+        done[sink] = false;
+
+        while (true) {
+            int a = -1;
+            double best = dist[sink];
+            for (int d = 0; d < developers; d++) {
+                if (!done[d] && dist[d] < best) {
+                    best = dist[d];
+                    a = d;
+                }
+            }
+            if (a < 0) {
+                break; // The sink is the closest node left
+            }
+            done[a] = true;
+            double toSink = dist[a] + marginal(slots[a], count[a] + 1, balanceWeight, overloadPenalty)
+                    + potential[a] - potential[sink];
+            if (toSink < dist[sink]) {
+                dist[sink] = toSink;
+                prev[sink] = a;
+            }
+            if (count[a] == 0) {
+                continue;
+            }
+            int base = a * developers;
+            examined += developers;
+            for (int b = 0; b < developers; b++) {
+                if (done[b] || exchange[base + b] == INF) {
+                    continue;
+                }
+                double candidate = dist[a] + exchange[base + b] + potential[a] - potential[b];
+                if (candidate < dist[b]) {
+                    dist[b] = candidate;
+                    prev[b] = a;
+                    via[b] = exchangeTicket[base + b];
+                }
+            }
+        }
+
+        double reach = dist[sink];
+        for (int v = 0; v <= developers; v++) {
+            potential[v] += Math.min(dist[v], reach);
+        }
+
+        // Walk back from the sink: each hop hands one ticket to the next developer
+        int d = prev[sink];
+        while (prev[d] >= 0) {
+            int from = prev[d];
+            move(via[d], from, d);
+            touched[from] = true;
+            touched[d] = true;
+            d = from;
+        }
+        add(ticket, d);
+        touched[d] = true;
+
+        for (int v = 0; v < developers; v++) {
+            if (touched[v]) {
+                refreshExchanges(v);
+                touched[v] = false;
+            }
+        }
+    }
+
+    private void move(int ticket, int from, int to) {
+        int last = members[from][--count[from]];
+        int index = position[ticket];
+        members[from][index] = last;
+        position[last] = index;
+        add(ticket, to);
+    }
+
+    private void add(int ticket, int developer) {
+        if (count[developer] == members[developer].length) {
+            members[developer] = Arrays.copyOf(members[developer], members[developer].length * 2);
+        }
+        position[ticket] = count[developer];
+        members[developer][count[developer]++] = ticket;
+        assigned[ticket] = developer;
+    }
+
+    /**
+     * Recomputes the cheapest ticket move from a developer to every other developer
+     */
+    private void refreshExchanges(int from) {
+        int base = from * developers;
+        Arrays.fill(exchange, base, base + developers, INF);
+        int[] own = members[from];
+        examined += (long) count[from] * developers;
+        for (int i = 0; i < count[from]; i++) {
+            int row = own[i] * developers;
+            double current = cost[row + from];
+            for (int b = 0; b < developers; b++) {
+                double delta = cost[row + b] - current;
+                if (b != from && delta < exchange[base + b]) {
+                    exchange[base + b] = delta;
+                    exchangeTicket[base + b] = own[i];
+                }
+            }
+        }
+    }
+}
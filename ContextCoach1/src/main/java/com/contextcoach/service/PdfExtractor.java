@@ -0,0 +1,136 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Extracts text from PDF files. The upload is spooled to a temporary file and loaded with
+ * temp-file backed buffers, and page ranges are stripped in parallel on the document part
+ * executor, each worker with its own document and stripper. Documents over the page cap
+ * are rejected, and workers stop once the time budget is used up or the extraction is
+ * interrupted. Each page ends with a form feed.
+ */
+@Component
+@Order(100)
+public class PdfExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfExtractor.class);
+
+    // The PDF header may follow up to 1 KB of leading garbage
+    private static final int SIGNATURE_WINDOW = 1024;
+
+    private final Executor extractionExecutor;
+    private final int maxPdfPages;
+    private final int pdfPagesPerTask;
+    private final Duration pdfTimeBudget;
+
+    public PdfExtractor(
+            @Qualifier("extractionExecutor") Executor extractionExecutor,
+            @Value("${contextcoach.extraction.pdf.max-pages:2000}") int maxPdfPages,
+            @Value("${contextcoach.extraction.pdf.pages-per-task:16}") int pdfPagesPerTask,
+            @Value("${contextcoach.extraction.pdf.time-budget:60s}") Duration pdfTimeBudget) {
+        this.extractionExecutor = extractionExecutor;
+        this.maxPdfPages = maxPdfPages;
+        this.pdfPagesPerTask = Math.max(1, pdfPagesPerTask);
+        this.pdfTimeBudget = pdfTimeBudget;
+    }
+
+    @Override
+    public String getFormat() {
+        return "PDF";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.HEAVY;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        return probe.hasSignatureWithin("%PDF-", SIGNATURE_WINDOW);
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("pdf") || probe.hasExtension("pdf");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from PDF file: {}", file.getOriginalFilename());
+        long deadline = System.nanoTime() + pdfTimeBudget.toNanos();
+        Path tempFile = ExtractionSupport.spoolToTempFile(file, ".pdf");
+        try {
+            int pageCount;
+            try (PDDocument document = PDDocument.load(tempFile.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+                pageCount = document.getNumberOfPages();
+            }
+            if (pageCount > maxPdfPages) {
+                throw new IOException("PDF has " + pageCount + " pages, exceeding the limit of " + maxPdfPages);
+            }
+
+            List<Callable<String>> ranges = new ArrayList<>();
+            for (int firstPage = 1; firstPage <= pageCount; firstPage += pdfPagesPerTask) {
+                int startPage = firstPage;
+                int endPage = Math.min(pageCount, firstPage + pdfPagesPerTask - 1);
+                ranges.add(() -> extractPages(tempFile, startPage, endPage, deadline));
+            }
+            logger.debug("PDF has {} pages split into {} ranges", pageCount, ranges.size());
+            // Returns only after every range has finished, so the temporary file can be deleted
+            StringBuilder textBuilder = new StringBuilder();
+            for (String range : DocumentParts.runAll(ranges, extractionExecutor)) {
+                textBuilder.append(range);
+            }
+            String text = textBuilder.toString();
+            logger.debug("Successfully extracted {} characters from PDF", text.length());
+            return text;
+        } catch (IOException e) {
+            logger.error("Error extracting text from PDF file: {}", file.getOriginalFilename(), e);
+            throw e;
+        } finally {
+            ExtractionSupport.deleteTempFile(file, tempFile);
+        }
+    }
+
+    /**
+     * Strips the text of an inclusive, 1-based page range of a spooled PDF
+     */
+    private String extractPages(Path pdfFile, int startPage, int endPage, long deadline) throws IOException {
+        try (PDDocument document = PDDocument.load(pdfFile.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            // Page breaks let the text normalizer find running headers and footers
+            stripper.setPageEnd(String.valueOf(TextNormalizer.PAGE_BREAK));
+            StringWriter writer = new StringWriter();
+            for (int page = startPage; page <= endPage; page++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("PDF extraction was interrupted");
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IOException("PDF extraction exceeded the time budget of " + pdfTimeBudget.toMillis() + " ms");
+                }
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                stripper.writeText(document, writer);
+            }
+            return writer.toString();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Reads plain text uploads as UTF-8. It is tried last, so any text based format with its
+ * own extractor takes precedence.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class PlainTextExtractor implements Extractor {
+
+    @Override
+    public String getFormat() {
+        return "TEXT";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.CHEAP;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        return false;
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("text") || probe.hasExtension("txt");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        return ExtractionSupport.readText(file);
+    }
+}
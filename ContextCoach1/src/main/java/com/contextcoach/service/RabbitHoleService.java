@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.contextcoach.exception.ServiceException;
+import com.contextcoach.exception.ServiceUnavailableException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -33,6 +36,7 @@ public class RabbitHoleService {
     
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final AsyncLlmClient asyncLlmClient;
     private final String apiKey;
     private final String model;
     private final String apiUrl = "https://api.rabbithole.cred.club/v1/chat/completions";
@@ -42,9 +46,11 @@ public class RabbitHoleService {
 
     public RabbitHoleService(
             @Value("${rabbithole.api.key}") String apiKey,
-            @Value("${rabbithole.model}") String model) {
+            @Value("${rabbithole.model}") String model,
+            AsyncLlmClient asyncLlmClient) {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.asyncLlmClient = asyncLlmClient;
         this.apiKey = apiKey;
         this.model = model;
         logger.info("RabbitHoleService initialized with model: {}", model);
@@ -68,42 +74,11 @@ public class RabbitHoleService {
      */
     public Map<String, Object> detectAmbiguities(String requirementText) {
         logger.info("Detecting ambiguities in requirement text");
-        if (requirementText == null || requirementText.trim().isEmpty()) {
-            logger.error("Requirement text is null or empty");
-            throw new ServiceException("Requirement text cannot be null or empty", HttpStatus.BAD_REQUEST);
-        }
+        validateRequirementText(requirementText);
         
         try {
-            String prompt = "Analyze the following software requirement for ambiguities, vagueness, or unclear specifications:\n\n" +
-                    requirementText + "\n\n" +
-                    "Provide a detailed analysis in JSON format with the following structure:\n" +
-                    "{\n" +
-                    "  \"ambiguityCategories\": [list of ambiguity types found],\n" +
-                    "  \"analysis\": \"detailed explanation of ambiguities\",\n" +
-                    "  \"confidenceScore\": numeric value between 0 and 1,\n" +
-                    "  \"suggestedImprovements\": \"specific suggestions to improve clarity\"\n" +
-                    "}";
-
             logger.debug("Sending ambiguity detection prompt to RabbitHole API");
-            String response = callRabbitHoleAPI(prompt);
-            
-            try {
-                // Try to parse the response as JSON
-                Map<String, Object> result = objectMapper.readValue(response, 
-                                             new TypeReference<Map<String, Object>>() {});
-                logger.info("Successfully detected ambiguities in requirement text");
-                return result;
-            } catch (JsonProcessingException e) {
-                logger.warn("Failed to parse RabbitHole API response as JSON: {}", e.getMessage());
-                // If parsing fails, return a mock result
-                Map<String, Object> result = new HashMap<>();
-                result.put("ambiguityCategories", List.of("Vague terms", "Missing constraints"));
-                result.put("analysis", "The requirement contains vague terms and lacks specific constraints.");
-                result.put("confidenceScore", 0.85);
-                result.put("suggestedImprovements", "Add specific metrics and constraints to clarify the requirement.");
-                logger.info("Returning fallback ambiguity detection result");
-                return result;
-            }
+            return parseAmbiguities(callRabbitHoleAPI(ambiguityPrompt(requirementText)));
         } catch (Exception e) {
             logger.error("Error detecting ambiguities in requirement text", e);
             throw new ServiceException("Error detecting ambiguities: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -119,44 +94,11 @@ public class RabbitHoleService {
      */
     public Map<String, Object> estimateScope(String requirementText) {
         logger.info("Estimating scope for requirement text");
-        if (requirementText == null || requirementText.trim().isEmpty()) {
-            logger.error("Requirement text is null or empty");
-            throw new ServiceException("Requirement text cannot be null or empty", HttpStatus.BAD_REQUEST);
-        }
+        validateRequirementText(requirementText);
         
         try {
-            String prompt = "Analyze the following software requirement and provide a detailed scope estimation:\n\n" +
-                    requirementText + "\n\n" +
-                    "Respond in JSON format with the following structure:\n" +
-                    "{\n" +
-                    "  \"estimatedHours\": numeric estimate of hours required,\n" +
-                    "  \"complexityLevel\": \"Low\", \"Medium\", or \"High\",\n" +
-                    "  \"confidenceLevel\": numeric value between 0 and 1,\n" +
-                    "  \"justification\": \"detailed explanation of the estimation\",\n" +
-                    "  \"riskFactors\": \"potential risks that could affect the estimate\"\n" +
-                    "}";
-
             logger.debug("Sending scope estimation prompt to RabbitHole API");
-            String response = callRabbitHoleAPI(prompt);
-            
-            try {
-                // Try to parse the response as JSON
-                Map<String, Object> result = objectMapper.readValue(response, 
-                                             new TypeReference<Map<String, Object>>() {});
-                logger.info("Successfully estimated scope for requirement text");
-                return result;
-            } catch (JsonProcessingException e) {
-                logger.warn("Failed to parse RabbitHole API response as JSON: {}", e.getMessage());
-                // If parsing fails, return a mock result
-                Map<String, Object> result = new HashMap<>();
-                result.put("estimatedHours", 24.0);
-                result.put("complexityLevel", "Medium");
-                result.put("confidenceLevel", 0.75);
-                result.put("justification", "The requirement involves moderate complexity and requires integration with existing systems.");
-                result.put("riskFactors", "Potential integration issues, unclear performance requirements.");
-                logger.info("Returning fallback scope estimation result");
-                return result;
-            }
+            return parseScope(callRabbitHoleAPI(scopePrompt(requirementText)));
         } catch (Exception e) {
             logger.error("Error estimating scope for requirement text", e);
             throw new ServiceException("Error estimating scope: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -172,60 +114,11 @@ public class RabbitHoleService {
      */
     public Map<String, Object> generateImplementationPlan(String requirementText) {
         logger.info("Generating implementation plan for requirement text");
-        if (requirementText == null || requirementText.trim().isEmpty()) {
-            logger.error("Requirement text is null or empty");
-            throw new ServiceException("Requirement text cannot be null or empty", HttpStatus.BAD_REQUEST);
-        }
+        validateRequirementText(requirementText);
         
         try {
-            String prompt = "Create a detailed implementation plan for the following software requirement:\n\n" +
-                    requirementText + "\n\n" +
-                    "Respond in JSON format with the following structure:\n" +
-                    "{\n" +
-                    "  \"summary\": \"brief summary of the implementation approach\",\n" +
-                    "  \"implementationSteps\": [ordered list of implementation steps],\n" +
-                    "  \"technicalApproach\": \"detailed technical approach\",\n" +
-                    "  \"dependencies\": \"required dependencies and prerequisites\"\n" +
-                    "}";
-
             logger.debug("Sending implementation plan prompt to RabbitHole API");
-            String response = callRabbitHoleAPI(prompt);
-            
-            try {
-                // Try to parse the response as JSON
-                Map<String, Object> parsedResponse = objectMapper.readValue(response, 
-                                                    new TypeReference<Map<String, Object>>() {});
-                
-                // Ensure implementationSteps is a List
-                if (!(parsedResponse.get("implementationSteps") instanceof List)) {
-                    logger.debug("Converting implementationSteps to a List");
-                    List<String> steps = new ArrayList<>();
-                    steps.add(parsedResponse.get("implementationSteps").toString());
-                    parsedResponse.put("implementationSteps", steps);
-                }
-                
-                logger.info("Successfully generated implementation plan for requirement text");
-                return parsedResponse;
-            } catch (JsonProcessingException e) {
-                logger.warn("Failed to parse RabbitHole API response as JSON: {}", e.getMessage());
-                // If parsing fails, return a mock result
-                Map<String, Object> result = new HashMap<>();
-                result.put("summary", "Implement a RESTful API with database integration");
-                
-                List<String> steps = new ArrayList<>();
-                steps.add("Design database schema");
-                steps.add("Create API endpoints");
-                steps.add("Implement business logic");
-                steps.add("Write unit tests");
-                steps.add("Perform integration testing");
-                result.put("implementationSteps", steps);
-                
-                result.put("technicalApproach", "Use Spring Boot for the backend, with JPA for database access");
-                result.put("dependencies", "Spring Boot, Spring Data JPA, H2 Database");
-                
-                logger.info("Returning fallback implementation plan result");
-                return result;
-            }
+            return parseImplementationPlan(callRabbitHoleAPI(implementationPlanPrompt(requirementText)));
         } catch (Exception e) {
             logger.error("Error generating implementation plan for requirement text", e);
             throw new ServiceException("Error generating implementation plan: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -244,10 +137,7 @@ public class RabbitHoleService {
     public Map<String, Object> calculateStoryPoints(String requirementText, Double repositoryComplexity, 
             com.contextcoach.model.DeveloperProfile developerProfile) {
         logger.info("Calculating story points for requirement text");
-        if (requirementText == null || requirementText.trim().isEmpty()) {
-            logger.error("Requirement text is null or empty");
-            throw new ServiceException("Requirement text cannot be null or empty", HttpStatus.BAD_REQUEST);
-        }
+        validateRequirementText(requirementText);
         
         try {
             StringBuilder promptBuilder = new StringBuilder("Analyze the following software requirement and calculate appropriate story points:\n\n")
@@ -414,6 +304,188 @@ public class RabbitHoleService {
         }
     }
 
+    /**
+     * Detects ambiguities in a requirement text without blocking a thread while the LLM answers
+     * 
+     * @param requirementText The requirement text to analyze
+     * @return A future with a map containing the analysis results
+     * @throws ServiceException if the requirement text is empty
+     */
+    public CompletableFuture<Map<String, Object>> detectAmbiguitiesAsync(String requirementText) {
+        logger.info("Detecting ambiguities in requirement text asynchronously");
+        validateRequirementText(requirementText);
+        return callRabbitHoleAPIAsync(ambiguityPrompt(requirementText)).thenApply(this::parseAmbiguities);
+    }
+
+    /**
+     * Estimates the scope of a requirement without blocking a thread while the LLM answers
+     * 
+     * @param requirementText The requirement text to analyze
+     * @return A future with a map containing the scope estimation results
+     * @throws ServiceException if the requirement text is empty
+     */
+    public CompletableFuture<Map<String, Object>> estimateScopeAsync(String requirementText) {
+        logger.info("Estimating scope for requirement text asynchronously");
+        validateRequirementText(requirementText);
+        return callRabbitHoleAPIAsync(scopePrompt(requirementText)).thenApply(this::parseScope);
+    }
+
+    /**
+     * Generates an implementation plan without blocking a thread while the LLM answers
+     * 
+     * @param requirementText The requirement text to analyze
+     * @return A future with a map containing the implementation plan
+     * @throws ServiceException if the requirement text is empty
+     */
+    public CompletableFuture<Map<String, Object>> generateImplementationPlanAsync(String requirementText) {
+        logger.info("Generating implementation plan for requirement text asynchronously");
+        validateRequirementText(requirementText);
+        return callRabbitHoleAPIAsync(implementationPlanPrompt(requirementText)).thenApply(this::parseImplementationPlan);
+    }
+
+    private static void validateRequirementText(String requirementText) {
+        if (requirementText == null || requirementText.trim().isEmpty()) {
+            logger.error("Requirement text is null or empty");
+            throw new ServiceException("Requirement text cannot be null or empty", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static String ambiguityPrompt(String requirementText) {
+        return "Analyze the following software requirement for ambiguities, vagueness, or unclear specifications:\n\n" +
+                requirementText + "\n\n" +
+                "Provide a detailed analysis in JSON format with the following structure:\n" +
+                "{\n" +
+                "  \"ambiguityCategories\": [list of ambiguity types found],\n" +
+                "  \"analysis\": \"detailed explanation of ambiguities\",\n" +
+                "  \"confidenceScore\": numeric value between 0 and 1,\n" +
+                "  \"suggestedImprovements\": \"specific suggestions to improve clarity\"\n" +
+                "}";
+    }
+
+    private Map<String, Object> parseAmbiguities(String response) {
+        try {
+            // Try to parse the response as JSON
+            Map<String, Object> result = objectMapper.readValue(response, 
+                                         new TypeReference<Map<String, Object>>() {});
+            logger.info("Successfully detected ambiguities in requirement text");
+            return result;
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to parse RabbitHole API response as JSON: {}", e.getMessage());
+            // If parsing fails, return a mock result
+            Map<String, Object> result = new HashMap<>();
+            result.put("ambiguityCategories", List.of("Vague terms", "Missing constraints"));
+            result.put("analysis", "The requirement contains vague terms and lacks specific constraints.");
+            result.put("confidenceScore", 0.85);
+            result.put("suggestedImprovements", "Add specific metrics and constraints to clarify the requirement.");
+            logger.info("Returning fallback ambiguity detection result");
+            return result;
+        }
+    }
+
+    private static String scopePrompt(String requirementText) {
+        return "Analyze the following software requirement and provide a detailed scope estimation:\n\n" +
+                requirementText + "\n\n" +
+                "Respond in JSON format with the following structure:\n" +
+                "{\n" +
+                "  \"estimatedHours\": numeric estimate of hours required,\n" +
+                "  \"complexityLevel\": \"Low\", \"Medium\", or \"High\",\n" +
+                "  \"confidenceLevel\": numeric value between 0 and 1,\n" +
+                "  \"justification\": \"detailed explanation of the estimation\",\n" +
+                "  \"riskFactors\": \"potential risks that could affect the estimate\"\n" +
+                "}";
+    }
+
+    private Map<String, Object> parseScope(String response) {
+        try {
+            // Try to parse the response as JSON
+            Map<String, Object> result = objectMapper.readValue(response, 
+                                         new TypeReference<Map<String, Object>>() {});
+            logger.info("Successfully estimated scope for requirement text");
+            return result;
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to parse RabbitHole API response as JSON: {}", e.getMessage());
+            // If parsing fails, return a mock result
+            Map<String, Object> result = new HashMap<>();
+            result.put("estimatedHours", 24.0);
+            result.put("complexityLevel", "Medium");
+            result.put("confidenceLevel", 0.75);
+            result.put("justification", "The requirement involves moderate complexity and requires integration with existing systems.");
+            result.put("riskFactors", "Potential integration issues, unclear performance requirements.");
+            logger.info("Returning fallback scope estimation result");
+            return result;
+        }
+    }
+
+    private static String implementationPlanPrompt(String requirementText) {
+        return "Create a detailed implementation plan for the following software requirement:\n\n" +
+                requirementText + "\n\n" +
+                "Respond in JSON format with the following structure:\n" +
+                "{\n" +
+                "  \"summary\": \"brief summary of the implementation approach\",\n" +
+                "  \"implementationSteps\": [ordered list of implementation steps],\n" +
+                "  \"technicalApproach\": \"detailed technical approach\",\n" +
+                "  \"dependencies\": \"required dependencies and prerequisites\"\n" +
+                "}";
+    }
+
+    private Map<String, Object> parseImplementationPlan(String response) {
+        try {
+            // Try to parse the response as JSON
+            Map<String, Object> parsedResponse = objectMapper.readValue(response, 
+                                                new TypeReference<Map<String, Object>>() {});
+            
+            // Ensure implementationSteps is a List
+            if (!(parsedResponse.get("implementationSteps") instanceof List)) {
+                logger.debug("Converting implementationSteps to a List");
+                List<String> steps = new ArrayList<>();
+                steps.add(parsedResponse.get("implementationSteps").toString());
+                parsedResponse.put("implementationSteps", steps);
+            }
+            
+            logger.info("Successfully generated implementation plan for requirement text");
+            return parsedResponse;
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to parse RabbitHole API response as JSON: {}", e.getMessage());
+            // If parsing fails, return a mock result
+            Map<String, Object> result = new HashMap<>();
+            result.put("summary", "Implement a RESTful API with database integration");
+            
+            List<String> steps = new ArrayList<>();
+            steps.add("Design database schema");
+            steps.add("Create API endpoints");
+            steps.add("Implement business logic");
+            steps.add("Write unit tests");
+            steps.add("Perform integration testing");
+            result.put("implementationSteps", steps);
+            
+            result.put("technicalApproach", "Use Spring Boot for the backend, with JPA for database access");
+            result.put("dependencies", "Spring Boot, Spring Data JPA, H2 Database");
+            
+            logger.info("Returning fallback implementation plan result");
+            return result;
+        }
+    }
+
+    /**
+     * Calls the RabbitHole API through the non-blocking client. Like the blocking call, a
+     * failed call yields an error text that the parsers answer with a fallback result,
+     * except that a rejection because too many calls are in flight is passed on as a 503.
+     * 
+     * @param prompt The prompt to send to the API
+     * @return A future with the response from the API
+     */
+    private CompletableFuture<String> callRabbitHoleAPIAsync(String prompt) {
+        logger.debug("Calling RabbitHole API asynchronously with model: {}", model);
+        return asyncLlmClient.complete(prompt).exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof ServiceUnavailableException) {
+                throw (ServiceUnavailableException) cause;
+            }
+            logger.error("Error calling RabbitHole API: {}", cause.getMessage(), cause);
+            return "Error: " + cause.getMessage();
+        });
+    }
+
     /**
      * Calls the RabbitHole API with a prompt
      * 
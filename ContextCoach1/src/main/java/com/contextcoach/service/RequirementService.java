@@ -1,24 +1,47 @@
 package com.contextcoach.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.contextcoach.exception.PayloadTooLargeException;
 import com.contextcoach.exception.ResourceNotFoundException;
 import com.contextcoach.exception.ServiceException;
+import com.contextcoach.exception.ServiceUnavailableException;
 import com.contextcoach.model.AmbiguityDetectionResult;
+import com.contextcoach.model.ExtractedDocument;
 import com.contextcoach.model.ImplementationPlan;
+import com.contextcoach.model.NormalizationStats;
+import com.contextcoach.model.PreScreenResult;
 import com.contextcoach.model.Requirement;
+import com.contextcoach.model.RequirementPatch;
+import com.contextcoach.model.RequirementSummary;
 import com.contextcoach.model.ScopeEstimationResult;
 import com.contextcoach.repository.AmbiguityDetectionResultRepository;
-import com.contextcoach.repository.DeveloperProfileRepository;
 import com.contextcoach.repository.ImplementationPlanRepository;
 import com.contextcoach.repository.RequirementRepository;
 import com.contextcoach.repository.ScopeEstimationResultRepository;
@@ -32,51 +55,105 @@ public class RequirementService {
     private final AmbiguityDetectionResultRepository ambiguityResultRepository;
     private final ScopeEstimationResultRepository scopeResultRepository;
     private final ImplementationPlanRepository implementationPlanRepository;
-    private final DeveloperProfileRepository developerProfileRepository;
-    private final FileService fileService;
+    private final DeveloperProfileCache developerProfileCache;
+    private final UploadExtractionService uploadExtractionService;
     private final RabbitHoleService rabbitHoleService;
+    private final RequirementSummaryService requirementSummaryService;
+    private final ClarityScorer clarityScorer;
+    private final AmbiguityPreScreenService ambiguityPreScreenService;
+    private final StreamingUploadService streamingUploadService;
+    private final TextNormalizer textNormalizer;
+    private final MongoTemplate mongoTemplate;
+    private final Executor llmCallbackExecutor;
+    private final long llmRetryAfterSeconds;
+    private final long maxUploadBytes;
 
     public RequirementService(
             RequirementRepository requirementRepository,
             AmbiguityDetectionResultRepository ambiguityResultRepository,
             ScopeEstimationResultRepository scopeResultRepository,
             ImplementationPlanRepository implementationPlanRepository,
-            DeveloperProfileRepository developerProfileRepository,
-            FileService fileService,
-            RabbitHoleService rabbitHoleService) {
+            DeveloperProfileCache developerProfileCache,
+            UploadExtractionService uploadExtractionService,
+            RabbitHoleService rabbitHoleService,
+            RequirementSummaryService requirementSummaryService,
+            ClarityScorer clarityScorer,
+            AmbiguityPreScreenService ambiguityPreScreenService,
+            StreamingUploadService streamingUploadService,
+            TextNormalizer textNormalizer,
+            MongoTemplate mongoTemplate,
+            @Qualifier("llmCallbackExecutor") Executor llmCallbackExecutor,
+            @Value("${contextcoach.llm.retry-after:5s}") Duration llmRetryAfter,
+            @Value("${contextcoach.upload.max-file-size:10MB}") DataSize maxUploadSize) {
         this.requirementRepository = requirementRepository;
         this.ambiguityResultRepository = ambiguityResultRepository;
         this.scopeResultRepository = scopeResultRepository;
         this.implementationPlanRepository = implementationPlanRepository;
-        this.developerProfileRepository = developerProfileRepository;
-        this.fileService = fileService;
+        this.developerProfileCache = developerProfileCache;
+        this.uploadExtractionService = uploadExtractionService;
         this.rabbitHoleService = rabbitHoleService;
+        this.requirementSummaryService = requirementSummaryService;
+        this.clarityScorer = clarityScorer;
+        this.ambiguityPreScreenService = ambiguityPreScreenService;
+        this.streamingUploadService = streamingUploadService;
+        this.textNormalizer = textNormalizer;
+        this.mongoTemplate = mongoTemplate;
+        this.llmCallbackExecutor = llmCallbackExecutor;
+        this.llmRetryAfterSeconds = Math.max(1, llmRetryAfter.toSeconds());
+        this.maxUploadBytes = maxUploadSize.toBytes();
     }
 
     /**
-     * Creates a new requirement from a file
+     * Creates a new requirement from a file. Heavy formats are extracted on the bounded
+     * extraction executor, and the extracted text is normalized before it is stored as the
+     * content, with the raw text kept alongside it. The file is hashed once, and the hash
+     * both keys the extraction cache and rejects content that was already ingested.
      * 
      * @param file The uploaded file
      * @param title The title of the requirement
      * @return The created requirement
      * @throws IOException If there's an error reading the file
+     * @throws com.contextcoach.exception.ServiceUnavailableException If too many uploads are being extracted
+     * @throws PayloadTooLargeException If the file exceeds the maximum upload size
+     * @throws ServiceException If the same content was already ingested
      */
     public Requirement createRequirementFromFile(MultipartFile file, String title) throws IOException {
         logger.info("Creating requirement from file: {}", file.getOriginalFilename());
+        if (file.getSize() > maxUploadBytes) {
+            // The multipart limit is sized for bulk archives, single files are held to this one
+            logger.warn("File {} exceeds the maximum upload size of {} bytes", file.getOriginalFilename(), maxUploadBytes);
+            throw new PayloadTooLargeException("File exceeds the maximum upload size of " + maxUploadBytes
+                    + " bytes, use the streaming upload for larger files");
+        }
         try {
-            String content = fileService.extractTextFromFile(file);
+            String contentHash;
+            try (InputStream inputStream = file.getInputStream()) {
+                contentHash = FileService.computeContentHash(inputStream);
+            }
+            ExtractedDocument document = uploadExtractionService.extractDocument(file, contentHash);
+            TextNormalizer.Result normalized = textNormalizer.normalize(document.getText());
+            String content = normalized.getText();
             String fileName = file.getOriginalFilename();
             String fileType = file.getContentType();
-            String sourceType = determineSourceType(fileName, fileType);
 
             Requirement requirement = new Requirement();
             requirement.setTitle(title);
             requirement.setContent(content);
+            requirement.setRawContent(document.getText());
+            requirement.setNormalizationStats(normalized.getStats());
             requirement.setFileName(fileName);
             requirement.setFileType(fileType);
-            requirement.setSourceType(sourceType);
+            requirement.setSourceType(document.getFormat());
+            requirement.setContentHash(contentHash);
+            requirement.setClarityScore(clarityScorer.score(content));
 
-            Requirement savedRequirement = requirementRepository.save(requirement);
+            Requirement savedRequirement;
+            try {
+                savedRequirement = requirementRepository.save(requirement);
+            } catch (DuplicateKeyException e) {
+                throw duplicateContent(fileName, contentHash);
+            }
+            requirementSummaryService.recordRequirement(savedRequirement);
             logger.info("Successfully created requirement with ID: {}", savedRequirement.getId());
             return savedRequirement;
         } catch (IOException e) {
@@ -88,6 +165,64 @@ public class RequirementService {
         }
     }
 
+    /**
+     * Creates a new requirement from a raw upload body. The body is streamed to a spool
+     * file while it is hashed, and extraction reads the spooled file, so large documents
+     * are never held in memory as a whole. Like file uploads, heavy formats are
+     * extracted on the bounded extraction executor.
+     * 
+     * @param body The raw file content
+     * @param fileName The original file name
+     * @param contentType The content type of the file
+     * @param title The title of the requirement
+     * @return The created requirement
+     * @throws IOException If there's an error reading or extracting the file
+     * @throws ServiceException If the same content was already ingested
+     */
+    public Requirement createRequirementFromStream(InputStream body, String fileName, String contentType, String title)
+            throws IOException {
+        logger.info("Creating requirement from streamed file: {}", fileName);
+        try (SpooledMultipartFile file = streamingUploadService.spool(body, fileName, contentType)) {
+            ExtractedDocument document = uploadExtractionService.extractDocument(file, file.getContentHash());
+            TextNormalizer.Result normalized = textNormalizer.normalize(document.getText());
+            String content = normalized.getText();
+
+            Requirement requirement = new Requirement();
+            requirement.setTitle(title);
+            requirement.setContent(content);
+            requirement.setRawContent(document.getText());
+            requirement.setNormalizationStats(normalized.getStats());
+            requirement.setFileName(fileName);
+            requirement.setFileType(contentType);
+            requirement.setSourceType(document.getFormat());
+            requirement.setContentHash(file.getContentHash());
+            requirement.setClarityScore(clarityScorer.score(content));
+
+            Requirement savedRequirement;
+            try {
+                savedRequirement = requirementRepository.save(requirement);
+            } catch (DuplicateKeyException e) {
+                throw duplicateContent(fileName, file.getContentHash());
+            }
+            requirementSummaryService.recordRequirement(savedRequirement);
+            logger.info("Successfully created requirement with ID: {}", savedRequirement.getId());
+            return savedRequirement;
+        } catch (IOException e) {
+            logger.error("Error extracting text from streamed file: {}", fileName, e);
+            throw e;
+        }
+    }
+
+    private ServiceException duplicateContent(String fileName, String contentHash) {
+        Query query = new Query(Criteria.where("contentHash").is(contentHash));
+        query.fields().include("_id");
+        Requirement existing = mongoTemplate.findOne(query, Requirement.class);
+        String existingId = existing != null ? existing.getId() : "unknown";
+        logger.warn("Content of {} was already ingested as requirement {}", fileName, existingId);
+        return new ServiceException("The content of " + fileName + " was already ingested as requirement " + existingId,
+                HttpStatus.CONFLICT);
+    }
+
     /**
      * Creates a new requirement from text
      * 
@@ -102,8 +237,10 @@ public class RequirementService {
             requirement.setTitle(title);
             requirement.setContent(content);
             requirement.setSourceType("TEXT");
+            requirement.setClarityScore(clarityScorer.score(content));
 
             Requirement savedRequirement = requirementRepository.save(requirement);
+            requirementSummaryService.recordRequirement(savedRequirement);
             logger.info("Successfully created requirement with ID: {}", savedRequirement.getId());
             return savedRequirement;
         } catch (Exception e) {
@@ -151,6 +288,71 @@ public class RequirementService {
         }
     }
 
+    /**
+     * Partially updates a requirement with one atomic update. New content is normalized
+     * like extracted text and scored for clarity again, and the normalized content, the
+     * raw content, their statistics and the score are set together.
+     * 
+     * @param id The ID of the requirement to update
+     * @param patch The fields to change, and optionally the version they were read at
+     * @return The updated requirement
+     * @throws IllegalArgumentException if the patch is empty or a field is blank
+     * @throws ResourceNotFoundException if the requirement is not found
+     * @throws ServiceException if the requirement has another version, or there's an error updating it
+     */
+    public Requirement patchRequirement(String id, RequirementPatch patch) {
+        logger.info("Patching requirement with ID: {}", id);
+        try {
+            if (id == null || patch == null) {
+                logger.error("Requirement ID and patch cannot be null");
+                throw new IllegalArgumentException("Requirement ID and patch cannot be null");
+            }
+
+            Update update = new Update();
+            if (patch.getTitle() != null) {
+                if (patch.getTitle().trim().isEmpty()) {
+                    logger.error("Requirement title cannot be empty");
+                    throw new IllegalArgumentException("Requirement title cannot be empty");
+                }
+                update.set("title", patch.getTitle());
+            }
+            if (patch.getContent() != null) {
+                if (patch.getContent().trim().isEmpty()) {
+                    logger.error("Requirement content cannot be empty");
+                    throw new IllegalArgumentException("Requirement content cannot be empty");
+                }
+                TextNormalizer.Result normalized = textNormalizer.normalize(patch.getContent());
+                String content = normalized.getText();
+                if (content == null || content.trim().isEmpty()) {
+                    logger.error("Requirement content is empty after normalization");
+                    throw new IllegalArgumentException("Requirement content cannot be empty");
+                }
+                update.set("content", content)
+                        .set("rawContent", patch.getContent())
+                        .set("normalizationStats", normalized.getStats())
+                        .set("clarityScore", clarityScorer.score(content));
+            }
+            if (update.getUpdateObject().isEmpty()) {
+                logger.error("Requirement patch has no fields to change");
+                throw new IllegalArgumentException("Requirement patch has no fields to change");
+            }
+            update.set("updatedAt", LocalDateTime.now());
+
+            Requirement patchedRequirement = AtomicPatch.apply(mongoTemplate, id, patch.getVersion(), update, true,
+                    Requirement.class, "Requirement");
+            if (patch.getTitle() != null) {
+                requirementSummaryService.recordRequirement(patchedRequirement);
+            }
+            logger.info("Successfully patched requirement with ID: {} to version {}", id, patchedRequirement.getVersion());
+            return patchedRequirement;
+        } catch (ResourceNotFoundException | IllegalArgumentException | ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error patching requirement with ID: {}", id, e);
+            throw new ServiceException("Error patching requirement: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Analyzes a requirement for ambiguities
      * 
@@ -159,6 +361,19 @@ public class RequirementService {
      * @throws ResourceNotFoundException if the requirement is not found
      */
     public AmbiguityDetectionResult analyzeRequirement(String requirementId) {
+        return analyzeRequirement(requirementId, false);
+    }
+
+    /**
+     * Analyzes a requirement for ambiguities. The text is pre-screened locally first and
+     * the LLM is only consulted when the pre-screen is inconclusive or forceLlm is set.
+     * 
+     * @param requirementId The ID of the requirement to analyze
+     * @param forceLlm Whether to always consult the LLM, ignoring a conclusive pre-screen
+     * @return The ambiguity detection result
+     * @throws ResourceNotFoundException if the requirement is not found
+     */
+    public AmbiguityDetectionResult analyzeRequirement(String requirementId, boolean forceLlm) {
         logger.info("Analyzing requirement with ID: {}", requirementId);
         try {
             Requirement requirement = requirementRepository.findById(requirementId)
@@ -167,21 +382,19 @@ public class RequirementService {
                         return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
                     });
 
-            logger.debug("Detecting ambiguities in requirement content");
-            Map<String, Object> analysisResult = rabbitHoleService.detectAmbiguities(requirement.getContent());
+            Optional<PreScreenResult> preScreen = conclusivePreScreen(requirement, forceLlm);
 
-            AmbiguityDetectionResult result = new AmbiguityDetectionResult();
-            result.setRequirement(requirement);
-            
-            @SuppressWarnings("unchecked")
-            List<String> categories = (List<String>) analysisResult.get("ambiguityCategories");
-            result.setAmbiguityCategories(categories);
-            
-            result.setAnalysis((String) analysisResult.get("analysis"));
-            result.setConfidenceScore((Double) analysisResult.get("confidenceScore"));
-            result.setSuggestedImprovements((String) analysisResult.get("suggestedImprovements"));
+            AmbiguityDetectionResult result;
+            if (preScreen.isPresent()) {
+                logger.debug("Pre-screen verdict {} is conclusive, skipping LLM ambiguity detection",
+                        preScreen.get().getVerdict());
+                result = buildPreScreenResult(preScreen.get());
+            } else {
+                logger.debug("Detecting ambiguities in requirement content");
+                result = buildLlmAmbiguityResult(rabbitHoleService.detectAmbiguities(requirement.getContent()));
+            }
 
-            AmbiguityDetectionResult savedResult = ambiguityResultRepository.save(result);
+            AmbiguityDetectionResult savedResult = saveAmbiguityResult(requirement, result);
             logger.info("Successfully analyzed requirement with ID: {}", requirementId);
             return savedResult;
         } catch (ResourceNotFoundException e) {
@@ -192,6 +405,186 @@ public class RequirementService {
         }
     }
 
+    /**
+     * Analyzes a requirement for ambiguities without holding a thread while the LLM
+     * answers. The result is saved on the LLM callback executor.
+     * 
+     * @param requirementId The ID of the requirement to analyze
+     * @param forceLlm Whether to always consult the LLM, ignoring a conclusive pre-screen
+     * @return A future with the ambiguity detection result
+     * @throws ResourceNotFoundException if the requirement is not found
+     */
+    public CompletableFuture<AmbiguityDetectionResult> analyzeRequirementAsync(String requirementId, boolean forceLlm) {
+        logger.info("Analyzing requirement with ID: {} asynchronously", requirementId);
+        Requirement requirement = requirementRepository.findById(requirementId)
+                .orElseThrow(() -> {
+                    logger.error("Requirement not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
+                });
+
+        Optional<PreScreenResult> preScreen = conclusivePreScreen(requirement, forceLlm);
+        if (preScreen.isPresent()) {
+            logger.debug("Pre-screen verdict {} is conclusive, skipping LLM ambiguity detection",
+                    preScreen.get().getVerdict());
+            return CompletableFuture.completedFuture(saveAmbiguityResult(requirement, buildPreScreenResult(preScreen.get())));
+        }
+        return saveWhenAnswered(rabbitHoleService.detectAmbiguitiesAsync(requirement.getContent()),
+                analysisResult -> saveAmbiguityResult(requirement, buildLlmAmbiguityResult(analysisResult)),
+                "Error analyzing requirement", requirementId);
+    }
+
+    /**
+     * Runs only the local ambiguity pre-screen on a requirement
+     * 
+     * @param requirementId The ID of the requirement to screen
+     * @return The pre-screen result with matched terms and offsets
+     * @throws ResourceNotFoundException if the requirement is not found
+     */
+    public PreScreenResult preScreenRequirement(String requirementId) {
+        logger.info("Pre-screening requirement with ID: {}", requirementId);
+        Requirement requirement = requirementRepository.findById(requirementId)
+                .orElseThrow(() -> {
+                    logger.error("Requirement not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
+                });
+        return ambiguityPreScreenService.screen(requirement.getContent());
+    }
+
+    /**
+     * Gets the size of a requirement's text before and after normalization
+     * 
+     * @param requirementId The ID of the requirement
+     * @return The normalization statistics; requirements that were not normalized report
+     *         their content as both the raw and the normalized text
+     * @throws ResourceNotFoundException if the requirement is not found
+     */
+    public NormalizationStats getNormalizationStats(String requirementId) {
+        logger.info("Getting normalization stats for requirement with ID: {}", requirementId);
+        Requirement requirement = requirementRepository.findById(requirementId)
+                .orElseThrow(() -> {
+                    logger.error("Requirement not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
+                });
+        if (requirement.getNormalizationStats() != null) {
+            return requirement.getNormalizationStats();
+        }
+        String content = requirement.getContent() == null ? "" : requirement.getContent();
+        int tokens = TextNormalizer.estimateTokens(content);
+        return new NormalizationStats(content.length(), content.length(), tokens, tokens, 0);
+    }
+
+    private Optional<PreScreenResult> conclusivePreScreen(Requirement requirement, boolean forceLlm) {
+        return forceLlm
+                ? Optional.empty()
+                : ambiguityPreScreenService.conclusiveResult(requirement.getContent());
+    }
+
+    private static AmbiguityDetectionResult buildLlmAmbiguityResult(Map<String, Object> analysisResult) {
+        AmbiguityDetectionResult result = new AmbiguityDetectionResult();
+        
+        @SuppressWarnings("unchecked")
+        List<String> categories = (List<String>) analysisResult.get("ambiguityCategories");
+        result.setAmbiguityCategories(categories);
+        
+        result.setAnalysis((String) analysisResult.get("analysis"));
+        result.setConfidenceScore((Double) analysisResult.get("confidenceScore"));
+        result.setSuggestedImprovements((String) analysisResult.get("suggestedImprovements"));
+        result.setAnalysisSource(AmbiguityDetectionResult.SOURCE_LLM);
+        return result;
+    }
+
+    private AmbiguityDetectionResult saveAmbiguityResult(Requirement requirement, AmbiguityDetectionResult result) {
+        result.setRequirement(requirement);
+        AmbiguityDetectionResult savedResult = ambiguityResultRepository.save(result);
+        requirementSummaryService.recordAmbiguityResult(savedResult);
+        return savedResult;
+    }
+
+    private ScopeEstimationResult saveScopeEstimation(Requirement requirement, Map<String, Object> estimationResult) {
+        ScopeEstimationResult result = new ScopeEstimationResult();
+        result.setRequirement(requirement);
+        result.setEstimatedHours((Double) estimationResult.get("estimatedHours"));
+        result.setComplexityLevel((String) estimationResult.get("complexityLevel"));
+        result.setConfidenceLevel((Double) estimationResult.get("confidenceLevel"));
+        result.setJustification((String) estimationResult.get("justification"));
+        result.setRiskFactors((String) estimationResult.get("riskFactors"));
+
+        ScopeEstimationResult savedResult = scopeResultRepository.save(result);
+        requirementSummaryService.recordScopeEstimation(savedResult);
+        return savedResult;
+    }
+
+    private ImplementationPlan saveImplementationPlan(Requirement requirement, Map<String, Object> planResult) {
+        ImplementationPlan plan = new ImplementationPlan();
+        plan.setRequirement(requirement);
+        plan.setSummary((String) planResult.get("summary"));
+        
+        @SuppressWarnings("unchecked")
+        List<String> steps = (List<String>) planResult.get("implementationSteps");
+        plan.setImplementationSteps(steps);
+        
+        plan.setTechnicalApproach((String) planResult.get("technicalApproach"));
+        plan.setDependencies((String) planResult.get("dependencies"));
+
+        ImplementationPlan savedPlan = implementationPlanRepository.save(plan);
+        requirementSummaryService.recordImplementationPlan(savedPlan);
+        return savedPlan;
+    }
+
+    /**
+     * Saves an LLM answer once it arrives. Saving blocks on MongoDB, so it runs on the
+     * callback executor rather than on the thread that completed the LLM call. When its
+     * queue is full the save is rejected and answered with 503, so it never falls back to
+     * an LLM IO thread. Other failures become a ServiceException; one that already is keeps
+     * its status, so a rejection because too many LLM calls are in flight still answers 503.
+     */
+    private <T> CompletableFuture<T> saveWhenAnswered(CompletableFuture<Map<String, Object>> llmResult,
+            Function<Map<String, Object>, T> save, String errorMessage, String requirementId) {
+        return llmResult.thenApplyAsync(save, llmCallbackExecutor).exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RejectedExecutionException) {
+                logger.warn("LLM result queue is full, rejecting result for requirement with ID: {}", requirementId);
+                throw new ServiceUnavailableException("Too many LLM results are being saved, please retry later",
+                        cause, llmRetryAfterSeconds);
+            }
+            logger.error("{} for requirement with ID: {}", errorMessage, requirementId, cause);
+            if (cause instanceof ServiceException) {
+                throw (ServiceException) cause;
+            }
+            throw new ServiceException(errorMessage + ": " + cause.getMessage(), cause, HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+    }
+
+    private AmbiguityDetectionResult buildPreScreenResult(PreScreenResult preScreen) {
+        AmbiguityDetectionResult result = new AmbiguityDetectionResult();
+        result.setAmbiguityCategories(new ArrayList<>(preScreen.getCategoryCounts().keySet()));
+        result.setAnalysisSource(AmbiguityDetectionResult.SOURCE_PRESCREEN);
+
+        if (PreScreenResult.CLEAR.equals(preScreen.getVerdict())) {
+            result.setAnalysis("No ambiguous terms were found in " + preScreen.getWordCount() + " words.");
+            result.setConfidenceScore(0.7);
+            result.setSuggestedImprovements("");
+            return result;
+        }
+
+        StringBuilder analysis = new StringBuilder();
+        analysis.append("Found ").append(preScreen.getMatchCount()).append(" ambiguous terms in ")
+                .append(preScreen.getWordCount()).append(" words (")
+                .append(preScreen.getMatchesPer100Words()).append(" per 100 words):");
+        for (PreScreenResult.TermMatch match : preScreen.getMatches()) {
+            analysis.append("\n- \"").append(match.getTerm()).append("\" (").append(match.getCategory())
+                    .append(") at ").append(match.getStart()).append('-').append(match.getEnd());
+        }
+        if (preScreen.isMatchesTruncated()) {
+            analysis.append("\n- ...");
+        }
+        result.setAnalysis(analysis.toString());
+        result.setConfidenceScore(Math.min(0.95, 0.6 + preScreen.getMatchesPer100Words() / 40.0));
+        result.setSuggestedImprovements("Replace the listed terms with measurable criteria, resolve placeholders "
+                + "and enumerate open-ended lists explicitly.");
+        return result;
+    }
+
     /**
      * Estimates the scope of a requirement
      * 
@@ -211,15 +604,7 @@ public class RequirementService {
             logger.debug("Estimating scope for requirement content");
             Map<String, Object> estimationResult = rabbitHoleService.estimateScope(requirement.getContent());
 
-            ScopeEstimationResult result = new ScopeEstimationResult();
-            result.setRequirement(requirement);
-            result.setEstimatedHours((Double) estimationResult.get("estimatedHours"));
-            result.setComplexityLevel((String) estimationResult.get("complexityLevel"));
-            result.setConfidenceLevel((Double) estimationResult.get("confidenceLevel"));
-            result.setJustification((String) estimationResult.get("justification"));
-            result.setRiskFactors((String) estimationResult.get("riskFactors"));
-
-            ScopeEstimationResult savedResult = scopeResultRepository.save(result);
+            ScopeEstimationResult savedResult = saveScopeEstimation(requirement, estimationResult);
             logger.info("Successfully estimated scope for requirement with ID: {}", requirementId);
             return savedResult;
         } catch (ResourceNotFoundException e) {
@@ -230,6 +615,27 @@ public class RequirementService {
         }
     }
 
+    /**
+     * Estimates the scope of a requirement without holding a thread while the LLM answers.
+     * The result is saved on the LLM callback executor.
+     * 
+     * @param requirementId The ID of the requirement to estimate
+     * @return A future with the scope estimation result
+     * @throws ResourceNotFoundException if the requirement is not found
+     */
+    public CompletableFuture<ScopeEstimationResult> estimateScopeAsync(String requirementId) {
+        logger.info("Estimating scope for requirement with ID: {} asynchronously", requirementId);
+        Requirement requirement = requirementRepository.findById(requirementId)
+                .orElseThrow(() -> {
+                    logger.error("Requirement not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
+                });
+
+        return saveWhenAnswered(rabbitHoleService.estimateScopeAsync(requirement.getContent()),
+                estimationResult -> saveScopeEstimation(requirement, estimationResult),
+                "Error estimating scope", requirementId);
+    }
+
     /**
      * Calculates story points for a requirement
      * 
@@ -280,16 +686,14 @@ public class RequirementService {
                     });
             
             // Get the developer profile
-            com.contextcoach.model.DeveloperProfile developerProfile = developerProfileRepository.findById(developerId)
+            com.contextcoach.model.DeveloperProfile developerProfile = developerProfileCache.findById(developerId)
                     .orElseThrow(() -> {
                         logger.error("Developer profile not found with ID: {}", developerId);
                         return new ResourceNotFoundException("Developer profile not found with ID: " + developerId);
                     });
 
-            logger.debug("Calculating story points for requirement content with repository complexity: {} and developer profile: {}", 
-                    repositoryComplexity, developerProfile.getName());
-            Map<String, Object> storyPointsResult = rabbitHoleService.calculateStoryPoints(
-                    requirement.getContent(), repositoryComplexity, developerProfile);
+            Map<String, Object> storyPointsResult = calculateStoryPointsWithDeveloper(
+                    requirement, developerProfile, repositoryComplexity);
             
             logger.info("Successfully calculated story points for requirement with ID: {} and developer ID: {}", requirementId, developerId);
             return storyPointsResult;
@@ -301,6 +705,24 @@ public class RequirementService {
         }
     }
 
+    /**
+     * Calculates story points for an already loaded requirement and developer profile,
+     * for callers that hold both entities and should not load them again
+     * 
+     * @param requirement The requirement to calculate story points for
+     * @param developerProfile The developer profile to use for calculation
+     * @param repositoryComplexity Optional repository complexity score (can be null)
+     * @return A map containing the story points calculation results
+     */
+    public Map<String, Object> calculateStoryPointsWithDeveloper(
+            Requirement requirement,
+            com.contextcoach.model.DeveloperProfile developerProfile,
+            Double repositoryComplexity) {
+        logger.debug("Calculating story points for requirement content with repository complexity: {} and developer profile: {}", 
+                repositoryComplexity, developerProfile.getName());
+        return rabbitHoleService.calculateStoryPoints(requirement.getContent(), repositoryComplexity, developerProfile);
+    }
+
     /**
      * Calculates story points for a requirement without repository complexity
      * 
@@ -331,18 +753,7 @@ public class RequirementService {
             logger.debug("Generating implementation plan for requirement content");
             Map<String, Object> planResult = rabbitHoleService.generateImplementationPlan(requirement.getContent());
 
-            ImplementationPlan plan = new ImplementationPlan();
-            plan.setRequirement(requirement);
-            plan.setSummary((String) planResult.get("summary"));
-            
-            @SuppressWarnings("unchecked")
-            List<String> steps = (List<String>) planResult.get("implementationSteps");
-            plan.setImplementationSteps(steps);
-            
-            plan.setTechnicalApproach((String) planResult.get("technicalApproach"));
-            plan.setDependencies((String) planResult.get("dependencies"));
-
-            ImplementationPlan savedPlan = implementationPlanRepository.save(plan);
+            ImplementationPlan savedPlan = saveImplementationPlan(requirement, planResult);
             logger.info("Successfully generated implementation plan for requirement with ID: {}", requirementId);
             return savedPlan;
         } catch (ResourceNotFoundException e) {
@@ -354,29 +765,49 @@ public class RequirementService {
     }
 
     /**
-     * Determines the source type based on the file name and content type
+     * Generates an implementation plan for a requirement without holding a thread while
+     * the LLM answers. The plan is saved on the LLM callback executor.
      * 
-     * @param fileName The name of the file
-     * @param contentType The content type of the file
-     * @return The source type
+     * @param requirementId The ID of the requirement to plan
+     * @return A future with the implementation plan
+     * @throws ResourceNotFoundException if the requirement is not found
      */
-    private String determineSourceType(String fileName, String contentType) {
-        if (fileName == null || contentType == null) {
-            return "UNKNOWN";
-        }
+    public CompletableFuture<ImplementationPlan> generateImplementationPlanAsync(String requirementId) {
+        logger.info("Generating implementation plan for requirement with ID: {} asynchronously", requirementId);
+        Requirement requirement = requirementRepository.findById(requirementId)
+                .orElseThrow(() -> {
+                    logger.error("Requirement not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement not found with ID: " + requirementId);
+                });
 
-        if (contentType.contains("pdf")) {
-            return "PDF";
-        } else if (contentType.contains("text") || fileName.endsWith(".txt")) {
-            return "TEXT";
-        } else if (contentType.contains("json") || fileName.endsWith(".json")) {
-            return "JSON";
-        } else if (contentType.contains("excel") || fileName.endsWith(".xlsx") || fileName.endsWith(".xls")) {
-            return "EXCEL";
-        } else if (contentType.contains("word") || fileName.endsWith(".docx") || fileName.endsWith(".doc")) {
-            return "WORD";
-        } else {
-            return "OTHER";
-        }
+        return saveWhenAnswered(rabbitHoleService.generateImplementationPlanAsync(requirement.getContent()),
+                planResult -> saveImplementationPlan(requirement, planResult),
+                "Error generating implementation plan", requirementId);
+    }
+
+    /**
+     * Gets the analysis summary for a requirement
+     * 
+     * @param requirementId The ID of the requirement
+     * @return The summary holding the latest result of each kind plus counts
+     * @throws ResourceNotFoundException if no summary exists for the requirement
+     */
+    public RequirementSummary getRequirementSummary(String requirementId) {
+        logger.debug("Getting summary for requirement with ID: {}", requirementId);
+        return requirementSummaryService.getSummary(requirementId)
+                .orElseThrow(() -> {
+                    logger.warn("Requirement summary not found with ID: {}", requirementId);
+                    return new ResourceNotFoundException("Requirement summary not found with ID: " + requirementId);
+                });
+    }
+
+    /**
+     * Rebuilds all requirement summaries from the stored results
+     * 
+     * @return The number of summaries rebuilt
+     */
+    public int rebuildRequirementSummaries() {
+        logger.info("Rebuilding requirement summaries");
+        return requirementSummaryService.rebuildAllSummaries();
     }
 }
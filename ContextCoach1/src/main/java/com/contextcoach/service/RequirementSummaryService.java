@@ -0,0 +1,495 @@
+package com.contextcoach.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.AmbiguityDetectionResult;
+import com.contextcoach.model.ImplementationPlan;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.model.RequirementSummary;
+import com.contextcoach.model.ScopeEstimationResult;
+import com.contextcoach.repository.RequirementSummaryRepository;
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteError;
+
+/**
+ * Maintains the requirement_summaries read model. Each save of an analysis result
+ * applies a single atomic upsert ($set of the latest values plus $inc of the count)
+ * to the summary document of its requirement, and {@link #rebuildAllSummaries()}
+ * recomputes every summary from the underlying collections for backfill. Every write
+ * increments the summary's revision, which keeps a rebuild from overwriting newer data.
+ */
+@Service
+public class RequirementSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequirementSummaryService.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final RequirementSummaryRepository requirementSummaryRepository;
+
+    public RequirementSummaryService(
+            MongoTemplate mongoTemplate,
+            RequirementSummaryRepository requirementSummaryRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.requirementSummaryRepository = requirementSummaryRepository;
+    }
+
+    /**
+     * Gets the summary for a requirement
+     *
+     * @param requirementId The ID of the requirement
+     * @return The summary, if one has been recorded
+     */
+    public Optional<RequirementSummary> getSummary(String requirementId) {
+        logger.debug("Getting requirement summary for requirement ID: {}", requirementId);
+        return requirementSummaryRepository.findById(requirementId);
+    }
+
+    /**
+     * Gets the summaries of many requirements with one query
+     *
+     * @param requirementIds The IDs of the requirements
+     * @return The summaries that have been recorded, keyed by requirement ID
+     */
+    public Map<String, RequirementSummary> getSummaries(Collection<String> requirementIds) {
+        Map<String, RequirementSummary> summaries = new HashMap<>();
+        if (requirementIds == null || requirementIds.isEmpty()) {
+            return summaries;
+        }
+        requirementSummaryRepository.findAllById(requirementIds)
+                .forEach(summary -> summaries.put(summary.getRequirementId(), summary));
+        return summaries;
+    }
+
+    /**
+     * Records a newly created requirement in the read model
+     *
+     * @param requirement The saved requirement
+     */
+    public void recordRequirement(Requirement requirement) {
+        if (requirement == null || requirement.getId() == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("title", requirement.getTitle())
+                .set("updatedAt", LocalDateTime.now());
+        upsert(requirement.getId(), update, "requirement");
+    }
+
+    /**
+     * Records a batch of newly created requirements in the read model with one bulk write
+     *
+     * @param requirements The saved requirements
+     */
+    public void recordRequirements(List<Requirement> requirements) {
+        if (requirements == null || requirements.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequirementSummary.class);
+            for (Requirement requirement : requirements) {
+                bulkOps.upsert(byRequirementId(requirement.getId()), new Update()
+                        .set("title", requirement.getTitle())
+                        .set("updatedAt", now)
+                        .inc("revision", 1));
+            }
+            bulkOps.execute();
+            logger.debug("Recorded {} requirements in requirement summaries", requirements.size());
+        } catch (Exception e) {
+            logger.warn("Failed to record {} requirements in requirement summaries: {}", requirements.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Records a saved ambiguity detection result as the latest of its kind
+     *
+     * @param result The saved ambiguity detection result
+     */
+    public void recordAmbiguityResult(AmbiguityDetectionResult result) {
+        String requirementId = requirementIdOf(result == null ? null : result.getRequirement());
+        if (requirementId == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("latestAmbiguityResultId", result.getId())
+                .set("ambiguityCategories", result.getAmbiguityCategories())
+                .set("ambiguityConfidenceScore", result.getConfidenceScore())
+                .set("latestAmbiguityAt", timestampOf(result.getCreatedAt()))
+                .inc("ambiguityResultCount", 1);
+        applyRequirementFields(update, result.getRequirement());
+        upsert(requirementId, update, "ambiguity result");
+    }
+
+    /**
+     * Records a saved scope estimation result as the latest of its kind
+     *
+     * @param result The saved scope estimation result
+     */
+    public void recordScopeEstimation(ScopeEstimationResult result) {
+        String requirementId = requirementIdOf(result == null ? null : result.getRequirement());
+        if (requirementId == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("latestScopeEstimationId", result.getId())
+                .set("estimatedHours", result.getEstimatedHours())
+                .set("complexityLevel", result.getComplexityLevel())
+                .set("latestScopeEstimationAt", timestampOf(result.getCreatedAt()))
+                .inc("scopeEstimationCount", 1);
+        applyRequirementFields(update, result.getRequirement());
+        upsert(requirementId, update, "scope estimation");
+    }
+
+    /**
+     * Records a saved implementation plan as the latest of its kind
+     *
+     * @param plan The saved implementation plan
+     */
+    public void recordImplementationPlan(ImplementationPlan plan) {
+        String requirementId = requirementIdOf(plan == null ? null : plan.getRequirement());
+        if (requirementId == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("latestImplementationPlanId", plan.getId())
+                .set("planSummary", plan.getSummary())
+                .set("implementationStepCount", plan.getImplementationSteps() == null ? 0 : plan.getImplementationSteps().size())
+                .set("latestImplementationPlanAt", timestampOf(plan.getCreatedAt()))
+                .inc("implementationPlanCount", 1);
+        applyRequirementFields(update, plan.getRequirement());
+        upsert(requirementId, update, "implementation plan");
+    }
+
+    /**
+     * Records a saved Jira ticket as the latest of its kind
+     *
+     * @param ticket The saved Jira ticket
+     */
+    public void recordJiraTicket(JiraTicket ticket) {
+        String requirementId = requirementIdOf(ticket == null ? null : ticket.getRequirement());
+        if (requirementId == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("latestJiraTicketId", ticket.getId())
+                .set("latestExternalTicketId", ticket.getExternalTicketId())
+                .set("latestEstimatedStoryPoints", ticket.getEstimatedStoryPoints())
+                .set("latestJiraTicketAt", timestampOf(ticket.getCreatedAt()))
+                .inc("jiraTicketCount", 1);
+        applyRequirementFields(update, ticket.getRequirement());
+        upsert(requirementId, update, "Jira ticket");
+    }
+
+    /**
+     * Records a batch of saved Jira tickets with one bulk write. Tickets of the same
+     * requirement are folded into a single upsert, with the last ticket as the latest.
+     *
+     * @param tickets The saved Jira tickets
+     */
+    public void recordJiraTickets(List<JiraTicket> tickets) {
+        if (tickets == null || tickets.isEmpty()) {
+            return;
+        }
+        Map<String, List<JiraTicket>> byRequirement = new LinkedHashMap<>();
+        for (JiraTicket ticket : tickets) {
+            String requirementId = requirementIdOf(ticket.getRequirement());
+            if (requirementId != null) {
+                byRequirement.computeIfAbsent(requirementId, id -> new ArrayList<>()).add(ticket);
+            }
+        }
+        if (byRequirement.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequirementSummary.class);
+            for (Map.Entry<String, List<JiraTicket>> entry : byRequirement.entrySet()) {
+                List<JiraTicket> requirementTickets = entry.getValue();
+                JiraTicket latest = requirementTickets.get(requirementTickets.size() - 1);
+                Update update = new Update()
+                        .set("latestJiraTicketId", latest.getId())
+                        .set("latestExternalTicketId", latest.getExternalTicketId())
+                        .set("latestEstimatedStoryPoints", latest.getEstimatedStoryPoints())
+                        .set("latestJiraTicketAt", timestampOf(latest.getCreatedAt()))
+                        .inc("jiraTicketCount", requirementTickets.size())
+                        .inc("revision", 1);
+                applyRequirementFields(update, latest.getRequirement());
+                bulkOps.upsert(byRequirementId(entry.getKey()), update);
+            }
+            bulkOps.execute();
+            logger.debug("Recorded {} Jira tickets in {} requirement summaries", tickets.size(), byRequirement.size());
+        } catch (Exception e) {
+            logger.warn("Failed to record {} Jira tickets in requirement summaries: {}", tickets.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds every requirement summary from the underlying collections. Requirements
+     * are streamed in batches in ID order, and the results of each batch are streamed
+     * in creation order over the requirement and creation time index without resolving
+     * DBRefs, so memory use is bounded by the batch size. Each summary is replaced only
+     * at the revision read before its results were, so a result recorded meanwhile is
+     * never overwritten: the summaries it changed are rebuilt again.
+     *
+     * @return The number of summaries written
+     * @throws ServiceException if there's an error rebuilding the summaries
+     */
+    public int rebuildAllSummaries() {
+        logger.info("Rebuilding all requirement summaries");
+        long startTime = System.currentTimeMillis();
+        try {
+            int written = 0;
+            Map<Object, String> batch = new LinkedHashMap<>();
+            Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+            query.fields().include("title");
+            try (Stream<Document> requirements = mongoTemplate.stream(query, Document.class, "requirements")) {
+                Iterator<Document> iterator = requirements.iterator();
+                while (iterator.hasNext()) {
+                    Document requirement = iterator.next();
+                    batch.put(requirement.get("_id"), requirement.getString("title"));
+                    if (batch.size() == REBUILD_BATCH_SIZE) {
+                        written += rebuildBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                written += rebuildBatch(batch);
+            }
+
+            logger.info("Rebuilt {} requirement summaries in {}ms", written, System.currentTimeMillis() - startTime);
+            return written;
+        } catch (Exception e) {
+            logger.error("Error rebuilding requirement summaries", e);
+            throw new ServiceException("Error rebuilding requirement summaries: " + e.getMessage(), e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Rebuilds the summaries of a batch of requirements, given by raw ID and title, and
+     * retries the summaries that changed while they were rebuilt
+     */
+    private int rebuildBatch(Map<Object, String> titles) {
+        int written = 0;
+        Map<Object, String> pending = titles;
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            Map<String, Long> revisions = readRevisions(pending.keySet());
+            List<RequirementSummary> summaries = buildSummaries(pending);
+            Set<String> conflicts = replaceSummaries(summaries, revisions);
+            written += summaries.size() - conflicts.size();
+
+            Map<Object, String> retry = new LinkedHashMap<>();
+            pending.forEach((id, title) -> {
+                if (conflicts.contains(id.toString())) {
+                    retry.put(id, title);
+                }
+            });
+            pending = retry;
+        }
+        if (!pending.isEmpty()) {
+            logger.warn("Summaries of requirements {} kept changing and are left to the next rebuild", pending.keySet());
+        }
+        return written;
+    }
+
+    private Map<String, Long> readRevisions(Collection<Object> requirementIds) {
+        Query query = new Query(Criteria.where("_id").in(requirementIds.stream().map(Object::toString).toList()));
+        query.fields().include("revision");
+        Map<String, Long> revisions = new HashMap<>();
+        for (RequirementSummary summary : mongoTemplate.find(query, RequirementSummary.class)) {
+            revisions.put(summary.getRequirementId(), summary.getRevision());
+        }
+        return revisions;
+    }
+
+    private List<RequirementSummary> buildSummaries(Map<Object, String> titles) {
+        Map<String, RequirementSummary> summaries = new LinkedHashMap<>();
+        List<DBRef> references = new ArrayList<>(titles.size());
+        titles.forEach((id, title) -> {
+            summaryFor(summaries, id.toString()).setTitle(title);
+            references.add(new DBRef("requirements", id));
+        });
+
+        try (Stream<Document> results = streamResults("ambiguity_detection_results", references)) {
+            results.forEach(doc -> {
+                RequirementSummary summary = summaries.get(requirementIdOf(doc));
+                summary.setLatestAmbiguityResultId(idOf(doc));
+                summary.setAmbiguityCategories(doc.getList("ambiguityCategories", String.class));
+                summary.setAmbiguityConfidenceScore(doubleOf(doc.get("confidenceScore")));
+                summary.setLatestAmbiguityAt(dateOf(doc.getDate("createdAt")));
+                summary.setAmbiguityResultCount(summary.getAmbiguityResultCount() + 1);
+            });
+        }
+
+        try (Stream<Document> results = streamResults("scope_estimation_results", references)) {
+            results.forEach(doc -> {
+                RequirementSummary summary = summaries.get(requirementIdOf(doc));
+                summary.setLatestScopeEstimationId(idOf(doc));
+                summary.setEstimatedHours(doubleOf(doc.get("estimatedHours")));
+                summary.setComplexityLevel(doc.getString("complexityLevel"));
+                summary.setLatestScopeEstimationAt(dateOf(doc.getDate("createdAt")));
+                summary.setScopeEstimationCount(summary.getScopeEstimationCount() + 1);
+            });
+        }
+
+        try (Stream<Document> plans = streamResults("implementation_plans", references)) {
+            plans.forEach(doc -> {
+                RequirementSummary summary = summaries.get(requirementIdOf(doc));
+                List<String> steps = doc.getList("implementationSteps", String.class);
+                summary.setLatestImplementationPlanId(idOf(doc));
+                summary.setPlanSummary(doc.getString("summary"));
+                summary.setImplementationStepCount(steps == null ? 0 : steps.size());
+                summary.setLatestImplementationPlanAt(dateOf(doc.getDate("createdAt")));
+                summary.setImplementationPlanCount(summary.getImplementationPlanCount() + 1);
+            });
+        }
+
+        try (Stream<Document> tickets = streamResults("jira_tickets", references)) {
+            tickets.forEach(doc -> {
+                RequirementSummary summary = summaries.get(requirementIdOf(doc));
+                summary.setLatestJiraTicketId(idOf(doc));
+                summary.setLatestExternalTicketId(doc.getString("externalTicketId"));
+                summary.setLatestEstimatedStoryPoints(doc.getInteger("estimatedStoryPoints"));
+                summary.setLatestJiraTicketAt(dateOf(doc.getDate("createdAt")));
+                summary.setJiraTicketCount(summary.getJiraTicketCount() + 1);
+            });
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * Replaces each summary if it is still at the revision that was read, with one bulk
+     * write, and returns the requirement IDs of the summaries that were not at it
+     */
+    private Set<String> replaceSummaries(List<RequirementSummary> summaries, Map<String, Long> revisions) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequirementSummary.class);
+        for (RequirementSummary summary : summaries) {
+            long revision = revisions.getOrDefault(summary.getRequirementId(), 0L);
+            summary.setRevision(revision + 1);
+            summary.setUpdatedAt(now);
+            bulkOps.replaceOne(atRevision(summary.getRequirementId(), revision), summary, FindAndReplaceOptions.options().upsert());
+        }
+        Set<String> conflicts = new HashSet<>();
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            // The upsert found no summary at the revision read, but one exists
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                conflicts.add(summaries.get(error.getIndex()).getRequirementId());
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Matches a summary at a revision. Summaries written before revisions were kept have
+     * none, which reads as 0.
+     */
+    private Query atRevision(String requirementId, long revision) {
+        Criteria criteria = Criteria.where("_id").is(requirementId);
+        return new Query(revision == 0 ? criteria.and("revision").in(0L, null) : criteria.and("revision").is(revision));
+    }
+
+    /**
+     * Applies an upsert to the summary of a requirement. Failures are logged rather than
+     * propagated since the result itself is already persisted and a rebuild restores the summary.
+     */
+    private void upsert(String requirementId, Update update, String kind) {
+        try {
+            update.set("updatedAt", LocalDateTime.now()).inc("revision", 1);
+            mongoTemplate.upsert(byRequirementId(requirementId), update, RequirementSummary.class);
+            logger.debug("Updated requirement summary for requirement ID: {} with latest {}", requirementId, kind);
+        } catch (Exception e) {
+            logger.warn("Failed to update requirement summary for requirement ID: {} with latest {}: {}",
+                    requirementId, kind, e.getMessage());
+        }
+    }
+
+    private void applyRequirementFields(Update update, Requirement requirement) {
+        if (requirement.getTitle() != null) {
+            update.set("title", requirement.getTitle());
+        }
+    }
+
+    private Query byRequirementId(String requirementId) {
+        return new Query(Criteria.where("_id").is(requirementId));
+    }
+
+    private Stream<Document> streamResults(String collectionName, List<DBRef> requirements) {
+        Query query = new Query(Criteria.where("requirement").in(requirements))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        return mongoTemplate.stream(query, Document.class, collectionName);
+    }
+
+    private RequirementSummary summaryFor(Map<String, RequirementSummary> summaries, String requirementId) {
+        return summaries.computeIfAbsent(requirementId, id -> {
+            RequirementSummary summary = new RequirementSummary();
+            summary.setRequirementId(id);
+            return summary;
+        });
+    }
+
+    private static String requirementIdOf(Requirement requirement) {
+        return requirement == null ? null : requirement.getId();
+    }
+
+    private static String requirementIdOf(Document doc) {
+        Object requirement = doc.get("requirement");
+        if (requirement instanceof DBRef dbRef && dbRef.getId() != null) {
+            return dbRef.getId().toString();
+        }
+        return null;
+    }
+
+    private static String idOf(Document doc) {
+        Object id = doc.get("_id");
+        return id == null ? null : id.toString();
+    }
+
+    private static Double doubleOf(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+
+    private static LocalDateTime dateOf(Date date) {
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime timestampOf(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt : LocalDateTime.now();
+    }
+}
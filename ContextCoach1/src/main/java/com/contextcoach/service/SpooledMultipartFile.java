@@ -0,0 +1,84 @@
+package com.contextcoach.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * MultipartFile backed by an upload that was streamed to a file on disk. Extractors
+ * read the spooled file directly instead of copying it; closing deletes the file.
+ */
+class SpooledMultipartFile implements MultipartFile, AutoCloseable {
+
+    private final Path path;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final String contentHash;
+
+    SpooledMultipartFile(Path path, String originalFilename, String contentType, long size, String contentHash) {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    String getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,535 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.repository.RequirementRepository;
+import com.contextcoach.repository.RequirementSummaryRepository;
+import com.mongodb.DBRef;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Estimates story points in process with a ridge regression over a few requirement and
+ * developer features, trained on the story points of stored tickets. The model is a
+ * handful of primitive arrays, so an estimate takes microseconds; callers fall back to
+ * the LLM only when the estimate is not confident.
+ *
+ * <p>Training keeps the sufficient statistics of the regression (X'X, X'y and y'y), so a
+ * background run only reads tickets created since the previous one, adds them to the
+ * statistics and re-solves the small normal equations. Tickets estimated by this model
+ * are not used as labels unless Jira reports their actual story points; a periodic full
+ * rebuild picks up actual story points pulled from Jira for older tickets.
+ */
+@Service
+public class StoryPointEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoryPointEstimator.class);
+
+    public static final String SOURCE_MODEL = "MODEL";
+    public static final String SOURCE_LLM = "LLM";
+    public static final String SOURCE_HEURISTIC = "HEURISTIC";
+
+    static final int FEATURES = 8;
+    private static final int[] STORY_POINT_SCALE = {1, 2, 3, 5, 8, 13, 21};
+    private static final int TRAINING_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final RequirementRepository requirementRepository;
+    private final DeveloperProfileRepository developerProfileRepository;
+    private final RequirementSummaryRepository requirementSummaryRepository;
+    private final double ridge;
+    private final int minSamples;
+    private final double maxStandardError;
+
+    // Sufficient statistics of the training set, guarded by this
+    private final double[] xtx = new double[FEATURES * FEATURES];
+    private final double[] xty = new double[FEATURES];
+    private double yty;
+    private long samples;
+    private Date trainedUntil; // Creation time of the newest ticket read so far
+
+    private volatile Model model = Model.UNTRAINED;
+    private final Counter confidentEstimates;
+    private final Counter lowConfidenceEstimates;
+
+    public StoryPointEstimator(
+            MongoTemplate mongoTemplate,
+            RequirementRepository requirementRepository,
+            DeveloperProfileRepository developerProfileRepository,
+            RequirementSummaryRepository requirementSummaryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${contextcoach.estimator.ridge:1.0}") double ridge,
+            @Value("${contextcoach.estimator.min-samples:50}") int minSamples,
+            @Value("${contextcoach.estimator.max-standard-error:1.5}") double maxStandardError) {
+        this.mongoTemplate = mongoTemplate;
+        this.requirementRepository = requirementRepository;
+        this.developerProfileRepository = developerProfileRepository;
+        this.requirementSummaryRepository = requirementSummaryRepository;
+        this.ridge = ridge;
+        this.minSamples = Math.max(minSamples, FEATURES + 1);
+        this.maxStandardError = maxStandardError;
+
+        this.confidentEstimates = Counter.builder("contextcoach.estimator.estimates").tag("confidence", "high")
+                .description("Story point estimates made by the local model").register(meterRegistry);
+        this.lowConfidenceEstimates = Counter.builder("contextcoach.estimator.estimates").tag("confidence", "low")
+                .description("Story point estimates made by the local model").register(meterRegistry);
+        Gauge.builder("contextcoach.estimator.samples", this, estimator -> estimator.model.samples)
+                .description("Tickets the story point model was trained on").register(meterRegistry);
+    }
+
+    /**
+     * Result of estimating story points with the local model
+     */
+    public static class Estimate {
+        private final int storyPoints;
+        private final double prediction;
+        private final double standardError;
+        private final boolean confident;
+
+        private Estimate(int storyPoints, double prediction, double standardError, boolean confident) {
+            this.storyPoints = storyPoints;
+            this.prediction = prediction;
+            this.standardError = standardError;
+            this.confident = confident;
+        }
+
+        /**
+         * Gets the prediction rounded to the nearest value of the story point scale
+         */
+        public int getStoryPoints() {
+            return storyPoints;
+        }
+
+        public double getPrediction() {
+            return prediction;
+        }
+
+        /**
+         * Gets the standard error of the prediction, in story points
+         */
+        public double getStandardError() {
+            return standardError;
+        }
+
+        /**
+         * Whether the model has enough training data and a small enough error to be used
+         * instead of the LLM
+         */
+        public boolean isConfident() {
+            return confident;
+        }
+    }
+
+    /**
+     * Immutable snapshot of a fitted model, replaced as a whole after each training run
+     */
+    private static final class Model {
+        static final Model UNTRAINED = new Model(new double[FEATURES], new double[FEATURES * FEATURES],
+                Double.POSITIVE_INFINITY, 0);
+
+        final double[] weights;
+        final double[] covariance; // (X'X + ridge)^-1, row-major
+        final double residualVariance;
+        final long samples;
+
+        Model(double[] weights, double[] covariance, double residualVariance, long samples) {
+            this.weights = weights;
+            this.covariance = covariance;
+            this.residualVariance = residualVariance;
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * Estimates the story points of a requirement
+     *
+     * @param requirement The requirement
+     * @param complexityLevel The complexity level of its latest scope estimation (may be null)
+     * @param developer The assigned developer (may be null)
+     * @return The estimate and whether it is confident
+     */
+    public Estimate estimate(Requirement requirement, String complexityLevel, DeveloperProfile developer) {
+        double[] x = features(requirement, complexityLevel, developer);
+        Model current = model;
+        double prediction = 0.0;
+        double leverage = 0.0;
+        for (int i = 0; i < FEATURES; i++) {
+            prediction += current.weights[i] * x[i];
+            double row = 0.0;
+            for (int j = 0; j < FEATURES; j++) {
+                row += current.covariance[i * FEATURES + j] * x[j];
+            }
+            leverage += x[i] * row;
+        }
+        double standardError = Math.sqrt(current.residualVariance * (1.0 + leverage));
+        boolean confident = current.samples >= minSamples && standardError <= maxStandardError;
+        (confident ? confidentEstimates : lowConfidenceEstimates).increment();
+        return new Estimate(toScale(prediction), prediction, standardError, confident);
+    }
+
+    /**
+     * Adds the tickets created since the previous run to the model on a fixed delay
+     */
+    @Scheduled(fixedDelayString = "${contextcoach.estimator.retrain-interval:10m}",
+            initialDelayString = "${contextcoach.estimator.initial-delay:30s}")
+    public void scheduledTrain() {
+        try {
+            train();
+        } catch (Exception e) {
+            logger.error("Error training the story point model", e);
+        }
+    }
+
+    /**
+     * Retrains the model from every stored ticket
+     */
+    @Scheduled(cron = "${contextcoach.estimator.rebuild-cron:0 0 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Error rebuilding the story point model", e);
+        }
+    }
+
+    /**
+     * Adds the tickets created since the previous training run to the model
+     *
+     * @return The number of tickets added
+     */
+    public synchronized int train() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        if (trainedUntil != null) {
+            query.addCriteria(Criteria.where("createdAt").gt(trainedUntil));
+        }
+        query.fields().include("createdAt", "requirement", "assignedDeveloper",
+                "estimatedStoryPoints", "actualStoryPoints", "estimateSource");
+
+        int added = 0;
+        List<Document> batch = new ArrayList<>(TRAINING_BATCH_SIZE);
+        try (Stream<Document> tickets = mongoTemplate.stream(query, Document.class, "jira_tickets")) {
+            Iterator<Document> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == TRAINING_BATCH_SIZE) {
+                    added += addBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            added += addBatch(batch);
+        }
+        if (added > 0) {
+            refit();
+        }
+        logger.info("Added {} tickets to the story point model, trained on {} tickets", added, samples);
+        return added;
+    }
+
+    /**
+     * Discards the training statistics and trains the model from every stored ticket
+     *
+     * @return The number of tickets the model was trained on
+     */
+    public synchronized int rebuild() {
+        Arrays.fill(xtx, 0.0);
+        Arrays.fill(xty, 0.0);
+        yty = 0.0;
+        samples = 0;
+        trainedUntil = null;
+        int added = train();
+        if (added == 0) {
+            model = Model.UNTRAINED;
+        }
+        return added;
+    }
+
+    /**
+     * Adds a batch of ticket documents, loading their requirements, developers and
+     * requirement summaries with one query each
+     */
+    private int addBatch(List<Document> tickets) {
+        Set<String> requirementIds = new HashSet<>();
+        Set<String> developerIds = new HashSet<>();
+        for (Document ticket : tickets) {
+            Date createdAt = ticket.getDate("createdAt");
+            if (createdAt != null && (trainedUntil == null || createdAt.after(trainedUntil))) {
+                trainedUntil = createdAt;
+            }
+            String requirementId = idOf(ticket.get("requirement"));
+            if (labelOf(ticket) != null && requirementId != null) {
+                requirementIds.add(requirementId);
+                String developerId = idOf(ticket.get("assignedDeveloper"));
+                if (developerId != null) {
+                    developerIds.add(developerId);
+                }
+            }
+        }
+        if (requirementIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Requirement> requirements = new HashMap<>();
+        requirementRepository.findAllById(requirementIds).forEach(requirement -> requirements.put(requirement.getId(), requirement));
+        Map<String, DeveloperProfile> developers = new HashMap<>();
+        if (!developerIds.isEmpty()) {
+            developerProfileRepository.findAllById(developerIds).forEach(developer -> developers.put(developer.getId(), developer));
+        }
+        Map<String, String> complexityLevels = new HashMap<>();
+        requirementSummaryRepository.findAllById(requirementIds).forEach(summary -> {
+            if (summary.getComplexityLevel() != null) {
+                complexityLevels.put(summary.getRequirementId(), summary.getComplexityLevel());
+            }
+        });
+
+        int added = 0;
+        for (Document ticket : tickets) {
+            Double label = labelOf(ticket);
+            Requirement requirement = requirements.get(idOf(ticket.get("requirement")));
+            if (label == null || requirement == null) {
+                continue;
+            }
+            DeveloperProfile developer = developers.get(idOf(ticket.get("assignedDeveloper")));
+            add(features(requirement, complexityLevels.get(requirement.getId()), developer), label);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Adds one training example to the sufficient statistics
+     */
+    synchronized void add(double[] x, double y) {
+        for (int i = 0; i < FEATURES; i++) {
+            for (int j = 0; j < FEATURES; j++) {
+                xtx[i * FEATURES + j] += x[i] * x[j];
+            }
+            xty[i] += x[i] * y;
+        }
+        yty += y * y;
+        samples++;
+    }
+
+    /**
+     * Solves the ridge regression for the current statistics and publishes the model
+     */
+    synchronized void refit() {
+        double[] a = xtx.clone();
+        // The intercept is not regularized
+        for (int i = 1; i < FEATURES; i++) {
+            a[i * FEATURES + i] += ridge;
+        }
+        double[] l = cholesky(a);
+        if (l == null) {
+            logger.warn("Story point model could not be fitted to {} tickets", samples);
+            return;
+        }
+        double[] weights = solve(l, xty);
+        double[] covariance = new double[FEATURES * FEATURES];
+        double[] unit = new double[FEATURES];
+        for (int j = 0; j < FEATURES; j++) {
+            Arrays.fill(unit, 0.0);
+            unit[j] = 1.0;
+            double[] column = solve(l, unit);
+            for (int i = 0; i < FEATURES; i++) {
+                covariance[i * FEATURES + j] = column[i];
+            }
+        }
+
+        // Residual sum of squares from the statistics: y'y - 2w'X'y + w'X'Xw
+        double residual = yty;
+        for (int i = 0; i < FEATURES; i++) {
+            residual -= 2.0 * weights[i] * xty[i];
+            for (int j = 0; j < FEATURES; j++) {
+                residual += weights[i] * xtx[i * FEATURES + j] * weights[j];
+            }
+        }
+        double residualVariance = samples > FEATURES
+                ? Math.max(residual, 0.0) / (samples - FEATURES)
+                : Double.POSITIVE_INFINITY;
+        model = new Model(weights, covariance, residualVariance, samples);
+        logger.debug("Fitted story point model to {} tickets with residual variance {}", samples, residualVariance);
+    }
+
+    /**
+     * Builds the feature vector of a requirement and, if assigned, its developer
+     */
+    static double[] features(Requirement requirement, String complexityLevel, DeveloperProfile developer) {
+        String content = requirement.getContent() != null ? requirement.getContent() : "";
+        double[] x = new double[FEATURES];
+        x[0] = 1.0;
+        x[1] = Math.log1p(countWords(content));
+        x[2] = requirement.getClarityScore() != null ? requirement.getClarityScore() : 0.5;
+        x[3] = complexityOf(complexityLevel);
+        if (developer != null) {
+            x[4] = 1.0;
+            x[5] = skillOverlap(content, developer.getSkills());
+            x[6] = experienceOf(developer.getExperienceLevel());
+            x[7] = developer.getProductivityFactor() != null ? developer.getProductivityFactor() : 1.0;
+        }
+        return x;
+    }
+
+    private static int countWords(String text) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean letter = Character.isLetterOrDigit(text.charAt(i));
+            if (letter && !inWord) {
+                words++;
+            }
+            inWord = letter;
+        }
+        return words;
+    }
+
+    private static double complexityOf(String complexityLevel) {
+        if (complexityLevel == null) {
+            return 1.0;
+        }
+        switch (complexityLevel.trim().toLowerCase(Locale.ROOT)) {
+            case "low":
+                return 0.0;
+            case "high":
+                return 2.0;
+            default:
+                return 1.0;
+        }
+    }
+
+    private static double experienceOf(String experienceLevel) {
+        String level = experienceLevel == null ? "" : experienceLevel.trim().toLowerCase(Locale.ROOT);
+        if (level.startsWith("junior")) {
+            return 0.0;
+        }
+        if (level.startsWith("senior") || level.startsWith("lead") || level.startsWith("principal")) {
+            return 2.0;
+        }
+        return 1.0;
+    }
+
+    /**
+     * Gets the fraction of the developer's skills that the requirement mentions
+     */
+    private static double skillOverlap(String content, List<String> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return 0.0;
+        }
+        String text = content.toLowerCase(Locale.ROOT);
+        int matched = 0;
+        for (String skill : skills) {
+            if (skill != null && !skill.isBlank() && text.contains(skill.trim().toLowerCase(Locale.ROOT))) {
+                matched++;
+            }
+        }
+        return (double) matched / skills.size();
+    }
+
+    /**
+     * Gets the training label of a ticket: the actual story points from Jira if known,
+     * otherwise the estimate unless this model made it
+     */
+    private static Double labelOf(Document ticket) {
+        if (ticket.get("actualStoryPoints") instanceof Number actual && actual.doubleValue() > 0) {
+            return actual.doubleValue();
+        }
+        if (!SOURCE_MODEL.equals(ticket.getString("estimateSource"))
+                && ticket.get("estimatedStoryPoints") instanceof Number estimated && estimated.doubleValue() > 0) {
+            return estimated.doubleValue();
+        }
+        return null;
+    }
+
+    private static String idOf(Object reference) {
+        if (reference instanceof DBRef dbRef && dbRef.getId() != null) {
+            return dbRef.getId().toString();
+        }
+        return null;
+    }
+
+    private static int toScale(double prediction) {
+        int closest = STORY_POINT_SCALE[0];
+        for (int points : STORY_POINT_SCALE) {
+            if (Math.abs(points - prediction) < Math.abs(closest - prediction)) {
+                closest = points;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Computes the lower triangular Cholesky factor of a symmetric matrix
+     *
+     * @return The factor, or null if the matrix is not positive definite
+     */
+    private static double[] cholesky(double[] a) {
+        double[] l = new double[FEATURES * FEATURES];
+        for (int i = 0; i < FEATURES; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = a[i * FEATURES + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= l[i * FEATURES + k] * l[j * FEATURES + k];
+                }
+                if (i == j) {
+                    if (sum <= 0.0) {
+                        return null;
+                    }
+                    l[i * FEATURES + i] = Math.sqrt(sum);
+                } else {
+                    l[i * FEATURES + j] = sum / l[j * FEATURES + j];
+                }
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Solves LL'x = b by forward and back substitution
+     */
+    private static double[] solve(double[] l, double[] b) {
+        double[] y = new double[FEATURES];
+        for (int i = 0; i < FEATURES; i++) {
+            double sum = b[i];
+            for (int k = 0; k < i; k++) {
+                sum -= l[i * FEATURES + k] * y[k];
+            }
+            y[i] = sum / l[i * FEATURES + i];
+        }
+        double[] x = new double[FEATURES];
+        for (int i = FEATURES - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int k = i + 1; k < FEATURES; k++) {
+                sum -= l[k * FEATURES + i] * x[k];
+            }
+            x[i] = sum / l[i * FEATURES + i];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,87 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.contextcoach.exception.PayloadTooLargeException;
+
+/**
+ * Streams raw upload bodies to disk. The body is copied through a fixed direct buffer
+ * into a FileChannel and hashed on the way, so heap use does not grow with the size of
+ * the upload.
+ */
+@Service
+public class StreamingUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingUploadService.class);
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path spoolDirectory;
+    private final long maxUploadBytes;
+
+    public StreamingUploadService(
+            @Value("${contextcoach.upload.spool-directory:${java.io.tmpdir}}") String spoolDirectory,
+            @Value("${contextcoach.upload.stream.max-size:1GB}") DataSize maxUploadSize) throws IOException {
+        this.spoolDirectory = Files.createDirectories(Paths.get(spoolDirectory));
+        this.maxUploadBytes = maxUploadSize.toBytes();
+        logger.info("Streaming uploads are spooled to {} with a limit of {} bytes", this.spoolDirectory, maxUploadBytes);
+    }
+
+    /**
+     * Writes an upload body to a spool file while computing its SHA-256
+     *
+     * @param body The raw upload body
+     * @param fileName The original file name
+     * @param contentType The content type of the file
+     * @return The spooled file; closing it deletes the spool file
+     * @throws IOException If the body cannot be read or written
+     * @throws PayloadTooLargeException If the upload exceeds the configured maximum size
+     */
+    SpooledMultipartFile spool(InputStream body, String fileName, String contentType) throws IOException {
+        String extension = StringUtils.getFilenameExtension(fileName);
+        Path target = Files.createTempFile(spoolDirectory, "upload-", extension != null ? "." + extension : ".bin");
+        MessageDigest digest = FileService.newContentDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long size = 0;
+        long start = System.nanoTime();
+        try (ReadableByteChannel source = Channels.newChannel(body);
+             FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxUploadBytes) {
+                    throw new PayloadTooLargeException("Upload exceeds the maximum size of " + maxUploadBytes + " bytes");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        logger.info("Spooled {} bytes of {} in {} ms", size, fileName, (System.nanoTime() - start) / 1_000_000);
+        return new SpooledMultipartFile(target, fileName, contentType, size, contentHash);
+    }
+}
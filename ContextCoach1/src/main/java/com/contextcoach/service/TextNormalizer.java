@@ -0,0 +1,276 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.contextcoach.model.NormalizationStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Shrinks extracted text before it is stored as requirement content and sent in prompts.
+ * Lines that repeat at the top or bottom of most pages are taken as running headers and
+ * footers and dropped there, as are page numbers and common boilerplate such as
+ * confidentiality notices. Runs of spaces collapse to one space, runs containing a tab to
+ * one tab (the cell separator of extracted tables), and blank lines to at most one.
+ * Pages are separated by form feeds, as written by the PDF extractor.
+ */
+@Component
+public class TextNormalizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextNormalizer.class);
+
+    static final char PAGE_BREAK = '\f';
+
+    // Matched against the line key, in which every digit is replaced by '#'
+    private static final Pattern PAGE_NUMBER = Pattern.compile("(page\\s*)?#+(\\s*(of|/)\\s*#+)?|-\\s*#+\\s*-|\\[#+\\]");
+    private static final List<Pattern> DEFAULT_BOILERPLATE = List.of(
+            Pattern.compile("(?i)((company|strictly)\\s+)?confidential(\\s*[-:]?\\s*(internal use only|do not distribute))?\\.?"),
+            Pattern.compile("(?i)(for )?internal use only\\.?|do not distribute\\.?"),
+            Pattern.compile("(?i)((copyright|\\(c\\)|\u00a9).*)?all rights reserved\\.?"),
+            Pattern.compile("(?i)this page (is )?intentionally left blank\\.?"));
+    private static final int MAX_BOILERPLATE_LENGTH = 120;
+
+    private final boolean enabled;
+    private final int minPages;
+    private final double repeatRatio;
+    private final int edgeLines;
+    private final List<Pattern> boilerplate = new ArrayList<>(DEFAULT_BOILERPLATE);
+
+    private final DistributionSummary tokenReduction;
+    private final Counter tokensSaved;
+
+    public TextNormalizer(
+            MeterRegistry meterRegistry,
+            @Value("${contextcoach.normalization.enabled:true}") boolean enabled,
+            @Value("${contextcoach.normalization.min-pages:3}") int minPages,
+            @Value("${contextcoach.normalization.repeat-ratio:0.5}") double repeatRatio,
+            @Value("${contextcoach.normalization.edge-lines:3}") int edgeLines,
+            @Value("${contextcoach.normalization.boilerplate:}") String[] boilerplatePatterns) {
+        this.enabled = enabled;
+        this.minPages = Math.max(2, minPages);
+        this.repeatRatio = repeatRatio;
+        this.edgeLines = Math.max(1, edgeLines);
+        for (String pattern : boilerplatePatterns) {
+            if (!pattern.isBlank()) {
+                boilerplate.add(Pattern.compile(pattern.trim(), Pattern.CASE_INSENSITIVE));
+            }
+        }
+        this.tokenReduction = DistributionSummary.builder("contextcoach.normalization.token.reduction")
+                .description("Share of estimated prompt tokens removed from each document").register(meterRegistry);
+        this.tokensSaved = Counter.builder("contextcoach.normalization.tokens.saved")
+                .description("Estimated prompt tokens removed by normalization").register(meterRegistry);
+    }
+
+    /**
+     * Normalized text with the size before and after normalization
+     */
+    public static final class Result {
+        private final String text;
+        private final NormalizationStats stats;
+
+        private Result(String text, NormalizationStats stats) {
+            this.text = text;
+            this.stats = stats;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public NormalizationStats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * Normalizes extracted document text
+     *
+     * @param raw The extracted text
+     * @return The normalized text and its statistics
+     */
+    public Result normalize(String raw) {
+        if (raw == null) {
+            return new Result(null, new NormalizationStats());
+        }
+        int rawTokens = estimateTokens(raw);
+        if (!enabled) {
+            return new Result(raw, new NormalizationStats(raw.length(), raw.length(), rawTokens, rawTokens, 0));
+        }
+
+        List<List<String>> pages = new ArrayList<>();
+        for (String page : raw.split(String.valueOf(PAGE_BREAK), -1)) {
+            List<String> lines = new ArrayList<>();
+            // Trailing line breaks of a page are not blank lines in the text
+            for (String line : page.split("\\R")) {
+                lines.add(collapseWhitespace(line));
+            }
+            pages.add(lines);
+        }
+        int pageCount = (int) pages.stream().filter(lines -> lines.stream().anyMatch(line -> !line.isEmpty())).count();
+        boolean paged = pageCount >= minPages;
+        Set<String> repeated = paged ? findRepeatedEdgeLines(pages, pageCount) : Set.of();
+
+        StringBuilder text = new StringBuilder(raw.length());
+        int removedLines = 0;
+        boolean pendingBlank = false;
+        for (List<String> lines : pages) {
+            int nonEmpty = (int) lines.stream().filter(line -> !line.isEmpty()).count();
+            int ordinal = 0;
+            for (String line : lines) {
+                if (line.isEmpty()) {
+                    pendingBlank = text.length() > 0;
+                    continue;
+                }
+                boolean edge = ordinal < edgeLines || ordinal >= nonEmpty - edgeLines;
+                ordinal++;
+                boolean runningLine = edge && paged
+                        && (repeated.contains(lineKey(line)) || PAGE_NUMBER.matcher(lineKey(line)).matches());
+                if (runningLine || isBoilerplate(line)) {
+                    removedLines++;
+                    continue;
+                }
+                if (text.length() > 0) {
+                    text.append(pendingBlank ? "\n\n" : "\n");
+                }
+                pendingBlank = false;
+                text.append(line);
+            }
+        }
+
+        String normalized = text.toString();
+        NormalizationStats stats = new NormalizationStats(
+                raw.length(), normalized.length(), rawTokens, estimateTokens(normalized), removedLines);
+        tokenReduction.record(stats.getTokenReduction());
+        tokensSaved.increment(Math.max(0, stats.getRawTokens() - stats.getNormalizedTokens()));
+        logger.debug("Normalized {} pages: {} lines removed, estimated tokens {} -> {}",
+                pageCount, removedLines, stats.getRawTokens(), stats.getNormalizedTokens());
+        return new Result(normalized, stats);
+    }
+
+    /**
+     * Finds the keys of lines that appear among the first or last lines of enough pages
+     */
+    private Set<String> findRepeatedEdgeLines(List<List<String>> pages, int pageCount) {
+        Map<String, Integer> pageCounts = new HashMap<>();
+        for (List<String> lines : pages) {
+            List<String> nonEmpty = lines.stream().filter(line -> !line.isEmpty()).toList();
+            Set<String> edgeKeys = new HashSet<>();
+            for (int i = 0; i < nonEmpty.size(); i++) {
+                if (i < edgeLines || i >= nonEmpty.size() - edgeLines) {
+                    edgeKeys.add(lineKey(nonEmpty.get(i)));
+                }
+            }
+            for (String key : edgeKeys) {
+                pageCounts.merge(key, 1, Integer::sum);
+            }
+        }
+        int threshold = Math.max(minPages, (int) Math.ceil(pageCount * repeatRatio));
+        Set<String> repeated = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : pageCounts.entrySet()) {
+            if (entry.getValue() >= threshold) {
+                repeated.add(entry.getKey());
+            }
+        }
+        return repeated;
+    }
+
+    private boolean isBoilerplate(String line) {
+        if (line.length() > MAX_BOILERPLATE_LENGTH) {
+            return false;
+        }
+        for (Pattern pattern : boilerplate) {
+            if (pattern.matcher(line).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the key used to compare lines across pages: lower case with digits replaced,
+     * so "Page 3 of 12" and "Page 4 of 12" are the same running footer
+     */
+    private static String lineKey(String line) {
+        StringBuilder key = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            key.append(Character.isDigit(c) ? '#' : Character.toLowerCase(c));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Trims a line, drops control characters and collapses whitespace runs to a single
+     * space, or a single tab if the run contains one
+     */
+    static String collapseWhitespace(String line) {
+        StringBuilder collapsed = new StringBuilder(line.length());
+        boolean space = false;
+        boolean tab = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                tab = true;
+            } else if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = true;
+            } else if (!Character.isISOControl(c)) {
+                if (collapsed.length() > 0 && (tab || space)) {
+                    collapsed.append(tab ? '\t' : ' ');
+                }
+                tab = false;
+                space = false;
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+
+    /**
+     * Estimates the number of LLM tokens in a text the way BPE vocabularies split it:
+     * a word is one token per six characters, a single space joins the following word,
+     * and every other whitespace run and punctuation character is a token of its own.
+     *
+     * @param text The text
+     * @return The estimated token count
+     */
+    public static int estimateTokens(CharSequence text) {
+        int tokens = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int end = i + 1;
+            if (Character.isLetterOrDigit(c)) {
+                while (end < length && Character.isLetterOrDigit(text.charAt(end))) {
+                    end++;
+                }
+                tokens += (end - i + 5) / 6;
+            } else if (Character.isWhitespace(c)) {
+                while (end < length && Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                boolean joinsWord = c == ' ' && end == i + 1 && end < length && Character.isLetterOrDigit(text.charAt(end));
+                if (!joinsWord) {
+                    tokens++;
+                }
+            } else {
+                tokens++;
+            }
+            i = end;
+        }
+        return tokens;
+    }
+}
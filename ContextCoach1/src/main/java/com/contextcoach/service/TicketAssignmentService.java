@@ -0,0 +1,329 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperWorkload;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.TicketAssignmentPlan;
+import com.contextcoach.model.TicketAssignmentRequest;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteResult;
+
+/**
+ * Assigns open unassigned tickets to developers. The cost of a ticket with a developer is
+ * the hours it would take them (story points over their productivity factor), raised when
+ * the ticket mentions few of their skills. Each developer's capacity is their preferred
+ * hours per day over the planning horizon, less the hours of the open tickets they already
+ * have, and {@link MinCostAssignment} finds the cheapest assignment that spreads the
+ * tickets according to the capacity left.
+ */
+@Service
+public class TicketAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketAssignmentService.class);
+    private static final int DEFAULT_STORY_POINTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final DeveloperProfileRepository developerProfileRepository;
+    private final DeveloperWorkloadService developerWorkloadService;
+    private final int horizonDays;
+    private final double hoursPerStoryPoint;
+    private final double skillMismatchWeight;
+    private final double balanceWeight;
+    private final double overloadPenalty;
+    private final int maxTickets;
+
+    public TicketAssignmentService(
+            MongoTemplate mongoTemplate,
+            DeveloperProfileRepository developerProfileRepository,
+            DeveloperWorkloadService developerWorkloadService,
+            @Value("${contextcoach.assignment.horizon-days:10}") int horizonDays,
+            @Value("${contextcoach.assignment.hours-per-story-point:4.0}") double hoursPerStoryPoint,
+            @Value("${contextcoach.assignment.skill-mismatch-weight:1.0}") double skillMismatchWeight,
+            @Value("${contextcoach.assignment.balance-weight:2.0}") double balanceWeight,
+            @Value("${contextcoach.assignment.overload-penalty:10.0}") double overloadPenalty,
+            @Value("${contextcoach.assignment.max-tickets:10000}") int maxTickets) {
+        this.mongoTemplate = mongoTemplate;
+        this.developerProfileRepository = developerProfileRepository;
+        this.developerWorkloadService = developerWorkloadService;
+        this.horizonDays = Math.max(horizonDays, 1);
+        this.hoursPerStoryPoint = hoursPerStoryPoint > 0 ? hoursPerStoryPoint : 4.0;
+        this.skillMismatchWeight = Math.max(skillMismatchWeight, 0.0);
+        this.balanceWeight = Math.max(balanceWeight, 0.0);
+        this.overloadPenalty = Math.max(overloadPenalty, 0.0);
+        this.maxTickets = Math.max(maxTickets, 1);
+    }
+
+    /**
+     * Computes an assignment of unassigned tickets to developers and optionally saves it
+     *
+     * @param request The tickets and developers to assign, all of each if not given
+     * @return The assignment and the resulting load of each developer
+     * @throws IllegalArgumentException if there are no developers or too many tickets
+     */
+    public TicketAssignmentPlan assignTickets(TicketAssignmentRequest request) {
+        long startTime = System.currentTimeMillis();
+        List<String> ticketIds = request != null ? request.getTicketIds() : null;
+        List<String> developerIds = request != null ? request.getDeveloperIds() : null;
+        boolean apply = request != null && request.isApply();
+
+        List<DeveloperProfile> developers = new ArrayList<>();
+        if (developerIds == null || developerIds.isEmpty()) {
+            developers.addAll(developerProfileRepository.findAll());
+        } else {
+            developerProfileRepository.findAllById(developerIds).forEach(developers::add);
+        }
+        if (developers.isEmpty()) {
+            logger.error("No developers found to assign tickets to");
+            throw new IllegalArgumentException("At least one developer is required");
+        }
+        List<JiraTicket> tickets = findUnassignedTickets(ticketIds);
+        if (tickets.size() > maxTickets) {
+            logger.error("Assignment requested for more than {} tickets", maxTickets);
+            throw new IllegalArgumentException("At most " + maxTickets + " tickets can be assigned in one request");
+        }
+        logger.info("Assigning {} tickets to {} developers", tickets.size(), developers.size());
+
+        int ticketCount = tickets.size();
+        int developerCount = developers.size();
+        int[] storyPoints = new int[ticketCount];
+        double totalPoints = 0.0;
+        for (int t = 0; t < ticketCount; t++) {
+            Integer estimate = tickets.get(t).getEstimatedStoryPoints();
+            storyPoints[t] = estimate != null && estimate > 0 ? estimate : DEFAULT_STORY_POINTS;
+            totalPoints += storyPoints[t];
+        }
+        double meanHours = (ticketCount > 0 ? totalPoints / ticketCount : DEFAULT_STORY_POINTS) * hoursPerStoryPoint;
+
+        Map<String, Long> openStoryPoints = new HashMap<>();
+        for (DeveloperWorkload workload : developerWorkloadService.getWorkloads(
+                developers.stream().map(DeveloperProfile::getId).toList())) {
+            openStoryPoints.put(workload.getDeveloperId(), workload.getTotalStoryPoints());
+        }
+
+        double[] productivity = new double[developerCount];
+        double[] capacityHours = new double[developerCount];
+        double[] existingHours = new double[developerCount];
+        double[] slots = new double[developerCount];
+        for (int d = 0; d < developerCount; d++) {
+            DeveloperProfile developer = developers.get(d);
+            productivity[d] = developer.getProductivityFactor() != null && developer.getProductivityFactor() > 0
+                    ? developer.getProductivityFactor() : 1.0;
+            double hoursPerDay = developer.getPreferredWorkHoursPerDay() != null && developer.getPreferredWorkHoursPerDay() > 0
+                    ? developer.getPreferredWorkHoursPerDay() : 8.0;
+            capacityHours[d] = hoursPerDay * horizonDays;
+            existingHours[d] = openStoryPoints.getOrDefault(developer.getId(), 0L) * hoursPerStoryPoint / productivity[d];
+            // Capacity left in tickets of average size for this developer
+            slots[d] = Math.max(capacityHours[d] - existingHours[d], 0.0) * productivity[d] / meanHours;
+        }
+
+        double[] skillMatch = skillMatches(tickets, developers);
+        double[] cost = new double[ticketCount * developerCount];
+        for (int t = 0; t < ticketCount; t++) {
+            double weight = priorityWeight(tickets.get(t).getPriority());
+            int row = t * developerCount;
+            for (int d = 0; d < developerCount; d++) {
+                double hours = storyPoints[t] * hoursPerStoryPoint / productivity[d];
+                cost[row + d] = weight * hours * (1.0 + skillMismatchWeight * (1.0 - skillMatch[row + d]));
+            }
+        }
+
+        int[] assignment = MinCostAssignment.solve(cost, ticketCount, developerCount, slots,
+                balanceWeight * meanHours, overloadPenalty * meanHours);
+
+        TicketAssignmentPlan plan = new TicketAssignmentPlan();
+        List<TicketAssignmentPlan.DeveloperLoad> loads = new ArrayList<>();
+        for (int d = 0; d < developerCount; d++) {
+            DeveloperProfile developer = developers.get(d);
+            TicketAssignmentPlan.DeveloperLoad load = new TicketAssignmentPlan.DeveloperLoad(
+                    developer.getId(), developer.getName(), capacityHours[d]);
+            load.setExistingHours(existingHours[d]);
+            loads.add(load);
+        }
+        for (int t = 0; t < ticketCount; t++) {
+            int d = assignment[t];
+            JiraTicket ticket = tickets.get(t);
+            DeveloperProfile developer = developers.get(d);
+            double hours = storyPoints[t] * hoursPerStoryPoint / productivity[d];
+            TicketAssignmentPlan.Assignment entry = new TicketAssignmentPlan.Assignment(
+                    ticket.getId(), ticket.getTitle(), developer.getId(), developer.getName());
+            entry.setStoryPoints(storyPoints[t]);
+            entry.setEstimatedHours(hours);
+            entry.setSkillMatch(skillMatch[t * developerCount + d]);
+            plan.getAssignments().add(entry);
+
+            TicketAssignmentPlan.DeveloperLoad load = loads.get(d);
+            load.setTicketCount(load.getTicketCount() + 1);
+            load.setStoryPoints(load.getStoryPoints() + storyPoints[t]);
+            load.setEstimatedHours(load.getEstimatedHours() + hours);
+            ticket.setAssignedDeveloper(developer);
+        }
+        plan.setDevelopers(loads);
+        plan.setTotalCost(MinCostAssignment.totalCost(cost, developerCount, slots,
+                balanceWeight * meanHours, overloadPenalty * meanHours, assignment));
+
+        if (apply && ticketCount > 0) {
+            saveAssignments(tickets);
+            plan.setApplied(true);
+        }
+        plan.setElapsedMillis(System.currentTimeMillis() - startTime);
+        logger.info("Assigned {} tickets to {} developers in {}ms{}", ticketCount, developerCount,
+                plan.getElapsedMillis(), plan.isApplied() ? "" : " (not applied)");
+        return plan;
+    }
+
+    /**
+     * Loads the open unassigned tickets with only the fields the assignment needs, so the
+     * requirement references are not resolved
+     */
+    private List<JiraTicket> findUnassignedTickets(List<String> ticketIds) {
+        Criteria criteria = Criteria.where("assignedDeveloper").is(null);
+        if (ticketIds != null && !ticketIds.isEmpty()) {
+            criteria = criteria.and("_id").in(ticketIds);
+        }
+        Query query = new Query(new Criteria().andOperator(criteria, developerWorkloadService.openStatusCriteria()))
+                .limit(maxTickets + 1);
+        query.fields().include("title", "description", "ticketType", "priority", "estimatedStoryPoints", "status", "version");
+        return mongoTemplate.find(query, JiraTicket.class);
+    }
+
+    /**
+     * Saves the chosen developer of every ticket with one bulk write and adds the saved
+     * tickets to the developer workloads. Each update only matches the ticket at the
+     * version that was read, so tickets assigned or changed elsewhere in the meantime are
+     * left alone and not counted.
+     */
+    private void saveAssignments(List<JiraTicket> tickets) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JiraTicket.class);
+        for (JiraTicket ticket : tickets) {
+            bulkOps.updateOne(
+                    new Query(Criteria.where("_id").is(ticket.getId()).and("assignedDeveloper").is(null)
+                            .and("version").is(ticket.getVersion())),
+                    new Update().set("assignedDeveloper", ticket.getAssignedDeveloper()).inc("version", 1));
+        }
+        BulkWriteResult result = bulkOps.execute();
+        List<JiraTicket> saved = tickets;
+        if (result != null && result.getModifiedCount() < tickets.size()) {
+            saved = findSavedAssignments(tickets);
+            logger.warn("{} of {} tickets were changed concurrently and kept their developer",
+                    tickets.size() - saved.size(), tickets.size());
+        }
+        developerWorkloadService.recordTickets(saved);
+    }
+
+    /**
+     * Finds the tickets whose assignment was saved. A ticket at the version after the one
+     * read with the chosen developer went through the update, since only one write can
+     * move a ticket away from the version it was read at.
+     */
+    private List<JiraTicket> findSavedAssignments(List<JiraTicket> tickets) {
+        Map<String, JiraTicket> byId = new HashMap<>();
+        for (JiraTicket ticket : tickets) {
+            byId.put(ticket.getId(), ticket);
+        }
+        Query query = new Query(Criteria.where("_id").in(byId.keySet()));
+        query.fields().include("assignedDeveloper", "version");
+        List<JiraTicket> saved = new ArrayList<>();
+        // Read as documents so the developer references are not resolved
+        for (Document stored : mongoTemplate.find(query, Document.class, "jira_tickets")) {
+            JiraTicket ticket = byId.get(String.valueOf(stored.get("_id")));
+            if (ticket == null) {
+                continue;
+            }
+            long expectedVersion = (ticket.getVersion() != null ? ticket.getVersion() : 0L) + 1;
+            Object developer = stored.get("assignedDeveloper");
+            Object version = stored.get("version");
+            if (developer instanceof DBRef
+                    && Objects.equals(String.valueOf(((DBRef) developer).getId()), ticket.getAssignedDeveloper().getId())
+                    && version instanceof Number && ((Number) version).longValue() == expectedVersion) {
+                saved.add(ticket);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Gets the fraction of each developer's skills that each ticket mentions, checking
+     * every distinct skill once per ticket
+     */
+    private static double[] skillMatches(List<JiraTicket> tickets, List<DeveloperProfile> developers) {
+        Map<String, Integer> skillIndex = new HashMap<>();
+        int[][] developerSkills = new int[developers.size()][];
+        for (int d = 0; d < developers.size(); d++) {
+            List<String> skills = developers.get(d).getSkills();
+            List<Integer> indexes = new ArrayList<>();
+            if (skills != null) {
+                for (String skill : skills) {
+                    if (skill != null && !skill.isBlank()) {
+                        String key = skill.trim().toLowerCase(Locale.ROOT);
+                        indexes.add(skillIndex.computeIfAbsent(key, k -> skillIndex.size()));
+                    }
+                }
+            }
+            developerSkills[d] = indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+        String[] skillNames = new String[skillIndex.size()];
+        skillIndex.forEach((skill, index) -> skillNames[index] = skill);
+
+        double[] matches = new double[tickets.size() * developers.size()];
+        boolean[] mentioned = new boolean[skillNames.length];
+        for (int t = 0; t < tickets.size(); t++) {
+            JiraTicket ticket = tickets.get(t);
+            String text = ((ticket.getTitle() != null ? ticket.getTitle() : "") + " "
+                    + (ticket.getDescription() != null ? ticket.getDescription() : "")).toLowerCase(Locale.ROOT);
+            for (int s = 0; s < skillNames.length; s++) {
+                mentioned[s] = text.contains(skillNames[s]);
+            }
+            int row = t * developers.size();
+            for (int d = 0; d < developers.size(); d++) {
+                int[] skills = developerSkills[d];
+                if (skills.length == 0) {
+                    continue;
+                }
+                int matched = 0;
+                for (int skill : skills) {
+                    matched += mentioned[skill] ? 1 : 0;
+                }
+                matches[row + d] = (double) matched / skills.length;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Weighs higher priority tickets more so they go to the best fitting developers first
+     */
+    private static double priorityWeight(String priority) {
+        if (priority == null) {
+            return 1.0;
+        }
+        switch (priority.trim().toLowerCase(Locale.ROOT)) {
+            case "high":
+            case "highest":
+                return 1.5;
+            case "low":
+            case "lowest":
+                return 0.75;
+            default:
+                return 1.0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.contextcoach.exception.ServiceUnavailableException;
+import com.contextcoach.model.ExtractedDocument;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Extracts single-file uploads. CPU-heavy formats run on the bounded extraction executor
+ * and cheap ones on the request thread. When the executor's queue is full the
+ * upload is rejected with 503 and a retry delay. Once the timeout for the detected format
+ * has passed, the extraction task is cancelled, which interrupts its worker and the
+ * document parts it started, and the upload is answered with 503 and a retry delay.
+ */
+@Service
+public class UploadExtractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadExtractionService.class);
+
+    private final FileService fileService;
+    private final ThreadPoolTaskExecutor extractionExecutor;
+    private final Duration defaultTimeout;
+    private final Map<String, Duration> formatTimeouts = new HashMap<>();
+    private final long retryAfterSeconds;
+
+    private final Counter rejectedUploads;
+    private final MeterRegistry meterRegistry;
+
+    public UploadExtractionService(
+            FileService fileService,
+            @Qualifier("extractionExecutor") ThreadPoolTaskExecutor extractionExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${contextcoach.extraction.upload.timeout:20s}") Duration defaultTimeout,
+            @Value("${contextcoach.extraction.upload.format-timeouts:PDF=90s,EXCEL=60s,WORD=30s}") String[] formatTimeouts,
+            @Value("${contextcoach.extraction.upload.retry-after:5s}") Duration retryAfter) {
+        this.fileService = fileService;
+        this.extractionExecutor = extractionExecutor;
+        this.defaultTimeout = defaultTimeout;
+        for (String entry : formatTimeouts) {
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid format timeout, expected FORMAT=duration: " + entry);
+            }
+            this.formatTimeouts.put(entry.substring(0, separator).trim().toUpperCase(Locale.ROOT),
+                    DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+        }
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("contextcoach.extraction.queue.size", extractionExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Extraction tasks waiting for a worker").register(meterRegistry);
+        Gauge.builder("contextcoach.extraction.active", extractionExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Extraction workers that are busy").register(meterRegistry);
+        this.rejectedUploads = Counter.builder("contextcoach.extraction.upload.rejected")
+                .description("Uploads rejected because the extraction queue was full").register(meterRegistry);
+    }
+
+    /**
+     * Extracts an upload, on the extraction executor if its format is CPU-heavy
+     *
+     * @param file The uploaded file
+     * @param contentHash The SHA-256 of the file content if already known, or null to compute it
+     * @return The detected format and the extracted text
+     * @throws IOException If there's an error reading the file or the format is not supported
+     * @throws ServiceUnavailableException If the extraction queue is full or the extraction
+     *         does not finish within the format's timeout
+     */
+    public ExtractedDocument extractDocument(MultipartFile file, String contentHash) throws IOException {
+        Optional<Extractor> extractor = file == null || file.getOriginalFilename() == null || file.getContentType() == null
+                ? Optional.empty()
+                : fileService.detectExtractor(file);
+        if (extractor.isEmpty() || extractor.get().getCostClass() != Extractor.CostClass.HEAVY) {
+            // Cheap formats, invalid and unsupported files are handled without using a worker
+            return fileService.extractDocument(file, contentHash);
+        }
+
+        String format = extractor.get().getFormat();
+        Future<ExtractedDocument> result;
+        try {
+            result = extractionExecutor.submit(() -> fileService.extractDocument(file, contentHash));
+        } catch (TaskRejectedException e) {
+            rejectedUploads.increment();
+            logger.warn("Extraction queue is full, rejecting upload: {}", file.getOriginalFilename());
+            throw new ServiceUnavailableException("Too many documents are being processed, please retry later", e, retryAfterSeconds);
+        }
+
+        Duration timeout = getTimeout(format);
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Extraction failed: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            // Interrupts the worker; the extractors check for interrupts between pages and rows
+            result.cancel(true);
+            meterRegistry.counter("contextcoach.extraction.upload.timeouts", "format", format).increment();
+            logger.error("Extraction of {} file {} did not finish within {} ms",
+                    format, file.getOriginalFilename(), timeout.toMillis());
+            throw new ServiceUnavailableException("Extraction of " + format + " file did not finish within "
+                    + timeout.toMillis() + " ms", e, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for extraction", e);
+        }
+    }
+
+    /**
+     * Gets the time a request waits for the extraction of a format, including queueing
+     *
+     * @param format The detected format
+     * @return The configured timeout for the format, or the default timeout
+     */
+    public Duration getTimeout(String format) {
+        return formatTimeouts.getOrDefault(format, defaultTimeout);
+    }
+}
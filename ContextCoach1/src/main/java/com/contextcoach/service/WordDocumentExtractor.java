@@ -0,0 +1,374 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.hwpf.HWPFDocument;
+import org.apache.poi.hwpf.model.StyleDescription;
+import org.apache.poi.hwpf.model.StyleSheet;
+import org.apache.poi.hwpf.usermodel.Paragraph;
+import org.apache.poi.hwpf.usermodel.Range;
+import org.apache.poi.hwpf.usermodel.Table;
+import org.apache.poi.hwpf.usermodel.TableRow;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.XMLHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Extracts text from Word documents. Paragraphs become lines, headings are prefixed with
+ * '#' per level, and table rows are written as tab separated cells, all in document order.
+ * Extraction stops with an InterruptedIOException between paragraphs once the thread is
+ * interrupted, for example because the extraction timed out.
+ */
+@Component
+@Order(300)
+public class WordDocumentExtractor implements Extractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WordDocumentExtractor.class);
+
+    @Override
+    public String getFormat() {
+        return "WORD";
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.HEAVY;
+    }
+
+    @Override
+    public boolean matchesContent(ContentProbe probe) {
+        // OLE2 containers hold Word and Excel alike, so only the declared type tells them apart
+        return probe.hasZipEntry("word/") || (probe.isOle2() && matchesDeclaredType(probe));
+    }
+
+    @Override
+    public boolean matchesDeclaredType(ContentProbe probe) {
+        return probe.contentTypeContains("word") || probe.hasExtension("docx", "doc");
+    }
+
+    @Override
+    public String extract(MultipartFile file) throws IOException {
+        logger.debug("Extracting text from Word document: {}", file.getOriginalFilename());
+        FileMagic fileMagic;
+        try (InputStream inputStream = FileMagic.prepareToCheckMagic(file.getInputStream())) {
+            fileMagic = FileMagic.valueOf(inputStream);
+        }
+        if (fileMagic != FileMagic.OOXML && fileMagic != FileMagic.OLE2) {
+            logger.error("Invalid Word document: {}", file.getOriginalFilename());
+            throw new IOException("Invalid Word document: " + file.getOriginalFilename());
+        }
+
+        Path tempFile = ExtractionSupport.spoolToTempFile(file, fileMagic == FileMagic.OOXML ? ".docx" : ".doc");
+        try {
+            String result = fileMagic == FileMagic.OOXML ? extractDocx(tempFile) : extractDoc(tempFile);
+            logger.debug("Successfully extracted {} characters from Word document", result.length());
+            return result;
+        } catch (IOException e) {
+            logger.error("Error extracting text from Word document: {}", file.getOriginalFilename(), e);
+            throw e;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException | RuntimeException e) {
+            logger.error("Error extracting text from Word document: {}", file.getOriginalFilename(), e);
+            throw new IOException("Error reading Word document: " + e.getMessage(), e);
+        } finally {
+            ExtractionSupport.deleteTempFile(file, tempFile);
+        }
+    }
+
+    /**
+     * Streams the main document part of a DOCX package with SAX
+     */
+    private String extractDocx(Path docxFile)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        try (OPCPackage pkg = OPCPackage.open(docxFile.toFile(), PackageAccess.READ)) {
+            PackageRelationshipCollection documents = pkg.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT);
+            if (documents.size() == 0) {
+                documents = pkg.getRelationshipsByType(PackageRelationshipTypes.STRICT_CORE_DOCUMENT);
+            }
+            if (documents.size() == 0) {
+                throw new IOException("Word document has no main document part");
+            }
+            PackagePart documentPart = pkg.getPart(documents.getRelationship(0));
+            DocumentTextHandler handler = new DocumentTextHandler();
+            try (InputStream inputStream = documentPart.getInputStream()) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(handler);
+                xmlReader.parse(new InputSource(inputStream));
+            } catch (SAXException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Word extraction was interrupted");
+                }
+                throw e;
+            }
+            return handler.text.toString();
+        }
+    }
+
+    /**
+     * Reads a legacy binary DOC file. The OLE2 container is opened from the spooled file
+     * rather than copied into memory, but HWPF parses the document text as a whole.
+     */
+    private String extractDoc(Path docFile) throws IOException {
+        StringBuilder textBuilder = new StringBuilder();
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(docFile.toFile(), true);
+             HWPFDocument document = new HWPFDocument(fileSystem.getRoot())) {
+            Range range = document.getRange();
+            StyleSheet styleSheet = document.getStyleSheet();
+            for (int i = 0; i < range.numParagraphs(); i++) {
+                checkInterrupted();
+                Paragraph paragraph = range.getParagraph(i);
+                if (paragraph.isInTable()) {
+                    Table table = range.getTable(paragraph);
+                    for (int r = 0; r < table.numRows(); r++) {
+                        checkInterrupted();
+                        TableRow row = table.getRow(r);
+                        StringBuilder rowText = new StringBuilder();
+                        for (int c = 0; c < row.numCells(); c++) {
+                            ExtractionSupport.appendCell(rowText, cleanDocText(row.getCell(c).text()));
+                        }
+                        if (rowText.length() > 0) {
+                            textBuilder.append(rowText).append('\n');
+                        }
+                    }
+                    i += table.numParagraphs() - 1;
+                    continue;
+                }
+                String text = cleanDocText(paragraph.text());
+                if (text.isEmpty()) {
+                    continue;
+                }
+                StyleDescription style = styleSheet.getStyleDescription(paragraph.getStyleIndex());
+                int level = style == null ? 0 : headingLevel(style.getName());
+                ExtractionSupport.appendParagraph(textBuilder, text, level);
+            }
+        }
+        return textBuilder.toString();
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Word extraction was interrupted");
+        }
+    }
+
+    /**
+     * Removes field codes and control characters from HWPF text
+     */
+    private static String cleanDocText(String text) {
+        StringBuilder cleaned = new StringBuilder(text.length());
+        String stripped = Range.stripFields(text);
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (c == '\t') {
+                cleaned.append(c);
+            } else if (c == '\r' || c == '\u000b' || c == '\u0007') {
+                cleaned.append(' ');
+            } else if (!Character.isISOControl(c)) {
+                cleaned.append(c);
+            }
+        }
+        return cleaned.toString().trim();
+    }
+
+    /**
+     * Maps a paragraph style name or id such as "heading 2", "Heading2" or "Title" to a
+     * heading level, or 0 if the style is not a heading
+     */
+    private static int headingLevel(String style) {
+        if (style == null) {
+            return 0;
+        }
+        String normalized = style.replace(" ", "").toLowerCase(Locale.ROOT);
+        if ("title".equals(normalized)) {
+            return 1;
+        }
+        if (normalized.startsWith("heading") && normalized.length() > "heading".length()) {
+            try {
+                return Math.min(6, Math.max(1, Integer.parseInt(normalized.substring("heading".length()))));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * SAX handler for the main part of a DOCX package. Only the open paragraphs and the
+     * current table row are buffered. Nested tables are flattened into the cell that
+     * contains them, and the paragraphs of a text box into the paragraph it is anchored
+     * in. Of alternate content only the preferred choice is read, since the fallback holds
+     * a copy of the same text. Deleted text and field instructions are skipped since only
+     * w:t runs are read.
+     */
+    private static final class DocumentTextHandler extends DefaultHandler {
+        private static final String MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+        private final StringBuilder text = new StringBuilder();
+        // Paragraphs of text boxes open inside the paragraph that anchors them
+        private final Deque<StringBuilder> paragraphs = new ArrayDeque<>();
+        private final Deque<Integer> headingLevels = new ArrayDeque<>();
+        // Open tables, true for those in a text box, which are flattened like their paragraphs
+        private final Deque<Boolean> tables = new ArrayDeque<>();
+        private final StringBuilder cell = new StringBuilder();
+        private final StringBuilder rowText = new StringBuilder();
+        private int tableDepth;
+        private int fallbackDepth;
+        private boolean inText;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (MARKUP_COMPATIBILITY.equals(uri) && "Fallback".equals(localName)) {
+                fallbackDepth++;
+                return;
+            }
+            if (fallbackDepth > 0 || !uri.contains("wordprocessingml")) {
+                return;
+            }
+            switch (localName) {
+                case "p":
+                    paragraphs.push(new StringBuilder());
+                    headingLevels.push(0);
+                    break;
+                case "pStyle":
+                    if (!headingLevels.isEmpty()) {
+                        headingLevels.pop();
+                        headingLevels.push(headingLevel(attributes.getValue(uri, "val")));
+                    }
+                    break;
+                case "t":
+                    inText = true;
+                    break;
+                case "tab":
+                    appendToParagraph('\t');
+                    break;
+                case "br":
+                case "cr":
+                    appendToParagraph(tableDepth > 0 ? ' ' : '\n');
+                    break;
+                case "tbl":
+                    tables.push(!paragraphs.isEmpty());
+                    if (!tables.peek()) {
+                        tableDepth++;
+                    }
+                    break;
+                case "tr":
+                    if (inOuterTable()) {
+                        rowText.setLength(0);
+                    }
+                    break;
+                case "tc":
+                    if (inOuterTable()) {
+                        cell.setLength(0);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Checks whether the innermost open table is an outermost body table, whose rows
+         * and cells are written out
+         */
+        private boolean inOuterTable() {
+            return tableDepth == 1 && !tables.isEmpty() && !tables.peek();
+        }
+
+        private void appendToParagraph(char c) {
+            if (!paragraphs.isEmpty()) {
+                paragraphs.peek().append(c);
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText && !paragraphs.isEmpty()) {
+                paragraphs.peek().append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (MARKUP_COMPATIBILITY.equals(uri) && "Fallback".equals(localName)) {
+                fallbackDepth--;
+                return;
+            }
+            if (fallbackDepth > 0 || !uri.contains("wordprocessingml")) {
+                return;
+            }
+            switch (localName) {
+                case "t":
+                    inText = false;
+                    break;
+                case "p":
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new SAXException("Word document parsing was interrupted");
+                    }
+                    if (paragraphs.isEmpty()) {
+                        break;
+                    }
+                    String paragraphText = paragraphs.pop().toString().trim();
+                    int headingLevel = headingLevels.pop();
+                    if (paragraphText.isEmpty()) {
+                        break;
+                    }
+                    if (!paragraphs.isEmpty()) {
+                        // A text box paragraph continues the paragraph it is anchored in
+                        StringBuilder anchor = paragraphs.peek();
+                        if (anchor.length() > 0 && !Character.isWhitespace(anchor.charAt(anchor.length() - 1))) {
+                            anchor.append(' ');
+                        }
+                        anchor.append(paragraphText).append(' ');
+                    } else if (tableDepth > 0) {
+                        if (cell.length() > 0) {
+                            cell.append(' ');
+                        }
+                        cell.append(paragraphText);
+                    } else {
+                        ExtractionSupport.appendParagraph(text, paragraphText, headingLevel);
+                    }
+                    break;
+                case "tc":
+                    if (inOuterTable()) {
+                        ExtractionSupport.appendCell(rowText, cell.toString().replace('\t', ' ').trim());
+                    }
+                    break;
+                case "tr":
+                    if (inOuterTable() && rowText.length() > 0) {
+                        text.append(rowText).append('\n');
+                    }
+                    break;
+                case "tbl":
+                    if (!tables.isEmpty() && !tables.pop()) {
+                        tableDepth--;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.contextcoach.model.PreScreenResult;
+import com.contextcoach.model.PreScreenResult.TermMatch;
+
+class AmbiguityPreScreenServiceTest {
+
+    private static final String CLEAR_REQUIREMENT =
+            "The login endpoint must respond within 200 ms for 95% of requests. " +
+            "Users must be locked out after 5 failed attempts within 10 minutes. " +
+            "Passwords must contain at least 12 characters.";
+
+    private static AmbiguityPreScreenService newService(boolean skipLlm) throws IOException {
+        return new AmbiguityPreScreenService(new AmbiguityLexicon(new ClassPathResource("ambiguity-lexicon.txt")), skipLlm, 20, 8.0, 500);
+    }
+
+    @Test
+    void testMatchesReportOriginalOffsetsAndCategories() throws IOException {
+        String text = "Exports run as   needed and are FAST.";
+        PreScreenResult result = newService(true).screen(text);
+
+        assertEquals(2, result.getMatchCount());
+        TermMatch asNeeded = result.getMatches().get(0);
+        assertEquals("Open-ended conditions", asNeeded.getCategory());
+        assertEquals("as   needed", asNeeded.getTerm());
+        assertEquals(text.indexOf("as"), asNeeded.getStart());
+        TermMatch fast = result.getMatches().get(1);
+        assertEquals("Vague terms", fast.getCategory());
+        assertEquals("FAST", text.substring(fast.getStart(), fast.getEnd()));
+    }
+
+    @Test
+    void testOnlyWholeWordsMatch() throws IOException {
+        PreScreenResult result = newService(true).screen("Breakfast is served at the fastest station, mostly.");
+
+        assertEquals(0, result.getMatchCount());
+    }
+
+    @Test
+    void testOverlappingTermsCountOnce() throws IOException {
+        String text = "Scale out as needed and respond as fast as possible where appropriate.";
+        PreScreenResult result = newService(true).screen(text);
+
+        assertEquals(3, result.getMatchCount());
+        assertEquals("as needed", result.getMatches().get(0).getTerm());
+        assertEquals("as fast as possible", result.getMatches().get(1).getTerm());
+        assertEquals("Unquantified performance", result.getMatches().get(1).getCategory());
+        assertEquals("appropriate", result.getMatches().get(2).getTerm());
+    }
+
+    @Test
+    void testHarmlessTodoAndPlaceholderDoNotShortCircuit() throws IOException {
+        AmbiguityPreScreenService service = newService(true);
+        String todoList = "Users must be able to build a TODO list with up to 100 items, each with a title of at most 80 "
+                + "characters and a due date, and mark every item as done within 2 clicks.";
+        String searchBox = "The search box must show placeholder text reading Search tickets until the user types "
+                + "at least 1 character, and must return results within 300 ms.";
+
+        assertEquals(PreScreenResult.INCONCLUSIVE, service.screen(todoList).getVerdict());
+        assertEquals(PreScreenResult.INCONCLUSIVE, service.screen(searchBox).getVerdict());
+        assertFalse(service.conclusiveResult(todoList).isPresent());
+        assertFalse(service.conclusiveResult(searchBox).isPresent());
+        assertEquals(PreScreenResult.VAGUE, service.screen("The retention period is to be confirmed.").getVerdict());
+    }
+
+    @Test
+    void testVerdicts() throws IOException {
+        AmbiguityPreScreenService service = newService(true);
+
+        assertEquals(PreScreenResult.CLEAR, service.screen(CLEAR_REQUIREMENT).getVerdict());
+        assertEquals(PreScreenResult.VAGUE, service.screen(CLEAR_REQUIREMENT + " Lockout duration is TBD.").getVerdict());
+        assertEquals(PreScreenResult.VAGUE, service.screen("The UI should be fast, simple and intuitive.").getVerdict());
+        assertEquals(PreScreenResult.INCONCLUSIVE, service.screen("Add a logout button.").getVerdict());
+    }
+
+    @Test
+    void testConclusiveResultIsEmptyWhenSkippingIsDisabled() throws IOException {
+        assertTrue(newService(true).conclusiveResult(CLEAR_REQUIREMENT).isPresent());
+        assertFalse(newService(false).conclusiveResult(CLEAR_REQUIREMENT).isPresent());
+    }
+
+    @Test
+    void testLargeDocumentsCountEveryMatchButReportAtMostTheLimit() throws IOException {
+        AmbiguityPreScreenService service = newService(true);
+        String section = CLEAR_REQUIREMENT + "\nThe UI should be fast and simple, with reports as needed etc.\n";
+        int sectionMatches = service.screen(section).getMatchCount();
+
+        PreScreenResult result = service.screen(section.repeat(5_000));
+
+        assertTrue(sectionMatches > 0);
+        assertEquals(sectionMatches * 5_000, result.getMatchCount());
+        assertEquals(500, result.getMatches().size());
+        assertTrue(result.isMatchesTruncated());
+    }
+}
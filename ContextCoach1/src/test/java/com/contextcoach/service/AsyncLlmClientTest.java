@@ -0,0 +1,200 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the non-blocking LLM client against a local stub of the chat completions endpoint.
+ * The stub answers each prompt with "echo: " plus the prompt after an optional delay, and
+ * fails the first calls with the configured status.
+ */
+class AsyncLlmClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private volatile int failureStatus = 503;
+    private volatile long delayMillis;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService ioExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        ioExecutor = Executors.newFixedThreadPool(2);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/v1/chat/completions", this::handleCompletion);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        ioExecutor.shutdownNow();
+    }
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        requests.add(request);
+        try {
+            release.await(10, TimeUnit.SECONDS);
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failuresLeft.getAndDecrement() > 0) {
+            exchange.sendResponseHeaders(failureStatus, -1);
+            exchange.close();
+            return;
+        }
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putArray("choices").addObject().putObject("message")
+                .put("role", "assistant")
+                .put("content", "echo: " + request.path("messages").path(0).path("content").asText());
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private AsyncLlmClient newClient(int maxInFlight, int maxAttempts) {
+        return newClient(maxInFlight, maxAttempts, Duration.ofSeconds(30));
+    }
+
+    private AsyncLlmClient newClient(int maxInFlight, int maxAttempts, Duration totalTimeout) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+        return new AsyncLlmClient(ioExecutor, objectMapper, new SimpleMeterRegistry(), "test-key", "test-model", url, maxInFlight,
+                Duration.ofSeconds(5), totalTimeout, maxAttempts, Duration.ofMillis(10), Duration.ofSeconds(7));
+    }
+
+    @Test
+    void testServesManyConcurrentCallsWithTwoThreads() throws Exception {
+        delayMillis = 500;
+        AsyncLlmClient client = newClient(1000, 1);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            calls.add(client.complete("prompt " + i));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(calls.toArray(CompletableFuture<?>[]::new));
+        all.get(20, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals("echo: prompt " + i, calls.get(i).get());
+        }
+        // Two threads blocking on each call would need 50 seconds
+        assertTrue(elapsedMillis < 10_000, () -> "200 calls took " + elapsedMillis + " ms");
+        assertEquals("test-model", requests.get(0).path("model").asText());
+        assertEquals("user", requests.get(0).path("messages").path(0).path("role").asText());
+    }
+
+    @Test
+    void testRejectsCallsBeyondMaxInFlight() throws Exception {
+        release = new CountDownLatch(1);
+        AsyncLlmClient client = newClient(2, 1);
+
+        CompletableFuture<String> first = client.complete("one");
+        CompletableFuture<String> second = client.complete("two");
+        CompletableFuture<String> third = client.complete("three");
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> third.get(1, TimeUnit.SECONDS));
+        ServiceUnavailableException cause = assertInstanceOf(ServiceUnavailableException.class, rejected.getCause());
+        assertEquals(7, cause.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("echo: one", first.get(5, TimeUnit.SECONDS));
+        assertEquals("echo: two", second.get(5, TimeUnit.SECONDS));
+        // Completed calls free their slot
+        assertEquals("echo: four", client.complete("four").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRetriesServerErrorsWithBackoff() throws Exception {
+        failuresLeft.set(2);
+        failureStatus = 429;
+        AsyncLlmClient client = newClient(10, 3);
+
+        assertEquals("echo: retry me", client.complete("retry me").get(5, TimeUnit.SECONDS));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void testDoesNotRetryClientErrors() {
+        failuresLeft.set(1);
+        failureStatus = 400;
+        AsyncLlmClient client = newClient(10, 3);
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> client.complete("bad").get(5, TimeUnit.SECONDS));
+        ServiceException cause = assertInstanceOf(ServiceException.class, failed.getCause());
+        assertEquals(502, cause.getStatus().value());
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void testFailsCallsThatExceedTheTotalBudget() {
+        delayMillis = 2000;
+        AsyncLlmClient client = newClient(10, 3, Duration.ofMillis(300));
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> client.complete("slow").get(5, TimeUnit.SECONDS));
+        ServiceException cause = assertInstanceOf(ServiceException.class, failed.getCause());
+        assertEquals(504, cause.getStatus().value());
+    }
+
+    @Test
+    void testTimedOutCallsAbortTheirRequestAndFreeTheirSlot() throws Exception {
+        release = new CountDownLatch(1);
+        AsyncLlmClient client = newClient(1, 3, Duration.ofMillis(300));
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> client.complete("stuck").get(5, TimeUnit.SECONDS));
+        assertEquals(504, assertInstanceOf(ServiceException.class, failed.getCause()).getStatus().value());
+
+        // The stub still holds the first request, but the client has given up on it without retrying
+        CompletableFuture<String> next = client.complete("next");
+        release.countDown();
+        assertEquals("echo: next", next.get(5, TimeUnit.SECONDS));
+        assertEquals(2, requests.size());
+    }
+}
@@ -0,0 +1,194 @@
+package com.contextcoach.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.contextcoach.model.BulkIngestionReport;
+import com.contextcoach.model.BulkIngestionReport.FileOutcome;
+import com.contextcoach.model.Requirement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkIngestionServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RequirementSummaryService requirementSummaryService;
+
+    @Mock
+    private ExtractionCacheService extractionCache;
+
+    private BulkIngestionService bulkIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Executor directExecutor = Runnable::run;
+        bulkIngestionService = new BulkIngestionService(
+                new FileService(new ExtractorRegistry(List.of(new JsonExtractor(new ObjectMapper(), new String[] {"text"}),
+                        new PlainTextExtractor())), extractionCache, 2_000_000),
+                mongoTemplate,
+                requirementSummaryService,
+                new HeuristicClarityScorer(),
+                new TextNormalizer(new SimpleMeterRegistry(), true, 3, 0.5, 3, new String[0]),
+                directExecutor,
+                2,
+                DataSize.ofKilobytes(1),
+                DataSize.ofMegabytes(1));
+
+        when(mongoTemplate.find(any(Query.class), eq(Requirement.class))).thenReturn(List.of());
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> requirements = invocation.getArgument(0);
+            int id = 0;
+            for (Object requirement : requirements) {
+                ((Requirement) requirement).setId("req-" + id++);
+            }
+            return requirements;
+        });
+    }
+
+    @Test
+    void testIngestDeduplicatesFilesWithinUpload() throws IOException {
+        List<MultipartFile> files = List.of(
+                textFile("a.txt", "First requirement"),
+                textFile("b.txt", "Second requirement"),
+                textFile("c.txt", "First requirement"));
+
+        BulkIngestionReport report = bulkIngestionService.ingest(files, null);
+
+        assertEquals(3, report.getFiles().size());
+        assertEquals(2, report.getCreatedCount());
+        assertEquals(1, report.getDuplicateCount());
+        assertEquals(FileOutcome.DUPLICATE, report.getFiles().get(2).getStatus());
+        verify(requirementSummaryService).recordRequirements(org.mockito.ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void testIngestZipArchiveSkipsMetadataAndRejectsOversizedEntries() throws IOException {
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+            addEntry(zip, "specs/login.txt", "Users must be able to log in");
+            addEntry(zip, "__MACOSX/specs/._login.txt", "metadata");
+            addEntry(zip, "specs/huge.txt", "x".repeat(2048));
+            addEntry(zip, "specs/report.json", "{\"title\":\"Report\",\"description\":\"Export to PDF\"}");
+        }
+        MockMultipartFile archive = new MockMultipartFile("archive", "specs.zip", "application/zip", zipBytes.toByteArray());
+
+        BulkIngestionReport report = bulkIngestionService.ingest(null, archive);
+
+        assertEquals(3, report.getFiles().size());
+        assertEquals(2, report.getCreatedCount());
+        assertEquals(1, report.getFailedCount());
+        assertEquals("specs/huge.txt", report.getFiles().get(0).getFileName());
+    }
+
+    @Test
+    void testConcurrentlyIngestedContentIsReportedAsDuplicate() throws IOException {
+        Requirement concurrent = new Requirement();
+        concurrent.setId("other-upload");
+        concurrent.setContentHash(FileService.computeContentHash("First requirement".getBytes(StandardCharsets.UTF_8)));
+        List<Collection<?>> inserts = new ArrayList<>();
+        // Another upload stored a.txt since the dedup query, so the first insert stops there
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> requirements = new ArrayList<>(invocation.<Collection<?>>getArgument(0));
+            inserts.add(requirements);
+            if (inserts.size() == 1) {
+                throw new DuplicateKeyException("E11000 duplicate key error");
+            }
+            return requirements;
+        });
+        when(mongoTemplate.find(any(Query.class), eq(Requirement.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(concurrent));
+
+        BulkIngestionReport report = bulkIngestionService.ingest(List.of(
+                textFile("a.txt", "First requirement"),
+                textFile("b.txt", "Second requirement")), null);
+
+        assertEquals(1, report.getCreatedCount());
+        assertEquals(1, report.getDuplicateCount());
+        assertEquals(FileOutcome.DUPLICATE, report.getFiles().get(0).getStatus());
+        assertEquals("other-upload", report.getFiles().get(0).getRequirementId());
+        // Only the requirement the first insert did not reach is inserted again
+        assertEquals(2, inserts.size());
+        assertEquals(List.of("b"), inserts.get(1).stream().map(requirement -> ((Requirement) requirement).getTitle()).toList());
+    }
+
+    @Test
+    void testOversizedFilesFailOnTheirOwn() throws IOException {
+        BulkIngestionReport report = bulkIngestionService.ingest(List.of(
+                textFile("big.txt", "x".repeat(2048)),
+                textFile("small.txt", "Small requirement")), null);
+
+        assertEquals(1, report.getCreatedCount());
+        assertEquals(1, report.getFailedCount());
+        assertEquals(FileOutcome.FAILED, report.getFiles().get(0).getStatus());
+    }
+
+    @Test
+    void testChunksCloseAtTheirTotalSize() throws IOException {
+        BulkIngestionService smallChunks = new BulkIngestionService(
+                new FileService(new ExtractorRegistry(List.of(new PlainTextExtractor())), extractionCache, 2_000_000),
+                mongoTemplate,
+                requirementSummaryService,
+                new HeuristicClarityScorer(),
+                new TextNormalizer(new SimpleMeterRegistry(), true, 3, 0.5, 3, new String[0]),
+                Runnable::run,
+                2,
+                DataSize.ofKilobytes(1),
+                DataSize.ofBytes(32));
+
+        BulkIngestionReport report = smallChunks.ingest(List.of(
+                textFile("a.txt", "First requirement"),
+                textFile("b.txt", "Second requirement"),
+                textFile("c.txt", "x".repeat(40))), null);
+
+        // Every file is written on its own: two would pass 32 bytes, and a larger file still fits a chunk alone
+        assertEquals(3, report.getCreatedCount());
+        verify(mongoTemplate, times(3)).insertAll(anyCollection());
+    }
+
+    @Test
+    void testIngestWithoutFilesThrows() {
+        assertThrows(IllegalArgumentException.class, () -> bulkIngestionService.ingest(List.of(), null));
+    }
+
+    private static MockMultipartFile textFile(String name, String content) {
+        return new MockMultipartFile("files", name, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
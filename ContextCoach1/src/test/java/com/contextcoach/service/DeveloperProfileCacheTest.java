@@ -0,0 +1,153 @@
+package com.contextcoach.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperProfileInvalidation;
+import com.contextcoach.repository.DeveloperProfileRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeveloperProfileCacheTest {
+
+    private DeveloperProfileRepository developerProfileRepository;
+    private MongoTemplate mongoTemplate;
+    private DeveloperSkillIndex developerSkillIndex;
+    private DeveloperProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        developerSkillIndex = mock(DeveloperSkillIndex.class);
+        cache = new DeveloperProfileCache(developerProfileRepository, mongoTemplate, developerSkillIndex, new SimpleMeterRegistry(),
+                true, Duration.ofMinutes(10), 100, Duration.ofSeconds(10));
+        when(developerProfileRepository.findById("d1")).thenReturn(Optional.of(developer("d1")));
+        when(developerProfileRepository.findAll()).thenReturn(List.of(developer("d1"), developer("d2")));
+    }
+
+    private static DeveloperProfile developer(String id) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setName("Developer " + id);
+        return developer;
+    }
+
+    private static DeveloperProfileInvalidation notice(String id, String developerId, LocalDateTime createdAt) {
+        DeveloperProfileInvalidation notice = new DeveloperProfileInvalidation();
+        notice.setId(id);
+        notice.setDeveloperId(developerId);
+        notice.setInstanceId("other-instance");
+        notice.setCreatedAt(createdAt);
+        return notice;
+    }
+
+    @Test
+    void testReadsThroughOnce() {
+        DeveloperProfile first = cache.findById("d1").orElseThrow();
+        DeveloperProfile second = cache.findById("d1").orElseThrow();
+
+        assertSame(first, second);
+        verify(developerProfileRepository, times(1)).findById("d1");
+        Map<String, Object> statistics = cache.getStatistics();
+        assertEquals(1L, statistics.get("hits"));
+        assertEquals(1L, statistics.get("misses"));
+        assertEquals(0.5, (double) statistics.get("hitRate"), 1e-9);
+    }
+
+    @Test
+    void testListLoadFillsEntriesAndBatchesMisses() {
+        assertEquals(2, cache.findAll().size());
+        assertEquals(2, cache.findAll().size());
+        cache.findById("d2");
+        when(developerProfileRepository.findAllById(List.of("d3"))).thenReturn(List.of(developer("d3")));
+
+        assertEquals(3, cache.findAllById(List.of("d1", "d2", "d3")).size());
+
+        verify(developerProfileRepository, times(1)).findAll();
+        verify(developerProfileRepository, times(0)).findById("d2");
+        verify(developerProfileRepository, times(1)).findAllById(List.of("d3"));
+        assertEquals(3, cache.getStatistics().get("cachedProfiles"));
+    }
+
+    @Test
+    void testInvalidateEvictsAndNotifiesOtherInstances() {
+        cache.findById("d1");
+        cache.findAll();
+
+        cache.invalidate("d1");
+        cache.findById("d1");
+        cache.findAll();
+
+        verify(developerProfileRepository, times(2)).findById("d1");
+        verify(developerProfileRepository, times(2)).findAll();
+        ArgumentCaptor<UpdateDefinition> notice = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(any(Query.class), notice.capture(), eq(DeveloperProfileInvalidation.class));
+        assertEquals("d1", notice.getValue().getUpdateObject().get("$set", Document.class).get("developerId"));
+    }
+
+    @Test
+    void testAppliesNoticesFromOtherInstancesOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.findById("d1");
+        when(mongoTemplate.find(any(Query.class), eq(DeveloperProfileInvalidation.class)))
+                .thenReturn(List.of(notice("n1", "d1", now)));
+
+        cache.pollInvalidations();
+        cache.findById("d1");
+        // The overlapping window returns the same notice again
+        cache.pollInvalidations();
+        cache.findById("d1");
+
+        verify(developerProfileRepository, times(2)).findById("d1");
+        assertEquals(1L, cache.getStatistics().get("remoteInvalidations"));
+    }
+
+    @Test
+    void testNoticesFromOtherInstancesUpdateTheSkillIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        DeveloperProfile updated = developer("d1");
+        when(mongoTemplate.find(any(Query.class), eq(DeveloperProfileInvalidation.class)))
+                .thenReturn(List.of(notice("n1", "d1", now), notice("n2", "d3", now), notice("n3", "d1", now)));
+        when(developerProfileRepository.findAllById(Set.of("d1", "d3"))).thenReturn(List.of(updated));
+
+        cache.pollInvalidations();
+
+        // One read for both developers; the one no longer stored was deleted elsewhere
+        verify(developerProfileRepository).findAllById(Set.of("d1", "d3"));
+        verify(developerSkillIndex).index(updated);
+        verify(developerSkillIndex).remove("d3");
+    }
+
+    @Test
+    void testDisabledCacheAlwaysReadsRepository() {
+        DeveloperProfileCache disabled = new DeveloperProfileCache(developerProfileRepository, mongoTemplate,
+                developerSkillIndex, new SimpleMeterRegistry(), false, Duration.ofMinutes(10), 100, Duration.ofSeconds(10));
+
+        disabled.findById("d1");
+        disabled.findById("d1");
+
+        verify(developerProfileRepository, times(2)).findById("d1");
+    }
+}
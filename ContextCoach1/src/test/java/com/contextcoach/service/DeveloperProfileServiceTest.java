@@ -0,0 +1,155 @@
+package com.contextcoach.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperProfilePatch;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.mongodb.client.result.DeleteResult;
+
+class DeveloperProfileServiceTest {
+
+    private DeveloperProfileRepository developerProfileRepository;
+    private DeveloperSkillIndex developerSkillIndex;
+    private DeveloperProfileCache developerProfileCache;
+    private MongoTemplate mongoTemplate;
+    private DeveloperProfileService service;
+
+    @BeforeEach
+    void setUp() {
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        developerSkillIndex = mock(DeveloperSkillIndex.class);
+        developerProfileCache = mock(DeveloperProfileCache.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new DeveloperProfileService(developerProfileRepository, developerSkillIndex, developerProfileCache, mongoTemplate);
+    }
+
+    private static DeveloperProfilePatch patch(Long version) {
+        DeveloperProfilePatch patch = new DeveloperProfilePatch();
+        patch.setVersion(version);
+        return patch;
+    }
+
+    private ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    private ArgumentCaptor<UpdateDefinition> updateCaptor = ArgumentCaptor.forClass(UpdateDefinition.class);
+
+    private void returnOnUpdate(DeveloperProfile profile) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(DeveloperProfile.class))).thenReturn(profile);
+    }
+
+    private Document capturedUpdate() {
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class),
+                eq(DeveloperProfile.class));
+        return updateCaptor.getValue().getUpdateObject();
+    }
+
+    @Test
+    void testPatchAddsSkillsAtomicallyAtTheGivenVersion() {
+        DeveloperProfile updated = new DeveloperProfile();
+        updated.setId("d1");
+        updated.setVersion(5L);
+        returnOnUpdate(updated);
+        DeveloperProfilePatch patch = patch(4L);
+        patch.setProductivityFactor(1.3);
+        patch.setAddSkills(List.of("Kafka", "Go"));
+
+        DeveloperProfile result = service.patchDeveloperProfile("d1", patch);
+
+        Document update = capturedUpdate();
+        assertEquals("d1", queryCaptor.getValue().getQueryObject().get("_id"));
+        assertEquals(4L, queryCaptor.getValue().getQueryObject().get("version"));
+        assertEquals(1.3, update.get("$set", Document.class).get("productivityFactor"));
+        assertTrue(updateCaptor.getValue().toString().contains("\"$each\" : [ \"Kafka\", \"Go\" ]"),
+                () -> "Skills not added with $each: " + updateCaptor.getValue());
+        assertEquals(1, update.get("$inc", Document.class).get("version"));
+        assertSame(updated, result);
+        verify(developerSkillIndex).index(updated);
+        verify(developerProfileCache).invalidate("d1");
+        verify(developerProfileRepository, never()).save(any(DeveloperProfile.class));
+    }
+
+    @Test
+    void testPatchRemovesSkills() {
+        returnOnUpdate(new DeveloperProfile());
+        DeveloperProfilePatch patch = patch(null);
+        patch.setRemoveSkills(List.of("HTML"));
+
+        service.patchDeveloperProfile("d1", patch);
+
+        Document update = capturedUpdate();
+        assertEquals(false, queryCaptor.getValue().getQueryObject().containsKey("version"));
+        assertEquals(List.of("HTML"), update.get("$pullAll", Document.class).get("skills"));
+    }
+
+    @Test
+    void testPatchRejectsInvalidAndConflictingFields() {
+        DeveloperProfilePatch addAndRemove = patch(null);
+        addAndRemove.setAddSkills(List.of("Go"));
+        addAndRemove.setRemoveSkills(List.of("Java"));
+        DeveloperProfilePatch replaceAndAdd = patch(null);
+        replaceAndAdd.setSkills(List.of("Go"));
+        replaceAndAdd.setAddSkills(List.of("Java"));
+        DeveloperProfilePatch blankName = patch(null);
+        blankName.setName(" ");
+
+        assertThrows(IllegalArgumentException.class, () -> service.patchDeveloperProfile("d1", addAndRemove));
+        assertThrows(IllegalArgumentException.class, () -> service.patchDeveloperProfile("d1", replaceAndAdd));
+        assertThrows(IllegalArgumentException.class, () -> service.patchDeveloperProfile("d1", blankName));
+        assertThrows(IllegalArgumentException.class, () -> service.patchDeveloperProfile("d1", patch(3L)));
+        verify(developerProfileCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    void testPatchTellsConflictFromMissingProfile() {
+        DeveloperProfilePatch stale = patch(2L);
+        stale.setName("Jane Roe");
+        when(mongoTemplate.exists(any(Query.class), eq(DeveloperProfile.class))).thenReturn(true, false);
+
+        ServiceException conflict = assertThrows(ServiceException.class, () -> service.patchDeveloperProfile("d1", stale));
+        assertEquals(409, conflict.getStatus().value());
+        assertThrows(ResourceNotFoundException.class, () -> service.patchDeveloperProfile("d1", stale));
+
+        // Without a version there is nothing to conflict with, so no second lookup
+        DeveloperProfilePatch unversioned = patch(null);
+        unversioned.setName("Jane Roe");
+        assertThrows(ResourceNotFoundException.class, () -> service.patchDeveloperProfile("d1", unversioned));
+        verify(developerProfileCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    void testDeleteIsOneRoundTrip() {
+        when(mongoTemplate.remove(any(Query.class), eq(DeveloperProfile.class)))
+                .thenReturn(DeleteResult.acknowledged(1), DeleteResult.acknowledged(0));
+
+        service.deleteDeveloperProfile("d1");
+        assertThrows(ResourceNotFoundException.class, () -> service.deleteDeveloperProfile("d2"));
+
+        verify(developerProfileRepository, never()).existsById(anyString());
+        verify(developerSkillIndex).remove("d1");
+        verify(developerProfileCache).invalidate("d1");
+        verify(developerProfileCache, never()).invalidate("d2");
+    }
+}
@@ -0,0 +1,164 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperRecommendation;
+import com.contextcoach.model.DeveloperWorkload;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.repository.RequirementRepository;
+
+class DeveloperRecommendationServiceTest {
+
+    private DeveloperProfileRepository developerProfileRepository;
+    private RequirementRepository requirementRepository;
+    private DeveloperWorkloadService developerWorkloadService;
+    private DeveloperSkillIndex developerSkillIndex;
+    private DeveloperRecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        requirementRepository = mock(RequirementRepository.class);
+        developerWorkloadService = mock(DeveloperWorkloadService.class);
+        developerSkillIndex = new DeveloperSkillIndex(developerProfileRepository, "");
+        service = new DeveloperRecommendationService(requirementRepository, developerSkillIndex, developerWorkloadService, 20, 100);
+        when(developerWorkloadService.getWorkloads()).thenReturn(List.of());
+    }
+
+    private static DeveloperProfile developer(String id, double productivity, String... skills) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setName(id);
+        developer.setExperienceLevel("Mid");
+        developer.setProductivityFactor(productivity);
+        developer.setSkills(List.of(skills));
+        return developer;
+    }
+
+    private void requirement(String id, String content) {
+        Requirement requirement = new Requirement();
+        requirement.setId(id);
+        requirement.setTitle("Requirement " + id);
+        requirement.setContent(content);
+        when(requirementRepository.findById(id)).thenReturn(Optional.of(requirement));
+    }
+
+    private static DeveloperWorkload workload(String developerId, long storyPoints) {
+        DeveloperWorkload workload = new DeveloperWorkload();
+        workload.setDeveloperId(developerId);
+        workload.setTotalStoryPoints(storyPoints);
+        return workload;
+    }
+
+    private static List<String> ids(List<DeveloperRecommendation> recommendations) {
+        return recommendations.stream().map(DeveloperRecommendation::getDeveloperId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testExtractsSkillsFromText() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of(
+                developer("a", 1.0, "Spring Boot", "Node.js", "REST", "C++")));
+
+        Set<String> skills = developerSkillIndex.extractSkills(
+                "Expose a RESTful API from the NodeJS gateway. The spring  boot service calls c++ code.");
+
+        assertEquals(List.of("rest", "node.js", "spring boot", "c++"), new ArrayList<>(skills));
+        assertEquals(Set.of(), developerSkillIndex.extractSkills("Nothing relevant here"));
+    }
+
+    @Test
+    void testRanksBySkillCoverageAndProductivity() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of(
+                developer("full-match", 1.0, "Java", "MongoDB", "Kafka"),
+                developer("fast-partial", 1.4, "Java", "React"),
+                developer("slow-partial", 0.8, "MongoDB"),
+                developer("no-match", 2.0, "Go")));
+        requirement("r1", "Consume the Kafka topic in Java and store events in Mongo.");
+
+        List<DeveloperRecommendation> recommendations = service.recommendDevelopers("r1", 5);
+
+        assertEquals(List.of("full-match", "fast-partial", "slow-partial"), ids(recommendations));
+        DeveloperRecommendation best = recommendations.get(0);
+        assertEquals(1.0, best.getSkillCoverage(), 1e-9);
+        assertEquals(Set.of("java", "mongodb", "kafka"), Set.copyOf(best.getMatchedSkills()));
+        assertEquals(List.of("java"), recommendations.get(1).getMatchedSkills());
+        assertEquals(1.4 / 3, recommendations.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void testDiscountsDevelopersWithHighLoad() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of(
+                developer("busy", 1.2, "Java"),
+                developer("free", 1.0, "Java")));
+        when(developerWorkloadService.getWorkloads()).thenReturn(List.of(workload("busy", 20)));
+        requirement("r1", "A Java batch job");
+
+        List<DeveloperRecommendation> recommendations = service.recommendDevelopers("r1", 1);
+
+        assertEquals(List.of("free"), ids(recommendations));
+        assertEquals(0L, recommendations.get(0).getCurrentStoryPoints());
+    }
+
+    @Test
+    void testRejectsUnknownRequirementAndBadLimit() {
+        when(requirementRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.recommendDevelopers("missing", 5));
+        assertThrows(IllegalArgumentException.class, () -> service.recommendDevelopers("missing", 0));
+        assertThrows(IllegalArgumentException.class, () -> service.recommendDevelopers("missing", 101));
+    }
+
+    @Test
+    void testRanksThousandsOfProfilesWithinFiveMilliseconds() {
+        String[] skillPool = {"Java", "Spring Boot", "MongoDB", "Kafka", "React", "TypeScript", "Go", "Kubernetes",
+                "PostgreSQL", "Python", "Terraform", "AWS", "GraphQL", "Redis", "Node.js", "C++", "Rust", "Scala"};
+        Random random = new Random(11);
+        List<DeveloperProfile> developers = new ArrayList<>();
+        List<DeveloperWorkload> workloads = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String[] skills = new String[3 + random.nextInt(4)];
+            for (int s = 0; s < skills.length; s++) {
+                skills[s] = skillPool[random.nextInt(skillPool.length)];
+            }
+            developers.add(developer("d" + i, 0.5 + random.nextDouble(), skills));
+            workloads.add(workload("d" + i, random.nextInt(40)));
+        }
+        when(developerProfileRepository.findAll()).thenReturn(developers);
+        when(developerWorkloadService.getWorkloads()).thenReturn(workloads);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            content.append("The service should handle the request and persist the result. ");
+        }
+        content.append("Build it with Java, Spring Boot and Kafka, deployed on k8s with Terraform.");
+        requirement("r1", content.toString());
+
+        for (int i = 0; i < 200; i++) {
+            service.recommendDevelopers("r1", 10);
+        }
+        int runs = 200;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            service.recommendDevelopers("r1", 10);
+        }
+        double averageMillis = (System.nanoTime() - startTime) / 1_000_000.0 / runs;
+
+        assertEquals(10, service.recommendDevelopers("r1", 10).size());
+        assertTrue(averageMillis < 5.0, "Recommendation took " + averageMillis + "ms on average");
+    }
+}
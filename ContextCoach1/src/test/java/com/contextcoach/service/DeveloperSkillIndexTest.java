@@ -0,0 +1,100 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.repository.DeveloperProfileRepository;
+
+class DeveloperSkillIndexTest {
+
+    private DeveloperProfileRepository developerProfileRepository;
+    private DeveloperSkillIndex index;
+
+    @BeforeEach
+    void setUp() {
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        when(developerProfileRepository.findAll()).thenReturn(new ArrayList<>(List.of(
+                developer("alice", "Senior", 1.4, "Java", "Spring Boot", "RESTful APIs"),
+                developer("bob", "Junior", 0.8, "Java", "Spring Boot"),
+                developer("carol", "Mid", 1.1, "java", "Quarkus", "Postgres"),
+                developer("dave", "Senior", 1.2, "React", "JS"))));
+        index = new DeveloperSkillIndex(developerProfileRepository, "spring boot=springboot|spring-boot");
+    }
+
+    private static DeveloperProfile developer(String id, String level, double productivity, String... skills) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setName(id);
+        developer.setExperienceLevel(level);
+        developer.setProductivityFactor(productivity);
+        developer.setSkills(List.of(skills));
+        return developer;
+    }
+
+    private List<String> ids(String expression) {
+        return ids(index.search(expression, null, null));
+    }
+
+    private static List<String> ids(List<DeveloperProfile> profiles) {
+        return profiles.stream().map(DeveloperProfile::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testBooleanExpressionsOrderedByProductivity() {
+        assertEquals(List.of("alice", "carol", "bob"), ids("java"));
+        assertEquals(List.of("alice"), ids("Java AND Spring Boot AND NOT experience:Junior"));
+        assertEquals(List.of("alice", "carol", "bob"), ids("Java AND (\"Spring Boot\" OR Quarkus)"));
+        assertEquals(List.of("dave"), ids("NOT java"));
+        assertEquals(List.of(), ids("Kotlin"));
+    }
+
+    @Test
+    void testSynonymsResolveToOneSkill() {
+        assertEquals(List.of("alice"), ids("REST"));
+        assertEquals(List.of("alice"), ids("rest api"));
+        assertEquals(List.of("dave"), ids("javascript"));
+        assertEquals(List.of("carol"), ids("PostgreSQL"));
+        assertEquals(List.of("alice", "bob"), ids("springboot"));
+    }
+
+    @Test
+    void testExperienceFilterAndTopK() {
+        assertEquals(List.of("alice", "dave"), ids(index.search(null, List.of("senior"), null)));
+        assertEquals(List.of("alice", "dave"), ids(index.search(null, null, 2)));
+        assertEquals(List.of("carol"), ids(index.search("java", List.of("Mid", "Junior"), 1)));
+    }
+
+    @Test
+    void testStaysInSyncWithWrites() {
+        ids("java"); // Loads the index
+
+        index.index(developer("erin", "Senior", 2.0, "Java"));
+        index.index(developer("bob", "Mid", 0.8, "Kotlin"));
+        index.remove("alice");
+
+        assertEquals(List.of("erin", "carol"), ids("java"));
+        assertEquals(List.of("bob"), ids("kotlin AND experience:mid"));
+        assertEquals(List.of(), ids("REST"));
+        assertEquals(List.of("erin", "dave", "carol", "bob"), ids((String) null));
+        verify(developerProfileRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testRejectsMalformedExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> ids("Java AND"));
+        assertThrows(IllegalArgumentException.class, () -> ids("(Java OR Spring"));
+        assertThrows(IllegalArgumentException.class, () -> ids("\"Java"));
+        assertThrows(IllegalArgumentException.class, () -> ids("Java)"));
+    }
+}
@@ -0,0 +1,258 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperWorkload;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.repository.DeveloperWorkloadRepository;
+import com.mongodb.DBRef;
+import com.mongodb.client.result.DeleteResult;
+
+class DeveloperWorkloadServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOps;
+    private DeveloperWorkloadRepository developerWorkloadRepository;
+    private DeveloperProfileRepository developerProfileRepository;
+    private DeveloperWorkloadService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeveloperWorkload.class)).thenReturn(bulkOps);
+        developerWorkloadRepository = mock(DeveloperWorkloadRepository.class);
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        service = new DeveloperWorkloadService(mongoTemplate, developerWorkloadRepository, developerProfileRepository,
+                new String[] {"Done", "Closed"});
+    }
+
+    private static DeveloperProfile developer(String id) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setName("Developer " + id);
+        return developer;
+    }
+
+    private static JiraTicket ticket(DeveloperProfile developer, String priority, String type, Integer storyPoints) {
+        JiraTicket ticket = new JiraTicket();
+        ticket.setAssignedDeveloper(developer);
+        ticket.setPriority(priority);
+        ticket.setTicketType(type);
+        ticket.setEstimatedStoryPoints(storyPoints);
+        return ticket;
+    }
+
+    @Test
+    void testRecordTicketChangeMovesCountersWithoutUpsert() {
+        DeveloperProfile developer = developer("d1");
+
+        service.recordTicketChange(ticket(developer, "High", "Bug", 5), ticket(developer, "Low", "Bug", 3));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DeveloperWorkload.class));
+        Document inc = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(-2L, inc.get("totalStoryPoints"));
+        assertEquals(-1L, inc.get("ticketsByPriority.High"));
+        assertEquals(1L, inc.get("ticketsByPriority.Low"));
+        assertEquals(-5L, inc.get("storyPointsByPriority.High"));
+        assertEquals(3L, inc.get("storyPointsByPriority.Low"));
+        assertEquals(-2L, inc.get("storyPointsByType.Bug"));
+        assertEquals(false, inc.containsKey("ticketCount"));
+        assertEquals(false, inc.containsKey("ticketsByType.Bug"));
+
+        // Nothing that feeds the workload changed
+        service.recordTicketChange(ticket(developer, "Low", "Bug", 3), ticket(developer, "Low", "Bug", 3));
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class), eq(DeveloperWorkload.class));
+    }
+
+    @Test
+    void testClosingAndReassigningMovesTheTicketBetweenWorkloads() {
+        JiraTicket open = ticket(developer("d1"), "High", "Bug", 5);
+        JiraTicket closed = ticket(developer("d1"), "High", "Bug", 5);
+        closed.setStatus("done");
+
+        service.recordTicketChange(open, closed);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DeveloperWorkload.class));
+        Document inc = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(-1L, inc.get("ticketCount"));
+        assertEquals(-5L, inc.get("totalStoryPoints"));
+        assertEquals(1, inc.get("revision"));
+
+        // Reassigning an open ticket takes it from the old developer and gives it to the new one
+        service.recordTicketChange(open, ticket(developer("d2"), "High", "Bug", 5));
+
+        ArgumentCaptor<Query> gained = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).upsert(gained.capture(), update.capture(), eq(DeveloperWorkload.class));
+        assertEquals("d2", gained.getValue().getQueryObject().get("_id"));
+        assertEquals(1L, update.getValue().getUpdateObject().get("$inc", Document.class).get("ticketCount"));
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(DeveloperWorkload.class));
+    }
+
+    @Test
+    void testClosedTicketsAreNotCounted() {
+        JiraTicket closed = ticket(developer("d1"), "High", "Bug", 5);
+        closed.setStatus("Closed");
+
+        service.recordTicket(closed);
+        service.recordTickets(List.of(closed));
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(DeveloperWorkload.class));
+        verify(bulkOps, never()).execute();
+        assertTrue(service.isOpen(null));
+        assertTrue(service.isOpen("In Progress"));
+        assertFalse(service.isOpen(" DONE "));
+    }
+
+    @Test
+    void testRecordTicketIncrementsCounters() {
+        service.recordTicket(ticket(developer("d1"), "High", "Bug", 5));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(DeveloperWorkload.class));
+        Document inc = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(1L, inc.get("ticketCount"));
+        assertEquals(5L, inc.get("totalStoryPoints"));
+        assertEquals(5L, inc.get("storyPointsByPriority.High"));
+        assertEquals(5L, inc.get("storyPointsByType.Bug"));
+        assertEquals(1L, inc.get("ticketsByType.Bug"));
+        assertEquals("Developer d1", update.getValue().getUpdateObject().get("$set", Document.class).get("developerName"));
+    }
+
+    @Test
+    void testRecordTicketsFoldsEachDeveloperIntoOneUpsert() {
+        DeveloperProfile first = developer("d1");
+        DeveloperProfile second = developer("d2");
+
+        service.recordTickets(List.of(
+                ticket(first, "High", "Bug", 5),
+                ticket(first, "High", "Story", 3),
+                ticket(second, null, "Task", null),
+                ticket(null, "Low", "Task", 8)));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOps, times(2)).upsert(any(Query.class), updates.capture());
+        verify(bulkOps).execute();
+        Document firstInc = updates.getAllValues().get(0).getUpdateObject().get("$inc", Document.class);
+        assertEquals(2L, firstInc.get("ticketCount"));
+        assertEquals(8L, firstInc.get("storyPointsByPriority.High"));
+        assertEquals(3L, firstInc.get("storyPointsByType.Story"));
+        Document secondInc = updates.getAllValues().get(1).getUpdateObject().get("$inc", Document.class);
+        assertEquals(0L, secondInc.get("totalStoryPoints"));
+        assertEquals(1L, secondInc.get("ticketsByPriority.Unspecified"));
+    }
+
+    @Test
+    void testRebuildFoldsAggregatedGroupsPerDeveloper() {
+        List<Document> groups = new ArrayList<>();
+        groups.add(group("d1", "High", "Bug", 2, 10));
+        groups.add(group("d1", "Low", "Bug", 1, 3));
+        groups.add(group("d2", "High", "Story", 4, 21));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("jira_tickets"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(groups, new Document()));
+        when(developerProfileRepository.findAllById(anyIterable())).thenReturn(List.of(developer("d1"), developer("d2")));
+
+        assertEquals(2, service.rebuildWorkloads());
+
+        ArgumentCaptor<DeveloperWorkload> workloads = ArgumentCaptor.forClass(DeveloperWorkload.class);
+        verify(mongoTemplate, times(2)).findAndReplace(any(Query.class), workloads.capture(), any(FindAndReplaceOptions.class));
+        DeveloperWorkload first = workloads.getAllValues().get(0);
+        assertEquals("d1", first.getDeveloperId());
+        assertEquals("Developer d1", first.getDeveloperName());
+        assertEquals(3, first.getTicketCount());
+        assertEquals(13, first.getTotalStoryPoints());
+        assertEquals(Long.valueOf(13), first.getStoryPointsByType().get("Bug"));
+        assertEquals(Long.valueOf(3), first.getStoryPointsByPriority().get("Low"));
+        assertEquals(1, first.getRevision());
+        assertEquals(21, workloads.getAllValues().get(1).getTotalStoryPoints());
+    }
+
+    @Test
+    void testRebuildRetriesWorkloadsThatChangedMeanwhile() {
+        DeveloperWorkload stale = new DeveloperWorkload();
+        stale.setDeveloperId("d1");
+        stale.setRevision(4);
+        DeveloperWorkload gone = new DeveloperWorkload();
+        gone.setDeveloperId("d3");
+        gone.setRevision(2);
+        when(mongoTemplate.find(any(Query.class), eq(DeveloperWorkload.class))).thenReturn(List.of(stale, gone))
+                .thenReturn(List.of(stale));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("jira_tickets"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(group("d1", "High", "Bug", 1, 2)), new Document()));
+        when(developerProfileRepository.findAllById(anyIterable())).thenReturn(List.of(developer("d1")));
+        // The first replace finds the workload at a newer revision, the retry succeeds
+        when(mongoTemplate.findAndReplace(any(Query.class), any(DeveloperWorkload.class), any(FindAndReplaceOptions.class)))
+                .thenThrow(new DuplicateKeyException("E11000"))
+                .thenReturn(null);
+        when(mongoTemplate.remove(any(Query.class), eq(DeveloperWorkload.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(1, service.rebuildWorkloads());
+
+        ArgumentCaptor<Query> replaced = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).findAndReplace(replaced.capture(), any(DeveloperWorkload.class), any(FindAndReplaceOptions.class));
+        assertEquals(4L, replaced.getValue().getQueryObject().get("revision"));
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(DeveloperWorkload.class));
+        assertEquals("d3", removed.getValue().getQueryObject().get("_id"));
+        assertEquals(2L, removed.getValue().getQueryObject().get("revision"));
+    }
+
+    @Test
+    void testGetWorkloadOfDeveloperWithoutTickets() {
+        when(developerWorkloadRepository.findById("d1")).thenReturn(Optional.empty());
+        when(developerProfileRepository.findById("d1")).thenReturn(Optional.of(developer("d1")));
+        when(developerProfileRepository.findById("missing")).thenReturn(Optional.empty());
+
+        DeveloperWorkload workload = service.getWorkload("d1");
+
+        assertEquals(0, workload.getTicketCount());
+        assertEquals("Developer d1", workload.getDeveloperName());
+        assertThrows(ResourceNotFoundException.class, () -> service.getWorkload("missing"));
+    }
+
+    @Test
+    void testKeysAreValidFieldNames() {
+        assertEquals("v1_2", DeveloperWorkloadService.keyOf("v1.2"));
+        assertEquals("_where", DeveloperWorkloadService.keyOf("$where"));
+        assertEquals("Unspecified", DeveloperWorkloadService.keyOf(" "));
+    }
+
+    private static Document group(String developerId, String priority, String type, int tickets, int storyPoints) {
+        Document key = new Document("assignedDeveloper", new DBRef("developer_profiles", developerId))
+                .append("priority", priority)
+                .append("ticketType", type);
+        return new Document("_id", key).append("tickets", tickets).append("storyPoints", storyPoints);
+    }
+}
@@ -0,0 +1,88 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DocumentPartsTest {
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testCallerRunsPartsNoWorkerStarted() throws IOException {
+        // An executor whose workers never get to the parts, like a saturated pool waiting on them
+        List<String> results = DocumentParts.runAll(List.of(() -> "a", () -> "b", () -> "c"), part -> {
+        });
+
+        assertEquals(List.of("a", "b", "c"), results);
+
+        List<String> rejected = DocumentParts.runAll(List.of(() -> "d"), part -> {
+            throw new RejectedExecutionException("full");
+        });
+        assertEquals(List.of("d"), rejected);
+    }
+
+    @Test
+    void testPartFailureIsReportedAfterAllPartsFinished() {
+        IOException failure = new IOException("Broken page");
+        List<Callable<String>> parts = List.of(() -> {
+            throw failure;
+        }, () -> "ok");
+
+        IOException e = assertThrows(IOException.class, () -> DocumentParts.runAll(parts, pool));
+
+        assertEquals(failure, e);
+    }
+
+    @Test
+    void testInterruptingTheCallerInterruptsRunningParts() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch partInterrupted = new CountDownLatch(2);
+        Callable<String> blockingPart = () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                partInterrupted.countDown();
+                throw new InterruptedIOException();
+            }
+            return "late";
+        };
+        AtomicReference<Throwable> outcome = new AtomicReference<>();
+        // The caller runs one blocking part itself and waits for the one on the pool
+        Thread caller = new Thread(() -> {
+            try {
+                DocumentParts.runAll(List.of(blockingPart, blockingPart), pool);
+            } catch (IOException e) {
+                outcome.set(e);
+            }
+        });
+        caller.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        caller.interrupt();
+
+        assertTrue(partInterrupted.await(5, TimeUnit.SECONDS), "The running parts were not interrupted");
+        caller.join(5000);
+        assertInstanceOf(InterruptedIOException.class, outcome.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.contextcoach.service;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExtractionCacheServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoDatabaseFactory mongoDatabaseFactory;
+
+    @Mock
+    private MongoConverter mongoConverter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.getMongoDatabaseFactory()).thenReturn(mongoDatabaseFactory);
+        when(mongoTemplate.getConverter()).thenReturn(mongoConverter);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ExtractionCacheService newCache(boolean enabled, DataSize memoryMaxSize) {
+        // The store has no database behind it, so every store access fails and is treated as a miss
+        return new ExtractionCacheService(mongoTemplate, meterRegistry, enabled, memoryMaxSize, DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void testMemoryHitAfterPut() {
+        ExtractionCacheService cache = newCache(true, DataSize.ofKilobytes(64));
+
+        assertFalse(cache.get("PDF:v1:abc").isPresent());
+        cache.put("PDF:v1:abc", "Extracted text");
+
+        assertEquals(Optional.of("Extracted text"), cache.get("PDF:v1:abc"));
+        assertEquals(0.5, cache.getHitRatio());
+        assertEquals(1.0, meterRegistry.get("contextcoach.extraction.cache.requests").tag("result", "memory-hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("contextcoach.extraction.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvictedBySize() {
+        // Each 1000-char entry is estimated at about 2 KB, so three fit in 7 KB but four do not
+        ExtractionCacheService cache = newCache(true, DataSize.ofKilobytes(7));
+        String text = "x".repeat(1000);
+        cache.put("a", text);
+        cache.put("b", text);
+        cache.put("c", text);
+        cache.get("a");
+        cache.put("d", text);
+
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+        assertTrue(cache.get("d").isPresent());
+        assertTrue(cache.getMemoryBytes() <= DataSize.ofKilobytes(7).toBytes());
+        assertEquals(1.0, meterRegistry.get("contextcoach.extraction.cache.evictions").counter().count());
+    }
+
+    @Test
+    void testDisabledCacheNeverHits() {
+        ExtractionCacheService cache = newCache(false, DataSize.ofKilobytes(64));
+        cache.put("a", "text");
+
+        assertFalse(cache.get("a").isPresent());
+        assertEquals(0.0, cache.getHitRatio());
+    }
+}
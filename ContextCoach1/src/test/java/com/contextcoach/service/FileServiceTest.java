@@ -1,48 +1,100 @@
 package com.contextcoach.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
 
+import com.contextcoach.exception.PayloadTooLargeException;
+import com.contextcoach.model.ExtractedDocument;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @ExtendWith(MockitoExtension.class)
 class FileServiceTest {
 
+    private static final String[] JSON_FIELDS = {"title", "description", "requirements", "content", "text"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Mock
-    private ObjectMapper objectMapper;
+    private ExtractionCacheService extractionCache;
 
-    @InjectMocks
     private FileService fileService;
 
+    private int maxTextLength = 2_000_000;
+
     @BeforeEach
     void setUp() {
+        fileService = newFileService(Runnable::run, 2000, 16, Duration.ofSeconds(60));
+    }
+
+    private FileService newFileService(Executor executor, int maxPdfPages, int pdfPagesPerTask, Duration pdfTimeBudget) {
+        return newFileService(executor, maxPdfPages, pdfPagesPerTask, pdfTimeBudget, JSON_FIELDS);
+    }
+
+    private FileService newFileService(Executor executor, int maxPdfPages, int pdfPagesPerTask, Duration pdfTimeBudget,
+            String[] jsonFields) {
+        ExtractorRegistry registry = new ExtractorRegistry(List.of(
+                new PlainTextExtractor(),
+                new PdfExtractor(executor, maxPdfPages, pdfPagesPerTask, pdfTimeBudget),
+                new ExcelExtractor(executor),
+                new WordDocumentExtractor(),
+                new JsonExtractor(objectMapper, jsonFields),
+                new HtmlExtractor(),
+                new CsvExtractor(),
+                new MarkdownExtractor()));
+        // Extractions run on the calling thread; document parts use the given executor
+        return new FileService(registry, extractionCache, maxTextLength);
     }
 
     @Test
@@ -62,6 +114,71 @@ class FileServiceTest {
         assertEquals(content, result);
     }
 
+    @Test
+    void testExtractTextFromFile_CachedTextSkipsParsing() throws IOException {
+        // Arrange
+        byte[] content = "not really a pdf".getBytes(StandardCharsets.UTF_8);
+        MockMultipartFile file = new MockMultipartFile("file", "spec.pdf", "application/pdf", content);
+        String cacheKey = "PDF:v2:" + FileService.computeContentHash(content);
+        when(extractionCache.get(cacheKey)).thenReturn(Optional.of("Cached text"));
+
+        // Act
+        String result = fileService.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Cached text", result);
+        verify(extractionCache, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void testExtractTextFromFile_ExtractedTextIsCachedByContentHash() throws IOException {
+        // Arrange
+        byte[] content = writePdf(1);
+        MockMultipartFile file = new MockMultipartFile("file", "spec.pdf", "application/pdf", content);
+
+        // Act
+        String result = fileService.extractTextFromFile(file);
+
+        // Assert
+        assertTrue(result.contains("Page 1 text"));
+        verify(extractionCache).put(
+                argThat(key -> key.startsWith("PDF:v2:") && key.endsWith(FileService.computeContentHash(content))),
+                eq(result));
+    }
+
+    @Test
+    void testExtractTextFromFile_CheapFormatsSkipTheCache() throws IOException {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.json", "application/json",
+                "{\"title\":\"Cached Title\"}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String result = fileService.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Cached Title", result);
+        verify(extractionCache, never()).get(anyString());
+        verify(extractionCache, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void testExtractTextFromFile_SpooledUploadsAreReadInPlace(@TempDir Path spoolDirectory) throws IOException {
+        // Arrange
+        StreamingUploadService uploads = new StreamingUploadService(spoolDirectory.toString(), DataSize.ofMegabytes(10));
+        String text = "Spooled requirement text \u2713\n".repeat(1000);
+        byte[] pdf = writePdf(2);
+
+        // Act & Assert
+        try (SpooledMultipartFile textFile = uploads.spool(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), "spec.txt", "text/plain");
+             SpooledMultipartFile pdfFile = uploads.spool(new ByteArrayInputStream(pdf), "spec.pdf", "application/pdf")) {
+            assertEquals(text, fileService.extractTextFromFile(textFile));
+            assertTrue(fileService.extractTextFromFile(pdfFile).contains("Page 2 text"));
+            verify(extractionCache).put(argThat(key -> key.endsWith(pdfFile.getContentHash())), anyString());
+            assertTrue(Files.exists(pdfFile.getPath()));
+        }
+    }
+
     @Test
     void testExtractTextFromFile_JsonFile() throws IOException {
         // Arrange
@@ -72,19 +189,11 @@ class FileServiceTest {
                 "application/json",
                 jsonContent.getBytes(StandardCharsets.UTF_8));
 
-        HashMap<String, Object> jsonMap = new HashMap<>();
-        jsonMap.put("title", "Test Title");
-        jsonMap.put("description", "Test Description");
-
-        when(objectMapper.readValue(any(InputStream.class), eq(HashMap.class))).thenReturn(jsonMap);
-
         // Act
         String result = fileService.extractTextFromFile(file);
 
         // Assert
-        assertTrue(result.contains("Test Title"));
-        assertTrue(result.contains("Test Description"));
-        verify(objectMapper).readValue(any(InputStream.class), eq(HashMap.class));
+        assertEquals("Test Title\n\nTest Description", result);
     }
 
     @Test
@@ -97,19 +206,33 @@ class FileServiceTest {
                 "application/json",
                 jsonContent.getBytes(StandardCharsets.UTF_8));
 
-        HashMap<String, Object> jsonMap = new HashMap<>();
-        jsonMap.put("someField", "Some Value");
-
-        when(objectMapper.readValue(any(InputStream.class), eq(HashMap.class))).thenReturn(jsonMap);
-        when(objectMapper.writeValueAsString(jsonMap)).thenReturn(jsonContent);
-
         // Act
         String result = fileService.extractTextFromFile(file);
 
         // Assert
         assertEquals(jsonContent, result);
-        verify(objectMapper).readValue(any(InputStream.class), eq(HashMap.class));
-        verify(objectMapper).writeValueAsString(jsonMap);
+    }
+
+    @Test
+    void testExtractTextFromFile_JsonNestedFieldsAndPaths() throws IOException {
+        // Arrange
+        String jsonContent = "{\"total\":2,\"issues\":["
+                + "{\"key\":\"CC-1\",\"fields\":{\"summary\":\"Login\",\"description\":\"Users sign in\",\"labels\":[\"auth\",null]}},"
+                + "{\"key\":\"CC-2\",\"fields\":{\"summary\":\"Logout\",\"description\":null}}],"
+                + "\"summary\":\"not an issue summary\"}";
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "jira.json",
+                "application/json",
+                jsonContent.getBytes(StandardCharsets.UTF_8));
+        FileService jiraFileService = newFileService(Runnable::run, 2000, 16, Duration.ofSeconds(60),
+                new String[] {"issues.fields.summary", "description", "labels"});
+
+        // Act
+        String result = jiraFileService.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Login\n\nUsers sign in\n\nauth\n\nLogout", result);
     }
 
     @Test
@@ -144,6 +267,86 @@ class FileServiceTest {
         assertTrue(result.contains("Test PDF Content"));
     }
 
+    @Test
+    void testExtractTextFromFile_PdfPageRangesKeepOrder() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.pdf",
+                "application/pdf",
+                writePdf(7));
+        FileService rangedFileService = newFileService(ForkJoinPool.commonPool(), 2000, 2, Duration.ofSeconds(60));
+        
+        // Act
+        String ranged = rangedFileService.extractTextFromFile(file);
+        String whole = newFileService(Runnable::run, 2000, 100, Duration.ofSeconds(60)).extractTextFromFile(file);
+        
+        // Assert
+        assertEquals(whole, ranged);
+        for (int page = 1; page < 7; page++) {
+            assertTrue(ranged.indexOf("Page " + page + " text") < ranged.indexOf("Page " + (page + 1) + " text"));
+        }
+    }
+
+    @Test
+    void testExtractTextFromFile_PdfPageCapAndTimeBudget() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.pdf",
+                "application/pdf",
+                writePdf(3));
+        
+        // Act & Assert
+        IOException tooManyPages = assertThrows(IOException.class,
+                () -> newFileService(Runnable::run, 2, 16, Duration.ofSeconds(60)).extractTextFromFile(file));
+        assertEquals("PDF has 3 pages, exceeding the limit of 2", tooManyPages.getMessage());
+        IOException overBudget = assertThrows(IOException.class,
+                () -> newFileService(Runnable::run, 2000, 16, Duration.ZERO).extractTextFromFile(file));
+        assertTrue(overBudget.getMessage().contains("time budget"));
+    }
+
+    @Test
+    void testExtractTextFromFile_LargePdfParallelMatchesSingleRange() throws IOException {
+        int pages = 300;
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "large.pdf",
+                "application/pdf",
+                writePdf(pages));
+        FileService sequential = newFileService(Runnable::run, 2000, pages, Duration.ofSeconds(60));
+        FileService parallel = newFileService(ForkJoinPool.commonPool(), 2000, 16, Duration.ofSeconds(60));
+        
+        // Act
+        String sequentialText = sequential.extractTextFromFile(file);
+        String parallelText = parallel.extractTextFromFile(file);
+        
+        // Assert
+        assertEquals(sequentialText, parallelText);
+    }
+
+    static byte[] writePdf(int pages) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                    contentStream.beginText();
+                    contentStream.setFont(PDType1Font.HELVETICA, 10);
+                    contentStream.setLeading(12);
+                    contentStream.newLineAtOffset(50, 750);
+                    contentStream.showText("Page " + p + " text");
+                    for (int line = 0; line < 40; line++) {
+                        contentStream.newLine();
+                        contentStream.showText("Requirement " + line + ": the service must respond within 200 ms.");
+                    }
+                    contentStream.endText();
+                }
+            }
+            document.save(baos);
+        }
+        return baos.toByteArray();
+    }
+
     @Test
     void testExtractTextFromFile_ExcelFile() throws IOException {
         // Create a simple Excel workbook
@@ -190,6 +393,97 @@ class FileServiceTest {
         assertTrue(result.contains("true"));
     }
 
+    @Test
+    void testExtractTextFromFile_XlsxMatchesXlsRendering() throws IOException {
+        MockMultipartFile xlsx = new MockMultipartFile(
+                "file",
+                "test.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                writeMixedWorkbook(new XSSFWorkbook()));
+        MockMultipartFile xls = new MockMultipartFile(
+                "file",
+                "test.xls",
+                "application/vnd.ms-excel",
+                writeMixedWorkbook(new HSSFWorkbook()));
+        
+        // Act
+        String streamed = fileService.extractTextFromFile(xlsx);
+        String loaded = fileService.extractTextFromFile(xls);
+        
+        // Assert
+        assertEquals(loaded, streamed);
+        assertEquals("Sheet: Stories\nID\tTitle\tPoints\tDone\n1.0\tLogin\t3.0\tfalse\n2.0\tLogout\tC2+1\ttrue\n\n\n"
+                + "Sheet: Empty\n\n\n"
+                + "Sheet: Notes\nLine one\n", streamed);
+    }
+
+    @Test
+    void testExtractTextFromFile_LargeXlsx() throws IOException {
+        int sheets = 4;
+        int rowsPerSheet = 25_000;
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "large.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                writeLargeXlsx(sheets, rowsPerSheet));
+        // The workbook's text is larger than a requirement may hold
+        maxTextLength = Integer.MAX_VALUE;
+        FileService parallelFileService = newFileService(ForkJoinPool.commonPool(), 2000, 16, Duration.ofSeconds(60));
+        
+        // Act
+        String result = parallelFileService.extractTextFromFile(file);
+        
+        // Assert
+        assertEquals(sheets, result.lines().filter(line -> line.startsWith("Sheet: ")).count());
+        assertEquals(sheets * rowsPerSheet, result.lines().filter(line -> line.startsWith("REQ-")).count());
+    }
+
+    static byte[] writeLargeXlsx(int sheets, int rowsPerSheet) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            for (int s = 0; s < sheets; s++) {
+                Sheet sheet = workbook.createSheet("Sheet" + s);
+                for (int r = 0; r < rowsPerSheet; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("REQ-" + r);
+                    row.createCell(1).setCellValue("The system must export report " + r + " as CSV within 5 seconds");
+                    row.createCell(2).setCellValue(r % 13);
+                    row.createCell(3).setCellValue(r % 2 == 0);
+                }
+            }
+            workbook.write(baos);
+            workbook.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] writeMixedWorkbook(Workbook workbook) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (workbook) {
+            Sheet stories = workbook.createSheet("Stories");
+            Row header = stories.createRow(0);
+            header.createCell(0).setCellValue("ID");
+            header.createCell(1).setCellValue("Title");
+            header.createCell(2).setCellValue("Points");
+            header.createCell(3).setCellValue("Done");
+            Row first = stories.createRow(1);
+            first.createCell(0).setCellValue(1);
+            first.createCell(1).setCellValue("Login");
+            first.createCell(2).setCellValue(3);
+            first.createCell(3).setCellValue(false);
+            Row second = stories.createRow(2);
+            second.createCell(0).setCellValue(2);
+            second.createCell(1).setCellValue("Logout");
+            second.createCell(2).setCellFormula("C2+1");
+            second.createCell(3).setCellValue(true);
+            second.createCell(5);
+            workbook.createSheet("Empty");
+            workbook.createSheet("Notes").createRow(4).createCell(2).setCellValue("Line one");
+            workbook.write(baos);
+        }
+        return baos.toByteArray();
+    }
+
     @Test
     void testExtractTextFromFile_WordDocument() {
         // Arrange
@@ -201,7 +495,282 @@ class FileServiceTest {
 
         // Act & Assert
         IOException exception = assertThrows(IOException.class, () -> fileService.extractTextFromFile(file));
-        assertEquals("Word document parsing not implemented", exception.getMessage());
+        assertEquals("Invalid Word document: test.docx", exception.getMessage());
+    }
+
+    @Test
+    void testExtractTextFromFile_DocxKeepsHeadingsAndTablesInOrder() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            XWPFParagraph title = document.createParagraph();
+            title.setStyle("Heading1");
+            title.createRun().setText("Login");
+            document.createParagraph().createRun().setText("Users must sign in with SSO.");
+            XWPFTable table = document.createTable(2, 2);
+            table.getRow(0).getCell(0).setText("Field");
+            table.getRow(0).getCell(1).setText("Rule");
+            table.getRow(1).getCell(0).setText("Password");
+            table.getRow(1).getCell(1).setText("At least 12 characters");
+            XWPFParagraph subheading = document.createParagraph();
+            subheading.setStyle("Heading2");
+            subheading.createRun().setText("Lockout");
+            XWPFRun run = document.createParagraph().createRun();
+            run.setText("Lock after 5 attempts.");
+            run.addTab();
+            run.setText("Unlock after 10 minutes.");
+            document.write(baos);
+        }
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "spec.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                baos.toByteArray());
+        
+        // Act
+        String result = fileService.extractTextFromFile(file);
+        
+        // Assert
+        assertEquals("# Login\nUsers must sign in with SSO.\nField\tRule\nPassword\tAt least 12 characters\n"
+                + "## Lockout\nLock after 5 attempts.\tUnlock after 10 minutes.\n", result);
+    }
+
+    @Test
+    void testExtractTextFromFile_LargeDocx() throws IOException {
+        int sections = 2_000;
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "large.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                writeLargeDocx(sections));
+        
+        // Act
+        String result = fileService.extractTextFromFile(file);
+        
+        // Assert
+        assertTrue(result.contains("Metric " + (sections - 10)));
+        assertEquals(sections, result.lines().filter(line -> line.startsWith("## Requirement ")).count());
+    }
+
+    static byte[] writeLargeDocx(int sections) throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            for (int i = 0; i < sections; i++) {
+                XWPFParagraph heading = document.createParagraph();
+                heading.setStyle("Heading2");
+                heading.createRun().setText("Requirement " + i);
+                for (int p = 0; p < 5; p++) {
+                    document.createParagraph().createRun()
+                            .setText("The service must process request " + Long.toHexString(random.nextLong())
+                                    + " within " + random.nextInt(1000) + " ms at " + random.nextInt(5000) + " requests per second.");
+                }
+                if (i % 10 == 0) {
+                    XWPFTable table = document.createTable(3, 3);
+                    table.getRow(0).getCell(0).setText("Metric " + i);
+                }
+            }
+            document.write(baos);
+        }
+        return baos.toByteArray();
+    }
+
+    @Test
+    void testExtractTextFromFile_DocxTextBoxesKeepTheirAnchorAndAreReadOnce() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            XWPFParagraph paragraph = document.createParagraph();
+            paragraph.createRun().setText("Before the box");
+            paragraph.createRun().setText("TEXTBOX");
+            paragraph.createRun().setText("after the box.");
+            document.createParagraph().createRun().setText("Next paragraph.");
+            document.write(baos);
+        }
+        // A text box as Word writes it: a DrawingML shape with a VML fallback copy of its text
+        String textBox = "<mc:AlternateContent xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\">"
+                + "<mc:Choice xmlns:wps=\"http://schemas.microsoft.com/office/word/2010/wordprocessingShape\" Requires=\"wps\">"
+                + "<w:drawing><wps:wsp><wps:txbx><w:txbxContent>"
+                + "<w:p><w:r><w:t>Box line one</w:t></w:r></w:p><w:p><w:r><w:t>Box line two</w:t></w:r></w:p>"
+                + "</w:txbxContent></wps:txbx></wps:wsp></w:drawing></mc:Choice>"
+                + "<mc:Fallback><w:pict><v:shape xmlns:v=\"urn:schemas-microsoft-com:vml\"><v:textbox><w:txbxContent>"
+                + "<w:p><w:r><w:t>Box line one</w:t></w:r></w:p><w:p><w:r><w:t>Box line two</w:t></w:r></w:p>"
+                + "</w:txbxContent></v:textbox></v:shape></w:pict></mc:Fallback></mc:AlternateContent>";
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "boxes.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                replaceInDocumentXml(baos.toByteArray(), "<w:t>TEXTBOX</w:t>", textBox));
+
+        // Act
+        String result = fileService.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Before the box Box line one Box line two after the box.\nNext paragraph.\n", result);
+    }
+
+    @Test
+    void testExtractTextFromFile_DocxExtractionStopsWhenInterrupted() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("Users must sign in with SSO.");
+            document.write(baos);
+        }
+        byte[] content = baos.toByteArray();
+        // Interrupt the extracting thread once the upload has been read, as a timeout would
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "spec.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                content) {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(content) {
+                    @Override
+                    public synchronized int read(byte[] b, int off, int len) {
+                        int read = super.read(b, off, len);
+                        if (read < 0) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return read;
+                    }
+                };
+            }
+        };
+
+        // Act & Assert
+        try {
+            assertThrows(InterruptedIOException.class, () -> fileService.extractTextFromFile(file));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testExtractTextFromFile_LegacyDoc() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "spec.doc",
+                "application/msword",
+                writeDoc(new String[] {"Login", "Users must sign in with SSO.", "See page \u0013 PAGE \u00142\u0015 for details."},
+                        new int[] {1, 0, 0}));
+
+        // Act
+        String result = fileService.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("# Login\nUsers must sign in with SSO.\nSee page 2 for details.\n", result);
+    }
+
+    /**
+     * Replaces text in the main document part of a DOCX package, to add markup XWPF cannot write
+     */
+    private static byte[] replaceInDocumentXml(byte[] docx, String target, String replacement) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(docx));
+             ZipOutputStream out = new ZipOutputStream(baos)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                byte[] content = in.readAllBytes();
+                if ("word/document.xml".equals(entry.getName())) {
+                    String xml = new String(content, StandardCharsets.UTF_8);
+                    assertTrue(xml.contains(target));
+                    content = xml.replace(target, replacement).getBytes(StandardCharsets.UTF_8);
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                out.write(content);
+                out.closeEntry();
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes a minimal Word 97 document, since POI cannot create one: a FIB, the text as a
+     * single Unicode piece, one paragraph property page giving each paragraph its style, and
+     * a style sheet with "Normal" (0) and "heading 1" (1)
+     */
+    private static byte[] writeDoc(String[] paragraphs, int[] styles) throws IOException {
+        String text = String.join("\r", paragraphs) + "\r";
+        int textOffset = 1024;
+        int papPage = 3;
+        ByteBuffer main = ByteBuffer.allocate(2048).order(ByteOrder.LITTLE_ENDIAN);
+        // FibBase: Word 97 (nFib 0xC1) with its table in the 1Table stream
+        main.putShort((short) 0xA5EC).putShort((short) 0xC1).putShort((short) 0).putShort((short) 0x409)
+                .putShort((short) 0).putShort((short) 0x1200).putShort((short) 0xBF).putInt(0).putShort((short) 0)
+                .putShort((short) 0).putShort((short) 0).putInt(0).putInt(0);
+        // FibRgW97, then FibRgLw97 with cbMac and ccpText
+        main.putShort((short) 14).position(main.position() + 28);
+        main.putShort((short) 22);
+        int fibRgLw = main.position();
+        main.putInt(main.capacity()).putInt(0).putInt(0).putInt(text.length()).position(fibRgLw + 88);
+        main.putShort((short) 0x5D);
+        int fibRgFcLcb = main.position();
+
+        ByteBuffer table = ByteBuffer.allocate(2048).order(ByteOrder.LITTLE_ENDIAN);
+        int fonts = table.position();
+        table.putInt(0);
+        int styleSheet = table.position();
+        byte[][] styleDescriptions = {writeStyle(0, 0xFFF, "Normal", 0), writeStyle(1, 0, "heading 1", 1)};
+        table.putShort((short) 18).putShort((short) styleDescriptions.length).putShort((short) 10).putShort((short) 1)
+                .putShort((short) 0x5B).putShort((short) 0x0F).putShort((short) 0).putShort((short) 0).putShort((short) 0)
+                .putShort((short) 0);
+        for (byte[] style : styleDescriptions) {
+            table.putShort((short) style.length).put(style);
+        }
+        int styleSheetLength = table.position() - styleSheet;
+        // The piece table: one piece of Unicode text
+        int clx = table.position();
+        table.put((byte) 2).putInt(16).putInt(0).putInt(text.length()).putShort((short) 0).putInt(textOffset).putShort((short) 0);
+        int clxLength = table.position() - clx;
+        int papBins = table.position();
+        table.putInt(textOffset).putInt(textOffset + 2 * text.length()).putInt(papPage);
+        int papBinsLength = table.position() - papBins;
+        int documentProperties = table.position();
+        table.position(documentProperties + 500);
+
+        main.putInt(fibRgFcLcb + 8, styleSheet).putInt(fibRgFcLcb + 12, styleSheetLength);
+        main.putInt(fibRgFcLcb + 13 * 8, papBins).putInt(fibRgFcLcb + 13 * 8 + 4, papBinsLength);
+        main.putInt(fibRgFcLcb + 15 * 8, fonts).putInt(fibRgFcLcb + 15 * 8 + 4, 4);
+        main.putInt(fibRgFcLcb + 31 * 8, documentProperties).putInt(fibRgFcLcb + 31 * 8 + 4, 500);
+        main.putInt(fibRgFcLcb + 33 * 8, clx).putInt(fibRgFcLcb + 33 * 8 + 4, clxLength);
+
+        main.position(textOffset);
+        main.put(text.getBytes(StandardCharsets.UTF_16LE));
+        // Paragraph property page: the byte range of each paragraph and its style
+        int page = papPage * 512;
+        int offset = textOffset;
+        main.putInt(page, offset);
+        for (int i = 0; i < paragraphs.length; i++) {
+            offset += 2 * (paragraphs[i].length() + 1);
+            main.putInt(page + 4 * (i + 1), offset);
+        }
+        int bx = page + 4 * (paragraphs.length + 1);
+        for (int i = 0; i < paragraphs.length; i++) {
+            int papx = 400 + 4 * i;
+            main.put(bx + 13 * i, (byte) (papx / 2));
+            main.put(page + papx, (byte) 0).put(page + papx + 1, (byte) 1).putShort(page + papx + 2, (short) styles[i]);
+        }
+        main.put(page + 511, (byte) paragraphs.length);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem()) {
+            fileSystem.createDocument(new ByteArrayInputStream(main.array()), "WordDocument");
+            fileSystem.createDocument(new ByteArrayInputStream(table.array(), 0, table.position()), "1Table");
+            fileSystem.writeFilesystem(baos);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes a paragraph style description whose paragraph properties only name the style
+     */
+    private static byte[] writeStyle(int sti, int baseStyle, String name, int index) {
+        ByteBuffer style = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        style.putShort((short) sti).putShort((short) (1 | baseStyle << 4)).putShort((short) 2).putShort((short) 0).putShort((short) 0);
+        style.putShort((short) name.length()).put(name.getBytes(StandardCharsets.UTF_16LE)).putShort((short) 0);
+        style.putShort((short) 2).putShort((short) index).putShort((short) 0);
+        byte[] bytes = new byte[style.position()];
+        style.flip().get(bytes);
+        return bytes;
     }
 
     @Test
@@ -218,6 +787,117 @@ class FileServiceTest {
         assertTrue(exception.getMessage().startsWith("Unsupported file type:"));
     }
 
+    @Test
+    void testExtractDocument_FormatIsSniffedFromContent() throws IOException {
+        // Arrange
+        ByteArrayOutputStream docx = new ByteArrayOutputStream();
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("Users must sign in with SSO.");
+            document.write(docx);
+        }
+        byte[] xlsx = writeMixedWorkbook(new XSSFWorkbook());
+
+        // Act
+        ExtractedDocument pdf = fileService.extractDocument(
+                new MockMultipartFile("file", "notes.txt", "text/plain", writePdf(1)), null);
+        ExtractedDocument workbook = fileService.extractDocument(
+                new MockMultipartFile("file", "upload.bin", "application/octet-stream", xlsx), null);
+        ExtractedDocument word = fileService.extractDocument(
+                new MockMultipartFile("file", "upload.bin", "application/octet-stream", docx.toByteArray()), null);
+        ExtractedDocument json = fileService.extractDocument(new MockMultipartFile(
+                "file", "notes.txt", "text/plain", "\uFEFF  {\"title\":\"Login\"}".getBytes(StandardCharsets.UTF_8)), null);
+        ExtractedDocument text = fileService.extractDocument(new MockMultipartFile(
+                "file", "notes.txt", "text/plain", "[Draft] Login must use SSO".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        assertEquals("PDF", pdf.getFormat());
+        assertTrue(pdf.getText().contains("Page 1 text"));
+        assertEquals("EXCEL", workbook.getFormat());
+        assertTrue(workbook.getText().startsWith("Sheet: Stories"));
+        assertEquals("WORD", word.getFormat());
+        assertEquals("Users must sign in with SSO.\n", word.getText());
+        assertEquals("JSON", json.getFormat());
+        assertEquals("Login", json.getText());
+        assertEquals("TEXT", text.getFormat());
+    }
+
+    @Test
+    void testExtractTextFromFile_HtmlPage() throws IOException {
+        // Arrange
+        String html = "<!DOCTYPE html><html><head><title>Spec</title><style>p { color: red; }</style>"
+                + "<script>var x = '<p>hidden</p>';</script></head><body>"
+                + "<h1>Login</h1><p>Users   must\n sign in &amp; stay signed in.</p><!-- draft -->"
+                + "<ul><li>SSO</li><li>MFA&nbsp;codes</li></ul>"
+                + "<table><tr><th>Field</th><th>Rule</th></tr><tr><td><p>Password</p></td><td>12+ chars</td></tr></table>"
+                + "<h2>Lockout</h2><p>After 5 attempts<br>for 10 minutes</p></body></html>";
+        MockMultipartFile file = new MockMultipartFile("file", "spec.html", "text/html", html.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        ExtractedDocument result = fileService.extractDocument(file, null);
+
+        // Assert
+        assertEquals("HTML", result.getFormat());
+        assertEquals("Spec\n# Login\nUsers must sign in & stay signed in.\n- SSO\n- MFA codes\nField\tRule\nPassword\t12+ chars\n"
+                + "## Lockout\nAfter 5 attempts\nfor 10 minutes\n", result.getText());
+    }
+
+    @Test
+    void testExtractTextFromFile_CsvFile() throws IOException {
+        // Arrange
+        String csv = "Key;Summary;Description\r\nREQ-1;Login;\"Users sign in; \"\"SSO\"\" only\nno passwords\"\r\n;;\r\nREQ-2;Logout;\n";
+        MockMultipartFile file = new MockMultipartFile("file", "export.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        ExtractedDocument result = fileService.extractDocument(file, null);
+
+        // Assert
+        assertEquals("CSV", result.getFormat());
+        assertEquals("Key\tSummary\tDescription\nREQ-1\tLogin\tUsers sign in; \"SSO\" only no passwords\nREQ-2\tLogout\n",
+                result.getText());
+    }
+
+    @Test
+    void testExtractTextFromFile_MarkdownFile() throws IOException {
+        // Arrange
+        String markdown = "Login\n=====\n\nUsers **must** sign in with [SSO](https://sso.example.com).\n"
+                + "<!-- reviewer note -->\n* Lock after `5` attempts\n\n---\n\n## Fields ##\n\n"
+                + "| Field | Rule |\n|-------|:----:|\n| Password | 12+ chars |\n\n```\nPOST /login\n```\n";
+        MockMultipartFile file = new MockMultipartFile("file", "spec.md", "text/markdown", markdown.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        ExtractedDocument result = fileService.extractDocument(file, null);
+
+        // Assert
+        assertEquals("MARKDOWN", result.getFormat());
+        assertEquals("# Login\nUsers must sign in with SSO.\n- Lock after 5 attempts\n## Fields\nField\tRule\n"
+                + "Password\t12+ chars\nPOST /login\n", result.getText());
+    }
+
+    @Test
+    void testExtractTextFromFile_OversizedTextUploadIsRejectedBeforeReading() {
+        // Arrange
+        maxTextLength = 10;
+        fileService = newFileService(Runnable::run, 2000, 16, Duration.ofSeconds(60));
+        MockMultipartFile file = new MockMultipartFile("file", "spec.txt", "text/plain",
+                "x".repeat(31).getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        PayloadTooLargeException e = assertThrows(PayloadTooLargeException.class, () -> fileService.extractTextFromFile(file));
+        assertEquals(413, e.getStatus().value());
+    }
+
+    @Test
+    void testExtractTextFromFile_ExtractedTextOverLimitIsNotCached() throws IOException {
+        // Arrange
+        maxTextLength = 10;
+        fileService = newFileService(Runnable::run, 2000, 16, Duration.ofSeconds(60));
+        MockMultipartFile file = new MockMultipartFile("file", "spec.pdf", "application/pdf", writePdf(1));
+
+        // Act & Assert
+        assertThrows(PayloadTooLargeException.class, () -> fileService.extractTextFromFile(file));
+        verify(extractionCache, never()).put(anyString(), any());
+    }
+
     @Test
     void testExtractTextFromFile_NullFileName() {
         // Arrange
@@ -275,12 +955,9 @@ class FileServiceTest {
                 "application/json",
                 "invalid json content".getBytes());
 
-        when(objectMapper.readValue(any(InputStream.class), eq(HashMap.class)))
-                .thenThrow(new IOException("JSON parsing error"));
-
         // Act & Assert
         IOException exception = assertThrows(IOException.class, () -> fileService.extractTextFromFile(file));
-        assertEquals("JSON parsing error", exception.getMessage());
+        assertTrue(exception.getMessage().startsWith("Unrecognized token 'invalid'"));
     }
 
     @Test
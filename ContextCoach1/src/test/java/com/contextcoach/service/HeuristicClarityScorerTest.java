@@ -0,0 +1,79 @@
+package com.contextcoach.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class HeuristicClarityScorerTest {
+
+    private static final String CLEAR_REQUIREMENT =
+            "The login endpoint must respond within 200 ms for 95% of requests. " +
+            "Users must be locked out after 5 failed attempts within 10 minutes. " +
+            "Passwords must contain at least 12 characters.";
+
+    private static final String VAGUE_REQUIREMENT =
+            "The system should be fast and user-friendly and should be optimized appropriately " +
+            "for various users, handling many requests efficiently, with reports being generated " +
+            "as needed and some data being exported in several formats etc.";
+
+    private final HeuristicClarityScorer scorer = new HeuristicClarityScorer();
+
+    @Test
+    void testClearRequirementScoresHigherThanVagueRequirement() {
+        double clear = scorer.score(CLEAR_REQUIREMENT);
+        double vague = scorer.score(VAGUE_REQUIREMENT);
+
+        assertTrue(clear > 0.7, "clear requirement scored " + clear);
+        assertTrue(vague < 0.5, "vague requirement scored " + vague);
+    }
+
+    @Test
+    void testScoreIsDeterministicAndBounded() {
+        double first = scorer.score(VAGUE_REQUIREMENT);
+        double second = scorer.score(VAGUE_REQUIREMENT);
+
+        assertEquals(first, second);
+        assertTrue(first >= 0.0 && first <= 1.0);
+    }
+
+    @Test
+    void testEmptyTextScoresZero() {
+        assertEquals(0.0, scorer.score(null));
+        assertEquals(0.0, scorer.score("   "));
+    }
+
+    @Test
+    void testPassiveVoiceIsDetected() {
+        double[] passive = scorer.extractFeatures("The report is generated by the system.");
+        double[] active = scorer.extractFeatures("The system generates the report.");
+
+        assertEquals(1.0, passive[HeuristicClarityScorer.PASSIVE_VOICE]);
+        assertEquals(0.0, active[HeuristicClarityScorer.PASSIVE_VOICE]);
+    }
+
+    @Test
+    void testVagueTermsComeFromTheSharedLexicon() {
+        double[] phrase = scorer.extractFeatures("The export finishes in a timely manner.");
+        double[] precise = scorer.extractFeatures("The export finishes within 30 seconds.");
+
+        assertTrue(phrase[HeuristicClarityScorer.VAGUE_TERMS] > 0.0);
+        assertEquals(0.0, precise[HeuristicClarityScorer.VAGUE_TERMS]);
+    }
+
+    @Test
+    void testWeightsAreConfigurable() {
+        HeuristicClarityScorer vagueOnly = new HeuristicClarityScorer(1.0, 0.0, 0.0, 0.0, 0.0);
+
+        assertEquals(1.0, vagueOnly.score(CLEAR_REQUIREMENT));
+    }
+
+    @Test
+    void testLongDocumentsAreScoredConsistently() {
+        String document = (CLEAR_REQUIREMENT + "\n" + VAGUE_REQUIREMENT + "\n").repeat(10);
+
+        double score = scorer.score(document);
+
+        assertTrue(score > 0.0 && score <= 1.0, () -> "score was " + score);
+        assertEquals(score, scorer.score(document));
+    }
+}
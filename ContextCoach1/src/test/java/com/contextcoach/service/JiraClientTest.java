@@ -0,0 +1,200 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.JiraOutboxEntry;
+import com.contextcoach.model.JiraTicket;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the Jira client against a local stub of the bulk issue endpoint. The stub rejects
+ * issues whose summary starts with "Reject" and numbers the others sequentially.
+ */
+class JiraClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger issueNumber = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rest/api/2/issue/bulk", this::handleBulkCreate);
+        server.createContext("/rest/api/2/search", this::handleSearch);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handleBulkCreate(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        requests.add(request);
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode issues = response.putArray("issues");
+        ArrayNode errors = response.putArray("errors");
+        int index = 0;
+        for (JsonNode update : request.path("issueUpdates")) {
+            if (update.path("fields").path("summary").asText().startsWith("Reject")) {
+                ObjectNode error = errors.addObject();
+                error.put("status", 400);
+                error.put("failedElementNumber", index);
+                error.putObject("elementErrors").putObject("errors").put("issuetype", "The issue type selected is invalid.");
+            } else {
+                int number = issueNumber.incrementAndGet();
+                issues.addObject().put("id", String.valueOf(10000 + number)).put("key", "CC-" + number);
+            }
+            index++;
+        }
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(errors.isEmpty() ? 201 : 400, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        String jql = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode issues = response.putArray("issues");
+        // Only the issue labelled with key "a" exists
+        if (jql.contains("labels in (") && jql.contains("\"contextcoach-a\"")) {
+            ObjectNode issue = issues.addObject().put("key", "CC-9");
+            issue.putObject("fields").putArray("labels").add("backend").add("contextcoach-a");
+        }
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private JiraClient newClient(String url, int bulkSize) {
+        return new JiraClient(objectMapper, url, "coach", "secret", "CC", "customfield_10016", bulkSize,
+                Duration.ofSeconds(2), Duration.ofSeconds(5));
+    }
+
+    private String stubUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private static JiraTicket ticket(String title) {
+        JiraTicket ticket = new JiraTicket();
+        ticket.setTitle(title);
+        ticket.setDescription("*Requirement:*\n" + title);
+        ticket.setTicketType("Story");
+        ticket.setPriority("High");
+        ticket.setEstimatedStoryPoints(5);
+        return ticket;
+    }
+
+    @Test
+    void testCreateIssuesBatchesFiftyPerRequest() {
+        List<JiraTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            tickets.add(ticket("Story " + i));
+        }
+
+        List<JiraClient.IssueResult> results = newClient(stubUrl(), 100).createIssues(tickets);
+
+        assertEquals(3, requests.size());
+        assertEquals(50, requests.get(0).path("issueUpdates").size());
+        assertEquals(50, requests.get(1).path("issueUpdates").size());
+        assertEquals(20, requests.get(2).path("issueUpdates").size());
+        assertEquals(120, results.size());
+        assertEquals("CC-1", results.get(0).getKey());
+        assertEquals("CC-120", results.get(119).getKey());
+
+        JsonNode fields = requests.get(0).path("issueUpdates").get(0).path("fields");
+        assertEquals("CC", fields.path("project").path("key").asText());
+        assertEquals("Story 0", fields.path("summary").asText());
+        assertEquals("Story", fields.path("issuetype").path("name").asText());
+        assertEquals("High", fields.path("priority").path("name").asText());
+        assertEquals(5, fields.path("customfield_10016").asInt());
+        String expectedAuth = "Basic " + Base64.getEncoder().encodeToString("coach:secret".getBytes(StandardCharsets.UTF_8));
+        assertTrue(authorizations.stream().allMatch(expectedAuth::equals));
+    }
+
+    @Test
+    void testPartialBatchFailureIsReportedPerTicket() {
+        List<JiraTicket> tickets = List.of(ticket("Login"), ticket("Reject me"), ticket("Logout"));
+
+        List<JiraClient.IssueResult> results = newClient(stubUrl(), 50).createIssues(tickets);
+
+        assertEquals("CC-1", results.get(0).getKey());
+        assertFalse(results.get(1).isCreated());
+        assertEquals("issuetype: The issue type selected is invalid.", results.get(1).getError());
+        assertFalse(results.get(1).isRetryable());
+        assertEquals("CC-2", results.get(2).getKey());
+    }
+
+    @Test
+    void testOutboxTicketsCarryTheirIdempotencyLabel() {
+        JiraTicket ticket = ticket("Login");
+        ticket.setOutbox(JiraOutboxEntry.pending());
+        ticket.getOutbox().setIdempotencyKey("a");
+        JiraClient client = newClient(stubUrl(), 50);
+
+        client.createIssues(List.of(ticket));
+        Map<String, String> existing = client.findIssueKeysByIdempotencyKey(List.of("a", "b"));
+
+        JsonNode labels = requests.get(0).path("issueUpdates").get(0).path("fields").path("labels");
+        assertEquals("contextcoach-a", labels.get(0).asText());
+        assertEquals(Map.of("a", "CC-9"), existing);
+    }
+
+    @Test
+    void testUnreachableJiraFailsTheWholeBatch() {
+        server.stop(0);
+
+        List<JiraClient.IssueResult> results = newClient(stubUrl(), 50).createIssues(List.of(ticket("A"), ticket("B")));
+
+        assertEquals(2, results.size());
+        assertNull(results.get(0).getKey());
+        assertTrue(results.get(1).getError().startsWith("Jira is unreachable"));
+        assertTrue(results.get(1).isRetryable());
+    }
+
+    @Test
+    void testUnconfiguredClientRefusesToCallJira() {
+        JiraClient client = new JiraClient(objectMapper, "", "", "", "CC", "", 50, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        assertFalse(client.isConfigured());
+        assertThrows(ServiceException.class, () -> client.createIssues(List.of(ticket("A"))));
+        assertThrows(ServiceException.class, () -> client.findIssueKeysByIdempotencyKey(List.of("a")));
+    }
+}
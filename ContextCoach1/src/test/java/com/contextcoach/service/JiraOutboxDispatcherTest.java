@@ -0,0 +1,188 @@
+package com.contextcoach.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpStatus;
+
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.JiraOutboxEntry;
+import com.contextcoach.model.JiraTicket;
+import com.mongodb.bulk.BulkWriteResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JiraOutboxDispatcherTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOps;
+    private BulkWriteResult bulkResult;
+    private JiraClient jiraClient;
+    private SimpleMeterRegistry meterRegistry;
+    private JiraOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOps = mock(BulkOperations.class);
+        bulkResult = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JiraTicket.class)).thenReturn(bulkOps);
+        when(bulkOps.execute()).thenReturn(bulkResult);
+        jiraClient = mock(JiraClient.class);
+        when(jiraClient.isConfigured()).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new JiraOutboxDispatcher(mongoTemplate, jiraClient, meterRegistry,
+                50, 3, Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(2));
+    }
+
+    /**
+     * Creates a ticket as the claim returns it: in flight with its attempt counted
+     */
+    private static JiraTicket claimedTicket(String id, int attempts) {
+        JiraTicket ticket = new JiraTicket();
+        ticket.setId(id);
+        ticket.setTitle("Ticket " + id);
+        JiraOutboxEntry outbox = JiraOutboxEntry.pending();
+        outbox.setIdempotencyKey("key-" + id);
+        outbox.setStatus(JiraOutboxEntry.Status.IN_FLIGHT);
+        outbox.setAttempts(attempts);
+        outbox.setEnqueuedAt(LocalDateTime.now().minusSeconds(30));
+        ticket.setOutbox(outbox);
+        return ticket;
+    }
+
+    private void claimReturns(JiraTicket... tickets) {
+        JiraTicket[] rest = new JiraTicket[tickets.length];
+        System.arraycopy(tickets, 1, rest, 0, tickets.length - 1);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(JiraTicket.class)))
+                .thenReturn(tickets[0], rest);
+    }
+
+    private double dispatched(String outcome) {
+        return meterRegistry.get("contextcoach.jira.outbox.dispatched").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testDispatchSyncsCreatedTicketsAndFailsRejectedOnes() {
+        JiraTicket login = claimedTicket("1", 1);
+        JiraTicket invalid = claimedTicket("2", 1);
+        claimReturns(login, invalid, null);
+        when(jiraClient.findIssueKeysByIdempotencyKey(List.of())).thenReturn(Map.of());
+        when(jiraClient.createIssues(List.of(login, invalid))).thenReturn(List.of(
+                JiraClient.IssueResult.created("CC-1"),
+                JiraClient.IssueResult.failed("issuetype: The issue type selected is invalid.", false)));
+        when(bulkResult.getModifiedCount()).thenReturn(2);
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        assertEquals("CC-1", login.getExternalTicketId());
+        assertEquals(JiraOutboxEntry.Status.SYNCED, login.getOutbox().getStatus());
+        assertEquals(JiraOutboxEntry.Status.FAILED, invalid.getOutbox().getStatus());
+        assertNull(invalid.getExternalTicketId());
+        ArgumentCaptor<Query> claims = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOps, times(2)).updateOne(claims.capture(), updates.capture());
+        // Only the outbox and the issue key are written, so a concurrent patch is kept
+        Document loginClaim = claims.getAllValues().get(0).getQueryObject();
+        assertEquals("1", loginClaim.get("_id"));
+        assertEquals(1, loginClaim.get("outbox.attempts"));
+        Document loginSet = updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class);
+        assertEquals(Set.of("outbox", "externalTicketId"), loginSet.keySet());
+        Document invalidSet = updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class);
+        assertEquals(Set.of("outbox"), invalidSet.keySet());
+        assertEquals(1.0, dispatched("synced"));
+        assertEquals(1.0, dispatched("failed"));
+        assertEquals(1, meterRegistry.get("contextcoach.jira.outbox.sync.latency").timer().count());
+    }
+
+    @Test
+    void testTransientFailureIsRetriedWithBackoffUntilAttemptsRunOut() {
+        JiraTicket first = claimedTicket("1", 1);
+        JiraTicket last = claimedTicket("2", 3);
+        claimReturns(first, last, null);
+        when(jiraClient.findIssueKeysByIdempotencyKey(List.of("key-2"))).thenReturn(Map.of());
+        when(jiraClient.createIssues(List.of(first, last))).thenReturn(List.of(
+                JiraClient.IssueResult.failed("Jira is unreachable", true),
+                JiraClient.IssueResult.failed("Jira is unreachable", true)));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(JiraOutboxEntry.Status.PENDING, first.getOutbox().getStatus());
+        assertTrue(first.getOutbox().getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(7)));
+        assertEquals("Jira is unreachable", first.getOutbox().getLastError());
+        assertEquals(JiraOutboxEntry.Status.FAILED, last.getOutbox().getStatus());
+        assertEquals(1.0, dispatched("retry"));
+    }
+
+    @Test
+    void testRetriedEntryAlreadyInJiraIsNotCreatedAgain() {
+        JiraTicket retried = claimedTicket("1", 2);
+        claimReturns(retried, null);
+        when(jiraClient.findIssueKeysByIdempotencyKey(List.of("key-1"))).thenReturn(Map.of("key-1", "CC-7"));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals("CC-7", retried.getExternalTicketId());
+        assertEquals(JiraOutboxEntry.Status.SYNCED, retried.getOutbox().getStatus());
+        verify(jiraClient, never()).createIssues(anyList());
+    }
+
+    @Test
+    void testFailedLookupOnlySendsFirstAttempts() {
+        JiraTicket retried = claimedTicket("1", 2);
+        JiraTicket fresh = claimedTicket("2", 1);
+        claimReturns(retried, fresh, null);
+        when(jiraClient.findIssueKeysByIdempotencyKey(List.of("key-1")))
+                .thenThrow(new ServiceException("Error searching Jira", HttpStatus.BAD_GATEWAY));
+        when(jiraClient.createIssues(List.of(fresh))).thenReturn(List.of(JiraClient.IssueResult.created("CC-2")));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(JiraOutboxEntry.Status.PENDING, retried.getOutbox().getStatus());
+        assertEquals("CC-2", fresh.getExternalTicketId());
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheMaximum() {
+        Duration first = dispatcher.backoff(1);
+        Duration third = dispatcher.backoff(3);
+        Duration tenth = dispatcher.backoff(10);
+
+        assertTrue(first.toMillis() >= 8000 && first.toMillis() <= 12000, first.toString());
+        assertTrue(third.toMillis() >= 32000 && third.toMillis() <= 48000, third.toString());
+        assertTrue(tenth.toMillis() >= 48000 && tenth.toMillis() <= 72000, tenth.toString());
+    }
+
+    @Test
+    void testNothingIsDispatchedWhenJiraIsNotConfigured() {
+        when(jiraClient.isConfigured()).thenReturn(false);
+
+        dispatcher.dispatchDueEntries();
+
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(JiraTicket.class));
+    }
+}
@@ -0,0 +1,280 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.SyncWatermark;
+import com.contextcoach.repository.SyncWatermarkRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.DBRef;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the incremental sync against a local stub of the Jira search endpoint, which
+ * filters and orders issues by their update time the way Jira evaluates the JQL
+ */
+class JiraPullSyncServiceTest {
+
+    private static final Pattern UPDATED_SINCE = Pattern.compile("updated >= \"([^\"]+)\"");
+    private static final DateTimeFormatter JQL_DATE_TIME = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2024, 1, 5, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, OffsetDateTime> issues = new HashMap<>();
+    private final List<String> searches = new ArrayList<>();
+    private Runnable afterFirstSearch = () -> { };
+    private HttpServer server;
+
+    private final Map<String, String> idempotencyKeys = new HashMap<>();
+    private final Map<String, String> statuses = new HashMap<>();
+
+    private final Map<String, SyncWatermark> watermarks = new HashMap<>();
+    private final List<Instant> checkpoints = new ArrayList<>();
+    private final List<String> upsertedKeys = new ArrayList<>();
+    private MongoTemplate mongoTemplate;
+    private DeveloperWorkloadService developerWorkloadService;
+    private JiraPullSyncService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rest/api/2/search", this::handleSearch);
+        server.start();
+
+        JiraClient jiraClient = new JiraClient(objectMapper, "http://127.0.0.1:" + server.getAddress().getPort(),
+                "coach", "secret", "CC", "customfield_10016", 50, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JiraTicket.class)).thenReturn(bulkOps);
+        when(bulkOps.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            Query match = invocation.getArgument(0);
+            Object matchedKey = match.getQueryObject().get("externalTicketId");
+            upsertedKeys.add(matchedKey != null ? (String) matchedKey : "outbox:" + match.getQueryObject().get("outbox.idempotencyKey"));
+            return bulkOps;
+        });
+
+        SyncWatermarkRepository watermarkRepository = mock(SyncWatermarkRepository.class);
+        when(watermarkRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(watermarks.get(invocation.<String>getArgument(0))));
+        when(watermarkRepository.save(any(SyncWatermark.class))).thenAnswer(invocation -> {
+            SyncWatermark watermark = invocation.getArgument(0);
+            SyncWatermark copy = new SyncWatermark(watermark.getName(), watermark.getWatermark());
+            copy.setLastRunItems(watermark.getLastRunItems());
+            watermarks.put(watermark.getName(), copy);
+            checkpoints.add(watermark.getWatermark());
+            return watermark;
+        });
+
+        developerWorkloadService = mock(DeveloperWorkloadService.class);
+        service = new JiraPullSyncService(jiraClient, mongoTemplate, watermarkRepository, developerWorkloadService,
+                new SimpleMeterRegistry(), "CC", true, 100, Duration.ofMinutes(2), "UTC");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String jql = request.path("jql").asText();
+        Matcher matcher = UPDATED_SINCE.matcher(jql);
+        assertTrue(matcher.find(), jql);
+        OffsetDateTime since = LocalDateTime.parse(matcher.group(1), JQL_DATE_TIME).atOffset(ZoneOffset.UTC);
+        int startAt = request.path("startAt").asInt();
+        int maxResults = request.path("maxResults").asInt();
+        searches.add(matcher.group(1) + "@" + startAt);
+
+        List<Map.Entry<String, OffsetDateTime>> matching = issues.entrySet().stream()
+                .filter(issue -> !issue.getValue().truncatedTo(ChronoUnit.MINUTES).isBefore(since))
+                .sorted(Map.Entry.<String, OffsetDateTime>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                .toList();
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("total", matching.size());
+        ArrayNode page = response.putArray("issues");
+        for (Map.Entry<String, OffsetDateTime> issue : matching.subList(Math.min(startAt, matching.size()),
+                Math.min(startAt + maxResults, matching.size()))) {
+            ObjectNode fields = page.addObject().put("key", issue.getKey()).putObject("fields");
+            fields.put("summary", "Summary of " + issue.getKey());
+            fields.putObject("status").put("name", statuses.getOrDefault(issue.getKey(), "In Progress"));
+            fields.putObject("assignee").put("displayName", "Ada");
+            fields.put("customfield_10016", 3.0);
+            ArrayNode labels = fields.putArray("labels").add("backend");
+            if (idempotencyKeys.containsKey(issue.getKey())) {
+                labels.add("contextcoach-" + idempotencyKeys.get(issue.getKey()));
+            }
+            fields.put("updated", JIRA_TIMESTAMP.format(issue.getValue()));
+        }
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        if (searches.size() == 1) {
+            afterFirstSearch.run();
+        }
+    }
+
+    private static String key(int number) {
+        return String.format("CC-%05d", number);
+    }
+
+    @Test
+    void testFirstRunPullsEveryIssueInPages() {
+        for (int i = 0; i < 250; i++) {
+            issues.put(key(i), BASE.plusSeconds(i * 20L));
+        }
+
+        SyncWatermark watermark = service.sync();
+
+        assertEquals(250, watermark.getLastRunItems());
+        assertEquals(250, upsertedKeys.size());
+        assertEquals(250, new HashSet<>(upsertedKeys).size());
+        assertEquals(3, searches.size());
+        assertTrue(watermark.getWatermark().isAfter(BASE.toInstant().plus(Duration.ofHours(1))));
+    }
+
+    @Test
+    void testSecondRunOnlyPullsTheDelta() {
+        for (int i = 0; i < 150; i++) {
+            issues.put(key(i), BASE.plusMinutes(i));
+        }
+        service.sync();
+        upsertedKeys.clear();
+        searches.clear();
+
+        OffsetDateTime later = OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(5);
+        issues.put(key(7), later);
+        issues.put(key(150), later.plusSeconds(1));
+        SyncWatermark watermark = service.sync();
+
+        assertEquals(List.of(key(7), key(150)), upsertedKeys);
+        assertEquals(1, searches.size());
+        assertEquals(2, watermark.getLastRunItems());
+    }
+
+    @Test
+    void testIssuesSharingOneMinuteArePagedByOffset() {
+        for (int i = 0; i < 230; i++) {
+            issues.put(key(i), BASE.plusNanos(i * 1_000_000L));
+        }
+
+        service.sync();
+
+        assertEquals(230, new HashSet<>(upsertedKeys).size());
+        assertEquals(List.of("1970/01/01 00:00@0", "2024/01/05 09:00@100", "2024/01/05 09:00@200"), searches);
+    }
+
+    @Test
+    void testIssueUpdatedDuringTheRunDoesNotCauseASkip() {
+        for (int i = 0; i < 200; i++) {
+            issues.put(key(i), BASE.plusMinutes(i));
+        }
+        // An early issue moves to the end of the ordering after the first page was read
+        afterFirstSearch = () -> issues.put(key(10), BASE.plusMinutes(500));
+
+        service.sync();
+
+        Set<String> pulled = new HashSet<>(upsertedKeys);
+        assertEquals(200, pulled.size());
+        assertTrue(pulled.contains(key(100)));
+    }
+
+    @Test
+    void testWatermarkIsCheckpointedAfterEachPage() {
+        for (int i = 0; i < 120; i++) {
+            issues.put(key(i), BASE.plusMinutes(i).plusSeconds(30));
+        }
+
+        service.sync();
+
+        // One checkpoint per page at the update minute of its last issue, then the final save
+        assertEquals(3, checkpoints.size());
+        assertEquals(BASE.plusMinutes(99).toInstant(), checkpoints.get(0));
+        assertEquals(BASE.plusMinutes(119).toInstant(), checkpoints.get(1));
+        assertTrue(checkpoints.get(2).isAfter(checkpoints.get(1)));
+    }
+
+    @Test
+    void testIssuesCreatedByTheOutboxAreMatchedByIdempotencyKey() {
+        issues.put(key(1), BASE);
+        issues.put(key(2), BASE.plusMinutes(1));
+        idempotencyKeys.put(key(2), "3f2a");
+
+        service.sync();
+
+        assertEquals(List.of(key(1), "outbox:3f2a"), upsertedKeys);
+    }
+
+    @Test
+    void testPulledStatusMovesTheWorkloadOfAssignedTickets() {
+        issues.put(key(1), BASE);
+        issues.put(key(2), BASE.plusMinutes(1));
+        statuses.put(key(1), "Done");
+        Document local = new Document("_id", "t1")
+                .append("assignedDeveloper", new DBRef("developer_profiles", "d1"))
+                .append("status", "In Progress")
+                .append("priority", "High")
+                .append("estimatedStoryPoints", 5)
+                .append("externalTicketId", key(1));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("jira_tickets"))).thenReturn(List.of(local));
+
+        service.sync();
+
+        ArgumentCaptor<JiraTicket> before = ArgumentCaptor.forClass(JiraTicket.class);
+        ArgumentCaptor<JiraTicket> after = ArgumentCaptor.forClass(JiraTicket.class);
+        verify(developerWorkloadService).recordTicketChange(before.capture(), after.capture());
+        assertEquals("d1", before.getValue().getAssignedDeveloper().getId());
+        assertEquals("In Progress", before.getValue().getStatus());
+        assertEquals("Done", after.getValue().getStatus());
+        assertEquals(5, after.getValue().getEstimatedStoryPoints());
+        assertEquals("d1", after.getValue().getAssignedDeveloper().getId());
+    }
+}
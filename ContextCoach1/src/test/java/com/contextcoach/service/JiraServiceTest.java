@@ -0,0 +1,273 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.contextcoach.exception.ResourceNotFoundException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.model.BulkTicketCreationReport;
+import com.contextcoach.model.BulkTicketCreationReport.TicketOutcome;
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.JiraTicketPatch;
+import com.contextcoach.model.JiraTicketRequest;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.repository.JiraTicketRepository;
+import com.contextcoach.repository.RequirementRepository;
+import com.contextcoach.repository.RequirementSummaryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JiraServiceTest {
+
+    private JiraTicketRepository jiraTicketRepository;
+    private MongoTemplate mongoTemplate;
+    private RequirementRepository requirementRepository;
+    private DeveloperProfileCache developerProfileCache;
+    private RequirementService requirementService;
+    private RequirementSummaryService requirementSummaryService;
+    private DeveloperWorkloadService developerWorkloadService;
+    private JiraClient jiraClient;
+    private StoryPointEstimator storyPointEstimator;
+    private ExecutorService estimationExecutor;
+    private JiraService jiraService;
+
+    @BeforeEach
+    void setUp() {
+        jiraTicketRepository = mock(JiraTicketRepository.class);
+        requirementRepository = mock(RequirementRepository.class);
+        developerProfileCache = mock(DeveloperProfileCache.class);
+        requirementService = mock(RequirementService.class);
+        requirementSummaryService = mock(RequirementSummaryService.class);
+        developerWorkloadService = mock(DeveloperWorkloadService.class);
+        jiraClient = mock(JiraClient.class);
+        // Untrained, so every estimate falls back to the LLM or the clarity heuristic
+        storyPointEstimator = new StoryPointEstimator(mock(MongoTemplate.class), requirementRepository,
+                mock(DeveloperProfileRepository.class), mock(RequirementSummaryRepository.class), new SimpleMeterRegistry(), 1.0, 50, 1.5);
+        estimationExecutor = Executors.newFixedThreadPool(4);
+        mongoTemplate = mock(MongoTemplate.class);
+        jiraService = new JiraService(jiraTicketRepository, mongoTemplate, requirementRepository, developerProfileCache,
+                requirementService, requirementSummaryService, developerWorkloadService, jiraClient, storyPointEstimator, estimationExecutor, 10);
+
+        when(requirementRepository.findAllById(anyIterable())).thenReturn(List.of(
+                requirement("r1", 0.8), requirement("r2", 0.4), requirement("r3", null)));
+        when(developerProfileCache.findAllById(anyIterable())).thenReturn(List.of(developer("d1"), developer("d2")));
+        when(jiraTicketRepository.insert(anyList())).thenAnswer(invocation -> {
+            List<JiraTicket> tickets = invocation.getArgument(0);
+            for (int i = 0; i < tickets.size(); i++) {
+                tickets.get(i).setId("t" + i);
+            }
+            return tickets;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        estimationExecutor.shutdownNow();
+    }
+
+    private static Requirement requirement(String id, Double clarityScore) {
+        Requirement requirement = new Requirement();
+        requirement.setId(id);
+        requirement.setTitle("Requirement " + id);
+        requirement.setContent("Content of " + id);
+        requirement.setClarityScore(clarityScore);
+        return requirement;
+    }
+
+    private static DeveloperProfile developer(String id) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setName("Developer " + id);
+        return developer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<JiraTicket> ticketsOf(JiraTicketRepository repository) {
+        ArgumentCaptor<List<JiraTicket>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).insert(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testCreateJiraTicketsLoadsEntitiesOnceAndInsertsInBulk() {
+        when(requirementService.calculateStoryPointsWithDeveloper(any(Requirement.class), any(DeveloperProfile.class), isNull()))
+                .thenReturn(Map.of("storyPoints", 8));
+
+        BulkTicketCreationReport report = jiraService.createJiraTickets(List.of(
+                new JiraTicketRequest("r1", "Story", "High", "d1"),
+                new JiraTicketRequest("r2", "Bug", "Low", null),
+                new JiraTicketRequest("r3", "Task", "Medium", "d2")));
+
+        assertEquals(3, report.getCreatedCount());
+        assertEquals(0, report.getFailedCount());
+        assertEquals(Integer.valueOf(8), report.getTickets().get(0).getEstimatedStoryPoints());
+        assertEquals(Integer.valueOf(8), report.getTickets().get(1).getEstimatedStoryPoints());
+        assertNull(report.getTickets().get(2).getEstimatedStoryPoints());
+        assertEquals("t0", report.getTickets().get(0).getTicketId());
+        assertEquals(StoryPointEstimator.SOURCE_LLM, ticketsOf(jiraTicketRepository).get(0).getEstimateSource());
+        assertEquals(StoryPointEstimator.SOURCE_HEURISTIC, ticketsOf(jiraTicketRepository).get(1).getEstimateSource());
+
+        verify(requirementRepository, times(1)).findAllById(anyIterable());
+        verify(developerProfileCache, times(1)).findAllById(anyIterable());
+        verify(requirementRepository, never()).findById(anyString());
+        verify(developerProfileCache, never()).findById(anyString());
+        verify(requirementService, never()).calculateStoryPointsWithDeveloper(anyString(), anyString(), any());
+        verify(jiraTicketRepository, times(1)).insert(anyList());
+        verify(jiraTicketRepository, never()).save(any(JiraTicket.class));
+        verify(requirementSummaryService).recordJiraTickets(anyList());
+        verify(developerWorkloadService).recordTickets(anyList());
+    }
+
+    @Test
+    void testConfidentModelEstimateSkipsTheLlm() {
+        // Story points that depend on clarity only, which the model learns exactly
+        for (int i = 0; i < 200; i++) {
+            double clarity = (i % 10) / 10.0;
+            Requirement requirement = requirement("h" + i, clarity);
+            storyPointEstimator.add(StoryPointEstimator.features(requirement, null, i % 2 == 0 ? developer("d1") : null),
+                    13 - 10 * clarity);
+        }
+        storyPointEstimator.refit();
+
+        BulkTicketCreationReport report = jiraService.createJiraTickets(List.of(
+                new JiraTicketRequest("r1", "Story", "High", "d1")));
+
+        assertEquals(Integer.valueOf(5), report.getTickets().get(0).getEstimatedStoryPoints());
+        assertEquals(StoryPointEstimator.SOURCE_MODEL, ticketsOf(jiraTicketRepository).get(0).getEstimateSource());
+        verify(requirementService, never()).calculateStoryPointsWithDeveloper(any(Requirement.class), any(), any());
+    }
+
+    @Test
+    void testCreateJiraTicketsEstimatesConcurrently() {
+        // Every estimate waits until all of them have started, which only succeeds if they run in parallel
+        CountDownLatch started = new CountDownLatch(3);
+        when(requirementService.calculateStoryPointsWithDeveloper(any(Requirement.class), any(DeveloperProfile.class), isNull()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    assertTrue(started.await(5, TimeUnit.SECONDS));
+                    return Map.of("storyPoints", 5);
+                });
+
+        BulkTicketCreationReport report = jiraService.createJiraTickets(List.of(
+                new JiraTicketRequest("r1", "Story", "High", "d1"),
+                new JiraTicketRequest("r2", "Story", "High", "d2"),
+                new JiraTicketRequest("r1", "Story", "High", "d2")));
+
+        assertEquals(3, report.getCreatedCount());
+    }
+
+    @Test
+    void testCreateJiraTicketsReportsInvalidRequestsWithoutFailingOthers() {
+        when(requirementService.calculateStoryPointsWithDeveloper(any(Requirement.class), any(DeveloperProfile.class), isNull()))
+                .thenThrow(new IllegalStateException("LLM unavailable"));
+
+        BulkTicketCreationReport report = jiraService.createJiraTickets(List.of(
+                new JiraTicketRequest("missing", "Story", "High", null),
+                new JiraTicketRequest("r2", "Story", "High", "unknown"),
+                new JiraTicketRequest("r1", " ", "High", null),
+                new JiraTicketRequest("r1", "Story", "High", "d1"),
+                new JiraTicketRequest("r2", "Story", "High", null)));
+
+        List<TicketOutcome> outcomes = report.getTickets();
+        assertEquals(1, report.getCreatedCount());
+        assertEquals(4, report.getFailedCount());
+        assertEquals("Requirement not found with ID: missing", outcomes.get(0).getMessage());
+        assertEquals("Developer not found with ID: unknown", outcomes.get(1).getMessage());
+        assertEquals("Ticket type cannot be null or empty", outcomes.get(2).getMessage());
+        assertTrue(outcomes.get(3).getMessage().contains("LLM unavailable"));
+        assertEquals(TicketOutcome.CREATED, outcomes.get(4).getStatus());
+        assertEquals(4, outcomes.get(4).getIndex());
+    }
+
+    @Test
+    void testCreateJiraTicketsRejectsEmptyAndOversizedRequests() {
+        List<JiraTicketRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(new JiraTicketRequest("r1", "Story", "High", null));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> jiraService.createJiraTickets(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> jiraService.createJiraTickets(tooMany));
+        verify(jiraTicketRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void testPatchJiraTicketIsOneVersionedUpdate() {
+        JiraTicket stored = new JiraTicket();
+        stored.setId("t1");
+        stored.setTitle("Old title");
+        stored.setPriority("High");
+        stored.setEstimatedStoryPoints(5);
+        stored.setAssignedDeveloper(developer("d1"));
+        stored.setVersion(3L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(JiraTicket.class))).thenReturn(stored);
+        JiraTicketPatch patch = new JiraTicketPatch();
+        patch.setVersion(3L);
+        patch.setPriority("Low");
+        patch.setEstimatedStoryPoints(2);
+
+        JiraTicket patched = jiraService.patchJiraTicket("t1", patch);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(JiraTicket.class));
+        assertEquals(3L, query.getValue().getQueryObject().get("version"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(Map.of("priority", "Low", "estimatedStoryPoints", 2), Map.copyOf(set));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+        assertEquals("Old title", patched.getTitle());
+        assertEquals("Low", patched.getPriority());
+        assertEquals(4L, patched.getVersion());
+        ArgumentCaptor<JiraTicket> before = ArgumentCaptor.forClass(JiraTicket.class);
+        verify(developerWorkloadService).recordTicketChange(before.capture(), eq(patched));
+        assertEquals("High", before.getValue().getPriority());
+        assertEquals(5, before.getValue().getEstimatedStoryPoints());
+        verify(jiraTicketRepository, never()).save(any(JiraTicket.class));
+    }
+
+    @Test
+    void testPatchJiraTicketReportsConflictAndMissingTicket() {
+        JiraTicketPatch patch = new JiraTicketPatch();
+        patch.setVersion(1L);
+        patch.setStatus("Done");
+        when(mongoTemplate.exists(any(Query.class), eq(JiraTicket.class))).thenReturn(true, false);
+
+        ServiceException conflict = assertThrows(ServiceException.class, () -> jiraService.patchJiraTicket("t1", patch));
+        assertEquals(409, conflict.getStatus().value());
+        assertThrows(ResourceNotFoundException.class, () -> jiraService.patchJiraTicket("t1", patch));
+        assertThrows(IllegalArgumentException.class, () -> jiraService.patchJiraTicket("t1", new JiraTicketPatch()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.contextcoach.service;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class MinCostAssignmentTest {
+
+    @Test
+    void testMatchesExhaustiveSearchOnSmallInstances() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int tickets = 1 + random.nextInt(7);
+            int developers = 1 + random.nextInt(3);
+            double[] cost = new double[tickets * developers];
+            for (int i = 0; i < cost.length; i++) {
+                cost[i] = random.nextInt(20);
+            }
+            double[] slots = new double[developers];
+            for (int d = 0; d < developers; d++) {
+                slots[d] = 0.5 + random.nextInt(4);
+            }
+            double balance = random.nextInt(10);
+            double overload = random.nextInt(10);
+
+            int[] assignment = MinCostAssignment.solve(cost, tickets, developers, slots, balance, overload);
+            double actual = MinCostAssignment.totalCost(cost, developers, slots, balance, overload, assignment);
+            double optimal = bruteForce(cost, tickets, developers, slots, balance, overload);
+
+            assertEquals(optimal, actual, 1e-6, "round " + round);
+        }
+    }
+
+    @Test
+    void testSpreadsTicketsByCapacity() {
+        // Four identical tickets, the first developer has three times the capacity
+        double[] cost = new double[8];
+        int[] assignment = MinCostAssignment.solve(cost, 4, 2, new double[] {3.0, 1.0}, 1.0, 5.0);
+
+        int first = 0;
+        for (int developer : assignment) {
+            first += developer == 0 ? 1 : 0;
+        }
+        assertEquals(3, first);
+    }
+
+    @Test
+    void testPrefersCheaperDeveloperWithinCapacity() {
+        double[] cost = {
+                1.0, 9.0,
+                9.0, 1.0,
+                1.0, 2.0};
+        int[] assignment = MinCostAssignment.solve(cost, 3, 2, new double[] {2.0, 2.0}, 0.0, 100.0);
+
+        assertArrayEquals(new int[] {0, 1, 0}, assignment);
+    }
+
+    @Test
+    void testThousandsOfTicketsOnlyRepriceTouchedDevelopers() {
+        int tickets = 5000;
+        int developers = 50;
+        Random random = new Random(42);
+        double[] cost = new double[tickets * developers];
+        for (int i = 0; i < cost.length; i++) {
+            cost[i] = 1.0 + random.nextDouble() * 20.0;
+        }
+        double[] slots = new double[developers];
+        for (int d = 0; d < developers; d++) {
+            slots[d] = 60.0 + random.nextInt(60);
+        }
+
+        MinCostAssignment solver = new MinCostAssignment(cost, tickets, developers, slots, 4.0, 20.0);
+        int[] assignment = solver.solve();
+
+        assertEquals(tickets, assignment.length);
+        // Repricing every developer after each ticket would examine tickets^2 * developers / 2 moves
+        long repriceAll = (long) tickets * tickets * developers / 2;
+        assertTrue(solver.examined() < repriceAll / 5, () -> "Examined " + solver.examined() + " of " + repriceAll);
+    }
+
+    private static double bruteForce(double[] cost, int tickets, int developers, double[] slots,
+            double balance, double overload) {
+        int[] assignment = new int[tickets];
+        double best = Double.POSITIVE_INFINITY;
+        int combinations = (int) Math.pow(developers, tickets);
+        for (int code = 0; code < combinations; code++) {
+            int rest = code;
+            for (int t = 0; t < tickets; t++) {
+                assignment[t] = rest % developers;
+                rest /= developers;
+            }
+            best = Math.min(best, MinCostAssignment.totalCost(cost, developers, slots, balance, overload, assignment));
+        }
+        return best;
+    }
+}
@@ -1,32 +1,69 @@
 package com.contextcoach.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.contextcoach.exception.PayloadTooLargeException;
+import com.contextcoach.exception.ServiceException;
+import com.contextcoach.exception.ServiceUnavailableException;
 import com.contextcoach.model.AmbiguityDetectionResult;
+import com.contextcoach.model.ExtractedDocument;
 import com.contextcoach.model.ImplementationPlan;
+import com.contextcoach.model.PreScreenResult;
 import com.contextcoach.model.Requirement;
+import com.contextcoach.model.RequirementPatch;
 import com.contextcoach.model.ScopeEstimationResult;
 import com.contextcoach.repository.AmbiguityDetectionResultRepository;
-import com.contextcoach.repository.DeveloperProfileRepository;
 import com.contextcoach.repository.ImplementationPlanRepository;
 import com.contextcoach.repository.RequirementRepository;
 import com.contextcoach.repository.ScopeEstimationResultRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 class RequirementServiceTest {
 
     @Mock
@@ -42,15 +79,35 @@ class RequirementServiceTest {
     private ImplementationPlanRepository implementationPlanRepository;
     
     @Mock
-    private DeveloperProfileRepository developerProfileRepository;
+    private DeveloperProfileCache developerProfileCache;
 
     @Mock
-    private FileService fileService;
+    private UploadExtractionService uploadExtractionService;
 
     @Mock
     private RabbitHoleService rabbitHoleService;
 
-    @InjectMocks
+    @Mock
+    private RequirementSummaryService requirementSummaryService;
+
+    @Mock
+    private ClarityScorer clarityScorer;
+
+    @Mock
+    private AmbiguityPreScreenService ambiguityPreScreenService;
+
+    @Mock
+    private StreamingUploadService streamingUploadService;
+
+    @Mock
+    private TextNormalizer textNormalizer;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private Executor llmCallbackExecutor;
+
     private RequirementService requirementService;
 
     private Requirement testRequirement;
@@ -58,6 +115,11 @@ class RequirementServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        requirementService = new RequirementService(requirementRepository, ambiguityResultRepository,
+                scopeResultRepository, implementationPlanRepository, developerProfileCache, uploadExtractionService,
+                rabbitHoleService, requirementSummaryService, clarityScorer, ambiguityPreScreenService,
+                streamingUploadService, textNormalizer, mongoTemplate, llmCallbackExecutor, Duration.ofSeconds(5),
+                DataSize.ofMegabytes(10));
         
         // Create a test requirement
         testRequirement = new Requirement();
@@ -114,6 +176,31 @@ class RequirementServiceTest {
         assertEquals("Test analysis", result.getAnalysis());
         assertEquals(0.85, result.getConfidenceScore());
         assertEquals("Test improvements", result.getSuggestedImprovements());
+        assertEquals(AmbiguityDetectionResult.SOURCE_LLM, result.getAnalysisSource());
+        verify(requirementSummaryService).recordAmbiguityResult(result);
+    }
+
+    @Test
+    void testAnalyzeRequirementSkipsLlmWhenPreScreenIsConclusive() {
+        PreScreenResult preScreen = new PreScreenResult();
+        preScreen.setVerdict(PreScreenResult.VAGUE);
+        preScreen.setWordCount(4);
+        preScreen.setMatchCount(1);
+        preScreen.setMatchesPer100Words(25.0);
+        preScreen.getCategoryCounts().put("Placeholders", 1);
+        preScreen.getMatches().add(new PreScreenResult.TermMatch("Placeholders", "TBD", 13, 16));
+        when(ambiguityPreScreenService.conclusiveResult(anyString())).thenReturn(Optional.of(preScreen));
+
+        AmbiguityDetectionResult result = requirementService.analyzeRequirement("1");
+
+        assertEquals(AmbiguityDetectionResult.SOURCE_PRESCREEN, result.getAnalysisSource());
+        assertEquals(List.of("Placeholders"), result.getAmbiguityCategories());
+        assertTrue(result.getAnalysis().contains("\"TBD\" (Placeholders) at 13-16"));
+        verify(rabbitHoleService, never()).detectAmbiguities(anyString());
+        verify(requirementSummaryService).recordAmbiguityResult(result);
+
+        requirementService.analyzeRequirement("1", true);
+        verify(rabbitHoleService).detectAmbiguities(anyString());
     }
 
     @Test
@@ -127,6 +214,7 @@ class RequirementServiceTest {
         assertEquals(0.75, result.getConfidenceLevel());
         assertEquals("Test justification", result.getJustification());
         assertEquals("Test risk factors", result.getRiskFactors());
+        verify(requirementSummaryService).recordScopeEstimation(result);
     }
 
     @Test
@@ -139,8 +227,62 @@ class RequirementServiceTest {
         assertEquals(2, result.getImplementationSteps().size());
         assertEquals("Test approach", result.getTechnicalApproach());
         assertEquals("Test dependencies", result.getDependencies());
+        verify(requirementSummaryService).recordImplementationPlan(result);
+    }
+
+    @Test
+    void testAnalyzeRequirementAsyncSavesOnCallbackExecutor() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(llmCallbackExecutor).execute(any(Runnable.class));
+        CompletableFuture<Map<String, Object>> llmAnswer = new CompletableFuture<>();
+        when(rabbitHoleService.detectAmbiguitiesAsync(anyString())).thenReturn(llmAnswer);
+
+        CompletableFuture<AmbiguityDetectionResult> future = requirementService.analyzeRequirementAsync("1", true);
+
+        assertFalse(future.isDone());
+        verify(ambiguityResultRepository, never()).save(any(AmbiguityDetectionResult.class));
+
+        llmAnswer.complete(rabbitHoleService.detectAmbiguities("content"));
+        AmbiguityDetectionResult result = future.get(1, TimeUnit.SECONDS);
+
+        assertEquals(testRequirement, result.getRequirement());
+        assertEquals("Test analysis", result.getAnalysis());
+        assertEquals(AmbiguityDetectionResult.SOURCE_LLM, result.getAnalysisSource());
+        verify(llmCallbackExecutor).execute(any(Runnable.class));
+        verify(requirementSummaryService).recordAmbiguityResult(result);
+    }
+
+    @Test
+    void testEstimateScopeAsyncPassesRejectionOn() {
+        when(rabbitHoleService.estimateScopeAsync(anyString())).thenReturn(CompletableFuture.failedFuture(
+                new ServiceUnavailableException("Too many LLM calls in progress", 5)));
+
+        CompletableFuture<ScopeEstimationResult> future = requirementService.estimateScopeAsync("1");
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceUnavailableException.class, failed.getCause());
+        verify(scopeResultRepository, never()).save(any(ScopeEstimationResult.class));
     }
     
+    @Test
+    void testFullResultQueueAnswers503() {
+        doAnswer(invocation -> {
+            throw new RejectedExecutionException("Queue full");
+        }).when(llmCallbackExecutor).execute(any(Runnable.class));
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("steps", List.of("Step 1"));
+        when(rabbitHoleService.generateImplementationPlanAsync(anyString())).thenReturn(CompletableFuture.completedFuture(plan));
+
+        CompletableFuture<ImplementationPlan> future = requirementService.generateImplementationPlanAsync("1");
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        ServiceUnavailableException cause = assertInstanceOf(ServiceUnavailableException.class, failed.getCause());
+        assertEquals(5, cause.getRetryAfterSeconds());
+        verify(implementationPlanRepository, never()).save(any(ImplementationPlan.class));
+    }
+
     @Test
     void testCalculateStoryPoints() {
         // Mock story points result
@@ -193,4 +335,104 @@ class RequirementServiceTest {
         // Test private method through public methods
         assertEquals("TEXT", testRequirement.getSourceType());
     }
+
+    @Test
+    void testOversizedUploadAnswers413() {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getOriginalFilename()).thenReturn("huge.pdf");
+        when(file.getSize()).thenReturn(DataSize.ofMegabytes(11).toBytes());
+
+        PayloadTooLargeException e = assertThrows(PayloadTooLargeException.class,
+                () -> requirementService.createRequirementFromFile(file, "Huge"));
+
+        assertEquals(413, e.getStatus().value());
+        verify(requirementRepository, never()).save(any(Requirement.class));
+    }
+
+    @Test
+    void testStreamingKnownContentAnswers409() throws IOException {
+        Path spooled = Files.createTempFile("requirement", ".txt");
+        SpooledMultipartFile file = new SpooledMultipartFile(spooled, "spec.txt", "text/plain", 4, "abc123");
+        when(streamingUploadService.spool(any(InputStream.class), eq("spec.txt"), eq("text/plain"))).thenReturn(file);
+        when(uploadExtractionService.extractDocument(file, "abc123")).thenReturn(new ExtractedDocument("TEXT", "Spec"));
+        when(textNormalizer.normalize("Spec")).thenReturn(
+                new TextNormalizer(new SimpleMeterRegistry(), true, 3, 0.5, 3, new String[0]).normalize("Spec"));
+        when(requirementRepository.save(any(Requirement.class))).thenThrow(new DuplicateKeyException("E11000"));
+        Requirement existing = new Requirement();
+        existing.setId("existing");
+        when(mongoTemplate.findOne(any(Query.class), eq(Requirement.class))).thenReturn(existing);
+
+        ServiceException e = assertThrows(ServiceException.class, () -> requirementService.createRequirementFromStream(
+                new ByteArrayInputStream(new byte[4]), "spec.txt", "text/plain", "Spec"));
+
+        assertEquals(409, e.getStatus().value());
+        assertTrue(e.getMessage().contains("existing"));
+        assertFalse(Files.exists(spooled));
+    }
+
+    @Test
+    void testUploadStoresTheHashItKeyedTheExtractionWith() throws IOException {
+        byte[] body = "Spec".getBytes(StandardCharsets.UTF_8);
+        String hash = FileService.computeContentHash(body);
+        MockMultipartFile file = new MockMultipartFile("file", "spec.txt", "text/plain", body);
+        when(uploadExtractionService.extractDocument(file, hash)).thenReturn(new ExtractedDocument("TEXT", "Spec"));
+        when(textNormalizer.normalize("Spec")).thenReturn(
+                new TextNormalizer(new SimpleMeterRegistry(), true, 3, 0.5, 3, new String[0]).normalize("Spec"));
+        when(requirementRepository.save(any(Requirement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Requirement result = requirementService.createRequirementFromFile(file, "Spec");
+
+        assertEquals(hash, result.getContentHash());
+        verify(uploadExtractionService).extractDocument(file, hash);
+    }
+
+    @Test
+    void testUploadingKnownContentAnswers409() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "spec.txt", "text/plain",
+                "Spec".getBytes(StandardCharsets.UTF_8));
+        when(uploadExtractionService.extractDocument(any(MultipartFile.class), anyString()))
+                .thenReturn(new ExtractedDocument("TEXT", "Spec"));
+        when(textNormalizer.normalize("Spec")).thenReturn(
+                new TextNormalizer(new SimpleMeterRegistry(), true, 3, 0.5, 3, new String[0]).normalize("Spec"));
+        when(requirementRepository.save(any(Requirement.class))).thenThrow(new DuplicateKeyException("E11000"));
+        Requirement existing = new Requirement();
+        existing.setId("existing");
+        when(mongoTemplate.findOne(any(Query.class), eq(Requirement.class))).thenReturn(existing);
+
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> requirementService.createRequirementFromFile(file, "Spec"));
+
+        assertEquals(409, e.getStatus().value());
+        assertTrue(e.getMessage().contains("existing"));
+        verify(requirementSummaryService, never()).recordRequirement(any(Requirement.class));
+    }
+
+    @Test
+    void testPatchRequirementRescoresContentInOneUpdate() {
+        TextNormalizer.Result normalized = new TextNormalizer(new SimpleMeterRegistry(), true, 3, 0.5, 3, new String[0])
+                .normalize("Sharper    content");
+        when(textNormalizer.normalize("Sharper    content")).thenReturn(normalized);
+        when(clarityScorer.score("Sharper content")).thenReturn(0.9);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(Requirement.class))).thenReturn(testRequirement);
+        RequirementPatch patch = new RequirementPatch();
+        patch.setContent("Sharper    content");
+
+        Requirement result = requirementService.patchRequirement("1", patch);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Requirement.class));
+        assertFalse(query.getValue().getQueryObject().containsKey("version"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("Sharper content", set.get("content"));
+        assertEquals("Sharper    content", set.get("rawContent"));
+        assertEquals(normalized.getStats(), set.get("normalizationStats"));
+        assertEquals(0.9, set.get("clarityScore"));
+        assertFalse(set.containsKey("title"));
+        assertEquals(testRequirement, result);
+        verify(requirementRepository, never()).save(any(Requirement.class));
+        // The summary only keeps the title
+        verify(requirementSummaryService, never()).recordRequirement(any(Requirement.class));
+    }
 }
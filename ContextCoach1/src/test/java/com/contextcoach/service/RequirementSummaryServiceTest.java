@@ -0,0 +1,166 @@
+package com.contextcoach.service;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.contextcoach.model.AmbiguityDetectionResult;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.model.RequirementSummary;
+import com.contextcoach.repository.RequirementSummaryRepository;
+import com.mongodb.DBRef;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+class RequirementSummaryServiceTest {
+
+    private static final ObjectId REQUIREMENT_ID = new ObjectId();
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOps;
+    private RequirementSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RequirementSummary.class)).thenReturn(bulkOps);
+        service = new RequirementSummaryService(mongoTemplate, mock(RequirementSummaryRepository.class));
+
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), anyString())).thenAnswer(invocation -> Stream.empty());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("requirements"))).thenAnswer(invocation ->
+                Stream.of(new Document("_id", REQUIREMENT_ID).append("title", "Login")));
+    }
+
+    private static RequirementSummary summaryAt(long revision) {
+        RequirementSummary summary = new RequirementSummary();
+        summary.setRequirementId(REQUIREMENT_ID.toHexString());
+        summary.setRevision(revision);
+        return summary;
+    }
+
+    private static Document ambiguityResult(String id) {
+        return new Document("_id", id)
+                .append("requirement", new DBRef("requirements", REQUIREMENT_ID))
+                .append("ambiguityCategories", List.of("Vague terms"))
+                .append("confidenceScore", 0.8)
+                .append("createdAt", new Date());
+    }
+
+    private static BulkOperationException duplicateKeyAt(int index) {
+        BulkWriteError error = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), index);
+        return new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+
+    @Test
+    void testRecordAmbiguityResultSetsLatestAndIncrementsCountAndRevision() {
+        Requirement requirement = new Requirement();
+        requirement.setId("r1");
+        requirement.setTitle("Login");
+        AmbiguityDetectionResult result = new AmbiguityDetectionResult();
+        result.setId("a1");
+        result.setRequirement(requirement);
+
+        service.recordAmbiguityResult(result);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(RequirementSummary.class));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("a1", set.get("latestAmbiguityResultId"));
+        assertEquals("Login", set.get("title"));
+        Document inc = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(1, inc.get("ambiguityResultCount"));
+        assertEquals(1, inc.get("revision"));
+    }
+
+    @Test
+    void testRebuildReplacesSummariesOnlyAtTheRevisionRead() {
+        when(mongoTemplate.find(any(Query.class), eq(RequirementSummary.class))).thenReturn(List.of(summaryAt(4)));
+
+        assertEquals(1, service.rebuildAllSummaries());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<RequirementSummary> replacement = ArgumentCaptor.forClass(RequirementSummary.class);
+        verify(bulkOps).replaceOne(query.capture(), replacement.capture(), any(FindAndReplaceOptions.class));
+        assertEquals(REQUIREMENT_ID.toHexString(), query.getValue().getQueryObject().get("_id"));
+        assertEquals(4L, query.getValue().getQueryObject().get("revision"));
+        assertEquals("Login", replacement.getValue().getTitle());
+        assertEquals(5, replacement.getValue().getRevision());
+    }
+
+    @Test
+    void testRebuildRetriesSummariesThatChangedMeanwhile() {
+        // A result is recorded after the revisions are read, so the first replace finds the summary at a newer revision
+        when(mongoTemplate.find(any(Query.class), eq(RequirementSummary.class)))
+                .thenReturn(List.of(summaryAt(4)))
+                .thenReturn(List.of(summaryAt(5)));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("ambiguity_detection_results")))
+                .thenAnswer(invocation -> Stream.empty())
+                .thenAnswer(invocation -> Stream.of(ambiguityResult("a1")));
+        when(bulkOps.execute())
+                .thenThrow(duplicateKeyAt(0))
+                .thenReturn(BulkWriteResult.unacknowledged());
+
+        assertEquals(1, service.rebuildAllSummaries());
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<RequirementSummary> replacements = ArgumentCaptor.forClass(RequirementSummary.class);
+        verify(bulkOps, times(2)).replaceOne(queries.capture(), replacements.capture(), any(FindAndReplaceOptions.class));
+        assertEquals(4L, queries.getAllValues().get(0).getQueryObject().get("revision"));
+        assertEquals(5L, queries.getAllValues().get(1).getQueryObject().get("revision"));
+        // The retry keeps the concurrently recorded result
+        RequirementSummary rebuilt = replacements.getAllValues().get(1);
+        assertEquals("a1", rebuilt.getLatestAmbiguityResultId());
+        assertEquals(1, rebuilt.getAmbiguityResultCount());
+        assertEquals(6, rebuilt.getRevision());
+    }
+
+    @Test
+    void testRebuildLeavesSummariesThatKeepChangingToTheNextRebuild() {
+        when(mongoTemplate.find(any(Query.class), eq(RequirementSummary.class))).thenReturn(List.of(summaryAt(4)));
+        when(bulkOps.execute()).thenThrow(duplicateKeyAt(0));
+
+        assertEquals(0, service.rebuildAllSummaries());
+
+        verify(bulkOps, times(3)).execute();
+    }
+
+    @Test
+    void testRebuildCreatesMissingSummariesOnlyIfNoneAppeared() {
+        when(mongoTemplate.find(any(Query.class), eq(RequirementSummary.class))).thenReturn(List.of());
+
+        assertEquals(1, service.rebuildAllSummaries());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOps).replaceOne(query.capture(), any(RequirementSummary.class), any(FindAndReplaceOptions.class));
+        // Summaries written before revisions were kept have none
+        Document revision = query.getValue().getQueryObject().get("revision", Document.class);
+        assertEquals(Arrays.asList(0L, null), revision.get("$in", List.class));
+    }
+}
@@ -0,0 +1,190 @@
+package com.contextcoach.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.Requirement;
+import com.contextcoach.model.RequirementSummary;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.contextcoach.repository.RequirementRepository;
+import com.contextcoach.repository.RequirementSummaryRepository;
+import com.mongodb.DBRef;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StoryPointEstimatorTest {
+
+    private MongoTemplate mongoTemplate;
+    private RequirementRepository requirementRepository;
+    private DeveloperProfileRepository developerProfileRepository;
+    private RequirementSummaryRepository requirementSummaryRepository;
+    private StoryPointEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        requirementRepository = mock(RequirementRepository.class);
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        requirementSummaryRepository = mock(RequirementSummaryRepository.class);
+        estimator = new StoryPointEstimator(mongoTemplate, requirementRepository, developerProfileRepository,
+                requirementSummaryRepository, new SimpleMeterRegistry(), 1.0, 50, 1.5);
+    }
+
+    private static Requirement requirement(String id, int words, double clarity) {
+        Requirement requirement = new Requirement();
+        requirement.setId(id);
+        requirement.setContent("word ".repeat(words) + "kafka");
+        requirement.setClarityScore(clarity);
+        return requirement;
+    }
+
+    private static DeveloperProfile developer(String id, String experienceLevel) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setExperienceLevel(experienceLevel);
+        developer.setProductivityFactor(1.0);
+        developer.setSkills(List.of("Kafka", "React"));
+        return developer;
+    }
+
+    /**
+     * Trains on story points that grow with length and complexity and shrink with clarity and
+     * experience, plus some noise
+     */
+    private void trainOnSyntheticHistory(int count) {
+        Random random = new Random(42);
+        String[] levels = {"Low", "Medium", "High"};
+        for (int i = 0; i < count; i++) {
+            int words = 20 + random.nextInt(400);
+            double clarity = random.nextDouble();
+            int complexity = random.nextInt(3);
+            boolean senior = random.nextBoolean();
+            double points = 1.5 * Math.log1p(words + 1) + 3 * complexity - 4 * clarity - (senior ? 1.5 : 0)
+                    + random.nextGaussian() * 0.5;
+            estimator.add(StoryPointEstimator.features(requirement("r" + i, words, clarity), levels[complexity],
+                    developer("d", senior ? "Senior" : "Junior")), points);
+        }
+        estimator.refit();
+    }
+
+    @Test
+    void testUntrainedModelIsNeverConfident() {
+        StoryPointEstimator.Estimate estimate = estimator.estimate(requirement("r", 100, 0.5), "Medium", null);
+
+        assertFalse(estimate.isConfident());
+    }
+
+    @Test
+    void testTrainedModelPredictsHistoricalRelationship() {
+        trainOnSyntheticHistory(2000);
+
+        Requirement requirement = requirement("new", 200, 0.2);
+        StoryPointEstimator.Estimate junior = estimator.estimate(requirement, "High", developer("d", "Junior"));
+        StoryPointEstimator.Estimate senior = estimator.estimate(requirement, "High", developer("d", "Senior"));
+        double expected = 1.5 * Math.log1p(201) + 6 - 0.8;
+
+        assertTrue(junior.isConfident());
+        assertEquals(expected, junior.getPrediction(), 0.5);
+        assertEquals(expected - 1.5, senior.getPrediction(), 0.5);
+        assertEquals(13, junior.getStoryPoints());
+        assertTrue(junior.getStandardError() < 1.0);
+    }
+
+    @Test
+    void testFewSamplesAreNotConfident() {
+        trainOnSyntheticHistory(20);
+
+        assertFalse(estimator.estimate(requirement("new", 200, 0.2), "High", developer("d", "Junior")).isConfident());
+    }
+
+    @Test
+    void testUnfamiliarInputHasLargerError() {
+        trainOnSyntheticHistory(2000);
+
+        StoryPointEstimator.Estimate familiar = estimator.estimate(requirement("a", 200, 0.5), "Medium", developer("d", "Senior"));
+        StoryPointEstimator.Estimate unfamiliar = estimator.estimate(requirement("b", 200, 0.5), "Medium", null);
+
+        assertTrue(unfamiliar.getStandardError() > familiar.getStandardError());
+    }
+
+    @Test
+    void testEstimatesTakeMicroseconds() {
+        trainOnSyntheticHistory(2000);
+        Requirement requirement = requirement("r", 300, 0.4);
+        DeveloperProfile developer = developer("d", "Senior");
+
+        int iterations = 100_000;
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += estimator.estimate(requirement, "Medium", developer).getStoryPoints();
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+
+        assertTrue(checksum > 0);
+        assertTrue(micros < 50, "Average estimate took " + micros + "us");
+    }
+
+    @Test
+    void testTrainReadsOnlyNewTicketsAndSkipsItsOwnEstimates() {
+        List<Document> tickets = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            tickets.add(ticket(i, 5, null, "LLM"));
+        }
+        tickets.add(ticket(60, 8, null, StoryPointEstimator.SOURCE_MODEL));
+        tickets.add(ticket(61, 8, 13, StoryPointEstimator.SOURCE_MODEL));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("jira_tickets")))
+                .thenReturn(tickets.stream())
+                .thenReturn(Stream.of(ticket(62, 3, null, "HEURISTIC")));
+        List<Requirement> requirements = new ArrayList<>();
+        for (int i = 0; i < 63; i++) {
+            requirements.add(requirement("r" + i, 100, 0.5));
+        }
+        when(requirementRepository.findAllById(anyIterable())).thenReturn(requirements);
+        RequirementSummary summary = new RequirementSummary();
+        summary.setRequirementId("r1");
+        summary.setComplexityLevel("High");
+        when(requirementSummaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary));
+
+        assertEquals(61, estimator.train());
+        assertEquals(1, estimator.train());
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).stream(queries.capture(), eq(Document.class), eq("jira_tickets"));
+        assertFalse(queries.getAllValues().get(0).getQueryObject().containsKey("createdAt"));
+        assertEquals(new Document("$gt", new Date(61_000L)), queries.getAllValues().get(1).getQueryObject().get("createdAt"));
+    }
+
+    private static Document ticket(int number, Integer estimated, Integer actual, String source) {
+        Document ticket = new Document("_id", "t" + number)
+                .append("createdAt", new Date(number * 1000L))
+                .append("requirement", new DBRef("requirements", "r" + number))
+                .append("estimatedStoryPoints", estimated)
+                .append("estimateSource", source);
+        if (actual != null) {
+            ticket.append("actualStoryPoints", actual);
+        }
+        return ticket;
+    }
+}
@@ -0,0 +1,54 @@
+package com.contextcoach.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.contextcoach.exception.PayloadTooLargeException;
+
+class StreamingUploadServiceTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    void testSpoolWritesContentAndHash() throws IOException {
+        StreamingUploadService service = new StreamingUploadService(spoolDirectory.toString(), DataSize.ofMegabytes(10));
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(7).nextBytes(content);
+
+        Path spooledPath;
+        try (SpooledMultipartFile file = service.spool(new ByteArrayInputStream(content), "spec.pdf", "application/pdf")) {
+            spooledPath = file.getPath();
+            assertEquals(spoolDirectory, spooledPath.getParent());
+            assertTrue(spooledPath.toString().endsWith(".pdf"));
+            assertEquals(content.length, file.getSize());
+            assertEquals(FileService.computeContentHash(content), file.getContentHash());
+            assertArrayEquals(content, Files.readAllBytes(spooledPath));
+        }
+        assertFalse(Files.exists(spooledPath));
+    }
+
+    @Test
+    void testSpoolRejectsOversizedUploadAndCleansUp() throws IOException {
+        StreamingUploadService service = new StreamingUploadService(spoolDirectory.toString(), DataSize.ofKilobytes(1));
+        InputStream body = new ByteArrayInputStream(new byte[4096]);
+
+        assertThrows(PayloadTooLargeException.class, () -> service.spool(body, "spec.txt", "text/plain"));
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.contextcoach.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.contextcoach.model.NormalizationStats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TextNormalizerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private TextNormalizer newNormalizer(boolean enabled) {
+        return new TextNormalizer(meterRegistry, enabled, 3, 0.5, 3, new String[] {"Printed on .*"});
+    }
+
+    private static String page(int number, String body) {
+        return "ACME Corp  -  Login Requirements v2\n" + body + "\nPage " + number + " of 4\n\f";
+    }
+
+    @Test
+    void testRunningHeadersFootersAndPageNumbersAreRemoved() {
+        String raw = page(1, "Users must sign in with SSO.")
+                + page(2, "Intro one.\nIntro two.\nACME Corp - Login Requirements v2\nis the document title, quoted here.\n"
+                        + "More body text.\nEven more text.")
+                + page(3, "Sessions expire after 30 minutes.")
+                + page(4, "Printed on 2024-01-05\nLockout after 5 attempts.");
+
+        TextNormalizer.Result result = newNormalizer(true).normalize(raw);
+
+        // The quoted title in the middle of page 2 is body text and stays
+        assertEquals("Users must sign in with SSO.\nIntro one.\nIntro two.\nACME Corp - Login Requirements v2\n"
+                + "is the document title, quoted here.\nMore body text.\nEven more text.\nSessions expire after 30 minutes.\nLockout after 5 attempts.", result.getText());
+        assertEquals(9, result.getStats().getRemovedLines());
+    }
+
+    @Test
+    void testWhitespaceAndBoilerplateWithoutPages() {
+        String raw = "Sheet: Stories\n  ID \t\t Title  \n1.0\tLogin\t true\n\n\n\n1.0\tLogout\ttrue\n"
+                + "CONFIDENTIAL - Internal use only\n\u00a9 2024 ACME Corp. All rights reserved.\n";
+
+        TextNormalizer.Result result = newNormalizer(true).normalize(raw);
+
+        // Rows that repeat in a document without pages are not treated as headers
+        assertEquals("Sheet: Stories\nID\tTitle\n1.0\tLogin\ttrue\n\n1.0\tLogout\ttrue", result.getText());
+        assertEquals(2, result.getStats().getRemovedLines());
+    }
+
+    @Test
+    void testTokenReductionIsReported() {
+        String raw = (page(1, "The   service    must respond within 200 ms.\t\t\t")
+                + page(2, "It must handle 5000 requests per second.")
+                + page(3, "Errors are logged.")
+                + page(4, "Retries use exponential backoff.")).repeat(10);
+
+        NormalizationStats stats = newNormalizer(true).normalize(raw).getStats();
+
+        assertEquals(raw.length(), stats.getRawCharacters());
+        assertTrue(stats.getNormalizedTokens() < stats.getRawTokens());
+        assertTrue(stats.getTokenReduction() > 0.4, "reduction was " + stats.getTokenReduction());
+        assertEquals(1, meterRegistry.get("contextcoach.normalization.token.reduction").summary().count());
+        assertEquals(stats.getRawTokens() - stats.getNormalizedTokens(),
+                meterRegistry.get("contextcoach.normalization.tokens.saved").counter().count());
+    }
+
+    @Test
+    void testDisabledNormalizerKeepsRawText() {
+        String raw = page(1, "a") + page(2, "b") + page(3, "c");
+
+        TextNormalizer.Result result = newNormalizer(false).normalize(raw);
+
+        assertEquals(raw, result.getText());
+        assertEquals(0.0, result.getStats().getTokenReduction());
+    }
+
+    @Test
+    void testEstimateTokens() {
+        assertEquals(0, TextNormalizer.estimateTokens(""));
+        // Single spaces join the next word; the period and the line break are tokens of their own
+        assertEquals(6, TextNormalizer.estimateTokens("Users must sign in.\n"));
+        // Whitespace runs count once each
+        assertEquals(7, TextNormalizer.estimateTokens("Users    must\t\tsign in."));
+        // Long words count one token per six characters
+        assertEquals(4, TextNormalizer.estimateTokens("internationalization"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.contextcoach.service;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Measures the throughput of scoring, pre-screening and extraction. Wall-clock limits
+ * fail at random on shared build machines, so nothing here asserts on time: the
+ * timings are printed for comparison between runs. Excluded from the default build,
+ * run it with {@code mvn test -Dmaven.test.skip=false -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ThroughputBenchmarkTest {
+
+    private static final String CLEAR_REQUIREMENT =
+            "The login endpoint must respond within 200 ms for 95% of requests. " +
+            "Users must be locked out after 5 failed attempts within 10 minutes. " +
+            "Passwords must contain at least 12 characters.";
+
+    private static final String VAGUE_REQUIREMENT =
+            "The system should be fast and user-friendly and should be optimized appropriately " +
+            "for various users, handling many requests efficiently, with reports being generated " +
+            "as needed and some data being exported in several formats etc.";
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    @Test
+    void benchmarkClarityScoring() throws Exception {
+        HeuristicClarityScorer scorer = new HeuristicClarityScorer();
+        String document = (CLEAR_REQUIREMENT + "\n" + VAGUE_REQUIREMENT + "\n").repeat(10);
+
+        double millis = measure(() -> {
+            // A thousand documents per run, so the mean milliseconds are microseconds per document
+            double checksum = 0;
+            for (int i = 0; i < 1_000; i++) {
+                checksum += scorer.score(document);
+            }
+            return checksum;
+        });
+
+        System.out.printf("HeuristicClarityScorer: %.2f us per %d-char document%n", millis, document.length());
+    }
+
+    @Test
+    void benchmarkPreScreen() throws Exception {
+        AmbiguityPreScreenService service = new AmbiguityPreScreenService(new AmbiguityLexicon(), true, 20, 8.0, 500);
+        String document = (CLEAR_REQUIREMENT + "\nThe UI should be fast and simple, with reports as needed etc.\n")
+                .repeat(5_000);
+
+        double millis = measure(() -> service.screen(document));
+
+        double megabytesPerSecond = document.length() / (1024.0 * 1024.0) / (millis / 1000.0);
+        System.out.printf("AmbiguityPreScreenService: %.1f MB/s over a %d-char document%n", megabytesPerSecond, document.length());
+    }
+
+    @Test
+    void benchmarkXlsxExtraction() throws Exception {
+        int sheets = 4;
+        int rowsPerSheet = 25_000;
+        byte[] content = FileServiceTest.writeLargeXlsx(sheets, rowsPerSheet);
+        MockMultipartFile file = new MockMultipartFile("file", "large.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", content);
+        FileService fileService = newFileService(ForkJoinPool.commonPool(), 16);
+
+        double streamingMillis = measure(() -> fileService.extractTextFromFile(file));
+        double userModelMillis = measure(() -> {
+            try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(content))) {
+                return workbook.getNumberOfSheets();
+            }
+        });
+
+        System.out.printf("XLSX extraction of %d rows (%d KB): streaming %.0f ms, user model load alone %.0f ms%n",
+                sheets * rowsPerSheet, content.length / 1024, streamingMillis, userModelMillis);
+    }
+
+    @Test
+    void benchmarkPdfExtraction() throws Exception {
+        int pages = 300;
+        MockMultipartFile file = new MockMultipartFile("file", "large.pdf", "application/pdf", FileServiceTest.writePdf(pages));
+        FileService sequential = newFileService(Runnable::run, pages);
+        FileService parallel = newFileService(ForkJoinPool.commonPool(), 16);
+
+        double sequentialMillis = measure(() -> sequential.extractTextFromFile(file));
+        double parallelMillis = measure(() -> parallel.extractTextFromFile(file));
+
+        System.out.printf("PDF extraction of %d pages: single range %.0f ms, parallel ranges %.0f ms%n",
+                pages, sequentialMillis, parallelMillis);
+    }
+
+    @Test
+    void benchmarkDocxExtraction() throws Exception {
+        int sections = 2_000;
+        byte[] content = FileServiceTest.writeLargeDocx(sections);
+        MockMultipartFile file = new MockMultipartFile("file", "large.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document", content);
+        FileService fileService = newFileService(Runnable::run, 16);
+
+        double streamingMillis = measure(() -> fileService.extractTextFromFile(file));
+        double userModelMillis = measure(() -> {
+            try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(content));
+                 XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
+                return extractor.getText();
+            }
+        });
+
+        System.out.printf("DOCX extraction of %d paragraphs (%d KB): streaming %.0f ms, XWPF user model %.0f ms%n",
+                sections * 6, content.length / 1024, streamingMillis, userModelMillis);
+    }
+
+    private static FileService newFileService(Executor executor, int pdfPagesPerTask) {
+        ExtractorRegistry registry = new ExtractorRegistry(List.of(
+                new PlainTextExtractor(),
+                new PdfExtractor(executor, 2000, pdfPagesPerTask, Duration.ofSeconds(60)),
+                new ExcelExtractor(executor),
+                new WordDocumentExtractor(),
+                new JsonExtractor(new ObjectMapper(), new String[] {"text"})));
+        // The cache always misses, so every run parses the document
+        return new FileService(registry, mock(ExtractionCacheService.class), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs the task a few times to warm up, then returns the mean time of the measured runs
+     *
+     * @return The mean milliseconds per run
+     */
+    private static double measure(Callable<?> task) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            task.call();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            task.call();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_RUNS;
+    }
+}
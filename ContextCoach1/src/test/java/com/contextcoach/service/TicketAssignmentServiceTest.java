@@ -0,0 +1,196 @@
+package com.contextcoach.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.contextcoach.model.DeveloperProfile;
+import com.contextcoach.model.DeveloperWorkload;
+import com.contextcoach.model.JiraTicket;
+import com.contextcoach.model.TicketAssignmentPlan;
+import com.contextcoach.model.TicketAssignmentRequest;
+import com.contextcoach.repository.DeveloperProfileRepository;
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteResult;
+
+class TicketAssignmentServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOps;
+    private DeveloperProfileRepository developerProfileRepository;
+    private DeveloperWorkloadService developerWorkloadService;
+    private TicketAssignmentService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOps = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JiraTicket.class)).thenReturn(bulkOps);
+        developerProfileRepository = mock(DeveloperProfileRepository.class);
+        developerWorkloadService = mock(DeveloperWorkloadService.class);
+        when(developerWorkloadService.openStatusCriteria()).thenReturn(Criteria.where("status").nin("Done"));
+        service = new TicketAssignmentService(mongoTemplate, developerProfileRepository, developerWorkloadService,
+                10, 4.0, 1.0, 2.0, 10.0, 100);
+    }
+
+    private static DeveloperProfile developer(String id, double productivity, double hoursPerDay, String... skills) {
+        DeveloperProfile developer = new DeveloperProfile();
+        developer.setId(id);
+        developer.setName("Developer " + id);
+        developer.setProductivityFactor(productivity);
+        developer.setPreferredWorkHoursPerDay(hoursPerDay);
+        developer.setSkills(List.of(skills));
+        return developer;
+    }
+
+    private static JiraTicket ticket(String id, String title, int storyPoints) {
+        JiraTicket ticket = new JiraTicket();
+        ticket.setId(id);
+        ticket.setTitle(title);
+        ticket.setPriority("Medium");
+        ticket.setEstimatedStoryPoints(storyPoints);
+        return ticket;
+    }
+
+    @Test
+    void testAssignsTicketsBySkill() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of(
+                developer("backend", 1.0, 8.0, "Java", "MongoDB"),
+                developer("frontend", 1.0, 8.0, "React", "CSS")));
+        when(mongoTemplate.find(any(Query.class), eq(JiraTicket.class))).thenReturn(List.of(
+                ticket("t1", "Index the MongoDB collection from Java", 3),
+                ticket("t2", "Restyle the React settings page with CSS", 3)));
+
+        TicketAssignmentPlan plan = service.assignTickets(new TicketAssignmentRequest());
+
+        assertEquals("backend", plan.getAssignments().get(0).getDeveloperId());
+        assertEquals("frontend", plan.getAssignments().get(1).getDeveloperId());
+        assertEquals(1.0, plan.getAssignments().get(0).getSkillMatch(), 1e-9);
+        assertFalse(plan.isApplied());
+        verify(bulkOps, never()).execute();
+    }
+
+    @Test
+    void testBalancesLoadByCapacity() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of(
+                developer("full-time", 1.0, 8.0),
+                developer("part-time", 1.0, 2.0)));
+        JiraTicket[] tickets = new JiraTicket[40];
+        for (int i = 0; i < tickets.length; i++) {
+            tickets[i] = ticket("t" + i, "Ticket " + i, 2);
+        }
+        when(mongoTemplate.find(any(Query.class), eq(JiraTicket.class))).thenReturn(List.of(tickets));
+
+        TicketAssignmentPlan plan = service.assignTickets(new TicketAssignmentRequest());
+
+        TicketAssignmentPlan.DeveloperLoad fullTime = plan.getDevelopers().get(0);
+        TicketAssignmentPlan.DeveloperLoad partTime = plan.getDevelopers().get(1);
+        assertEquals(40, fullTime.getTicketCount() + partTime.getTicketCount());
+        assertEquals(32, fullTime.getTicketCount());
+        assertEquals(80.0, fullTime.getCapacityHours(), 1e-9);
+        assertEquals(fullTime.getUtilization(), partTime.getUtilization(), 1e-9);
+    }
+
+    @Test
+    void testExistingWorkloadTakesCapacity() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of(
+                developer("busy", 1.0, 8.0),
+                developer("free", 1.0, 8.0)));
+        DeveloperWorkload busy = new DeveloperWorkload();
+        busy.setDeveloperId("busy");
+        busy.setTotalStoryPoints(15);
+        when(developerWorkloadService.getWorkloads(List.of("busy", "free"))).thenReturn(List.of(busy));
+        JiraTicket[] tickets = new JiraTicket[20];
+        for (int i = 0; i < tickets.length; i++) {
+            tickets[i] = ticket("t" + i, "Ticket " + i, 2);
+        }
+        when(mongoTemplate.find(any(Query.class), eq(JiraTicket.class))).thenReturn(List.of(tickets));
+
+        TicketAssignmentPlan plan = service.assignTickets(new TicketAssignmentRequest());
+
+        TicketAssignmentPlan.DeveloperLoad busyLoad = plan.getDevelopers().get(0);
+        TicketAssignmentPlan.DeveloperLoad freeLoad = plan.getDevelopers().get(1);
+        // 60 of the busy developer's 80 hours are taken, so they get a quarter of the new work
+        assertEquals(60.0, busyLoad.getExistingHours(), 1e-9);
+        assertEquals(4, busyLoad.getTicketCount());
+        assertEquals(16, freeLoad.getTicketCount());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(JiraTicket.class));
+        assertTrue(query.getValue().getQueryObject().toJson().contains("\"status\""));
+    }
+
+    @Test
+    void testApplyRecordsOnlyTicketsItSaved() {
+        when(developerProfileRepository.findAllById(List.of("d1"))).thenReturn(List.of(developer("d1", 1.0, 8.0)));
+        JiraTicket first = ticket("t1", "First", 2);
+        first.setVersion(3L);
+        JiraTicket second = ticket("t2", "Second", 2);
+        second.setVersion(5L);
+        when(mongoTemplate.find(any(Query.class), eq(JiraTicket.class))).thenReturn(List.of(first, second));
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getModifiedCount()).thenReturn(1);
+        when(bulkOps.execute()).thenReturn(result);
+        // t1 was saved by this assignment, t2 was patched by someone else meanwhile
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("jira_tickets"))).thenReturn(List.of(
+                new Document("_id", "t1").append("assignedDeveloper", new DBRef("developer_profiles", "d1")).append("version", 4L),
+                new Document("_id", "t2").append("version", 6L)));
+
+        service.assignTickets(new TicketAssignmentRequest(List.of("t1", "t2"), List.of("d1"), true));
+
+        ArgumentCaptor<Query> updates = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOps, times(2)).updateOne(updates.capture(), any(Update.class));
+        assertEquals(3L, updates.getAllValues().get(0).getQueryObject().get("version"));
+        verify(developerWorkloadService).recordTickets(List.of(first));
+    }
+
+    @Test
+    void testApplySavesAssignmentsAndWorkloads() {
+        when(developerProfileRepository.findAllById(List.of("d1"))).thenReturn(List.of(developer("d1", 1.2, 6.0, "Java")));
+        List<JiraTicket> tickets = List.of(ticket("t1", "Java service", 5), ticket("t2", "Docs", 1));
+        when(mongoTemplate.find(any(Query.class), eq(JiraTicket.class))).thenReturn(tickets);
+
+        TicketAssignmentPlan plan = service.assignTickets(
+                new TicketAssignmentRequest(List.of("t1", "t2"), List.of("d1"), true));
+
+        assertTrue(plan.isApplied());
+        verify(bulkOps, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOps).execute();
+        verify(developerWorkloadService).recordTickets(tickets);
+        assertEquals("d1", tickets.get(0).getAssignedDeveloper().getId());
+        assertEquals(5 * 4.0 / 1.2, plan.getAssignments().get(0).getEstimatedHours(), 1e-9);
+    }
+
+    @Test
+    void testRejectsMissingDevelopersAndTooManyTickets() {
+        when(developerProfileRepository.findAll()).thenReturn(List.of());
+        assertThrows(IllegalArgumentException.class, () -> service.assignTickets(new TicketAssignmentRequest()));
+
+        when(developerProfileRepository.findAll()).thenReturn(List.of(developer("d1", 1.0, 8.0)));
+        JiraTicket[] tickets = new JiraTicket[101];
+        for (int i = 0; i < tickets.length; i++) {
+            tickets[i] = ticket("t" + i, "Ticket " + i, 1);
+        }
+        when(mongoTemplate.find(any(Query.class), eq(JiraTicket.class))).thenReturn(List.of(tickets));
+        assertThrows(IllegalArgumentException.class, () -> service.assignTickets(new TicketAssignmentRequest()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.contextcoach.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.contextcoach.exception.ServiceUnavailableException;
+import com.contextcoach.model.ExtractedDocument;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UploadExtractionServiceTest {
+
+    private FileService fileService;
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private UploadExtractionService service;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        fileService = mock(FileService.class);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UploadExtractionService(fileService, executor, meterRegistry,
+                Duration.ofSeconds(5), new String[] {"PDF=200ms"}, Duration.ofSeconds(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static MockMultipartFile file(String name, String contentType) {
+        return new MockMultipartFile("file", name, contentType, "content".getBytes());
+    }
+
+    private static Optional<Extractor> extractor(String format, Extractor.CostClass costClass) {
+        Extractor extractor = mock(Extractor.class);
+        when(extractor.getFormat()).thenReturn(format);
+        when(extractor.getCostClass()).thenReturn(costClass);
+        return Optional.of(extractor);
+    }
+
+    @Test
+    void testHeavyFormatsRunOnTheExtractionExecutor() throws IOException {
+        MockMultipartFile file = file("spec.pdf", "application/pdf");
+        Optional<Extractor> extractor = extractor("PDF", Extractor.CostClass.HEAVY);
+        when(fileService.detectExtractor(file)).thenReturn(extractor);
+        when(fileService.extractDocument(file, null)).thenAnswer(invocation ->
+                new ExtractedDocument("PDF", Thread.currentThread().getName()));
+
+        ExtractedDocument document = service.extractDocument(file, null);
+
+        assertEquals("PDF", document.getFormat());
+        assertEquals(executor.getThreadNamePrefix() + "1", document.getText());
+    }
+
+    @Test
+    void testCheapFormatsRunOnTheCallingThread() throws IOException {
+        MockMultipartFile file = file("notes.txt", "text/plain");
+        Optional<Extractor> extractor = extractor("TEXT", Extractor.CostClass.CHEAP);
+        when(fileService.detectExtractor(file)).thenReturn(extractor);
+        when(fileService.extractDocument(file, null)).thenAnswer(invocation ->
+                new ExtractedDocument("TEXT", Thread.currentThread().getName()));
+
+        ExtractedDocument document = service.extractDocument(file, null);
+
+        assertEquals(Thread.currentThread().getName(), document.getText());
+        assertEquals(0, executor.getThreadPoolExecutor().getTaskCount());
+    }
+
+    @Test
+    void testFullQueueIsRejectedWithRetryAfter() throws Exception {
+        MockMultipartFile file = file("book.xlsx", "application/vnd.ms-excel");
+        CountDownLatch started = new CountDownLatch(1);
+        Optional<Extractor> extractor = extractor("EXCEL", Extractor.CostClass.HEAVY);
+        when(fileService.detectExtractor(file)).thenReturn(extractor);
+        // One task occupies the only worker and another the only queue slot
+        executor.submit(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        started.await(10, TimeUnit.SECONDS);
+        executor.submit(() -> release.await(10, TimeUnit.SECONDS));
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> service.extractDocument(file, null));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(7, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("contextcoach.extraction.upload.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("contextcoach.extraction.active").gauge().value());
+    }
+
+    @Test
+    void testTimedOutExtractionIsInterrupted() throws Exception {
+        MockMultipartFile file = file("spec.pdf", "application/pdf");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Optional<Extractor> extractor = extractor("PDF", Extractor.CostClass.HEAVY);
+        when(fileService.detectExtractor(file)).thenReturn(extractor);
+        when(fileService.extractDocument(file, null)).thenAnswer(invocation -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new InterruptedIOException("Extraction was interrupted");
+            }
+            return new ExtractedDocument("PDF", "text");
+        });
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> service.extractDocument(file, null));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(7, e.getRetryAfterSeconds());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "The extraction worker was not interrupted");
+        assertEquals(1.0, meterRegistry.get("contextcoach.extraction.upload.timeouts").tag("format", "PDF").counter().count());
+        assertEquals(Duration.ofMillis(200), service.getTimeout("PDF"));
+        assertEquals(Duration.ofSeconds(5), service.getTimeout("TEXT"));
+    }
+
+    @Test
+    void testExtractionErrorsArePropagated() throws IOException {
+        MockMultipartFile file = file("spec.docx", "application/msword");
+        Optional<Extractor> extractor = extractor("WORD", Extractor.CostClass.HEAVY);
+        when(fileService.detectExtractor(file)).thenReturn(extractor);
+        IOException failure = new IOException("Invalid Word document: spec.docx");
+        when(fileService.extractDocument(file, null)).thenThrow(failure);
+
+        IOException e = assertThrows(IOException.class, () -> service.extractDocument(file, null));
+
+        assertSame(failure, e);
+    }
+
+    @Test
+    void testUnsupportedFileIsReportedWithoutAWorker() throws IOException {
+        MockMultipartFile file = file("image.png", "image/png");
+        when(fileService.detectExtractor(file)).thenReturn(Optional.empty());
+        when(fileService.extractDocument(file, null)).thenThrow(new IOException("Unsupported file type: image/png"));
+
+        assertThrows(IOException.class, () -> service.extractDocument(file, null));
+
+        assertEquals(0, executor.getThreadPoolExecutor().getTaskCount());
+    }
+}